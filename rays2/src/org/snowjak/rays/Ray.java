@@ -5,6 +5,19 @@ import org.apache.commons.math3.util.FastMath;
 
 /**
  * Represents a "ray" -- a vector + an origin point, or position + direction.
+ * <p>
+ * A Ray may also carry a <em>footprint</em>: the width (in world units) of
+ * the cone of space it stands in for -- e.g., one pixel's worth of the
+ * camera's view -- as a width at its origin, plus a spread-angle by which that
+ * width grows with distance. Surfaces and environment-maps use the footprint
+ * to filter their colors over the area a Ray covers, rather than
+ * point-sampling them. A Ray with no footprint (the default) is a
+ * point-sample.
+ * </p>
+ * <p>
+ * The footprint is always expressed in world units: Transformers carry it
+ * along unchanged.
+ * </p>
  * 
  * @author snowjak88
  *
@@ -15,6 +28,8 @@ public class Ray {
 
 	private int recursiveLevel;
 
+	private double footprintWidth, footprintSpread;
+
 	/**
 	 * Create a new Ray with the given position and direction.
 	 * 
@@ -33,9 +48,28 @@ public class Ray {
 	 * @param recursiveLevel
 	 */
 	public Ray(Vector3D origin, Vector3D vector, int recursiveLevel) {
+		this(origin, vector, recursiveLevel, 0d, 0d);
+	}
+
+	/**
+	 * Create a new Ray with the given position, direction, and footprint.
+	 * 
+	 * @param origin
+	 * @param vector
+	 * @param recursiveLevel
+	 * @param footprintWidth
+	 *            the width of this Ray's footprint at its origin
+	 * @param footprintSpread
+	 *            the angle (in radians) by which this Ray's footprint spreads
+	 *            with distance
+	 */
+	public Ray(Vector3D origin, Vector3D vector, int recursiveLevel, double footprintWidth,
+			double footprintSpread) {
 		this.point = origin;
 		this.vector = vector;
 		this.recursiveLevel = recursiveLevel;
+		this.footprintWidth = footprintWidth;
+		this.footprintSpread = footprintSpread;
 		
 		if (this.vector.getNorm() != 0d)
 			this.vector = this.vector.normalize();
@@ -65,6 +99,42 @@ public class Ray {
 		return recursiveLevel;
 	}
 
+	/**
+	 * @return the width of this Ray's footprint at its origin
+	 */
+	public double getFootprintWidth() {
+
+		return footprintWidth;
+	}
+
+	/**
+	 * @return the angle (in radians) by which this Ray's footprint spreads
+	 *         with distance
+	 */
+	public double getFootprintSpread() {
+
+		return footprintSpread;
+	}
+
+	/**
+	 * @param distance
+	 * @return the width of this Ray's footprint at the given distance from its
+	 *         origin
+	 */
+	public double getFootprintWidth(double distance) {
+
+		return FastMath.abs(footprintWidth + distance * footprintSpread);
+	}
+
+	/**
+	 * @return <code>true</code> if this Ray carries a footprint, or
+	 *         <code>false</code> if it is a point-sample
+	 */
+	public boolean hasFootprint() {
+
+		return footprintWidth != 0d || footprintSpread != 0d;
+	}
+
 	@Override
 	public String toString() {
 
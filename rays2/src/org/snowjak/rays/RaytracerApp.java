@@ -8,13 +8,20 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -22,6 +29,9 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.snowjak.rays.animation.Animation;
+import org.snowjak.rays.animation.FrameSequenceRenderer;
+import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.light.indirect.PhotonMap;
 import org.snowjak.rays.light.model.AdditiveCompositingLightingModel;
 import org.snowjak.rays.light.model.AmbientLightingModel;
@@ -33,16 +43,32 @@ import org.snowjak.rays.light.model.FresnelLightingModel;
 import org.snowjak.rays.light.model.LambertianDiffuseLightingModel;
 import org.snowjak.rays.light.model.PhongSpecularLightingModel;
 import org.snowjak.rays.light.model.SphericalEnvironmentMap;
+import org.snowjak.rays.service.PhotonMapCache;
+import org.snowjak.rays.service.RenderCoordinator;
+import org.snowjak.rays.service.RenderHttpServer;
+import org.snowjak.rays.service.RenderService;
+import org.snowjak.rays.service.RenderWorker;
+import org.snowjak.rays.ui.AntialiasingScreenDecorator;
+import org.snowjak.rays.ui.HasScreenDimensions;
+import org.snowjak.rays.ui.MultithreadedScreenDecorator;
+import org.snowjak.rays.ui.PreviewRenderer;
+import org.snowjak.rays.ui.RenderCheckpoint;
+import org.snowjak.rays.ui.ScreenDrawer;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
 import org.snowjak.rays.ui.impl.JavaFxPixelDrawer;
+import org.snowjak.rays.transform.Rotation;
+import org.snowjak.rays.transform.Transformer;
+import org.snowjak.rays.transform.Translation;
 import org.snowjak.rays.util.ExecutionTimeTracker;
 import org.snowjak.rays.world.World;
+import org.snowjak.rays.world.compiled.CompiledScene;
 import org.snowjak.rays.world.importfile.BuilderInvoker;
-import org.snowjak.rays.world.importfile.WorldFileObjectDefinition;
-import org.snowjak.rays.world.importfile.WorldFileScanner;
+import org.snowjak.rays.world.importfile.WorldFileParser;
 
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 
 @SuppressWarnings("javadoc")
@@ -52,6 +78,28 @@ public class RaytracerApp extends Application {
 
 	private static World world;
 
+	private static String worldText;
+
+	private static Integer servePort = null;
+
+	private static Integer coordinatorPort = null;
+
+	private static String workerAddress = null;
+
+	private static File outputFile = null;
+
+	private static File checkpointFile = null;
+
+	private static boolean resume = false;
+
+	private static boolean preview = false;
+
+	private static Integer turntableFrames = null;
+
+	private static File compileFile = null;
+
+	private static final double PREVIEW_ROTATION_STEP = 5d;
+
 	public static void main(String[] args) {
 
 		try {
@@ -60,11 +108,6 @@ public class RaytracerApp extends Application {
 					.getResource("resources/defaults/default-settings.properties")
 					.openStream());
 
-			world = loadWorldFromFile(Thread.currentThread()
-					.getContextClassLoader()
-					.getResource("resources/defaults/sample.world")
-					.openStream());
-
 		} catch (IOException e) {
 			System.err.println("Could not load application defaults -- unexpected exception!");
 			System.err.println("Exception message: " + e.getMessage());
@@ -74,16 +117,70 @@ public class RaytracerApp extends Application {
 
 		processCommandLineOptions(args);
 
+		//
+		// Only fall back to the sample world if no other was given -- there's
+		// no sense in parsing it just to throw it away.
+		if (world == null) {
+			try {
+				world = loadWorldFromFile(Thread.currentThread()
+						.getContextClassLoader()
+						.getResource("resources/defaults/sample.world")
+						.openStream());
+
+			} catch (IOException e) {
+				System.err.println("Could not load application defaults -- unexpected exception!");
+				System.err.println("Exception message: " + e.getMessage());
+				System.exit(-1);
+				return;
+			}
+		}
+
+		if (compileFile != null) {
+			compile(compileFile);
+			return;
+		}
+
+		if (servePort != null) {
+			serve(servePort);
+			return;
+		}
+		if (workerAddress != null) {
+			work(workerAddress);
+			return;
+		}
+		if (coordinatorPort != null) {
+			coordinate(coordinatorPort);
+			return;
+		}
+		if (turntableFrames != null) {
+			renderTurntable(turntableFrames);
+			return;
+		}
+		if (outputFile != null) {
+			if (checkpointFile != null)
+				renderHeadlessWithCheckpoint();
+			else
+				renderHeadless();
+			return;
+		}
+
 		RaytracerApp.launch(args);
 	}
 
 	@Override
 	public void start(Stage primaryStage) throws Exception {
 
-		Renderer renderer = new Renderer(new JavaFxPixelDrawer(primaryStage, settings));
+		JavaFxPixelDrawer pixelDrawer = new JavaFxPixelDrawer(primaryStage, settings);
+		RenderCheckpoint checkpoint = (checkpointFile == null || preview) ? null : openCheckpoint(pixelDrawer);
+		Renderer renderer = new Renderer(
+				new MultithreadedScreenDecorator(new AntialiasingScreenDecorator(pixelDrawer), checkpoint));
 
 		RaytracerContext.getSingleton().setSettings(settings);
 		RaytracerContext.getSingleton().setCurrentRenderer(renderer);
+		//
+		// Nothing will change the World's contents from here on out, so we may
+		// as well build its indexes now.
+		world.freeze();
 		RaytracerContext.getSingleton().setCurrentWorld(world);
 
 		renderer.setLightingModel(new EnvironmentMapDecoratingLightingModel(
@@ -91,9 +188,9 @@ public class RaytracerApp extends Application {
 				new FresnelLightingModel(new AdditiveCompositingLightingModel(new AmbientLightingModel(),
 						new LambertianDiffuseLightingModel(), new PhongSpecularLightingModel(),
 						new EmissiveLightingModel(),
-						new CausticsPhotonMapLightingModel(PhotonMap.build(30000, true, 1d, 16, 0.1, 0.25), 32)
+						new CausticsPhotonMapLightingModel(PhotonMap.build(world, 30000, true, 1d, 16, 0.1, 0.25), 32)
 //						,
-//						new DiffuseIndirectPhotonMapLightingModel(PhotonMap.build(1000, false, 30d, 16, 0.1, 0.25), 32,
+//						new DiffuseIndirectPhotonMapLightingModel(PhotonMap.build(world, 1000, false, 30d, 16, 0.1, 0.25), 32,
 //								4)
 						))));
 
@@ -104,14 +201,82 @@ public class RaytracerApp extends Application {
 		primaryStage.setOnCloseRequest((e) -> {
 			RaytracerContext.getSingleton().shutdown();
 			timeTracker.shutdown();
+			if (checkpoint != null)
+				checkpoint.shutdown();
 
 			primaryStage.close();
 			System.exit(0);
 		});
 
+		RenderContext context = renderer.createContext(world, settings);
+
+		if (preview) {
+			PreviewRenderer previewRenderer = new PreviewRenderer(context, pixelDrawer);
+			installPreviewControls(primaryStage, previewRenderer);
+			previewRenderer.setCamera(world.getCamera());
+			return;
+		}
+
 		Executors.newSingleThreadExecutor().submit(() -> {
 			System.out.println("Rendering ...");
-			RaytracerContext.getSingleton().getCurrentRenderer().render(world.getCamera());
+			renderer.render(context, world.getCamera());
+		});
+	}
+
+	/**
+	 * Let the user steer the preview's camera from the keyboard:
+	 * <ul>
+	 * <li>W / S -- move forward / backward</li>
+	 * <li>A / D -- move left / right</li>
+	 * <li>R / F -- move up / down</li>
+	 * <li>arrow keys -- turn</li>
+	 * </ul>
+	 * Each movement is relative to the direction the camera currently faces.
+	 */
+	private static void installPreviewControls(Stage stage, PreviewRenderer previewRenderer) {
+
+		stage.getScene().addEventHandler(KeyEvent.KEY_PRESSED, e -> {
+			Camera camera = previewRenderer.getCamera();
+			double step = camera.getCameraFrameSideLength() / 4d;
+
+			Transformer move;
+			switch (e.getCode()) {
+			case W:
+				move = new Translation(0d, 0d, step);
+				break;
+			case S:
+				move = new Translation(0d, 0d, -step);
+				break;
+			case A:
+				move = new Translation(-step, 0d, 0d);
+				break;
+			case D:
+				move = new Translation(step, 0d, 0d);
+				break;
+			case R:
+				move = new Translation(0d, step, 0d);
+				break;
+			case F:
+				move = new Translation(0d, -step, 0d);
+				break;
+			case LEFT:
+				move = new Rotation(0d, -PREVIEW_ROTATION_STEP, 0d);
+				break;
+			case RIGHT:
+				move = new Rotation(0d, PREVIEW_ROTATION_STEP, 0d);
+				break;
+			case UP:
+				move = new Rotation(-PREVIEW_ROTATION_STEP, 0d, 0d);
+				break;
+			case DOWN:
+				move = new Rotation(PREVIEW_ROTATION_STEP, 0d, 0d);
+				break;
+			default:
+				return;
+			}
+
+			previewRenderer.setCamera(PreviewRenderer.moveCamera(camera, move));
+			e.consume();
 		});
 	}
 
@@ -133,7 +298,59 @@ public class RaytracerApp extends Application {
 				.longOpt("world")
 				.hasArg()
 				.argName(".world-file")
-				.desc("load and render a .world file")
+				.desc("load and render a .world file (or a compiled " + CompiledScene.FILE_EXTENSION + " file)")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("compile")
+				.hasArg()
+				.argName("scene-file")
+				.desc("compile the world into a binary " + CompiledScene.FILE_EXTENSION
+						+ " file, for faster loading, and exit")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("serve")
+				.hasArg()
+				.argName("port")
+				.desc("run headless, accepting render-jobs over HTTP on the given local port")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("coordinator")
+				.hasArg()
+				.argName("port")
+				.desc("run headless, distributing the render across workers connecting on the given port")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("worker")
+				.hasArg()
+				.argName("host:port")
+				.desc("run headless, rendering tiles for the coordinator at the given address")
+				.build());
+		options.addOption(Option.builder("o")
+				.longOpt("output")
+				.hasArg()
+				.argName("image-file")
+				.desc("run headless, saving the finished render to the given image file")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("checkpoint")
+				.hasArg()
+				.argName("checkpoint-file")
+				.desc("periodically save the render's progress to the given checkpoint file")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("resume")
+				.desc("continue the render from the last checkpoint saved in the checkpoint file")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("turntable")
+				.hasArg()
+				.argName("frames")
+				.desc("run headless, rendering the given number of frames as the camera orbits the origin, "
+						+ "into numbered image files")
+				.build());
+		options.addOption(Option.builder()
+				.longOpt("preview")
+				.desc("show an interactive, progressively-refined preview, steered with the keyboard")
 				.build());
 		options.addOption(Option.builder("h").longOpt("help").desc("show this help message").build());
 
@@ -214,7 +431,10 @@ public class RaytracerApp extends Application {
 			}
 
 			try {
-				world = loadWorldFromFile(new FileInputStream(worldFile));
+				if (worldFile.getName().endsWith(CompiledScene.FILE_EXTENSION))
+					world = loadCompiledScene(worldFile);
+				else
+					world = loadWorldFromFile(new FileInputStream(worldFile));
 			} catch (FileNotFoundException e) {
 				System.err.println("Error: the indicated world-file '" + worldFile.getPath()
 						+ "' does not appear to exist.\n" + "Please double-check your file-name and try again.");
@@ -222,12 +442,267 @@ public class RaytracerApp extends Application {
 			}
 
 		}
+		if (cmd.hasOption("serve")) {
+			try {
+				servePort = Integer.parseInt(cmd.getOptionValue("serve"));
+			} catch (NumberFormatException e) {
+				System.err.println("Cannot parse the port number '" + cmd.getOptionValue("serve")
+						+ "'. Please try again.");
+				System.exit(-1);
+			}
+		}
+		if (cmd.hasOption("coordinator")) {
+			try {
+				coordinatorPort = Integer.parseInt(cmd.getOptionValue("coordinator"));
+			} catch (NumberFormatException e) {
+				System.err.println("Cannot parse the port number '" + cmd.getOptionValue("coordinator")
+						+ "'. Please try again.");
+				System.exit(-1);
+			}
+			if (outputFile == null)
+				outputFile = new File("render.png");
+		}
+		if (cmd.hasOption("worker")) {
+			workerAddress = cmd.getOptionValue("worker");
+			if (workerAddress.lastIndexOf(':') < 0) {
+				System.err.println("The worker option expects the coordinator's address as 'host:port'. "
+						+ "Please try again.");
+				System.exit(-1);
+			}
+		}
+		if (cmd.hasOption('o'))
+			outputFile = new File(cmd.getOptionValue('o'));
+		if (cmd.hasOption("turntable")) {
+			try {
+				turntableFrames = Integer.parseInt(cmd.getOptionValue("turntable"));
+			} catch (NumberFormatException e) {
+				System.err.println("Cannot parse the frame count '" + cmd.getOptionValue("turntable")
+						+ "'. Please try again.");
+				System.exit(-1);
+			}
+		}
+		if (cmd.hasOption("preview"))
+			preview = true;
+		if (cmd.hasOption("compile"))
+			compileFile = new File(cmd.getOptionValue("compile"));
+		if (cmd.hasOption("checkpoint"))
+			checkpointFile = new File(cmd.getOptionValue("checkpoint"));
+		if (cmd.hasOption("resume")) {
+			if (checkpointFile == null) {
+				System.err.println("You must give a checkpoint file (with --checkpoint) to resume from!");
+				System.exit(-1);
+			}
+			resume = true;
+		}
 		if (cmd.hasOption('h')) {
 			new HelpFormatter().printHelp("java -jar rays2.jar", getCommandLineOptions(), true);
 			System.exit(-1);
 		}
 	}
 
+	private static void serve(int port) {
+
+		RenderService service = new RenderService(RaytracerContext.getSingleton().getWorkerThreadCount());
+		try {
+			RenderHttpServer server = new RenderHttpServer(service, settings, port);
+			server.start();
+			System.out.println("Accepting render-jobs at http://localhost:" + server.getPort() + "/render ...");
+
+		} catch (IOException e) {
+			System.err.println("Could not start the render server -- unexpected exception!");
+			System.err.println("Exception message: " + e.getMessage());
+			service.shutdown();
+			System.exit(-1);
+		}
+	}
+
+	private static void work(String address) {
+
+		int separator = address.lastIndexOf(':');
+		String host = address.substring(0, separator);
+		int port;
+		try {
+			port = Integer.parseInt(address.substring(separator + 1));
+		} catch (NumberFormatException e) {
+			System.err.println("Cannot parse the port number in '" + address + "'. Please try again.");
+			System.exit(-1);
+			return;
+		}
+
+		RenderWorker worker = new RenderWorker(host, port, RaytracerContext.getSingleton().getWorkerThreadCount());
+		try {
+			System.out.println("Rendering tiles for the coordinator at " + address + " ...");
+			worker.run();
+
+		} catch (IOException e) {
+			System.err.println("Lost the connection to the coordinator at " + address + ".");
+			System.err.println("Exception message: " + e.getMessage());
+			System.exit(-1);
+
+		} finally {
+			worker.shutdown();
+		}
+
+		System.exit(0);
+	}
+
+	private static void coordinate(int port) {
+
+		requireWorldText("A distributed render");
+
+		RenderCoordinator coordinator = null;
+		try {
+			coordinator = new RenderCoordinator(port);
+			coordinator.start();
+			System.out.println("Waiting for workers on port " + coordinator.getPort() + " ...");
+
+			saveImage(coordinator.render(worldText, settings).get());
+
+		} catch (IOException | InterruptedException | ExecutionException e) {
+			System.err.println("Could not complete the distributed render -- unexpected exception!");
+			System.err.println("Exception message: " + e.getMessage());
+			System.exit(-1);
+
+		} finally {
+			if (coordinator != null)
+				coordinator.shutdown();
+		}
+
+		System.exit(0);
+	}
+
+	private static void renderHeadless() {
+
+		RenderService service = new RenderService(RaytracerContext.getSingleton().getWorkerThreadCount());
+		try {
+			System.out.println("Rendering ...");
+			saveImage(service.submit(world, settings, null, 0).getFuture().get());
+
+		} catch (InterruptedException | ExecutionException e) {
+			System.err.println("Could not complete the render -- unexpected exception!");
+			System.err.println("Exception message: " + e.getMessage());
+			System.exit(-1);
+
+		} finally {
+			service.shutdown();
+		}
+
+		System.exit(0);
+	}
+
+	private static void renderHeadlessWithCheckpoint() {
+
+		FramebufferPixelDrawer framebuffer = new FramebufferPixelDrawer(settings);
+		RenderCheckpoint checkpoint = openCheckpoint(framebuffer);
+		ScreenDrawer screenDrawer = new MultithreadedScreenDecorator(new AntialiasingScreenDecorator(framebuffer),
+				checkpoint);
+
+		//
+		// Render on a pool of our own, so that we can tell when every region
+		// has been drawn by waiting for the pool to finish.
+		ExecutorService pool = Executors.newFixedThreadPool(RaytracerContext.getSingleton().getWorkerThreadCount());
+		try {
+			world.freeze();
+			RenderContext context = new RenderContext(world, settings,
+					RenderService.createDefaultLightingModel(world, new PhotonMapCache()), pool);
+
+			System.out.println("Rendering (" + checkpoint.getCompletedRegionCount() + " of "
+					+ checkpoint.getRegions().size() + " regions already complete) ...");
+			screenDrawer.draw(context, world.getCamera());
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+		} catch (InterruptedException e) {
+			System.err.println("Interrupted before the render could complete.");
+			System.exit(-1);
+
+		} finally {
+			pool.shutdownNow();
+			checkpoint.shutdown();
+		}
+
+		if (checkpoint.getCompletedRegionCount() < checkpoint.getRegions().size()) {
+			System.err.println("Could not complete the render -- run again with --resume to try again.");
+			System.exit(-1);
+		}
+
+		saveImage(framebuffer);
+		System.exit(0);
+	}
+
+	private static void renderTurntable(int frames) {
+
+		//
+		// Number the output files by inserting the frame-number before the
+		// output file's extension.
+		String fileNamePattern = (outputFile == null) ? "frame-%04d.png" : outputFile.getPath();
+		if (!fileNamePattern.contains("%")) {
+			int extension = fileNamePattern.lastIndexOf('.');
+			if (extension <= fileNamePattern.lastIndexOf(File.separatorChar))
+				extension = fileNamePattern.length();
+			fileNamePattern = fileNamePattern.substring(0, extension) + "-%04d"
+					+ fileNamePattern.substring(extension);
+		}
+
+		FrameSequenceRenderer renderer = new FrameSequenceRenderer(
+				RaytracerContext.getSingleton().getWorkerThreadCount());
+		try {
+			System.out.println("Rendering " + frames + " frames ...");
+			renderer.render(world, settings, Animation.turntable(world, frames), fileNamePattern,
+					f -> System.out.println("Saved '" + f.getPath() + "'."));
+
+		} catch (IOException | InterruptedException e) {
+			System.err.println("Could not complete the animation -- unexpected exception!");
+			System.err.println("Exception message: " + e.getMessage());
+			System.exit(-1);
+
+		} finally {
+			renderer.shutdown();
+		}
+
+		System.exit(0);
+	}
+
+	private static RenderCheckpoint openCheckpoint(HasScreenDimensions screen) {
+
+		requireWorldText("Checkpointing");
+
+		try {
+			RenderCheckpoint checkpoint = RenderCheckpoint.open(checkpointFile, screen,
+					MultithreadedScreenDecorator.REGION_SIDE_LENGTH, RenderCheckpoint.fingerprint(worldText, settings),
+					resume);
+			checkpoint.startPeriodicCheckpoints(RenderCheckpoint.DEFAULT_CHECKPOINT_INTERVAL_SECONDS,
+					TimeUnit.SECONDS);
+			return checkpoint;
+
+		} catch (IOException e) {
+			System.err.println("Cannot open the checkpoint file '" + checkpointFile.getPath() + "': "
+					+ e.getMessage());
+			System.exit(-1);
+			return null;
+		}
+	}
+
+	private static void saveImage(FramebufferPixelDrawer image) {
+
+		String fileName = outputFile.getName();
+		String formatName = (fileName.lastIndexOf('.') < 0) ? "png"
+				: fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+
+		try {
+			if (!ImageIO.write(image.toBufferedImage(), formatName, outputFile)) {
+				System.err.println("Cannot save images in the '" + formatName + "' format. Please try again.");
+				System.exit(-1);
+			}
+			System.out.println("Saved the finished render to '" + outputFile.getPath() + "'.");
+
+		} catch (IOException e) {
+			System.err.println("Cannot save the finished render to '" + outputFile.getPath() + "': "
+					+ e.getMessage());
+			System.exit(-1);
+		}
+	}
+
 	private static Settings loadSettingsFromFile(InputStream settingsFileStream) {
 
 		Properties settingsProperties = new Properties();
@@ -245,16 +720,17 @@ public class RaytracerApp extends Application {
 	private static World loadWorldFromFile(InputStream worldFileStream) {
 
 		try {
-			WorldFileScanner worldScanner = new WorldFileScanner(new InputStreamReader(worldFileStream));
-
-			Optional<WorldFileObjectDefinition> worldFileDefinition = worldScanner.scan();
-			worldScanner.close();
+			//
+			// Hold onto the world-file's text, so that it can be shipped to
+			// any distributed-render workers.
+			worldText = readFully(worldFileStream);
+			Optional<Object> world = BuilderInvoker.getSingleton()
+					.invokeBuilders(new WorldFileParser(new StringReader(worldText)));
 
-			assert (worldFileDefinition.isPresent());
+			if (!world.isPresent() || !(world.get() instanceof World))
+				throw new IOException("The world file does not describe a World.");
 
-			World world = (World) BuilderInvoker.getSingleton().invokeBuilders(worldFileDefinition.get()).get();
-
-			return world;
+			return (World) world.get();
 
 		} catch (IOException e) {
 
@@ -267,4 +743,58 @@ public class RaytracerApp extends Application {
 		}
 
 	}
+
+	private static World loadCompiledScene(File sceneFile) {
+
+		try {
+			//
+			// There's no world-file text to ship to workers, or to fingerprint
+			// checkpoints with.
+			worldText = null;
+			return CompiledScene.read(sceneFile.toPath());
+
+		} catch (IOException e) {
+
+			System.err.println("Could not load the given compiled scene.");
+			System.err.println("Exception: " + e.getMessage());
+
+			System.exit(-1);
+			return null;
+		}
+	}
+
+	private static void compile(File sceneFile) {
+
+		try {
+			CompiledScene.write(world, sceneFile.toPath());
+			System.out.println("Compiled the world to '" + sceneFile.getPath() + "'.");
+
+		} catch (IOException | IllegalArgumentException e) {
+			System.err.println("Could not compile the world.");
+			System.err.println("Exception: " + e.getMessage());
+			System.exit(-1);
+		}
+
+		System.exit(0);
+	}
+
+	private static void requireWorldText(String feature) {
+
+		if (worldText == null) {
+			System.err.println(feature + " needs a text .world file -- it cannot use a compiled scene.");
+			System.exit(-1);
+		}
+	}
+
+	private static String readFully(InputStream stream) throws IOException {
+
+		StringBuilder text = new StringBuilder();
+		try (Reader reader = new InputStreamReader(stream)) {
+			char[] buffer = new char[8192];
+			int read;
+			while ((read = reader.read(buffer)) >= 0)
+				text.append(buffer, 0, read);
+		}
+		return text.toString();
+	}
 }
@@ -13,25 +13,29 @@ import org.snowjak.rays.world.World;
 
 /**
  * Represents the raytracer's global context.
+ * <p>
+ * Per-ray code should not consult this singleton -- everything a render needs
+ * is carried by its {@link RenderContext}. The RaytracerContext only holds
+ * those things that are truly process-wide: the shared worker-pool, the
+ * execution-time tracker's queue, and the application's "current" selections.
+ * </p>
  * 
  * @author snowjak88
  *
  */
 public class RaytracerContext implements CanBeShutdown {
 
-	private static RaytracerContext INSTANCE = null;
+	private volatile Renderer currentRenderer = new Renderer();
 
-	private Renderer currentRenderer = new Renderer();
+	private volatile Settings settings = Settings.presetFast();
 
-	private Settings settings = Settings.presetFast();
+	private volatile World currentWorld = null;
 
-	private World currentWorld = null;
-
-	private int workerThreadCount = FastMath.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+	private volatile int workerThreadCount = FastMath.max(Runtime.getRuntime().availableProcessors() - 1, 1);
 
 	private ThreadPoolExecutor workerThreadPool = null;
 
-	private BlockingQueue<ExecutionTimeTracker.ExecutionRecord> executionRecordQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<ExecutionTimeTracker.ExecutionRecord> executionRecordQueue = new LinkedBlockingQueue<>();
 
 	protected RaytracerContext() {
 
@@ -42,9 +46,7 @@ public class RaytracerContext implements CanBeShutdown {
 	 */
 	public static RaytracerContext getSingleton() {
 
-		if (INSTANCE == null)
-			INSTANCE = new RaytracerContext();
-		return INSTANCE;
+		return Holder.INSTANCE;
 	}
 
 	/**
@@ -133,7 +135,7 @@ public class RaytracerContext implements CanBeShutdown {
 	/**
 	 * @return the world's pool of available worker-threads
 	 */
-	public ThreadPoolExecutor getWorkerThreadPool() {
+	public synchronized ThreadPoolExecutor getWorkerThreadPool() {
 
 		if (workerThreadPool == null)
 			this.workerThreadPool = (ThreadPoolExecutor) Executors
@@ -147,7 +149,18 @@ public class RaytracerContext implements CanBeShutdown {
 
 		currentRenderer.shutdown();
 
-		if (!this.workerThreadPool.shutdownNow().isEmpty())
-			System.out.println("Shutting down worker threads ...");
+		synchronized (this) {
+			if (workerThreadPool != null && !workerThreadPool.shutdownNow().isEmpty())
+				System.out.println("Shutting down worker threads ...");
+		}
+	}
+
+	/**
+	 * Lazily holds the singleton instance -- the JVM guarantees that it is
+	 * initialized exactly once, on first use, without any locking on our part.
+	 */
+	private static class Holder {
+
+		private static final RaytracerContext INSTANCE = new RaytracerContext();
 	}
 }
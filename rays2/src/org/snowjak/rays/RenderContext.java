@@ -0,0 +1,145 @@
+package org.snowjak.rays;
+
+import java.util.concurrent.ExecutorService;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.light.LightSelector;
+import org.snowjak.rays.light.model.LightingModel;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.ui.ScreenDrawer;
+import org.snowjak.rays.world.ShadowCache;
+import org.snowjak.rays.world.World;
+
+/**
+ * Everything needed to render a single image: the (frozen) {@link World}, the
+ * {@link Settings} to render it with, the top-level {@link LightingModel}, and
+ * the {@link LightSelector} used to sample the World's lights.
+ * <p>
+ * A RenderContext is immutable, and is handed explicitly down through the
+ * {@link ScreenDrawer}s, {@link Camera}s, and {@link LightingModel}s that
+ * make up a render -- so that per-ray code need never consult the
+ * {@link RaytracerContext} singleton, and so that several independent renders
+ * may run side-by-side in one process.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class RenderContext {
+
+	private final World world;
+
+	private final Settings settings;
+
+	private final LightingModel lightingModel;
+
+	private final LightSelector lightSelector;
+
+	private final ShadowCache shadowCache;
+
+	private final ExecutorService executor;
+
+	/**
+	 * Create a new RenderContext. The given {@link World} is
+	 * {@link World#freeze() frozen}, and the given {@link Settings} are
+	 * copied, so that neither can change out from under the render.
+	 *
+	 * @param world
+	 * @param settings
+	 * @param lightingModel
+	 * @param executor
+	 *            used to run this render's worker-tasks
+	 */
+	public RenderContext(World world, Settings settings, LightingModel lightingModel, ExecutorService executor) {
+		world.freeze();
+
+		this.world = world;
+		this.settings = new Settings(settings);
+		this.lightingModel = lightingModel;
+		this.lightSelector = world.getLightSelector();
+		this.shadowCache = (this.settings.isShadowCache()) ? new ShadowCache(world) : null;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return the (frozen) {@link World} being rendered
+	 */
+	public World getWorld() {
+
+		return world;
+	}
+
+	/**
+	 * @return the {@link Settings} to render with
+	 */
+	public Settings getSettings() {
+
+		return settings;
+	}
+
+	/**
+	 * @return the top-level {@link LightingModel}, used to compute the color of
+	 *         every primary (and recursive) Ray
+	 */
+	public LightingModel getLightingModel() {
+
+		return lightingModel;
+	}
+
+	/**
+	 * @return the {@link LightSelector} used to sample the World's emissive
+	 *         Shapes
+	 */
+	public LightSelector getLightSelector() {
+
+		return lightSelector;
+	}
+
+	/**
+	 * @return the {@link ExecutorService} used to run this render's
+	 *         worker-tasks
+	 */
+	public ExecutorService getExecutor() {
+
+		return executor;
+	}
+
+	/**
+	 * Determine if the given {@code eyePoint} can see the given
+	 * {@code lightPoint} on the given light, making use of this render's
+	 * {@link ShadowCache} (if {@link Settings#isShadowCache() enabled}).
+	 *
+	 * @param light
+	 * @param lightPoint
+	 * @param eyePoint
+	 * @param ignoreShapes
+	 * @return <code>true</code> if the two points are not occluded from each
+	 *         other
+	 * @see World#isPointVisibleFromLight(ShadowCache, Object, Vector3D,
+	 *      Vector3D, Shape...)
+	 */
+	public boolean isLightVisible(Object light, Vector3D lightPoint, Vector3D eyePoint, Shape... ignoreShapes) {
+
+		return world.isPointVisibleFromLight(shadowCache, light, lightPoint, eyePoint, ignoreShapes);
+	}
+
+	/**
+	 * Determine if the given {@link DirectionalLight} can illuminate the given
+	 * {@code eyePoint}, making use of this render's {@link ShadowCache} (if
+	 * {@link Settings#isShadowCache() enabled}).
+	 *
+	 * @param light
+	 * @param eyePoint
+	 * @param ignoreShapes
+	 * @return <code>true</code> if the light is not occluded from the given
+	 *         point
+	 * @see World#isDirectionalLightVisible(ShadowCache, DirectionalLight,
+	 *      Vector3D, Shape...)
+	 */
+	public boolean isDirectionalLightVisible(DirectionalLight light, Vector3D eyePoint, Shape... ignoreShapes) {
+
+		return world.isDirectionalLightVisible(shadowCache, light, eyePoint, ignoreShapes);
+	}
+}
@@ -80,15 +80,31 @@ public class Renderer implements CanBeShutdown {
 	}
 
 	/**
-	 * Render the {@link World}, as seen by the given {@link Camera}, to the
-	 * associated screen.
+	 * Create a new {@link RenderContext} for rendering the given {@link World}
+	 * with this Renderer's {@link LightingModel}, running its worker-tasks on
+	 * the {@link RaytracerContext#getWorkerThreadPool() shared worker-pool}.
 	 * 
+	 * @param world
+	 * @param settings
+	 * @return a new RenderContext
+	 */
+	public RenderContext createContext(World world, Settings settings) {
+
+		return new RenderContext(world, settings, lightingModel,
+				RaytracerContext.getSingleton().getWorkerThreadPool());
+	}
+
+	/**
+	 * Render the {@link World} given by the {@link RenderContext}, as seen by
+	 * the given {@link Camera}, to the associated screen.
+	 * 
+	 * @param context
 	 * @param camera
 	 */
-	public void render(Camera camera) {
+	public void render(RenderContext context, Camera camera) {
 
 		if (rootScreenDrawer != null)
-			rootScreenDrawer.draw(camera);
+			rootScreenDrawer.draw(context, camera);
 	}
 
 	@Override
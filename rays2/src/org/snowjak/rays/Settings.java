@@ -35,10 +35,26 @@ public class Settings {
 	 */
 	public static final int DEFAULT_DISTRIBUTED_RAY_COUNT = 8;
 
+	/**
+	 * Specifies the default number of lights to sample, at each
+	 * shading-point, when the World contains more emissive Shapes than that.
+	 */
+	public static final int DEFAULT_LIGHT_SAMPLE_COUNT = 4;
+
+	/**
+	 * Specifies whether, by default, each rendering thread should remember
+	 * the last Shape found to occlude each light, and test that Shape first.
+	 */
+	public static final boolean DEFAULT_SHADOW_CACHE = true;
+
 	private int maxRayRecursion = DEFAULT_MAX_RAY_RECURSION;
 
 	private int distributedRayCount = DEFAULT_DISTRIBUTED_RAY_COUNT;
 
+	private int lightSampleCount = DEFAULT_LIGHT_SAMPLE_COUNT;
+
+	private boolean shadowCache = DEFAULT_SHADOW_CACHE;
+
 	private int imageWidth, imageHeight;
 
 	private AntialiasingScreenDecorator.AA antialiasing;
@@ -76,6 +92,16 @@ public class Settings {
 	 */
 	public static final String PROPERTY_DISTRIBUTED_RAY_COUNT = "rays2.distributed.maxRayCount";
 
+	/**
+	 * Defines the property name to associate with {@link #getLightSampleCount()}
+	 */
+	public static final String PROPERTY_LIGHT_SAMPLE_COUNT = "rays2.distributed.lightSampleCount";
+
+	/**
+	 * Defines the property name to associate with {@link #isShadowCache()}
+	 */
+	public static final String PROPERTY_SHADOW_CACHE = "rays2.render.shadowCache";
+
 	/**
 	 * Create a new {@link Settings} instance.
 	 * 
@@ -108,6 +134,8 @@ public class Settings {
 		this.renderSplitType = toCopy.renderSplitType;
 		this.maxRayRecursion = toCopy.maxRayRecursion;
 		this.distributedRayCount = toCopy.distributedRayCount;
+		this.lightSampleCount = toCopy.lightSampleCount;
+		this.shadowCache = toCopy.shadowCache;
 	}
 
 	/**
@@ -258,6 +286,55 @@ public class Settings {
 		this.distributedRayCount = distributedRayCount;
 	}
 
+	/**
+	 * Specifies the number of emissive Shapes to sample at each
+	 * shading-point. If the World has no more emissive Shapes than this, all
+	 * of them are used.
+	 * 
+	 * @return the number of lights to sample per shading-point
+	 */
+	public int getLightSampleCount() {
+
+		return lightSampleCount;
+	}
+
+	/**
+	 * Specifies the number of emissive Shapes to sample at each
+	 * shading-point. If the World has no more emissive Shapes than this, all
+	 * of them are used.
+	 * 
+	 * @param lightSampleCount
+	 */
+	public void setLightSampleCount(int lightSampleCount) {
+
+		this.lightSampleCount = lightSampleCount;
+	}
+
+	/**
+	 * Specifies whether each rendering thread should remember the last Shape
+	 * found to occlude each light, and test that Shape first before checking
+	 * the rest of the World.
+	 * 
+	 * @return <code>true</code> if shadow-rays should use the shadow-cache
+	 * @see org.snowjak.rays.world.ShadowCache
+	 */
+	public boolean isShadowCache() {
+
+		return shadowCache;
+	}
+
+	/**
+	 * Specifies whether each rendering thread should remember the last Shape
+	 * found to occlude each light, and test that Shape first before checking
+	 * the rest of the World.
+	 * 
+	 * @param shadowCache
+	 */
+	public void setShadowCache(boolean shadowCache) {
+
+		this.shadowCache = shadowCache;
+	}
+
 	/**
 	 * @return a {@link Properties} instance containing this {@link Settings}'
 	 *         encoded values
@@ -272,6 +349,8 @@ public class Settings {
 		prop.setProperty(PROPERTY_RENDER_SPLIT_TYPE, RenderSplitType.toString(getRenderSplitType()));
 		prop.setProperty(PROPERTY_MAX_RAY_RECURSION, Integer.toString(getMaxRayRecursion()));
 		prop.setProperty(PROPERTY_DISTRIBUTED_RAY_COUNT, Integer.toString(getDistributedRayCount()));
+		prop.setProperty(PROPERTY_LIGHT_SAMPLE_COUNT, Integer.toString(getLightSampleCount()));
+		prop.setProperty(PROPERTY_SHADOW_CACHE, Boolean.toString(isShadowCache()));
 
 		return prop;
 	}
@@ -300,6 +379,13 @@ public class Settings {
 		newSettings.setDistributedRayCount(parsePropertyAsInt(properties, PROPERTY_DISTRIBUTED_RAY_COUNT)
 				.orElse(newSettings.getDistributedRayCount()));
 
+		newSettings.setLightSampleCount(parsePropertyAsInt(properties, PROPERTY_LIGHT_SAMPLE_COUNT)
+				.orElse(newSettings.getLightSampleCount()));
+
+		String shadowCache = properties.getProperty(PROPERTY_SHADOW_CACHE);
+		if (shadowCache != null)
+			newSettings.setShadowCache(Boolean.parseBoolean(shadowCache.trim()));
+
 		String antialias = properties.getProperty(PROPERTY_ANTIALIASING);
 		if (antialias != null)
 			newSettings.setAntialiasing(AA.fromString(antialias));
@@ -323,4 +409,4 @@ public class Settings {
 		return Optional.empty();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
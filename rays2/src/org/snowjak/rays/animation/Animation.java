@@ -0,0 +1,137 @@
+package org.snowjak.rays.animation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.transform.Transformable;
+import org.snowjak.rays.transform.Transformer;
+import org.snowjak.rays.world.World;
+
+/**
+ * A sequence of frames, over which a {@link World}'s {@link Camera} and any
+ * number of its {@link Shape}s move according to their {@link TransformTrack}s.
+ * <p>
+ * Each animated object's own transformers are remembered when it is first
+ * animated; at every frame, the object is given those original transformers
+ * followed by its track's transformers for that frame.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class Animation {
+
+	private final int frameCount;
+
+	private Camera camera = null;
+
+	private TransformTrack cameraTrack = null;
+
+	private List<Transformer> cameraBaseTransformers = null;
+
+	private final Map<Shape, TransformTrack> shapeTracks = new IdentityHashMap<>();
+
+	private final Map<Shape, List<Transformer>> shapeBaseTransformers = new IdentityHashMap<>();
+
+	/**
+	 * Create a new Animation of the given number of frames (numbered from 0).
+	 *
+	 * @param frameCount
+	 */
+	public Animation(int frameCount) {
+		this.frameCount = frameCount;
+	}
+
+	/**
+	 * Construct a "turntable" Animation, in which the given World's camera
+	 * makes one full orbit about the vertical axis through the origin.
+	 *
+	 * @param world
+	 * @param frameCount
+	 * @return a new Animation
+	 */
+	public static Animation turntable(World world, int frameCount) {
+
+		//
+		// The last keyframe lies one frame beyond the end, so that the final
+		// frame doesn't repeat the first.
+		return new Animation(frameCount).animateCamera(world.getCamera(),
+				new TransformTrack().keyframe(0, Vector3D.ZERO, Vector3D.ZERO).keyframe(frameCount,
+						new Vector3D(0d, 360d, 0d), Vector3D.ZERO));
+	}
+
+	/**
+	 * Animate the given Camera along the given track.
+	 *
+	 * @param camera
+	 * @param track
+	 * @return this Animation, for method-chaining
+	 */
+	public Animation animateCamera(Camera camera, TransformTrack track) {
+
+		this.camera = camera;
+		this.cameraTrack = track;
+		this.cameraBaseTransformers = new ArrayList<>(camera.getTransformers());
+		return this;
+	}
+
+	/**
+	 * Animate the given Shape along the given track.
+	 *
+	 * @param shape
+	 * @param track
+	 * @return this Animation, for method-chaining
+	 */
+	public Animation animateShape(Shape shape, TransformTrack track) {
+
+		shapeTracks.put(shape, track);
+		shapeBaseTransformers.putIfAbsent(shape, new ArrayList<>(shape.getTransformers()));
+		return this;
+	}
+
+	/**
+	 * @return the number of frames in this Animation
+	 */
+	public int getFrameCount() {
+
+		return frameCount;
+	}
+
+	/**
+	 * Pose the animated camera and Shapes as they appear at the given frame.
+	 * The moved Shapes are reported via
+	 * {@link World#shapesMoved(java.util.Collection)}, so the World must not
+	 * be {@link World#isFrozen() frozen}.
+	 *
+	 * @param world
+	 * @param frame
+	 */
+	public void apply(World world, int frame) {
+
+		if (camera != null)
+			pose(camera, cameraBaseTransformers, cameraTrack, frame);
+
+		if (shapeTracks.isEmpty())
+			return;
+
+		List<Shape> moved = new LinkedList<>();
+		for (Map.Entry<Shape, TransformTrack> track : shapeTracks.entrySet()) {
+			pose(track.getKey(), shapeBaseTransformers.get(track.getKey()), track.getValue(), frame);
+			moved.add(track.getKey());
+		}
+		world.shapesMoved(moved);
+	}
+
+	private static void pose(Transformable transformable, List<Transformer> base, TransformTrack track, int frame) {
+
+		transformable.getTransformers().clear();
+		transformable.getTransformers().addAll(base);
+		transformable.getTransformers().addAll(track.getTransformersAt(frame));
+	}
+}
@@ -0,0 +1,215 @@
+package org.snowjak.rays.animation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.light.model.LightingModel;
+import org.snowjak.rays.service.PhotonMapCache;
+import org.snowjak.rays.service.RenderService;
+import org.snowjak.rays.ui.AntialiasingScreenDecorator;
+import org.snowjak.rays.ui.CanBeShutdown;
+import org.snowjak.rays.ui.MultithreadedScreenDecorator;
+import org.snowjak.rays.ui.PixelDrawer;
+import org.snowjak.rays.ui.ScreenRegion;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+/**
+ * Renders every frame of an {@link Animation} in a single process, writing
+ * each to its own numbered image-file.
+ * <p>
+ * The World is parsed (and its static geometry indexed) only once. Between
+ * frames, the World is {@link World#thaw() thawed} just long enough to pose
+ * the animated objects; moved Shapes are
+ * {@link World#shapesMoved(java.util.Collection) refitted} into the existing
+ * bounding-volume hierarchy, rather than rebuilding it. PhotonMaps come from a
+ * shared {@link PhotonMapCache}, so they are only re-cast for frames in which
+ * some Shape has actually moved.
+ * </p>
+ * <p>
+ * Frames are written on a separate thread while the next frame renders, with
+ * at most {@link #MAX_PENDING_WRITES} finished frames waiting to be written at
+ * any one time.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class FrameSequenceRenderer implements CanBeShutdown {
+
+	/**
+	 * The most finished frames that may wait to be written at one time. Once
+	 * this many are waiting, rendering pauses until one has been written.
+	 */
+	public static final int MAX_PENDING_WRITES = 2;
+
+	private final ExecutorService renderPool;
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "frame-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final PhotonMapCache photonMapCache = new PhotonMapCache();
+
+	/**
+	 * Create a new FrameSequenceRenderer, rendering each frame on the given
+	 * number of threads.
+	 *
+	 * @param threadCount
+	 */
+	public FrameSequenceRenderer(int threadCount) {
+		this.renderPool = Executors.newFixedThreadPool(FastMath.max(threadCount, 1), r -> {
+			Thread thread = new Thread(r, "frame-renderer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Render every frame of the given {@link Animation}, using the
+	 * {@link RenderService#createDefaultLightingModel(World, PhotonMapCache)
+	 * default lighting-model}.
+	 *
+	 * @param world
+	 * @param settings
+	 * @param animation
+	 * @param fileNamePattern
+	 *            a {@link String#format(String, Object...) format-string}
+	 *            giving each frame's file-name from its frame-number (e.g.,
+	 *            {@code "frame-%04d.png"})
+	 * @param frameWritten
+	 *            notified (on the writer-thread) as each frame is written
+	 * @return the written files, in frame order
+	 * @throws IOException
+	 *             if any frame could not be rendered or written
+	 * @throws InterruptedException
+	 */
+	public List<File> render(World world, Settings settings, Animation animation, String fileNamePattern,
+			Consumer<File> frameWritten) throws IOException, InterruptedException {
+
+		return render(world, settings, animation, w -> RenderService.createDefaultLightingModel(w, photonMapCache),
+				fileNamePattern, frameWritten);
+	}
+
+	/**
+	 * Render every frame of the given {@link Animation}.
+	 *
+	 * @param world
+	 * @param settings
+	 * @param animation
+	 * @param lightingModels
+	 *            gives the LightingModel to render each frame with, once that
+	 *            frame has been posed
+	 * @param fileNamePattern
+	 *            a {@link String#format(String, Object...) format-string}
+	 *            giving each frame's file-name from its frame-number (e.g.,
+	 *            {@code "frame-%04d.png"})
+	 * @param frameWritten
+	 *            notified (on the writer-thread) as each frame is written
+	 * @return the written files, in frame order
+	 * @throws IOException
+	 *             if any frame could not be rendered or written
+	 * @throws InterruptedException
+	 */
+	public List<File> render(World world, Settings settings, Animation animation,
+			Function<World, LightingModel> lightingModels, String fileNamePattern, Consumer<File> frameWritten)
+			throws IOException, InterruptedException {
+
+		Semaphore pendingWrites = new Semaphore(MAX_PENDING_WRITES);
+		List<Future<File>> writes = new ArrayList<>(animation.getFrameCount());
+
+		try {
+			for (int frame = 0; frame < animation.getFrameCount(); frame++) {
+
+				world.thaw();
+				animation.apply(world, frame);
+
+				RenderContext context = new RenderContext(world, settings, lightingModels.apply(world), renderPool);
+				FramebufferPixelDrawer image = renderFrame(context, frame);
+
+				File file = new File(String.format(fileNamePattern, frame));
+				pendingWrites.acquire();
+				writes.add(writer.submit(() -> {
+					try {
+						writeImage(image, file);
+						if (frameWritten != null)
+							frameWritten.accept(file);
+						return file;
+					} finally {
+						pendingWrites.release();
+					}
+				}));
+			}
+
+			List<File> files = new ArrayList<>(writes.size());
+			for (Future<File> write : writes)
+				files.add(write.get());
+			return files;
+
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException("Could not write a frame: " + e.getCause().getMessage(), e.getCause());
+
+		} finally {
+			for (Future<File> write : writes)
+				write.cancel(false);
+		}
+	}
+
+	private FramebufferPixelDrawer renderFrame(RenderContext context, int frame) throws IOException,
+			InterruptedException {
+
+		FramebufferPixelDrawer image = new FramebufferPixelDrawer(context.getSettings());
+		PixelDrawer drawer = new AntialiasingScreenDecorator(image);
+
+		List<Callable<Boolean>> regions = new ArrayList<>();
+		for (ScreenRegion region : ScreenRegion.split(image, MultithreadedScreenDecorator.REGION_SIDE_LENGTH))
+			regions.add(() -> region.draw(context, drawer, context.getWorld().getCamera(), () -> false));
+
+		try {
+			for (Future<Boolean> region : renderPool.invokeAll(regions))
+				region.get();
+
+		} catch (ExecutionException e) {
+			throw new IOException("Could not render frame " + frame + ": " + e.getCause().getMessage(),
+					e.getCause());
+		}
+
+		return image;
+	}
+
+	private static void writeImage(FramebufferPixelDrawer image, File file) throws IOException {
+
+		String fileName = file.getName();
+		String formatName = (fileName.lastIndexOf('.') < 0) ? "png"
+				: fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+
+		if (!ImageIO.write(image.toBufferedImage(), formatName, file))
+			throw new IOException("Cannot save images in the '" + formatName + "' format.");
+	}
+
+	@Override
+	public void shutdown() {
+
+		renderPool.shutdownNow();
+		writer.shutdownNow();
+	}
+}
@@ -0,0 +1,95 @@
+package org.snowjak.rays.animation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.transform.Rotation;
+import org.snowjak.rays.transform.Transformer;
+import org.snowjak.rays.transform.Translation;
+
+/**
+ * A keyframed animation of a single object's position and orientation.
+ * <p>
+ * Each keyframe gives a rotation (as pitch, yaw, and roll, in degrees) and a
+ * translation, at a given frame. Between keyframes, both are linearly
+ * interpolated; before the first keyframe and after the last, they hold
+ * steady.
+ * </p>
+ * <p>
+ * The track's {@link Transformer}s are applied <em>after</em> the object's own
+ * transformers, i.e., in world-space: the rotation turns the object about the
+ * world's origin, and the translation then moves it. (So a camera placed at
+ * {@code (0,0,-10)} and given a yaw of 90 degrees will orbit to
+ * {@code (-10,0,0)}, still facing the origin.)
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class TransformTrack {
+
+	private final TreeMap<Double, Keyframe> keyframes = new TreeMap<>();
+
+	/**
+	 * Add a keyframe to this track, replacing any existing keyframe at the
+	 * same frame.
+	 *
+	 * @param frame
+	 * @param rotation
+	 *            pitch, yaw, and roll (in degrees)
+	 * @param translation
+	 * @return this TransformTrack, for method-chaining
+	 */
+	public TransformTrack keyframe(double frame, Vector3D rotation, Vector3D translation) {
+
+		keyframes.put(frame, new Keyframe(rotation, translation));
+		return this;
+	}
+
+	/**
+	 * Compute this track's {@link Transformer}s at the given frame.
+	 *
+	 * @param frame
+	 * @return a rotation followed by a translation
+	 * @throws IllegalStateException
+	 *             if this track has no keyframes
+	 */
+	public List<Transformer> getTransformersAt(double frame) {
+
+		if (keyframes.isEmpty())
+			throw new IllegalStateException("This TransformTrack has no keyframes.");
+
+		Map.Entry<Double, Keyframe> before = keyframes.floorEntry(frame), after = keyframes.ceilingEntry(frame);
+		if (before == null)
+			before = after;
+		if (after == null)
+			after = before;
+
+		double fraction = (after.getKey() > before.getKey())
+				? (frame - before.getKey()) / (after.getKey() - before.getKey()) : 0d;
+
+		Vector3D rotation = interpolate(before.getValue().rotation, after.getValue().rotation, fraction);
+		Vector3D translation = interpolate(before.getValue().translation, after.getValue().translation, fraction);
+
+		return Arrays.asList(new Rotation(rotation.getX(), rotation.getY(), rotation.getZ()),
+				new Translation(translation.getX(), translation.getY(), translation.getZ()));
+	}
+
+	private static Vector3D interpolate(Vector3D from, Vector3D to, double fraction) {
+
+		return from.add(fraction, to.subtract(from));
+	}
+
+	private static class Keyframe {
+
+		private final Vector3D rotation, translation;
+
+		public Keyframe(Vector3D rotation, Vector3D translation) {
+			this.rotation = rotation;
+			this.translation = translation;
+		}
+	}
+}
@@ -10,7 +10,7 @@ import java.util.Optional;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -61,34 +61,96 @@ public class Camera implements Transformable {
 	 * Calculate the color of light reaching this particular point on the
 	 * camera.
 	 * 
+	 * @param context
+	 *            the {@link RenderContext} of the render in progress
 	 * @param cameraX
 	 * @param cameraY
 	 * @return the amount of light reaching the camera at this point
 	 */
-	public Optional<RawColor> shootRay(double cameraX, double cameraY) {
+	public Optional<RawColor> shootRay(RenderContext context, double cameraX, double cameraY) {
 
 		Vector3D location = new Vector3D(cameraX, cameraY, 0.0);
 		Vector3D direction = location.subtract(getEyeLocation()).normalize();
 
-		Ray ray = localToWorld(new Ray(location, direction));
+		double pixelWidth = getPixelWidth(context);
+		Ray ray = localToWorld(
+				new Ray(location, direction, 1, pixelWidth, getPixelSpread(pixelWidth, cameraX, cameraY)));
 
 		Instant start = Instant.now();
-		Optional<Intersection<Shape>> intersection = RaytracerContext.getSingleton()
-				.getCurrentWorld()
-				.getClosestShapeIntersection(ray);
+		Optional<Intersection<Shape>> intersection = context.getWorld().getClosestShapeIntersection(ray);
 		ExecutionTimeTracker.logExecutionRecord("camera - get intersection", start, Instant.now(), null);
 
 		start = Instant.now();
-		Optional<RawColor> resultingColor = RaytracerContext.getSingleton()
-				.getCurrentRenderer()
-				.getLightingModel()
-				.determineRayColor(ray, intersection);
+		Optional<RawColor> resultingColor = context.getLightingModel().determineRayColor(context, ray, intersection);
 		ExecutionTimeTracker.logExecutionRecord("camera - get resulting color", start, Instant.now(), null);
 
 		return resultingColor;
 
 	}
 
+	/**
+	 * Calculate the color of light reaching this particular point on the
+	 * camera, through the given point on the camera's lens.
+	 * <p>
+	 * A pinhole Camera (like this one) has no lens, and so ignores the
+	 * lens-sample. Callers which take several samples per pixel should supply
+	 * a well-distributed lens-sample with each, so that lensed Cameras (e.g.,
+	 * {@link ThinLensCamera}) get their lens-samples for free.
+	 * </p>
+	 * 
+	 * @param context
+	 *            the {@link RenderContext} of the render in progress
+	 * @param cameraX
+	 * @param cameraY
+	 * @param lensU
+	 *            in [0,1)
+	 * @param lensV
+	 *            in [0,1)
+	 * @return the amount of light reaching the camera at this point
+	 */
+	public Optional<RawColor> shootRay(RenderContext context, double cameraX, double cameraY, double lensU,
+			double lensV) {
+
+		return shootRay(context, cameraX, cameraY);
+	}
+
+	/**
+	 * @param context
+	 * @return the width (in world units) of a single pixel on this Camera's
+	 *         frame, or 0 if the image-size is unknown
+	 */
+	protected double getPixelWidth(RenderContext context) {
+
+		int imageWidth = (context.getSettings() == null) ? 0 : context.getSettings().getImageWidth();
+		if (imageWidth <= 0)
+			return 0d;
+
+		return cameraFrameSideLength / (double) imageWidth;
+	}
+
+	/**
+	 * @param context
+	 * @return the footprint-spread of a {@link Ray} shot through the center of
+	 *         this Camera's frame, or 0 if the image-size is unknown
+	 */
+	public double getCenterPixelSpread(RenderContext context) {
+
+		return getPixelSpread(getPixelWidth(context), 0d, 0d);
+	}
+
+	/**
+	 * @param pixelWidth
+	 * @param cameraX
+	 * @param cameraY
+	 * @return the angle (in radians) that a pixel of the given width, at the
+	 *         given point on the frame, subtends from this Camera's eye --
+	 *         i.e., the footprint-spread of a {@link Ray} shot through it
+	 */
+	protected double getPixelSpread(double pixelWidth, double cameraX, double cameraY) {
+
+		return pixelWidth / new Vector3D(cameraX, cameraY, 0d).distance(eyeLocation);
+	}
+
 	public Deque<Transformer> getTransformers() {
 
 		return transformers;
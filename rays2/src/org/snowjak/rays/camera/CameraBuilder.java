@@ -20,6 +20,8 @@ public class CameraBuilder implements Builder<Camera>, TransformableBuilder<Came
 
 	private double cameraFrameWidth = 1d, cameraFieldOfView = 75d;
 
+	private double focalDistance = 1d, lensDiameter = 0d;
+
 	private List<Transformer> transformers = new LinkedList<>();
 
 	/**
@@ -60,6 +62,36 @@ public class CameraBuilder implements Builder<Camera>, TransformableBuilder<Came
 		return this;
 	}
 
+	/**
+	 * Set the distance (beyond the camera's frame) at which this in-progress
+	 * Camera's objects are in perfect focus. Only meaningful if a
+	 * {@link #lensDiameter(double) lens-diameter} is set.
+	 * 
+	 * @param focalDistance
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("focal-distance")
+	public CameraBuilder focalDistance(double focalDistance) {
+
+		this.focalDistance = FastMath.max(focalDistance, 0d);
+		return this;
+	}
+
+	/**
+	 * Set this in-progress Camera's lens-diameter (in world units). If greater
+	 * than 0, a {@link ThinLensCamera} is built; otherwise, a pinhole
+	 * {@link Camera}.
+	 * 
+	 * @param lensDiameter
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("lens-diameter")
+	public CameraBuilder lensDiameter(double lensDiameter) {
+
+		this.lensDiameter = FastMath.max(lensDiameter, 0d);
+		return this;
+	}
+
 	@HasName("transform")
 	@Override
 	public TransformableBuilder<Camera> transform(Transformer transformer) {
@@ -71,7 +103,9 @@ public class CameraBuilder implements Builder<Camera>, TransformableBuilder<Came
 	@Override
 	public Camera build() {
 
-		Camera newCamera = new Camera(cameraFrameWidth, cameraFieldOfView);
+		Camera newCamera = (lensDiameter > 0d)
+				? new ThinLensCamera(cameraFrameWidth, cameraFieldOfView, focalDistance, lensDiameter)
+				: new Camera(cameraFrameWidth, cameraFieldOfView);
 		newCamera.getTransformers().addAll(transformers);
 
 		return newCamera;
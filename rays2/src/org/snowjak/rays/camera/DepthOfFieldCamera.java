@@ -11,7 +11,7 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.antialias.SuperSamplingAntialiaser;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
@@ -77,7 +77,7 @@ public class DepthOfFieldCamera extends Camera {
 	}
 
 	@Override
-	public Optional<RawColor> shootRay(double cameraX, double cameraY) {
+	public Optional<RawColor> shootRay(RenderContext context, double cameraX, double cameraY) {
 
 		Vector3D eyeLocation = getEyeLocation();
 		Vector3D caxelLocation = new Vector3D(cameraX, cameraY, 0d);
@@ -86,6 +86,8 @@ public class DepthOfFieldCamera extends Camera {
 		Vector3D focalPoint = eyeLocation
 				.add(caxelDirection.scalarMultiply((caxelDistance / eyeDistance) * (eyeDistance + focalDistance)));
 
+		double pixelWidth = getPixelWidth(context), pixelSpread = getPixelSpread(pixelWidth, cameraX, cameraY);
+
 		return antialiaser.execute(new Vector3D(cameraX, cameraY, 0d), (v) -> {
 			Collection<Vector3D> results = new LinkedList<>();
 
@@ -102,13 +104,10 @@ public class DepthOfFieldCamera extends Camera {
 
 		}, (v) -> {
 
-			Ray ray = localToWorld(new Ray(v, focalPoint.subtract(v)));
-			Optional<Intersection<Shape>> intersection = RaytracerContext.getSingleton()
-					.getCurrentWorld()
-					.getClosestShapeIntersection(ray);
+			Ray ray = localToWorld(new Ray(v, focalPoint.subtract(v), 1, pixelWidth, pixelSpread));
+			Optional<Intersection<Shape>> intersection = context.getWorld().getClosestShapeIntersection(ray);
 
-			return RaytracerContext.getSingleton().getCurrentRenderer().getLightingModel().determineRayColor(ray,
-					intersection);
+			return context.getLightingModel().determineRayColor(context, ray, intersection);
 
 		}, (lp) -> {
 
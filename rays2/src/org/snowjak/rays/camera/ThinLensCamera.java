@@ -0,0 +1,162 @@
+package org.snowjak.rays.camera;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.util.ExecutionTimeTracker;
+
+/**
+ * Version of {@link Camera} that models depth-of-field with a thin lens.
+ * <p>
+ * Unlike {@link DepthOfFieldCamera}, a ThinLensCamera shoots exactly one Ray
+ * per call, through a single point on its lens -- the lens-sample is supplied
+ * by the caller alongside the pixel-sample (see
+ * {@link #shootRay(RenderContext, double, double, double, double)}). So
+ * {@code N} antialiasing samples per pixel also yield {@code N} samples across
+ * the lens, and depth-of-field costs no more than a pinhole Camera.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ */
+public class ThinLensCamera extends Camera {
+
+	private final double focalDistance, lensRadius, eyeDistance;
+
+	/**
+	 * Construct a new {@link ThinLensCamera}, using a default lens-diameter
+	 * equal to 1/10th of the camera's frame-width.
+	 * 
+	 * @param cameraFrameWidth
+	 * @param fieldOfView
+	 * @param focalDistance
+	 *            the distance (beyond the camera's frame) at which objects are
+	 *            in perfect focus
+	 */
+	public ThinLensCamera(double cameraFrameWidth, double fieldOfView, double focalDistance) {
+		this(cameraFrameWidth, fieldOfView, focalDistance, (1d / 10d) * cameraFrameWidth);
+	}
+
+	/**
+	 * Construct a new {@link ThinLensCamera}, using a lens of the given
+	 * diameter.
+	 * 
+	 * @param cameraFrameWidth
+	 * @param fieldOfView
+	 * @param focalDistance
+	 *            the distance (beyond the camera's frame) at which objects are
+	 *            in perfect focus
+	 * @param lensDiameter
+	 */
+	public ThinLensCamera(double cameraFrameWidth, double fieldOfView, double focalDistance, double lensDiameter) {
+		super(cameraFrameWidth, fieldOfView);
+
+		this.focalDistance = focalDistance;
+		this.lensRadius = lensDiameter / 2d;
+		this.eyeDistance = getEyeLocation().distance(Vector3D.ZERO);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * With no lens-sample given, a ThinLensCamera picks a point on its lens at
+	 * random.
+	 * </p>
+	 */
+	@Override
+	public Optional<RawColor> shootRay(RenderContext context, double cameraX, double cameraY) {
+
+		ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		return shootRay(context, cameraX, cameraY, rnd.nextDouble(), rnd.nextDouble());
+	}
+
+	@Override
+	public Optional<RawColor> shootRay(RenderContext context, double cameraX, double cameraY, double lensU,
+			double lensV) {
+
+		//
+		// Give the Ray a single pixel's footprint -- as for a pinhole Camera.
+		Ray lensRay = getRay(cameraX, cameraY, lensU, lensV);
+		double pixelWidth = getPixelWidth(context);
+		Ray ray = localToWorld(new Ray(lensRay.getOrigin(), lensRay.getVector(), 1, pixelWidth,
+				getPixelSpread(pixelWidth, cameraX, cameraY)));
+
+		Instant start = Instant.now();
+		Optional<Intersection<Shape>> intersection = context.getWorld().getClosestShapeIntersection(ray);
+		ExecutionTimeTracker.logExecutionRecord("camera - get intersection", start, Instant.now(), null);
+
+		return context.getLightingModel().determineRayColor(context, ray, intersection);
+	}
+
+	/**
+	 * Compute the (camera-local) Ray passing through the given point on the
+	 * camera's frame and the given point on its lens.
+	 * 
+	 * @param cameraX
+	 * @param cameraY
+	 * @param lensU
+	 *            in [0,1)
+	 * @param lensV
+	 *            in [0,1)
+	 * @return the camera-local Ray
+	 */
+	public Ray getRay(double cameraX, double cameraY, double lensU, double lensV) {
+
+		Vector3D eyeLocation = getEyeLocation();
+		Vector3D caxelLocation = new Vector3D(cameraX, cameraY, 0d);
+		Vector3D caxelToEye = caxelLocation.subtract(eyeLocation);
+		double caxelDistance = caxelToEye.getNorm();
+
+		//
+		// Every Ray through this caxel converges on the same point on the
+		// focal plane.
+		Vector3D focalPoint = eyeLocation.add(caxelToEye
+				.scalarMultiply(((caxelDistance / eyeDistance) * (eyeDistance + focalDistance)) / caxelDistance));
+
+		//
+		// Map the lens-sample onto the lens-disc with Shirley's concentric
+		// mapping, which keeps well-stratified samples well-stratified.
+		double a = 2d * lensU - 1d, b = 2d * lensV - 1d;
+		double r, theta;
+		if (a == 0d && b == 0d) {
+			r = 0d;
+			theta = 0d;
+		} else if (FastMath.abs(a) > FastMath.abs(b)) {
+			r = a;
+			theta = (FastMath.PI / 4d) * (b / a);
+		} else {
+			r = b;
+			theta = (FastMath.PI / 2d) - (FastMath.PI / 4d) * (a / b);
+		}
+		r *= lensRadius;
+
+		Vector3D lensPoint = new Vector3D(cameraX + r * FastMath.cos(theta), cameraY + r * FastMath.sin(theta), 0d);
+		return new Ray(lensPoint, focalPoint.subtract(lensPoint));
+	}
+
+	/**
+	 * @return the distance (beyond the camera's frame) at which objects are in
+	 *         perfect focus
+	 */
+	public double getFocalDistance() {
+
+		return focalDistance;
+	}
+
+	/**
+	 * @return the radius of this camera's lens
+	 */
+	public double getLensRadius() {
+
+		return lensRadius;
+	}
+
+}
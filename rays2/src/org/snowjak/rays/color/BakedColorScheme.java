@@ -0,0 +1,226 @@
+package org.snowjak.rays.color;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * A {@link ColorScheme} that samples another (presumably expensive)
+ * ColorScheme once, over a regular grid spanning a given box, and thereafter
+ * answers every query by trilinearly interpolating between those samples.
+ * <p>
+ * The box is given in the source ColorScheme's local coordinates; points
+ * outside it are clamped onto it. An axis along which the box has no extent
+ * gets only a single sample, so a flat box bakes a 2D texture rather than a
+ * 3D one.
+ * </p>
+ * <p>
+ * Baking trades accuracy for speed, so a BakedColorScheme measures how far it
+ * strays from its source when it is built -- see {@link #getMaximumError()}
+ * and {@link #getRmsError()}.
+ * </p>
+ * <p>
+ * The baked samples are never modified once taken, so {@link #copy() copies}
+ * share them rather than re-baking.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class BakedColorScheme extends ColorScheme {
+
+	private static final int ERROR_SAMPLE_COUNT = 4096;
+
+	private final ColorScheme source;
+
+	private final Vector3D from, to;
+
+	private final int resolution, countX, countY, countZ;
+
+	private final double scaleX, scaleY, scaleZ;
+
+	private final float[] samples;
+
+	private final double maximumError, rmsError;
+
+	/**
+	 * Bake the given {@link ColorScheme} over the box spanning {@code from}
+	 * and {@code to}, taking {@code resolution} samples along each axis.
+	 *
+	 * @param source
+	 * @param from
+	 * @param to
+	 * @param resolution
+	 * @throws IllegalArgumentException
+	 *             if {@code resolution < 2}
+	 */
+	public BakedColorScheme(ColorScheme source, Vector3D from, Vector3D to, int resolution) {
+
+		if (resolution < 2)
+			throw new IllegalArgumentException("Cannot bake a color-scheme with fewer than 2 samples per axis.");
+
+		this.source = source;
+		this.from = new Vector3D(FastMath.min(from.getX(), to.getX()), FastMath.min(from.getY(), to.getY()),
+				FastMath.min(from.getZ(), to.getZ()));
+		this.to = new Vector3D(FastMath.max(from.getX(), to.getX()), FastMath.max(from.getY(), to.getY()),
+				FastMath.max(from.getZ(), to.getZ()));
+		this.resolution = resolution;
+
+		countX = (this.to.getX() > this.from.getX()) ? resolution : 1;
+		countY = (this.to.getY() > this.from.getY()) ? resolution : 1;
+		countZ = (this.to.getZ() > this.from.getZ()) ? resolution : 1;
+
+		scaleX = (countX > 1) ? (countX - 1) / (this.to.getX() - this.from.getX()) : 0d;
+		scaleY = (countY > 1) ? (countY - 1) / (this.to.getY() - this.from.getY()) : 0d;
+		scaleZ = (countZ > 1) ? (countZ - 1) / (this.to.getZ() - this.from.getZ()) : 0d;
+
+		getTransformers().addAll(source.getTransformers());
+		setShininess(source.getShininess());
+
+		samples = new float[3 * countX * countY * countZ];
+		IntStream.range(0, countZ).parallel().forEach(k -> {
+			double z = (countZ > 1) ? this.from.getZ() + k / scaleZ : this.from.getZ();
+			for (int j = 0; j < countY; j++) {
+				double y = (countY > 1) ? this.from.getY() + j / scaleY : this.from.getY();
+				for (int i = 0; i < countX; i++) {
+					double x = (countX > 1) ? this.from.getX() + i / scaleX : this.from.getX();
+
+					RawColor color = source.getColor(x, y, z);
+					int index = 3 * ((k * countY + j) * countX + i);
+					samples[index] = (float) color.getRed();
+					samples[index + 1] = (float) color.getGreen();
+					samples[index + 2] = (float) color.getBlue();
+				}
+			}
+		});
+
+		double[] errors = measureError(new Random(resolution));
+		maximumError = errors[0];
+		rmsError = errors[1];
+	}
+
+	/**
+	 * Create a copy of the given BakedColorScheme, sharing its samples.
+	 *
+	 * @param toCopy
+	 * @param source
+	 *            the copied ColorScheme's source
+	 */
+	private BakedColorScheme(BakedColorScheme toCopy, ColorScheme source) {
+		this.source = source;
+		this.from = toCopy.from;
+		this.to = toCopy.to;
+		this.resolution = toCopy.resolution;
+		this.countX = toCopy.countX;
+		this.countY = toCopy.countY;
+		this.countZ = toCopy.countZ;
+		this.scaleX = toCopy.scaleX;
+		this.scaleY = toCopy.scaleY;
+		this.scaleZ = toCopy.scaleZ;
+		this.samples = toCopy.samples;
+		this.maximumError = toCopy.maximumError;
+		this.rmsError = toCopy.rmsError;
+
+		getTransformers().addAll(toCopy.getTransformers());
+		setShininess(toCopy.getShininess());
+	}
+
+	/**
+	 * Compare this baked ColorScheme against its source, at a number of
+	 * random points within the box.
+	 *
+	 * @return the maximum and RMS errors
+	 */
+	private double[] measureError(Random rnd) {
+
+		double maximum = 0d, sumSquared = 0d;
+		for (int i = 0; i < ERROR_SAMPLE_COUNT; i++) {
+			double x = from.getX() + rnd.nextDouble() * (to.getX() - from.getX()),
+					y = from.getY() + rnd.nextDouble() * (to.getY() - from.getY()),
+					z = from.getZ() + rnd.nextDouble() * (to.getZ() - from.getZ());
+
+			RawColor exact = source.getColor(x, y, z), baked = getColor(x, y, z);
+			double dr = exact.getRed() - baked.getRed(), dg = exact.getGreen() - baked.getGreen(),
+					db = exact.getBlue() - baked.getBlue();
+
+			maximum = FastMath.max(maximum,
+					FastMath.max(FastMath.abs(dr), FastMath.max(FastMath.abs(dg), FastMath.abs(db))));
+			sumSquared += dr * dr + dg * dg + db * db;
+		}
+
+		return new double[] { maximum, FastMath.sqrt(sumSquared / (3d * ERROR_SAMPLE_COUNT)) };
+	}
+
+	@Override
+	public RawColor getColor(double x, double y, double z) {
+
+		double gx = clamp((x - from.getX()) * scaleX, countX), gy = clamp((y - from.getY()) * scaleY, countY),
+				gz = clamp((z - from.getZ()) * scaleZ, countZ);
+
+		int i0 = (int) gx, j0 = (int) gy, k0 = (int) gz;
+		int i1 = FastMath.min(i0 + 1, countX - 1), j1 = FastMath.min(j0 + 1, countY - 1),
+				k1 = FastMath.min(k0 + 1, countZ - 1);
+		double fx = gx - i0, fy = gy - j0, fz = gz - k0;
+
+		//
+		// Blend the 8 surrounding samples -- corner c takes the "1" side of
+		// the X, Y, or Z axis according to its 1st, 2nd, or 3rd bit.
+		double red = 0d, green = 0d, blue = 0d;
+		for (int c = 0; c < 8; c++) {
+			boolean highX = (c & 1) != 0, highY = (c & 2) != 0, highZ = (c & 4) != 0;
+			double weight = (highX ? fx : 1d - fx) * (highY ? fy : 1d - fy) * (highZ ? fz : 1d - fz);
+			int index = 3 * (((highZ ? k1 : k0) * countY + (highY ? j1 : j0)) * countX + (highX ? i1 : i0));
+
+			red += weight * samples[index];
+			green += weight * samples[index + 1];
+			blue += weight * samples[index + 2];
+		}
+
+		return new RawColor(red, green, blue);
+	}
+
+	private static double clamp(double gridCoordinate, int count) {
+
+		return FastMath.min(FastMath.max(gridCoordinate, 0d), count - 1);
+	}
+
+	@Override
+	public double getShininess(Vector3D coord) {
+
+		return source.getShininess(coord);
+	}
+
+	@Override
+	public ColorScheme copy() {
+
+		return new BakedColorScheme(this, source.copy());
+	}
+
+	/**
+	 * @return the largest difference (in any one color-component) found
+	 *         between this baked ColorScheme and its source
+	 */
+	public double getMaximumError() {
+
+		return maximumError;
+	}
+
+	/**
+	 * @return the root-mean-square difference (over all color-components)
+	 *         found between this baked ColorScheme and its source
+	 */
+	public double getRmsError() {
+
+		return rmsError;
+	}
+
+	/**
+	 * @return the ColorScheme this was baked from
+	 */
+	public ColorScheme getSource() {
+
+		return source;
+	}
+}
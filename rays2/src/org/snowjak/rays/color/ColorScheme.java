@@ -4,6 +4,7 @@ import java.util.Deque;
 import java.util.LinkedList;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
 import org.snowjak.rays.Prototype;
 import org.snowjak.rays.transform.Transformable;
 import org.snowjak.rays.transform.Transformer;
@@ -31,6 +32,29 @@ public abstract class ColorScheme implements Transformable, Prototype<ColorSchem
 	 */
 	public abstract RawColor getColor(double x, double y, double z);
 
+	/**
+	 * Determine which color to use for the object, filtered over a region of
+	 * the given width around the provided object-local coordinates.
+	 * <p>
+	 * By default, the footprint is ignored and the color is point-sampled.
+	 * ColorSchemes with fine detail (e.g., noise or checkerboards) should
+	 * override this to filter that detail away as it gets smaller than the
+	 * footprint.
+	 * </p>
+	 * 
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param footprint
+	 *            the width (in object-local units) of the region to filter
+	 *            over
+	 * @return the color to use for this object
+	 */
+	public RawColor getColor(double x, double y, double z, double footprint) {
+
+		return getColor(x, y, z);
+	}
+
 	/**
 	 * Determine which color to use for the object, given the provided
 	 * object-local coordinates.
@@ -70,6 +94,35 @@ public abstract class ColorScheme implements Transformable, Prototype<ColorSchem
 		return getColor(localCoord.getX(), localCoord.getY(), localCoord.getZ());
 	}
 
+	/**
+	 * Determine which color to use for the object, filtered over a region of
+	 * the given width around the provided global coordinates.
+	 * 
+	 * @param worldCoord
+	 * @param footprint
+	 *            the width (in world units) of the region to filter over
+	 * @return the color to use for this object
+	 * @see #getColor(double, double, double, double)
+	 */
+	public RawColor getColorForWorld(Vector3D worldCoord, double footprint) {
+
+		if (!(footprint > 0d))
+			return getColorForWorld(worldCoord);
+
+		Vector3D localCoord = worldToLocal(worldCoord);
+
+		//
+		// Measure the footprint in local units by transforming a diagonal of
+		// the same length (exact for uniform scales).
+		double localFootprint = footprint;
+		if (!getTransformers().isEmpty()) {
+			double offset = footprint / FastMath.sqrt(3d);
+			localFootprint = worldToLocal(worldCoord.add(new Vector3D(offset, offset, offset))).distance(localCoord);
+		}
+
+		return getColor(localCoord.getX(), localCoord.getY(), localCoord.getZ(), localFootprint);
+	}
+
 	/**
 	 * @return this color scheme's "shininess" exponent
 	 */
@@ -2,11 +2,13 @@ package org.snowjak.rays.color;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.builder.Builder;
 import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.function.expression.Expressions;
 import org.snowjak.rays.transform.TransformableBuilder;
 import org.snowjak.rays.transform.Transformer;
 import org.snowjak.rays.world.importfile.HasName;
@@ -26,6 +28,12 @@ public class ColorSchemeBuilder implements Builder<ColorScheme>, TransformableBu
 
 	private List<Transformer> transformers = new LinkedList<>();
 
+	private int bakeResolution = 0;
+
+	private Vector3D bakeFrom = new Vector3D(-1d, -1d, -1d), bakeTo = new Vector3D(1d, 1d, 1d);
+
+	private boolean memoize = false;
+
 	/**
 	 * @return a new ColorSchemeBuilder
 	 */
@@ -102,11 +110,87 @@ public class ColorSchemeBuilder implements Builder<ColorScheme>, TransformableBu
 		return this;
 	}
 
+	/**
+	 * Bake the in-progress {@link ColorScheme} into a texture, taking the
+	 * given number of samples along each axis of the bake-box (see
+	 * {@link #bakeFrom(Vector3D)} and {@link #bakeTo(Vector3D)}). A resolution
+	 * of 0 (the default) disables baking.
+	 * 
+	 * @param resolution
+	 * @return this ColorSchemeBuilder
+	 * @see BakedColorScheme
+	 */
+	@HasName("bake-resolution")
+	public ColorSchemeBuilder bakeResolution(int resolution) {
+
+		this.bakeResolution = resolution;
+		return this;
+	}
+
+	/**
+	 * Set one corner of the box (in the {@link ColorScheme}'s local
+	 * coordinates) over which to bake it. Defaults to (-1,-1,-1).
+	 * 
+	 * @param from
+	 * @return this ColorSchemeBuilder
+	 */
+	@HasName("bake-from")
+	public ColorSchemeBuilder bakeFrom(Vector3D from) {
+
+		this.bakeFrom = from;
+		return this;
+	}
+
+	/**
+	 * Set the opposite corner of the box (in the {@link ColorScheme}'s local
+	 * coordinates) over which to bake it. Defaults to (1,1,1).
+	 * 
+	 * @param to
+	 * @return this ColorSchemeBuilder
+	 */
+	@HasName("bake-to")
+	public ColorSchemeBuilder bakeTo(Vector3D to) {
+
+		this.bakeTo = to;
+		return this;
+	}
+
+	/**
+	 * Remember the colors most recently computed by the in-progress
+	 * {@link ColorScheme}, so that repeated look-ups of the same point are
+	 * cheap.
+	 * 
+	 * @param memoize
+	 * @return this ColorSchemeBuilder
+	 * @see MemoizingColorScheme
+	 */
+	@HasName("memoize")
+	public ColorSchemeBuilder memoize(boolean memoize) {
+
+		this.memoize = memoize;
+		return this;
+	}
+
 	@Override
 	public ColorScheme build() {
 
+		//
+		// A constant color needs neither baking nor memoizing -- and may be
+		// shared with every other Shape of the same color.
+		Optional<RawColor> constantColor = Expressions.getConstantColor(this.colorFunction);
+		if (constantColor.isPresent())
+			return SimpleColorScheme.intern(new SimpleColorScheme(constantColor.get()));
+
 		ColorScheme colorScheme = new FunctionalColorScheme(this.colorFunction);
 		colorScheme.getTransformers().addAll(this.transformers);
+
+		if (bakeResolution > 0) {
+			colorScheme = new BakedColorScheme(colorScheme, bakeFrom, bakeTo, bakeResolution);
+		}
+
+		if (memoize)
+			colorScheme = new MemoizingColorScheme(colorScheme);
+
 		return colorScheme;
 	}
 
@@ -0,0 +1,67 @@
+package org.snowjak.rays.color;
+
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.builder.Builder;
+import org.snowjak.rays.world.importfile.HasName;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Builds a single color-stop for a {@link Gradient} -- i.e., a pair of
+ * (threshold, color).
+ * 
+ * @author snowjak88
+ * @see GradientColorSchemeBuilder#stop(Pair)
+ */
+@HasName("color-stop")
+public class ColorStopBuilder implements Builder<Pair<Double, Color>> {
+
+	private double threshold = 0d;
+
+	private RawColor color = new RawColor(Color.BLACK);
+
+	/**
+	 * @return a new ColorStopBuilder instance
+	 */
+	public static ColorStopBuilder builder() {
+
+		return new ColorStopBuilder();
+	}
+
+	protected ColorStopBuilder() {
+
+	}
+
+	/**
+	 * Configure this color-stop's threshold. Defaults to 0.
+	 * 
+	 * @param threshold
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("threshold")
+	public ColorStopBuilder threshold(double threshold) {
+
+		this.threshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Configure this color-stop's color. Defaults to black.
+	 * 
+	 * @param color
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("color")
+	public ColorStopBuilder color(RawColor color) {
+
+		this.color = color;
+		return this;
+	}
+
+	@Override
+	public Pair<Double, Color> build() {
+
+		return new Pair<>(threshold, color.toColor());
+	}
+
+}
@@ -3,6 +3,8 @@ package org.snowjak.rays.color;
 import java.util.function.Function;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.function.expression.ColorExpression;
+import org.snowjak.rays.function.expression.Expressions;
 
 /**
  * An implementation of {@link ColorScheme} that acts merely as a container for
@@ -15,6 +17,12 @@ public class FunctionalColorScheme extends ColorScheme {
 
 	private Function<Vector3D, RawColor> function;
 
+	/**
+	 * If {@link #function} is known to be constant, its value -- so we needn't
+	 * transform each point only to ignore it.
+	 */
+	private final RawColor constantColor;
+
 	/**
 	 * Construct a new {@link FunctionalColorScheme}, based on the given
 	 * {@link Function}.
@@ -23,6 +31,7 @@ public class FunctionalColorScheme extends ColorScheme {
 	 */
 	public FunctionalColorScheme(Function<Vector3D, RawColor> function) {
 		this.function = function;
+		this.constantColor = Expressions.getConstantColor(function).orElse(null);
 	}
 
 	@Override
@@ -34,7 +43,30 @@ public class FunctionalColorScheme extends ColorScheme {
 	@Override
 	public RawColor getColor(double x, double y, double z) {
 
+		if (constantColor != null)
+			return constantColor;
+
 		return function.apply(worldToLocal(new Vector3D(x, y, z)));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only a {@link ColorExpression} can be filtered; any other function is
+	 * point-sampled.
+	 * </p>
+	 */
+	@Override
+	public RawColor getColor(double x, double y, double z, double footprint) {
+
+		if (constantColor != null)
+			return constantColor;
+
+		if (!(function instanceof ColorExpression))
+			return getColor(x, y, z);
+
+		Vector3D local = worldToLocal(new Vector3D(x, y, z));
+		return ((ColorExpression) function).evaluate(local.getX(), local.getY(), local.getZ(), footprint);
+	}
+
 }
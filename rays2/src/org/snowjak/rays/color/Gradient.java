@@ -0,0 +1,187 @@
+package org.snowjak.rays.color;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
+
+import javafx.scene.paint.Color;
+
+/**
+ * An immutable, one-dimensional color-gradient: a list of color-stops, each at
+ * some threshold, and linearly-interpolated between them.
+ * <p>
+ * A Gradient does all its sorting and conversion up-front. Its stops are held
+ * in primitive arrays, along with each segment's per-unit color slope, so
+ * that a lookup costs only a binary search and a multiply-add per channel.
+ * </p>
+ * <p>
+ * If a {@link #Gradient(List, int) lookup-table resolution} is given, the
+ * Gradient is additionally sampled into a uniform table of pre-built
+ * {@link RawColor}s. Lookups then cost only an index computation, and
+ * allocate nothing -- at the price of snapping each lookup to the nearest
+ * table entry.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ */
+public class Gradient {
+
+	private final double[] thresholds;
+
+	private final double[] red, green, blue;
+
+	private final double[] redSlope, greenSlope, blueSlope;
+
+	private final RawColor[] stopColors;
+
+	private final RawColor[] lookupTable;
+
+	private final double lookupScale;
+
+	/**
+	 * Create a new Gradient from the given color-stops, which may be in any
+	 * order.
+	 * 
+	 * @param stops
+	 *            pairs of (threshold, color)
+	 * @see org.snowjak.rays.function.Functions#blend(List)
+	 */
+	public Gradient(List<Pair<Double, Color>> stops) {
+		this(stops, 0);
+	}
+
+	/**
+	 * Create a new Gradient from the given color-stops, which may be in any
+	 * order, backed by a uniform lookup-table of the given resolution.
+	 * 
+	 * @param stops
+	 *            pairs of (threshold, color)
+	 * @param lookupResolution
+	 *            the number of entries in the lookup-table, or {@code 0} to
+	 *            always compute colors exactly
+	 * @throws IllegalArgumentException
+	 *             if {@code stops} is empty, or {@code lookupResolution} is
+	 *             neither {@code 0} nor at least {@code 2}
+	 */
+	public Gradient(List<Pair<Double, Color>> stops, int lookupResolution) {
+
+		if (stops.isEmpty())
+			throw new IllegalArgumentException("A Gradient needs at least one color-stop.");
+		if (lookupResolution != 0 && lookupResolution < 2)
+			throw new IllegalArgumentException(
+					"Lookup-table resolution must be 0 or at least 2 (was " + lookupResolution + ").");
+
+		List<Pair<Double, Color>> sorted = stops.stream()
+				.sorted((p1, p2) -> Double.compare(p1.getKey(), p2.getKey()))
+				.collect(Collectors.toList());
+
+		int count = sorted.size();
+		this.thresholds = new double[count];
+		this.red = new double[count];
+		this.green = new double[count];
+		this.blue = new double[count];
+		this.stopColors = new RawColor[count];
+		for (int i = 0; i < count; i++) {
+			thresholds[i] = sorted.get(i).getKey();
+			stopColors[i] = new RawColor(sorted.get(i).getValue());
+			red[i] = stopColors[i].getRed();
+			green[i] = stopColors[i].getGreen();
+			blue[i] = stopColors[i].getBlue();
+		}
+
+		//
+		// Segment i runs from stop i to stop i+1. A zero-width segment is
+		// never selected by a lookup, so its slope doesn't matter.
+		this.redSlope = new double[count];
+		this.greenSlope = new double[count];
+		this.blueSlope = new double[count];
+		for (int i = 0; i < count - 1; i++) {
+			double width = thresholds[i + 1] - thresholds[i];
+			if (width > 0d) {
+				redSlope[i] = (red[i + 1] - red[i]) / width;
+				greenSlope[i] = (green[i + 1] - green[i]) / width;
+				blueSlope[i] = (blue[i + 1] - blue[i]) / width;
+			}
+		}
+
+		double range = thresholds[count - 1] - thresholds[0];
+		if (lookupResolution > 0 && range > 0d) {
+			this.lookupTable = new RawColor[lookupResolution];
+			for (int i = 0; i < lookupResolution; i++)
+				lookupTable[i] = computeColor(thresholds[0] + range * (double) i / (double) (lookupResolution - 1));
+			this.lookupScale = (double) (lookupResolution - 1) / range;
+		} else {
+			this.lookupTable = null;
+			this.lookupScale = 0d;
+		}
+	}
+
+	/**
+	 * Look up the color at the given value. Values outside this Gradient's
+	 * range of thresholds take the color of the nearest end-stop.
+	 * 
+	 * @param t
+	 * @return the Gradient's color at {@code t}
+	 */
+	public RawColor getColor(double t) {
+
+		if (lookupTable == null)
+			return computeColor(t);
+
+		if (!(t > thresholds[0]))
+			return (t < thresholds[0]) ? stopColors[0] : lookupTable[0];
+		if (t >= thresholds[thresholds.length - 1])
+			return stopColors[stopColors.length - 1];
+
+		return lookupTable[(int) FastMath.round((t - thresholds[0]) * lookupScale)];
+	}
+
+	private RawColor computeColor(double t) {
+
+		if (t < thresholds[0])
+			return stopColors[0];
+
+		//
+		// Find the first stop whose threshold lies above t.
+		int low = 0, high = thresholds.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (thresholds[mid] > t)
+				high = mid;
+			else
+				low = mid + 1;
+		}
+
+		if (low == thresholds.length)
+			return stopColors[stopColors.length - 1];
+
+		int segment = low - 1;
+		double offset = t - thresholds[segment];
+		return new RawColor(red[segment] + redSlope[segment] * offset,
+				green[segment] + greenSlope[segment] * offset, blue[segment] + blueSlope[segment] * offset);
+	}
+
+	/**
+	 * @return <code>true</code> if every color-stop in this Gradient is the
+	 *         same color -- i.e., if this Gradient is constant
+	 */
+	public boolean isConstant() {
+
+		for (int i = 1; i < stopColors.length; i++)
+			if (red[i] != red[0] || green[i] != green[0] || blue[i] != blue[0])
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return this Gradient's thresholds, in ascending order
+	 */
+	public double[] getThresholds() {
+
+		return Arrays.copyOf(thresholds, thresholds.length);
+	}
+}
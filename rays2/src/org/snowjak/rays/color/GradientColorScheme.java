@@ -0,0 +1,80 @@
+package org.snowjak.rays.color;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.function.expression.Expression;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.function.expression.ScalarEvaluator;
+
+/**
+ * A {@link ColorScheme} which colors each point by looking up a
+ * {@link Gradient} -- indexed by some scalar function of the point (e.g.,
+ * {@link org.snowjak.rays.function.Functions#turbulence(Vector3D, int)
+ * turbulence}).
+ * 
+ * @author snowjak88
+ *
+ */
+public class GradientColorScheme extends ColorScheme {
+
+	private final Function<Vector3D, Double> parameter;
+
+	private final ScalarEvaluator parameterEvaluator;
+
+	private final Gradient gradient;
+
+	/**
+	 * Construct a new GradientColorScheme.
+	 * 
+	 * @param parameter
+	 *            maps each (local) point to a value to look up in
+	 *            {@code gradient}
+	 * @param gradient
+	 */
+	public GradientColorScheme(Function<Vector3D, Double> parameter, Gradient gradient) {
+		this.parameter = parameter;
+		this.parameterEvaluator = Expressions.compile(parameter);
+		this.gradient = gradient;
+	}
+
+	@Override
+	public RawColor getColor(double x, double y, double z) {
+
+		return gradient.getColor(parameterEvaluator.evaluate(x, y, z));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only an {@link Expression} parameter can be filtered; any other
+	 * parameter is point-sampled.
+	 * </p>
+	 */
+	@Override
+	public RawColor getColor(double x, double y, double z, double footprint) {
+
+		if (!(parameter instanceof Expression))
+			return getColor(x, y, z);
+
+		return gradient.getColor(((Expression) parameter).evaluate(x, y, z, footprint));
+	}
+
+	/**
+	 * @return this ColorScheme's Gradient
+	 */
+	public Gradient getGradient() {
+
+		return gradient;
+	}
+
+	@Override
+	public GradientColorScheme copy() {
+
+		GradientColorScheme copy = new GradientColorScheme(parameter, gradient);
+		copy.setShininess(getShininess());
+		copy.getTransformers().addAll(getTransformers());
+		return copy;
+	}
+
+}
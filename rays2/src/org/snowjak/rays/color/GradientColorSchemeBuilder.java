@@ -0,0 +1,173 @@
+package org.snowjak.rays.color;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.builder.Builder;
+import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.transform.TransformableBuilder;
+import org.snowjak.rays.transform.Transformer;
+import org.snowjak.rays.world.importfile.HasName;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Builds a {@link GradientColorScheme} object.
+ * <p>
+ * Unless otherwise configured, the gradient runs from black (at 0) to white
+ * (at 1), and is indexed by a constant 0.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+@HasName("gradient")
+public class GradientColorSchemeBuilder implements Builder<ColorScheme>, TransformableBuilder<ColorScheme> {
+
+	private Function<Vector3D, Double> parameter = Functions.constant(0d);
+
+	private List<Pair<Double, Color>> stops = new LinkedList<>();
+
+	private int lookupResolution = 0;
+
+	private List<Transformer> transformers = new LinkedList<>();
+
+	/**
+	 * @return a new GradientColorSchemeBuilder
+	 */
+	public static GradientColorSchemeBuilder builder() {
+
+		return new GradientColorSchemeBuilder();
+	}
+
+	protected GradientColorSchemeBuilder() {
+
+	}
+
+	/**
+	 * Set the function (of each local point) by which the in-progress
+	 * {@link GradientColorScheme} looks up its gradient.
+	 *
+	 * @param parameter
+	 * @return this GradientColorSchemeBuilder
+	 * @see org.snowjak.rays.function.builder.ScalarFunctionBuilder
+	 */
+	@HasName("parameter")
+	public GradientColorSchemeBuilder parameter(Function<Vector3D, Double> parameter) {
+
+		this.parameter = parameter;
+		return this;
+	}
+
+	/**
+	 * Add a color-stop to the in-progress gradient. Stops may be added in any
+	 * order.
+	 *
+	 * @param threshold
+	 * @param color
+	 * @return this GradientColorSchemeBuilder
+	 */
+	public GradientColorSchemeBuilder stop(double threshold, Color color) {
+
+		return stop(new Pair<>(threshold, color));
+	}
+
+	/**
+	 * Add a color-stop to the in-progress gradient. Stops may be added in any
+	 * order.
+	 *
+	 * @param stop
+	 *            a pair of (threshold, color)
+	 * @return this GradientColorSchemeBuilder
+	 * @see ColorStopBuilder
+	 */
+	@HasName("stop")
+	public GradientColorSchemeBuilder stop(Pair<Double, Color> stop) {
+
+		this.stops.add(stop);
+		return this;
+	}
+
+	/**
+	 * Add several color-stops to the in-progress gradient.
+	 *
+	 * @param stops
+	 *            pairs of (threshold, color)
+	 * @return this GradientColorSchemeBuilder
+	 */
+	public GradientColorSchemeBuilder stops(List<Pair<Double, Color>> stops) {
+
+		this.stops.addAll(stops);
+		return this;
+	}
+
+	/**
+	 * Back the in-progress gradient with a lookup-table of the given
+	 * resolution. A resolution of 0 (the default) always computes colors
+	 * exactly.
+	 *
+	 * @param resolution
+	 * @return this GradientColorSchemeBuilder
+	 * @see Gradient#Gradient(List, int)
+	 */
+	@HasName("lookup-resolution")
+	public GradientColorSchemeBuilder lookupResolution(int resolution) {
+
+		this.lookupResolution = resolution;
+		return this;
+	}
+
+	/**
+	 * Add a {@link Transformer} to the in-progress {@link ColorScheme}
+	 *
+	 * @param transform
+	 * @return this GradientColorSchemeBuilder
+	 */
+	@HasName("transform")
+	@Override
+	public GradientColorSchemeBuilder transform(Transformer transform) {
+
+		this.transformers.add(transform);
+		return this;
+	}
+
+	/**
+	 * Add a list of Transformers to this in-progress ColorScheme.
+	 *
+	 * @param transforms
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("transforms")
+	public GradientColorSchemeBuilder transform(List<Transformer> transforms) {
+
+		this.transformers.addAll(transforms);
+		return this;
+	}
+
+	@Override
+	public ColorScheme build() {
+
+		List<Pair<Double, Color>> stops = this.stops;
+		if (stops.isEmpty()) {
+			stops = new LinkedList<>();
+			stops.add(new Pair<>(0d, Color.BLACK));
+			stops.add(new Pair<>(1d, Color.WHITE));
+		}
+
+		Gradient gradient = new Gradient(stops, lookupResolution);
+
+		//
+		// A single-colored gradient is just a constant color.
+		if (gradient.isConstant())
+			return SimpleColorScheme.intern(new SimpleColorScheme(gradient.getColor(0d)));
+
+		ColorScheme colorScheme = new GradientColorScheme(parameter, gradient);
+		colorScheme.getTransformers().addAll(this.transformers);
+
+		return colorScheme;
+	}
+
+}
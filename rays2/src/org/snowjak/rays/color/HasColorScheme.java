@@ -21,6 +21,18 @@ public interface HasColorScheme {
 		return getDiffuseColorScheme().getColorForWorld(worldCoord);
 	}
 
+	/**
+	 * @param worldCoord
+	 * @param footprint
+	 *            the width (in world units) of the area to filter over
+	 * @return this object's diffuse color for the given global location
+	 * @see ColorScheme#getColorForWorld(Vector3D, double)
+	 */
+	public default RawColor getDiffuse(Vector3D worldCoord, double footprint) {
+
+		return getDiffuseColorScheme().getColorForWorld(worldCoord, footprint);
+	}
+
 	/**
 	 * @param worldX
 	 * @param worldY
@@ -41,6 +53,18 @@ public interface HasColorScheme {
 		return getSpecularColorScheme().getColorForWorld(worldCoord);
 	}
 
+	/**
+	 * @param worldCoord
+	 * @param footprint
+	 *            the width (in world units) of the area to filter over
+	 * @return this object's specular color for the given global location
+	 * @see ColorScheme#getColorForWorld(Vector3D, double)
+	 */
+	public default RawColor getSpecular(Vector3D worldCoord, double footprint) {
+
+		return getSpecularColorScheme().getColorForWorld(worldCoord, footprint);
+	}
+
 	/**
 	 * @param worldX
 	 * @param worldY
@@ -0,0 +1,155 @@
+package org.snowjak.rays.color;
+
+import java.util.Deque;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.transform.Transformer;
+
+/**
+ * A {@link ColorScheme} that remembers, on each thread, the colors it most
+ * recently computed for a handful of points, so that the several lighting
+ * models shading the same point don't each re-evaluate an expensive
+ * ColorScheme from scratch.
+ * <p>
+ * Unlike a {@link BakedColorScheme}, this is exact: every color it returns is
+ * one its underlying ColorScheme computed for that very point.
+ * </p>
+ * <p>
+ * Entries are keyed by world-coordinates. If the underlying ColorScheme's
+ * {@link #getTransformers() transformers} are changed after rendering has
+ * begun, call {@link #invalidate()}.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class MemoizingColorScheme extends ColorScheme {
+
+	private static final int CACHE_BITS = 6, CACHE_SIZE = 1 << CACHE_BITS;
+
+	private final ColorScheme colorScheme;
+
+	private final ThreadLocal<CacheEntries> entries = ThreadLocal.withInitial(() -> new CacheEntries());
+
+	private volatile int generation = 0;
+
+	/**
+	 * Wrap the given {@link ColorScheme}.
+	 *
+	 * @param colorScheme
+	 */
+	public MemoizingColorScheme(ColorScheme colorScheme) {
+		this.colorScheme = colorScheme;
+	}
+
+	@Override
+	public RawColor getColor(double x, double y, double z) {
+
+		return colorScheme.getColor(x, y, z);
+	}
+
+	@Override
+	public RawColor getColor(double x, double y, double z, double footprint) {
+
+		return colorScheme.getColor(x, y, z, footprint);
+	}
+
+	@Override
+	public RawColor getColorForWorld(Vector3D worldCoord) {
+
+		return getColorForWorld(worldCoord, 0d);
+	}
+
+	@Override
+	public RawColor getColorForWorld(Vector3D worldCoord, double footprint) {
+
+		double x = worldCoord.getX(), y = worldCoord.getY(), z = worldCoord.getZ();
+
+		CacheEntries current = entries.get();
+		if (current.generation != generation) {
+			current.clear();
+			current.generation = generation;
+		}
+
+		long hash = Double.doubleToLongBits(x);
+		hash = hash * 31L + Double.doubleToLongBits(y);
+		hash = hash * 31L + Double.doubleToLongBits(z);
+		hash *= 0x9E3779B97F4A7C15L;
+		int slot = (int) (hash >>> (64 - CACHE_BITS));
+
+		RawColor color = current.colors[slot];
+		if (color != null && current.x[slot] == x && current.y[slot] == y && current.z[slot] == z
+				&& current.footprint[slot] == footprint)
+			return color;
+
+		color = colorScheme.getColorForWorld(worldCoord, footprint);
+		current.x[slot] = x;
+		current.y[slot] = y;
+		current.z[slot] = z;
+		current.footprint[slot] = footprint;
+		current.colors[slot] = color;
+		return color;
+	}
+
+	/**
+	 * Forget every remembered color, on every thread.
+	 */
+	public synchronized void invalidate() {
+
+		generation++;
+	}
+
+	@Override
+	public double getShininess(Vector3D coord) {
+
+		return colorScheme.getShininess(coord);
+	}
+
+	@Override
+	public double getShininess() {
+
+		return colorScheme.getShininess();
+	}
+
+	@Override
+	public void setShininess(double shininess) {
+
+		colorScheme.setShininess(shininess);
+	}
+
+	@Override
+	public Deque<Transformer> getTransformers() {
+
+		return colorScheme.getTransformers();
+	}
+
+	@Override
+	public ColorScheme copy() {
+
+		return new MemoizingColorScheme(colorScheme.copy());
+	}
+
+	/**
+	 * @return the ColorScheme this one wraps
+	 */
+	public ColorScheme getColorScheme() {
+
+		return colorScheme;
+	}
+
+	private static class CacheEntries {
+
+		private int generation = 0;
+
+		private final double[] x = new double[CACHE_SIZE], y = new double[CACHE_SIZE], z = new double[CACHE_SIZE],
+				footprint = new double[CACHE_SIZE];
+
+		private final RawColor[] colors = new RawColor[CACHE_SIZE];
+
+		private void clear() {
+
+			for (int i = 0; i < colors.length; i++)
+				colors[i] = null;
+		}
+	}
+}
@@ -108,6 +108,20 @@ public class RawColor {
 		return new Color(clamp(red, 0d, 1d), clamp(green, 0d, 1d), clamp(blue, 0d, 1d), 1d);
 	}
 
+	/**
+	 * @return this RawColor's values of R,G,B, clamped to [0,1] and packed
+	 *         into a single opaque ARGB integer (8 bits per component)
+	 */
+	public int toArgb() {
+
+		return 0xFF000000 | (toByte(red) << 16) | (toByte(green) << 8) | toByte(blue);
+	}
+
+	private int toByte(double component) {
+
+		return (int) FastMath.round(clamp(component, 0d, 1d) * 255d);
+	}
+
 	private double clamp(double value, double min, double max) {
 
 		return FastMath.min(FastMath.max(value, min), max);
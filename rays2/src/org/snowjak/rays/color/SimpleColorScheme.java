@@ -1,10 +1,24 @@
 package org.snowjak.rays.color;
 
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.snowjak.rays.transform.Transformer;
+
 import javafx.scene.paint.Color;
 
 /**
  * Implements a basic {@link ColorScheme}, in which every point is the same
  * color. In effect, paints an entire object the same color.
+ * <p>
+ * SimpleColorSchemes may be {@link #intern(SimpleColorScheme) interned} into
+ * a shared pool. An interned SimpleColorScheme is immutable --
+ * {@link #setShininess(double)} throws an {@link IllegalStateException}, and
+ * {@link #copy()} simply returns it -- so any number of Shapes may share it.
+ * </p>
  * 
  * @author snowjak88
  *
@@ -13,6 +27,49 @@ public class SimpleColorScheme extends ColorScheme {
 
 	private RawColor color;
 
+	private boolean isInterned = false;
+
+	private static final Map<List<Double>, SimpleColorScheme> POOL = new ConcurrentHashMap<>();
+
+	/**
+	 * Get the shared, immutable SimpleColorScheme with the given color and
+	 * the default shininess.
+	 * 
+	 * @param color
+	 * @return the interned SimpleColorScheme
+	 */
+	public static SimpleColorScheme intern(Color color) {
+
+		return intern(new SimpleColorScheme(color));
+	}
+
+	/**
+	 * Get the shared, immutable SimpleColorScheme with the same color and
+	 * shininess as the given one.
+	 * <p>
+	 * <strong>Note</strong> that a SimpleColorScheme's {@link Transformer}s
+	 * have no effect on its color, and so are not carried over.
+	 * </p>
+	 * 
+	 * @param colorScheme
+	 * @return the interned SimpleColorScheme
+	 */
+	public static SimpleColorScheme intern(SimpleColorScheme colorScheme) {
+
+		if (colorScheme.isInterned)
+			return colorScheme;
+
+		RawColor color = colorScheme.color;
+		double shininess = colorScheme.getShininess();
+		return POOL.computeIfAbsent(Arrays.asList(color.getRed(), color.getGreen(), color.getBlue(), shininess),
+				(k) -> {
+					SimpleColorScheme interned = new SimpleColorScheme(color);
+					interned.setShininess(shininess);
+					interned.isInterned = true;
+					return interned;
+				});
+	}
+
 	/**
 	 * Create a new SimpleColorScheme with the specified color
 	 * 
@@ -59,9 +116,46 @@ public class SimpleColorScheme extends ColorScheme {
 		return color;
 	}
 
+	/**
+	 * @return <code>true</code> if this is a shared, immutable
+	 *         SimpleColorScheme
+	 * @see #intern(SimpleColorScheme)
+	 */
+	public boolean isInterned() {
+
+		return isInterned;
+	}
+
+	@Override
+	public void setShininess(double shininess) {
+
+		if (isInterned)
+			throw new IllegalStateException("Cannot modify an interned SimpleColorScheme -- it may be shared.");
+		super.setShininess(shininess);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * An interned SimpleColorScheme has no Transformers, and may not be given
+	 * any.
+	 * </p>
+	 */
+	@Override
+	public Deque<Transformer> getTransformers() {
+
+		return isInterned ? NO_TRANSFORMERS : super.getTransformers();
+	}
+
 	@Override
 	public SimpleColorScheme copy() {
 
+		//
+		// Interned SimpleColorSchemes are immutable, and so may be shared
+		// freely.
+		if (isInterned)
+			return this;
+
 		SimpleColorScheme newColorScheme = new SimpleColorScheme(this.color);
 		newColorScheme.setShininess(this.getShininess());
 		return newColorScheme;
@@ -0,0 +1,47 @@
+package org.snowjak.rays.function;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * A function which returns the same value for every point.
+ * <p>
+ * Unlike an equivalent lambda, a ConstantFunction can be recognized as such
+ * -- and its value recovered -- e.g. when saving a compiled scene.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ * @param <T>
+ *            the type of value returned
+ * @see Functions#constant(Double)
+ * @see Functions#constant(org.snowjak.rays.color.RawColor)
+ */
+public final class ConstantFunction<T> implements Function<Vector3D, T> {
+
+	private final T value;
+
+	/**
+	 * Create a new ConstantFunction returning the given value.
+	 * 
+	 * @param value
+	 */
+	public ConstantFunction(T value) {
+		this.value = value;
+	}
+
+	@Override
+	public T apply(Vector3D point) {
+
+		return value;
+	}
+
+	/**
+	 * @return the value this function returns
+	 */
+	public T getValue() {
+
+		return value;
+	}
+}
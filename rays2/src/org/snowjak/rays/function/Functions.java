@@ -3,20 +3,21 @@ package org.snowjak.rays.function;
 import static org.apache.commons.math3.util.FastMath.abs;
 import static org.apache.commons.math3.util.FastMath.max;
 import static org.apache.commons.math3.util.FastMath.min;
-import static org.apache.commons.math3.util.FastMath.pow;
 import static org.apache.commons.math3.util.FastMath.round;
 
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.color.ColorScheme;
+import org.snowjak.rays.color.Gradient;
 import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.function.noise.GradientNoise;
+import org.snowjak.rays.function.noise.Noise;
 
 import javafx.scene.paint.Color;
 
@@ -29,6 +30,13 @@ import javafx.scene.paint.Color;
  */
 public class Functions {
 
+	/**
+	 * The noise-function behind {@link #perlinNoise(double, double, double)} and
+	 * {@link #turbulence(double, double, double, int)}. Fixed-seed, so that a
+	 * world renders the same way every time it's loaded.
+	 */
+	private static final Noise NOISE = new GradientNoise(0L);
+
 	/**
 	 * Create a new function that simply returns a constant RawColor value.
 	 * 
@@ -37,7 +45,7 @@ public class Functions {
 	 */
 	public static Function<Vector3D, RawColor> constant(RawColor color) {
 
-		return (v) -> color;
+		return new ConstantFunction<>(color);
 	}
 
 	/**
@@ -59,7 +67,7 @@ public class Functions {
 	 */
 	public static Function<Vector3D, Double> constant(Double value) {
 
-		return (v) -> value;
+		return new ConstantFunction<>(value);
 	}
 
 	/**
@@ -118,26 +126,11 @@ public class Functions {
 	 */
 	public static Function<Double, RawColor> blend(List<Pair<Double, Color>> colors) {
 
-		return (d) -> {
-			Pair<Double, Color> lower = null, higher = null;
-			for (Pair<Double, Color> pair : colors.stream()
-					.sorted((p1, p2) -> Double.compare(p1.getKey(), p2.getKey()))
-					.collect(Collectors.toCollection(LinkedList::new))) {
-				lower = higher;
-				higher = pair;
-
-				if (lower != null) {
-					if (higher.getKey() > d && lower.getKey() <= d)
-						return lerp(new RawColor(lower.getValue()), new RawColor(higher.getValue()),
-								(d - lower.getKey()) / (higher.getKey() - lower.getKey()));
-					else if (lower.getKey() > d)
-						return new RawColor(lower.getValue());
-				}
-
-			}
-
-			return new RawColor(higher.getValue());
-		};
+		//
+		// Sort and convert the colors once, up-front, rather than on every
+		// call.
+		Gradient gradient = new Gradient(colors);
+		return gradient::getColor;
 	}
 
 	/**
@@ -170,10 +163,7 @@ public class Functions {
 	 */
 	public static Function<Vector3D, RawColor> lerp(RawColor color1, Vector3D p1, RawColor color2, Vector3D p2) {
 
-		return (v) -> {
-			double dotProduct = p2.subtract(p1).normalize().dotProduct(v.subtract(p1)), distance = p2.distance(p1);
-			return Functions.lerp(color1, color2, dotProduct / distance);
-		};
+		return Expressions.lerp(color1, p1, color2, p2);
 	}
 
 	/**
@@ -188,10 +178,7 @@ public class Functions {
 	 */
 	public static Function<Vector3D, Double> lerp(Double value1, Vector3D p1, Double value2, Vector3D p2) {
 
-		return (v) -> {
-			double dotProduct = p2.subtract(p1).normalize().dotProduct(v.subtract(p1)), distance = p2.distance(p1);
-			return Functions.lerp(value1, value2, dotProduct / distance);
-		};
+		return Expressions.lerp(value1, p1, value2, p2);
 	}
 
 	/**
@@ -328,7 +315,7 @@ public class Functions {
 	 */
 	public static double perlinNoise(double x, double y, double z) {
 
-		return PerlinNoise.getSingleton().perlinNoise(x, y, z);
+		return NOISE.noise(x, y, z);
 	}
 
 	/**
@@ -435,16 +422,10 @@ public class Functions {
 	 */
 	public static double turbulence(double x, double y, double z, int octaves) {
 
-		if (octaves < 0)
-			throw new IllegalArgumentException("octaves cannot be < 0 -- argument given = " + octaves);
-
-		double finalNoise = 0d;
-		for (int i = 1; i <= octaves; i++) {
-			finalNoise += perlinNoise(x * pow(2d, (double) i), y * pow(2d, (double) i), z * pow(2d, (double) i))
-					/ pow(2d, (double) i);
-		}
-
-		return finalNoise;
+		//
+		// sum (i = 1->N) Perlin(2^i * X) / 2^i
+		// == 1/2 * sum (i = 0->N-1) Perlin(2^i * 2X) / 2^i
+		return 0.5d * NOISE.fractal(2d * x, 2d * y, 2d * z, octaves, 2d, 0.5d);
 	}
 
 	/**
@@ -499,7 +480,7 @@ public class Functions {
 	public static double smoothstep(double x, double edge1, double edge2) {
 
 		x = min(max((x - edge1) / (edge2 - edge1), 0d), 1d);
-		return (3d * pow(x, 2d)) - (2d * pow(x, 3d));
+		return x * x * (3d - 2d * x);
 	}
 
 }
@@ -11,8 +11,13 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
  * Encapsulates a Perlin noise-generator.
  * 
  * @author snowjak88
+ * @deprecated superseded by the seedable, periodic noise-functions in
+ *             {@link org.snowjak.rays.function.noise} (e.g.,
+ *             {@link org.snowjak.rays.function.noise.GradientNoise}), which
+ *             {@link Functions#perlinNoise(double, double, double)} now uses
  *
  */
+@Deprecated
 public class PerlinNoise {
 
 	private int perlinGridSize = 20;
@@ -20,7 +20,7 @@ import javafx.scene.paint.Color;
 @HasName("checkerboard")
 public class CheckerboardColorFunctionBuilder implements ColorFunctionBuilder {
 
-	private ColorScheme color1 = new SimpleColorScheme(Color.BLACK), color2 = new SimpleColorScheme(Color.WHITE);
+	private ColorScheme color1 = SimpleColorScheme.intern(Color.BLACK), color2 = SimpleColorScheme.intern(Color.WHITE);
 
 	/**
 	 * @return a new {@link CheckerboardColorFunctionBuilder} instance
@@ -54,7 +54,7 @@ public class CheckerboardColorFunctionBuilder implements ColorFunctionBuilder {
 	@HasName("color1")
 	public CheckerboardColorFunctionBuilder color1(RawColor color1) {
 
-		this.color1 = new SimpleColorScheme(color1);
+		this.color1 = SimpleColorScheme.intern(new SimpleColorScheme(color1));
 		return this;
 	}
 
@@ -82,7 +82,7 @@ public class CheckerboardColorFunctionBuilder implements ColorFunctionBuilder {
 	@HasName("color2")
 	public CheckerboardColorFunctionBuilder color2(RawColor color2) {
 
-		this.color2 = new SimpleColorScheme(color2);
+		this.color2 = SimpleColorScheme.intern(new SimpleColorScheme(color2));
 		return this;
 	}
 
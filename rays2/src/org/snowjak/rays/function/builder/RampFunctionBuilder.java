@@ -0,0 +1,65 @@
+package org.snowjak.rays.function.builder;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.world.importfile.HasName;
+
+/**
+ * Permits convenient building of ramp functions, which measure how far a point
+ * lies along the line from one point (where the ramp is 0) to another (where
+ * it is 1).
+ * 
+ * @author snowjak88
+ * @see Expressions#ramp(Vector3D, Vector3D)
+ */
+@HasName("ramp")
+public class RampFunctionBuilder implements ScalarFunctionBuilder {
+
+	private Vector3D from = Vector3D.ZERO, to = Vector3D.PLUS_I;
+
+	/**
+	 * @return a new {@link RampFunctionBuilder} instance
+	 */
+	public static RampFunctionBuilder builder() {
+
+		return new RampFunctionBuilder();
+	}
+
+	protected RampFunctionBuilder() {
+	}
+
+	/**
+	 * Set the point where this ramp is 0. Defaults to (0,0,0).
+	 * 
+	 * @param from
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("from")
+	public RampFunctionBuilder from(Vector3D from) {
+
+		this.from = from;
+		return this;
+	}
+
+	/**
+	 * Set the point where this ramp is 1. Defaults to (1,0,0).
+	 * 
+	 * @param to
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("to")
+	public RampFunctionBuilder to(Vector3D to) {
+
+		this.to = to;
+		return this;
+	}
+
+	@Override
+	public Function<Vector3D, Double> build() {
+
+		return Expressions.ramp(from, to);
+	}
+
+}
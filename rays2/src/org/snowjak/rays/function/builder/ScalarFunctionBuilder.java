@@ -0,0 +1,21 @@
+package org.snowjak.rays.function.builder;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.builder.Builder;
+
+/**
+ * Denotes that a Builder specializes in scalar functions -- i.e.,
+ * {@link Function}s of the form
+ * 
+ * <pre>
+ *   Function<Vector3D, Double>
+ * </pre>
+ * 
+ * @author snowjak88
+ *
+ */
+public interface ScalarFunctionBuilder extends Builder<Function<Vector3D, Double>> {
+
+}
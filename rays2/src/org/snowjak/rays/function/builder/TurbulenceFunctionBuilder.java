@@ -0,0 +1,66 @@
+package org.snowjak.rays.function.builder;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.world.importfile.HasName;
+
+/**
+ * Permits convenient building of turbulence functions.
+ * 
+ * @author snowjak88
+ * @see Expressions#turbulence(double, int)
+ */
+@HasName("turbulence")
+public class TurbulenceFunctionBuilder implements ScalarFunctionBuilder {
+
+	private double frequency = 1d;
+
+	private int octaves = 4;
+
+	/**
+	 * @return a new {@link TurbulenceFunctionBuilder} instance
+	 */
+	public static TurbulenceFunctionBuilder builder() {
+
+		return new TurbulenceFunctionBuilder();
+	}
+
+	protected TurbulenceFunctionBuilder() {
+	}
+
+	/**
+	 * Set the factor by which to scale each point before computing
+	 * turbulence. Defaults to 1.
+	 * 
+	 * @param frequency
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("frequency")
+	public TurbulenceFunctionBuilder frequency(double frequency) {
+
+		this.frequency = frequency;
+		return this;
+	}
+
+	/**
+	 * Set the number of octaves of noise to sum. Defaults to 4.
+	 * 
+	 * @param octaves
+	 * @return this Builder, for method-chaining
+	 */
+	@HasName("octaves")
+	public TurbulenceFunctionBuilder octaves(int octaves) {
+
+		this.octaves = octaves;
+		return this;
+	}
+
+	@Override
+	public Function<Vector3D, Double> build() {
+
+		return Expressions.turbulence(frequency, octaves);
+	}
+
+}
@@ -0,0 +1,63 @@
+package org.snowjak.rays.function.expression;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.color.RawColor;
+
+/**
+ * A node in a small expression-tree describing a color-valued function of a
+ * point -- e.g., a {@link org.snowjak.rays.color.FunctionalColorScheme
+ * FunctionalColorScheme}'s function.
+ * <p>
+ * Like {@link Expression}s, ColorExpressions are built through
+ * {@link Expressions}, whose factories fold constant sub-trees as they go.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public abstract class ColorExpression implements Function<Vector3D, RawColor> {
+
+	/**
+	 * Evaluate this ColorExpression at the given point.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return the ColorExpression's value at that point
+	 */
+	public abstract RawColor evaluate(double x, double y, double z);
+
+	/**
+	 * Evaluate this ColorExpression, filtered over a region of the given width
+	 * around the given point. By default, the footprint is ignored.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param footprint
+	 *            the width of the region to filter over
+	 * @return the ColorExpression's (filtered) value at that point
+	 * @see Expression#evaluate(double, double, double, double)
+	 */
+	public RawColor evaluate(double x, double y, double z, double footprint) {
+
+		return evaluate(x, y, z);
+	}
+
+	/**
+	 * @return <code>true</code> if this ColorExpression has the same value at
+	 *         every point
+	 */
+	public boolean isConstant() {
+
+		return false;
+	}
+
+	@Override
+	public RawColor apply(Vector3D point) {
+
+		return evaluate(point.getX(), point.getY(), point.getZ());
+	}
+}
@@ -0,0 +1,75 @@
+package org.snowjak.rays.function.expression;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * A node in a small expression-tree describing a scalar function of a point
+ * -- e.g., a material property.
+ * <p>
+ * Expressions are built through {@link Expressions}, whose factories fold
+ * constant sub-trees as they go: an Expression all of whose inputs are
+ * constant is itself a {@link #isConstant() constant}. An Expression may be
+ * used anywhere a {@code Function<Vector3D, Double>} is expected; but for
+ * repeated evaluation, {@link #compile()} it into a {@link ScalarEvaluator}.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public abstract class Expression implements Function<Vector3D, Double> {
+
+	/**
+	 * Evaluate this Expression at the given point.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return the Expression's value at that point
+	 */
+	public abstract double evaluate(double x, double y, double z);
+
+	/**
+	 * Evaluate this Expression, filtered over a region of the given width
+	 * around the given point: detail finer than the footprint is replaced by
+	 * its average. By default, the footprint is ignored.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param footprint
+	 *            the width of the region to filter over
+	 * @return the Expression's (filtered) value at that point
+	 */
+	public double evaluate(double x, double y, double z, double footprint) {
+
+		return evaluate(x, y, z);
+	}
+
+	/**
+	 * @return <code>true</code> if this Expression has the same value at every
+	 *         point
+	 */
+	public boolean isConstant() {
+
+		return false;
+	}
+
+	/**
+	 * Compile this Expression into a {@link ScalarEvaluator}, specialized (as
+	 * far as possible) for its constant sub-expressions.
+	 *
+	 * @return the compiled Expression
+	 */
+	public ScalarEvaluator compile() {
+
+		return this::evaluate;
+	}
+
+	@Override
+	public Double apply(Vector3D point) {
+
+		return evaluate(point.getX(), point.getY(), point.getZ());
+	}
+}
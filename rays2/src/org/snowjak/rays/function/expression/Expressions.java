@@ -0,0 +1,659 @@
+package org.snowjak.rays.function.expression;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.color.Gradient;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.function.ConstantFunction;
+import org.snowjak.rays.function.Functions;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Factories for {@link Expression}s and {@link ColorExpression}s.
+ * <p>
+ * Every factory folds as it builds: if a node's result can be known without
+ * a point (e.g., a lerp between two equal constants), the factory returns a
+ * constant instead of the node.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class Expressions {
+
+	/**
+	 * @param value
+	 * @return a constant Expression
+	 */
+	public static Expression constant(double value) {
+
+		return new Constant(value);
+	}
+
+	/**
+	 * @param color
+	 * @return a constant ColorExpression
+	 */
+	public static ColorExpression constant(RawColor color) {
+
+		return new ConstantColor(color);
+	}
+
+	/**
+	 * Create an Expression that measures how far a point lies along the line
+	 * from {@code p1} (where it is 0) to {@code p2} (where it is 1). If the two
+	 * points coincide, the ramp is 0 everywhere.
+	 *
+	 * @param p1
+	 * @param p2
+	 * @return a new ramp Expression
+	 */
+	public static Expression ramp(Vector3D p1, Vector3D p2) {
+
+		return new Ramp(p1, p2);
+	}
+
+	/**
+	 * Create an Expression that linearly-interpolates between two
+	 * Expressions:
+	 *
+	 * <pre>
+	 * a * (1 - t) + b * t
+	 * </pre>
+	 *
+	 * @param a
+	 * @param b
+	 * @param t
+	 * @return a new (folded) lerp Expression
+	 */
+	public static Expression lerp(Expression a, Expression b, Expression t) {
+
+		if (t.isConstant()) {
+			double w = valueOf(t);
+			if (w == 0d)
+				return a;
+			if (w == 1d)
+				return b;
+			if (a.isConstant() && b.isConstant())
+				return constant(Functions.lerp(valueOf(a), valueOf(b), w));
+		}
+
+		if (a.isConstant() && b.isConstant() && valueOf(a) == valueOf(b))
+			return a;
+
+		return new Lerp(a, b, t);
+	}
+
+	/**
+	 * Create an Expression that linearly-interpolates between two values,
+	 * based on the point's distance from two control points.
+	 *
+	 * @param value1
+	 * @param p1
+	 * @param value2
+	 * @param p2
+	 * @return a new (folded) lerp Expression
+	 * @see Functions#lerp(Double, Vector3D, Double, Vector3D)
+	 */
+	public static Expression lerp(double value1, Vector3D p1, double value2, Vector3D p2) {
+
+		return lerp(constant(value1), constant(value2), ramp(p1, p2));
+	}
+
+	/**
+	 * @return an Expression computing {@link Functions#checkerboard(double,
+	 *         double, double)}
+	 */
+	public static Expression checkerboard() {
+
+		return Checkerboard.INSTANCE;
+	}
+
+	/**
+	 * @param frequency
+	 *            the factor by which to scale the point before computing noise
+	 * @return an Expression computing {@link Functions#perlinNoise(double,
+	 *         double, double)}
+	 */
+	public static Expression noise(double frequency) {
+
+		return new Noise(frequency);
+	}
+
+	/**
+	 * @param frequency
+	 *            the factor by which to scale the point before computing
+	 *            turbulence
+	 * @param octaves
+	 * @return an Expression computing {@link Functions#turbulence(double,
+	 *         double, double, int)}
+	 * @throws IllegalArgumentException
+	 *             if {@code octaves < 0}
+	 */
+	public static Expression turbulence(double frequency, int octaves) {
+
+		if (octaves < 0)
+			throw new IllegalArgumentException("octaves cannot be < 0 -- argument given = " + octaves);
+		if (octaves == 0)
+			return constant(0d);
+
+		return new Turbulence(frequency, octaves);
+	}
+
+	/**
+	 * @param x
+	 * @param edge1
+	 * @param edge2
+	 * @return an Expression computing
+	 *         {@link Functions#smoothstep(double, double, double)} of the given
+	 *         Expression
+	 */
+	public static Expression smoothstep(Expression x, double edge1, double edge2) {
+
+		if (x.isConstant())
+			return constant(Functions.smoothstep(valueOf(x), edge1, edge2));
+
+		return new Smoothstep(x, edge1, edge2);
+	}
+
+	/**
+	 * Create a ColorExpression that linearly-interpolates between two
+	 * ColorExpressions (clamping {@code t} to [0,1]).
+	 *
+	 * @param c1
+	 * @param c2
+	 * @param t
+	 * @return a new (folded) lerp ColorExpression
+	 * @see Functions#lerp(RawColor, RawColor, double)
+	 */
+	public static ColorExpression lerp(ColorExpression c1, ColorExpression c2, Expression t) {
+
+		if (t.isConstant()) {
+			double w = valueOf(t);
+			if (w <= 0d)
+				return c1;
+			if (w >= 1d)
+				return c2;
+			if (c1.isConstant() && c2.isConstant())
+				return constant(Functions.lerp(valueOf(c1), valueOf(c2), w));
+		}
+
+		if (c1.isConstant() && c2.isConstant() && sameColor(valueOf(c1), valueOf(c2)))
+			return c1;
+
+		return new ColorLerp(c1, c2, t);
+	}
+
+	/**
+	 * Create a ColorExpression that linearly-interpolates between two colors,
+	 * based on the point's distance from two control points.
+	 *
+	 * @param color1
+	 * @param p1
+	 * @param color2
+	 * @param p2
+	 * @return a new (folded) lerp ColorExpression
+	 * @see Functions#lerp(RawColor, Vector3D, RawColor, Vector3D)
+	 */
+	public static ColorExpression lerp(RawColor color1, Vector3D p1, RawColor color2, Vector3D p2) {
+
+		return lerp(constant(color1), constant(color2), ramp(p1, p2));
+	}
+
+	/**
+	 * @param c1
+	 * @param c2
+	 * @return a ColorExpression alternating between two ColorExpressions in a
+	 *         checkerboard pattern
+	 */
+	public static ColorExpression checkerboard(ColorExpression c1, ColorExpression c2) {
+
+		return lerp(c1, c2, checkerboard());
+	}
+
+	/**
+	 * Create a ColorExpression that selects a color from a list, based on the
+	 * value of an Expression.
+	 *
+	 * @param t
+	 * @param colors
+	 * @return a new (folded) blend ColorExpression
+	 * @see Functions#blend(List)
+	 */
+	public static ColorExpression blend(Expression t, List<Pair<Double, Color>> colors) {
+
+		Gradient gradient = new Gradient(colors);
+		if (t.isConstant())
+			return constant(gradient.getColor(valueOf(t)));
+		if (gradient.isConstant())
+			return constant(gradient.getColor(0d));
+
+		return new ColorBlend(t, gradient);
+	}
+
+	/**
+	 * Compile the given function into a {@link ScalarEvaluator}: constants
+	 * and {@link Expression}s become specialized evaluators, and anything else
+	 * is wrapped as-is.
+	 *
+	 * @param function
+	 * @return the compiled function
+	 */
+	public static ScalarEvaluator compile(Function<Vector3D, Double> function) {
+
+		OptionalDouble constantValue = getConstantValue(function);
+		if (constantValue.isPresent()) {
+			final double value = constantValue.getAsDouble();
+			return (x, y, z) -> value;
+		}
+
+		if (function instanceof Expression)
+			return ((Expression) function).compile();
+
+		return new ScalarEvaluator() {
+
+			@Override
+			public double evaluate(double x, double y, double z) {
+
+				return function.apply(new Vector3D(x, y, z));
+			}
+
+			@Override
+			public double applyAsDouble(Vector3D point) {
+
+				return function.apply(point);
+			}
+		};
+	}
+
+	/**
+	 * @param function
+	 * @return the given function's value, if it is known to be constant
+	 */
+	@SuppressWarnings("unchecked")
+	public static OptionalDouble getConstantValue(Function<Vector3D, Double> function) {
+
+		if (function instanceof ConstantFunction)
+			return OptionalDouble.of(((ConstantFunction<Double>) function).getValue());
+
+		if (function instanceof Expression && ((Expression) function).isConstant())
+			return OptionalDouble.of(valueOf((Expression) function));
+
+		return OptionalDouble.empty();
+	}
+
+	/**
+	 * @param function
+	 * @return the given function's value, if it is known to be constant
+	 */
+	@SuppressWarnings("unchecked")
+	public static Optional<RawColor> getConstantColor(Function<Vector3D, RawColor> function) {
+
+		if (function instanceof ConstantFunction)
+			return Optional.of(((ConstantFunction<RawColor>) function).getValue());
+
+		if (function instanceof ColorExpression && ((ColorExpression) function).isConstant())
+			return Optional.of(valueOf((ColorExpression) function));
+
+		return Optional.empty();
+	}
+
+	private static double valueOf(Expression constant) {
+
+		return constant.evaluate(0d, 0d, 0d);
+	}
+
+	private static RawColor valueOf(ColorExpression constant) {
+
+		return constant.evaluate(0d, 0d, 0d);
+	}
+
+	private static boolean sameColor(RawColor c1, RawColor c2) {
+
+		return c1.getRed() == c2.getRed() && c1.getGreen() == c2.getGreen() && c1.getBlue() == c2.getBlue();
+	}
+
+	private static final class Constant extends Expression {
+
+		private final double value;
+
+		private Constant(double value) {
+			this.value = value;
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return value;
+		}
+
+		@Override
+		public boolean isConstant() {
+
+			return true;
+		}
+
+		@Override
+		public ScalarEvaluator compile() {
+
+			final double value = this.value;
+			return (x, y, z) -> value;
+		}
+	}
+
+	private static final class Ramp extends Expression {
+
+		private final double originX, originY, originZ, scaleX, scaleY, scaleZ;
+
+		private Ramp(Vector3D p1, Vector3D p2) {
+			double distance = p2.distance(p1);
+			Vector3D scale = (distance > 0d) ? p2.subtract(p1).scalarMultiply(1d / (distance * distance))
+					: Vector3D.ZERO;
+			originX = p1.getX();
+			originY = p1.getY();
+			originZ = p1.getZ();
+			scaleX = scale.getX();
+			scaleY = scale.getY();
+			scaleZ = scale.getZ();
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return scaleX * (x - originX) + scaleY * (y - originY) + scaleZ * (z - originZ);
+		}
+	}
+
+	private static final class Lerp extends Expression {
+
+		private final Expression a, b, t;
+
+		private Lerp(Expression a, Expression b, Expression t) {
+			this.a = a;
+			this.b = b;
+			this.t = t;
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return Functions.lerp(a.evaluate(x, y, z), b.evaluate(x, y, z), t.evaluate(x, y, z));
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z, double footprint) {
+
+			return Functions.lerp(a.evaluate(x, y, z, footprint), b.evaluate(x, y, z, footprint),
+					t.evaluate(x, y, z, footprint));
+		}
+
+		@Override
+		public ScalarEvaluator compile() {
+
+			final ScalarEvaluator t = this.t.compile();
+
+			if (a.isConstant() && b.isConstant()) {
+				final double a = valueOf(this.a), b = valueOf(this.b);
+				return (x, y, z) -> {
+					double w = t.evaluate(x, y, z);
+					return a * (1d - w) + b * w;
+				};
+			}
+
+			final ScalarEvaluator a = this.a.compile(), b = this.b.compile();
+			return (x, y, z) -> {
+				double w = t.evaluate(x, y, z);
+				return a.evaluate(x, y, z) * (1d - w) + b.evaluate(x, y, z) * w;
+			};
+		}
+	}
+
+	private static final class Checkerboard extends Expression {
+
+		private static final Checkerboard INSTANCE = new Checkerboard();
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return Functions.checkerboard(x, y, z);
+		}
+
+		/**
+		 * Box-filters the checkerboard analytically. Each axis alternates
+		 * between +1 and -1 (with period 2); the box-filtered product of the
+		 * three is the product of each axis's box-filtered square-wave --
+		 * i.e., the slope of that square-wave's (triangle-wave) integral
+		 * across the footprint.
+		 */
+		@Override
+		public double evaluate(double x, double y, double z, double footprint) {
+
+			if (!(footprint > 0d))
+				return evaluate(x, y, z);
+
+			double product = filteredSquareWave(x, footprint) * filteredSquareWave(y, footprint)
+					* filteredSquareWave(z, footprint);
+			return (1d - product) / 2d;
+		}
+
+		private static double filteredSquareWave(double v, double width) {
+
+			//
+			// Cells are centered on integers, so the square-wave steps at
+			// each half-integer.
+			double u = v + 0.5d, halfWidth = width / 2d;
+			return (triangleWave(u + halfWidth) - triangleWave(u - halfWidth)) / width;
+		}
+
+		private static double triangleWave(double u) {
+
+			double m = u - 2d * FastMath.floor(u / 2d);
+			return (m < 1d) ? m : 2d - m;
+		}
+	}
+
+	private static final class Noise extends Expression {
+
+		private final double frequency;
+
+		private Noise(double frequency) {
+			this.frequency = frequency;
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return Functions.perlinNoise(frequency * x, frequency * y, frequency * z);
+		}
+
+		/**
+		 * Noise averages to 0, so fade it out as its features shrink below
+		 * the footprint.
+		 */
+		@Override
+		public double evaluate(double x, double y, double z, double footprint) {
+
+			double weight = octaveWeight(frequency * footprint);
+			if (weight <= 0d)
+				return 0d;
+
+			return weight * evaluate(x, y, z);
+		}
+	}
+
+	private static final class Turbulence extends Expression {
+
+		private final double frequency;
+
+		private final int octaves;
+
+		private Turbulence(double frequency, int octaves) {
+			this.frequency = frequency;
+			this.octaves = octaves;
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return Functions.turbulence(frequency * x, frequency * y, frequency * z, octaves);
+		}
+
+		/**
+		 * Drop the octaves whose features are smaller than the footprint (each
+		 * of which averages to 0), fading out the one on the boundary.
+		 */
+		@Override
+		public double evaluate(double x, double y, double z, double footprint) {
+
+			if (!(footprint > 0d))
+				return evaluate(x, y, z);
+
+			//
+			// Octave i has frequency 2^(i+1) * frequency.
+			double firstOctave = 2d * frequency * footprint;
+			int fullOctaves = (int) FastMath.min(
+					FastMath.max(FastMath.floor(FastMath.log(2d, FULL_WEIGHT / firstOctave)) + 1d, 0d), octaves);
+			if (fullOctaves == octaves)
+				return evaluate(x, y, z);
+
+			double fx = frequency * x, fy = frequency * y, fz = frequency * z;
+			double full = (fullOctaves > 0) ? Functions.turbulence(fx, fy, fz, fullOctaves) : 0d;
+
+			double weight = octaveWeight(FastMath.scalb(firstOctave, fullOctaves));
+			if (weight <= 0d)
+				return full;
+
+			return Functions.lerp(full, Functions.turbulence(fx, fy, fz, fullOctaves + 1), weight);
+		}
+	}
+
+	/**
+	 * When filtering, features whose frequency (in cycles per footprint) is
+	 * at most {@code FULL_WEIGHT} are kept as-is, those at
+	 * {@code ZERO_WEIGHT} or above are averaged away, and those in between
+	 * are faded out.
+	 */
+	private static final double FULL_WEIGHT = 0.25d, ZERO_WEIGHT = 0.5d;
+
+	private static double octaveWeight(double relativeFrequency) {
+
+		return 1d - Functions.smoothstep(relativeFrequency, FULL_WEIGHT, ZERO_WEIGHT);
+	}
+
+	private static final class Smoothstep extends Expression {
+
+		private final Expression x;
+
+		private final double edge1, edge2;
+
+		private Smoothstep(Expression x, double edge1, double edge2) {
+			this.x = x;
+			this.edge1 = edge1;
+			this.edge2 = edge2;
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z) {
+
+			return Functions.smoothstep(this.x.evaluate(x, y, z), edge1, edge2);
+		}
+
+		@Override
+		public double evaluate(double x, double y, double z, double footprint) {
+
+			return Functions.smoothstep(this.x.evaluate(x, y, z, footprint), edge1, edge2);
+		}
+
+		@Override
+		public ScalarEvaluator compile() {
+
+			final ScalarEvaluator x = this.x.compile();
+			final double edge1 = this.edge1, edge2 = this.edge2;
+			return (px, py, pz) -> Functions.smoothstep(x.evaluate(px, py, pz), edge1, edge2);
+		}
+	}
+
+	private static final class ConstantColor extends ColorExpression {
+
+		private final RawColor color;
+
+		private ConstantColor(RawColor color) {
+			this.color = color;
+		}
+
+		@Override
+		public RawColor evaluate(double x, double y, double z) {
+
+			return color;
+		}
+
+		@Override
+		public boolean isConstant() {
+
+			return true;
+		}
+	}
+
+	private static final class ColorLerp extends ColorExpression {
+
+		private final ColorExpression c1, c2;
+
+		private final Expression t;
+
+		private final ScalarEvaluator compiledT;
+
+		private ColorLerp(ColorExpression c1, ColorExpression c2, Expression t) {
+			this.c1 = c1;
+			this.c2 = c2;
+			this.t = t;
+			this.compiledT = t.compile();
+		}
+
+		@Override
+		public RawColor evaluate(double x, double y, double z) {
+
+			return Functions.lerp(c1.evaluate(x, y, z), c2.evaluate(x, y, z), compiledT.evaluate(x, y, z));
+		}
+
+		@Override
+		public RawColor evaluate(double x, double y, double z, double footprint) {
+
+			return Functions.lerp(c1.evaluate(x, y, z, footprint), c2.evaluate(x, y, z, footprint),
+					t.evaluate(x, y, z, footprint));
+		}
+	}
+
+	private static final class ColorBlend extends ColorExpression {
+
+		private final Expression t;
+
+		private final ScalarEvaluator compiledT;
+
+		private final Gradient gradient;
+
+		private ColorBlend(Expression t, Gradient gradient) {
+			this.t = t;
+			this.compiledT = t.compile();
+			this.gradient = gradient;
+		}
+
+		@Override
+		public RawColor evaluate(double x, double y, double z) {
+
+			return gradient.getColor(compiledT.evaluate(x, y, z));
+		}
+
+		@Override
+		public RawColor evaluate(double x, double y, double z, double footprint) {
+
+			return gradient.getColor(t.evaluate(x, y, z, footprint));
+		}
+	}
+}
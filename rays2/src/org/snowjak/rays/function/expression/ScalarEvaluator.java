@@ -0,0 +1,33 @@
+package org.snowjak.rays.function.expression;
+
+import java.util.function.ToDoubleFunction;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * A compiled, primitive-valued function of a point -- what an
+ * {@link Expression} becomes once {@link Expression#compile() compiled}.
+ * Nothing is boxed, and no intermediate {@link Vector3D}s are allocated.
+ *
+ * @author snowjak88
+ *
+ */
+@FunctionalInterface
+public interface ScalarEvaluator extends ToDoubleFunction<Vector3D> {
+
+	/**
+	 * Evaluate this function at the given point.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return the function's value
+	 */
+	public double evaluate(double x, double y, double z);
+
+	@Override
+	public default double applyAsDouble(Vector3D point) {
+
+		return evaluate(point.getX(), point.getY(), point.getZ());
+	}
+}
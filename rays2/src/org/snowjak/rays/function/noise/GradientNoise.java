@@ -0,0 +1,66 @@
+package org.snowjak.rays.function.noise;
+
+import static org.snowjak.rays.function.noise.PermutationTable.fade;
+import static org.snowjak.rays.function.noise.PermutationTable.floor;
+import static org.snowjak.rays.function.noise.PermutationTable.lerp;
+import static org.snowjak.rays.function.noise.PermutationTable.wrap;
+
+/**
+ * Seedable gradient ("Perlin") noise, after Ken Perlin's "improved noise"
+ * (2002). Values fall within roughly <code>[-1, 1]</code>, are 0 at every
+ * lattice-point, and repeat every {@link PermutationTable#PERIOD} units along
+ * each axis.
+ *
+ * @author snowjak88
+ *
+ */
+public class GradientNoise implements Noise {
+
+	//
+	// The 12 edge-directions of a cube, padded out to 16 (so that a hash can
+	// be reduced to a gradient-index with a mask rather than a modulus).
+	//
+	static final double[] GRADIENT_X = { 1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0, 1, 0, -1, 0 };
+
+	static final double[] GRADIENT_Y = { 1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1, 1, -1, 1, -1 };
+
+	static final double[] GRADIENT_Z = { 0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1, 0, 1, 0, -1 };
+
+	private final int[] p;
+
+	/**
+	 * Create a new GradientNoise instance, using the given seed.
+	 *
+	 * @param seed
+	 */
+	public GradientNoise(long seed) {
+		p = new PermutationTable(seed).p;
+	}
+
+	@Override
+	public double noise(double x, double y, double z) {
+
+		long fx = floor(x), fy = floor(y), fz = floor(z);
+		int X = wrap(fx), Y = wrap(fy), Z = wrap(fz);
+		x -= fx;
+		y -= fy;
+		z -= fz;
+
+		double u = fade(x), v = fade(y), w = fade(z);
+
+		int A = p[X] + Y, AA = p[A] + Z, AB = p[A + 1] + Z;
+		int B = p[X + 1] + Y, BA = p[B] + Z, BB = p[B + 1] + Z;
+
+		return lerp(w,
+				lerp(v, lerp(u, gradient(p[AA], x, y, z), gradient(p[BA], x - 1, y, z)),
+						lerp(u, gradient(p[AB], x, y - 1, z), gradient(p[BB], x - 1, y - 1, z))),
+				lerp(v, lerp(u, gradient(p[AA + 1], x, y, z - 1), gradient(p[BA + 1], x - 1, y, z - 1)),
+						lerp(u, gradient(p[AB + 1], x, y - 1, z - 1), gradient(p[BB + 1], x - 1, y - 1, z - 1))));
+	}
+
+	private static double gradient(int hash, double x, double y, double z) {
+
+		int h = hash & 15;
+		return GRADIENT_X[h] * x + GRADIENT_Y[h] * y + GRADIENT_Z[h] * z;
+	}
+}
@@ -0,0 +1,75 @@
+package org.snowjak.rays.function.noise;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+
+/**
+ * A 3D noise-function: a smoothly-varying, pseudo-random value defined over
+ * all of space.
+ * <p>
+ * Implementations are deterministic -- a given instance always returns the
+ * same value for the same point -- and safe to share between threads.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public interface Noise {
+
+	/**
+	 * Compute this noise-function at the given point.
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return the noise-value at that point
+	 */
+	public double noise(double x, double y, double z);
+
+	/**
+	 * Compute this noise-function at the given point.
+	 *
+	 * @param point
+	 * @return the noise-value at that point
+	 */
+	public default double noise(Vector3D point) {
+
+		return noise(point.getX(), point.getY(), point.getZ());
+	}
+
+	/**
+	 * Compute several octaves of this noise-function at the given point, and
+	 * sum them ("fractal" or "fBm" noise). Each octave is sampled at
+	 * {@code lacunarity} times the frequency of the last, and weighted by
+	 * {@code gain} times the last's weight:
+	 *
+	 * <pre>
+	 * result = sum (i = 0 -> octaves-1) gain^i * noise( lacunarity^i * X )
+	 * </pre>
+	 *
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param octaves
+	 * @param lacunarity
+	 *            the frequency-multiplier between octaves (typically 2)
+	 * @param gain
+	 *            the weight-multiplier between octaves (typically 1/2)
+	 * @return the summed noise-value
+	 * @throws IllegalArgumentException
+	 *             if {@code octaves < 0}
+	 */
+	public default double fractal(double x, double y, double z, int octaves, double lacunarity, double gain) {
+
+		if (octaves < 0)
+			throw new IllegalArgumentException("octaves cannot be < 0 -- argument given = " + octaves);
+
+		double result = 0d, frequency = 1d, amplitude = 1d;
+		for (int i = 0; i < octaves; i++) {
+			result += amplitude * noise(x * frequency, y * frequency, z * frequency);
+			frequency *= lacunarity;
+			amplitude *= gain;
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,121 @@
+package org.snowjak.rays.function.noise;
+
+import java.util.Random;
+
+/**
+ * A seeded, shuffled permutation of the lattice-indices
+ * <code>[0, {@link #PERIOD})</code>, from which lattice-based noise-functions
+ * derive a pseudo-random hash for every lattice-point.
+ * <p>
+ * The permutation is stored twice over, so that the nested look-ups in
+ * {@link #hash(int, int, int)} never need wrapping; and coordinates are
+ * wrapped onto the lattice with a bit-mask (see {@link #wrap(long)}) rather
+ * than by repeated addition or subtraction. As a result, every noise-function
+ * built on a PermutationTable repeats itself every {@link #PERIOD} units
+ * along each axis.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+final class PermutationTable {
+
+	/**
+	 * The period (along each axis) of noise built on a PermutationTable.
+	 */
+	public static final int PERIOD = 256;
+
+	private static final int MASK = PERIOD - 1;
+
+	/**
+	 * The permutation, repeated twice.
+	 */
+	final int[] p = new int[2 * PERIOD];
+
+	/**
+	 * Create a new PermutationTable, shuffled using the given seed.
+	 *
+	 * @param seed
+	 */
+	PermutationTable(long seed) {
+
+		Random rnd = new Random(seed);
+
+		int[] permutation = new int[PERIOD];
+		for (int i = 0; i < PERIOD; i++)
+			permutation[i] = i;
+		for (int i = PERIOD - 1; i > 0; i--) {
+			int j = rnd.nextInt(i + 1);
+			int swap = permutation[i];
+			permutation[i] = permutation[j];
+			permutation[j] = swap;
+		}
+
+		for (int i = 0; i < p.length; i++)
+			p[i] = permutation[i & MASK];
+	}
+
+	/**
+	 * Compute the hash of the given (wrapped) lattice-point.
+	 *
+	 * @param x
+	 *            in <code>[0, PERIOD]</code>
+	 * @param y
+	 *            in <code>[0, PERIOD]</code>
+	 * @param z
+	 *            in <code>[0, PERIOD]</code>
+	 * @return a hash in <code>[0, PERIOD)</code>
+	 */
+	int hash(int x, int y, int z) {
+
+		return p[p[p[x] + y] + z];
+	}
+
+	/**
+	 * Wrap the given lattice-coordinate onto <code>[0, PERIOD)</code>.
+	 *
+	 * @param latticeCoordinate
+	 * @return the wrapped lattice-coordinate
+	 */
+	static int wrap(long latticeCoordinate) {
+
+		return (int) (latticeCoordinate & MASK);
+	}
+
+	/**
+	 * Compute the floor of the given coordinate, as a long (so that even very
+	 * large coordinates are handled correctly).
+	 *
+	 * @param coordinate
+	 * @return the floor of the coordinate
+	 */
+	static long floor(double coordinate) {
+
+		long truncated = (long) coordinate;
+		return (coordinate < truncated) ? truncated - 1 : truncated;
+	}
+
+	/**
+	 * Compute Perlin's quintic fade-curve, <code>6t^5 - 15t^4 + 10t^3</code>.
+	 *
+	 * @param t
+	 * @return the faded value
+	 */
+	static double fade(double t) {
+
+		return t * t * t * (t * (t * 6d - 15d) + 10d);
+	}
+
+	/**
+	 * Linearly interpolate between two values.
+	 *
+	 * @param t
+	 * @param a
+	 * @param b
+	 * @return the interpolated value
+	 */
+	static double lerp(double t, double a, double b) {
+
+		return a + t * (b - a);
+	}
+}
@@ -0,0 +1,97 @@
+package org.snowjak.rays.function.noise;
+
+import static org.snowjak.rays.function.noise.GradientNoise.GRADIENT_X;
+import static org.snowjak.rays.function.noise.GradientNoise.GRADIENT_Y;
+import static org.snowjak.rays.function.noise.GradientNoise.GRADIENT_Z;
+import static org.snowjak.rays.function.noise.PermutationTable.floor;
+import static org.snowjak.rays.function.noise.PermutationTable.wrap;
+
+/**
+ * Seedable simplex-noise, after Ken Perlin's simplex noise (2001) and Stefan
+ * Gustavson's description of it. Sums the contributions of the 4 corners of
+ * the enclosing tetrahedron rather than the 8 corners of the enclosing cube,
+ * so it is cheaper than {@link GradientNoise} and has fewer axis-aligned
+ * artifacts. Values fall within roughly <code>[-1, 1]</code>.
+ * <p>
+ * Because the simplex-lattice is skewed, this noise does <em>not</em> repeat
+ * every {@link PermutationTable#PERIOD} units along each axis separately; it
+ * repeats under any offset <code>(a,b,c)</code> whose components are multiples
+ * of the period and whose sum is a multiple of 3 times the period.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class SimplexNoise implements Noise {
+
+	private static final double SKEW = 1d / 3d, UNSKEW = 1d / 6d;
+
+	private final int[] p;
+
+	/**
+	 * Create a new SimplexNoise instance, using the given seed.
+	 *
+	 * @param seed
+	 */
+	public SimplexNoise(long seed) {
+		p = new PermutationTable(seed).p;
+	}
+
+	@Override
+	public double noise(double x, double y, double z) {
+
+		//
+		// Skew the input space to find which simplex-cell we're in ...
+		double s = (x + y + z) * SKEW;
+		long i = floor(x + s), j = floor(y + s), k = floor(z + s);
+
+		//
+		// ... and un-skew the cell-origin back to find our offset from it.
+		double t = (i + j + k) * UNSKEW;
+		double x0 = x - (i - t), y0 = y - (j - t), z0 = z - (k - t);
+
+		//
+		// Determine which of the cell's 6 tetrahedra we're in, by ranking
+		// the offset's coordinates.
+		int i1, j1, k1, i2, j2, k2;
+		if (x0 >= y0) {
+			if (y0 >= z0) {
+				i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+			} else if (x0 >= z0) {
+				i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 0; k2 = 1;
+			} else {
+				i1 = 0; j1 = 0; k1 = 1; i2 = 1; j2 = 0; k2 = 1;
+			}
+		} else {
+			if (y0 < z0) {
+				i1 = 0; j1 = 0; k1 = 1; i2 = 0; j2 = 1; k2 = 1;
+			} else if (x0 < z0) {
+				i1 = 0; j1 = 1; k1 = 0; i2 = 0; j2 = 1; k2 = 1;
+			} else {
+				i1 = 0; j1 = 1; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+			}
+		}
+
+		double x1 = x0 - i1 + UNSKEW, y1 = y0 - j1 + UNSKEW, z1 = z0 - k1 + UNSKEW;
+		double x2 = x0 - i2 + 2d * UNSKEW, y2 = y0 - j2 + 2d * UNSKEW, z2 = z0 - k2 + 2d * UNSKEW;
+		double x3 = x0 - 1d + 3d * UNSKEW, y3 = y0 - 1d + 3d * UNSKEW, z3 = z0 - 1d + 3d * UNSKEW;
+
+		int ii = wrap(i), jj = wrap(j), kk = wrap(k);
+
+		return 32d * (corner(p[ii + p[jj + p[kk]]], x0, y0, z0)
+				+ corner(p[ii + i1 + p[jj + j1 + p[kk + k1]]], x1, y1, z1)
+				+ corner(p[ii + i2 + p[jj + j2 + p[kk + k2]]], x2, y2, z2)
+				+ corner(p[ii + 1 + p[jj + 1 + p[kk + 1]]], x3, y3, z3));
+	}
+
+	private static double corner(int hash, double x, double y, double z) {
+
+		double t = 0.6d - x * x - y * y - z * z;
+		if (t < 0d)
+			return 0d;
+
+		int h = hash & 15;
+		t *= t;
+		return t * t * (GRADIENT_X[h] * x + GRADIENT_Y[h] * y + GRADIENT_Z[h] * z);
+	}
+}
@@ -0,0 +1,58 @@
+package org.snowjak.rays.function.noise;
+
+import static org.snowjak.rays.function.noise.PermutationTable.PERIOD;
+import static org.snowjak.rays.function.noise.PermutationTable.fade;
+import static org.snowjak.rays.function.noise.PermutationTable.floor;
+import static org.snowjak.rays.function.noise.PermutationTable.lerp;
+import static org.snowjak.rays.function.noise.PermutationTable.wrap;
+
+import java.util.Random;
+
+/**
+ * Seedable value-noise: a pseudo-random value at every lattice-point,
+ * smoothly interpolated in between. Cheaper than {@link GradientNoise}, but
+ * blockier. Values fall within <code>[-1, 1]</code>, and repeat every
+ * {@link PermutationTable#PERIOD} units along each axis.
+ *
+ * @author snowjak88
+ *
+ */
+public class ValueNoise implements Noise {
+
+	private final PermutationTable permutation;
+
+	private final double[] values = new double[PERIOD];
+
+	/**
+	 * Create a new ValueNoise instance, using the given seed.
+	 *
+	 * @param seed
+	 */
+	public ValueNoise(long seed) {
+		permutation = new PermutationTable(seed);
+
+		Random rnd = new Random(~seed);
+		for (int i = 0; i < values.length; i++)
+			values[i] = 2d * rnd.nextDouble() - 1d;
+	}
+
+	@Override
+	public double noise(double x, double y, double z) {
+
+		long fx = floor(x), fy = floor(y), fz = floor(z);
+		int X = wrap(fx), Y = wrap(fy), Z = wrap(fz);
+
+		double u = fade(x - fx), v = fade(y - fy), w = fade(z - fz);
+
+		return lerp(w,
+				lerp(v, lerp(u, value(X, Y, Z), value(X + 1, Y, Z)),
+						lerp(u, value(X, Y + 1, Z), value(X + 1, Y + 1, Z))),
+				lerp(v, lerp(u, value(X, Y, Z + 1), value(X + 1, Y, Z + 1)),
+						lerp(u, value(X, Y + 1, Z + 1), value(X + 1, Y + 1, Z + 1))));
+	}
+
+	private double value(int x, int y, int z) {
+
+		return values[permutation.hash(x, y, z)];
+	}
+}
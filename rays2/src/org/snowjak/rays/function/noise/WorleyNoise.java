@@ -0,0 +1,71 @@
+package org.snowjak.rays.function.noise;
+
+import static org.snowjak.rays.function.noise.PermutationTable.PERIOD;
+import static org.snowjak.rays.function.noise.PermutationTable.floor;
+import static org.snowjak.rays.function.noise.PermutationTable.wrap;
+
+import java.util.Random;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Seedable Worley ("cellular") noise, after Steven Worley's "A Cellular
+ * Texture Basis Function" (1996). Every lattice-cell holds a single
+ * pseudo-randomly placed feature-point; the noise-value is the distance from
+ * the given point to the nearest feature-point. Values fall within
+ * <code>[0, sqrt(3)]</code> (and are usually less than 1), and repeat every
+ * {@link PermutationTable#PERIOD} units along each axis.
+ *
+ * @author snowjak88
+ *
+ */
+public class WorleyNoise implements Noise {
+
+	private final PermutationTable permutation;
+
+	private final double[] featureX = new double[PERIOD], featureY = new double[PERIOD],
+			featureZ = new double[PERIOD];
+
+	/**
+	 * Create a new WorleyNoise instance, using the given seed.
+	 *
+	 * @param seed
+	 */
+	public WorleyNoise(long seed) {
+		permutation = new PermutationTable(seed);
+
+		Random rnd = new Random(~seed);
+		for (int i = 0; i < PERIOD; i++) {
+			featureX[i] = rnd.nextDouble();
+			featureY[i] = rnd.nextDouble();
+			featureZ[i] = rnd.nextDouble();
+		}
+	}
+
+	@Override
+	public double noise(double x, double y, double z) {
+
+		long fx = floor(x), fy = floor(y), fz = floor(z);
+
+		//
+		// Work relative to the enclosing cell, so that very large
+		// coordinates don't lose precision.
+		x -= fx;
+		y -= fy;
+		z -= fz;
+
+		double nearestSquared = Double.POSITIVE_INFINITY;
+		for (int dx = -1; dx <= 1; dx++)
+			for (int dy = -1; dy <= 1; dy++)
+				for (int dz = -1; dz <= 1; dz++) {
+					int h = permutation.hash(wrap(fx + dx), wrap(fy + dy), wrap(fz + dz));
+
+					double ox = dx + featureX[h] - x, oy = dy + featureY[h] - y, oz = dz + featureZ[h] - z;
+					double distanceSquared = ox * ox + oy * oy + oz * oz;
+					if (distanceSquared < nearestSquared)
+						nearestSquared = distanceSquared;
+				}
+
+		return FastMath.sqrt(nearestSquared);
+	}
+}
@@ -72,8 +72,10 @@ public interface Intersectable {
 	 * within this object.
 	 * 
 	 * <p>
-	 * Specifically, starts from the point and works directly away from
+	 * By default, starts from the point and works directly away from
 	 * {@link #getLocation()}, and tests for an intersection with this object.
+	 * Implementations with a closed-form test (e.g., the unit primitives, and
+	 * CSG compositions of them) should override this with that test instead.
 	 * </p>
 	 * 
 	 * @param point
@@ -6,6 +6,7 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
 import org.snowjak.rays.color.ColorScheme;
 import org.snowjak.rays.color.HasColorScheme;
+import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.light.CanEmitLight;
 import org.snowjak.rays.material.Material;
 
@@ -161,6 +162,45 @@ public class Intersection<S extends Intersectable> implements HasColorScheme, Ca
 		return ray;
 	}
 
+	/**
+	 * @return the width (in world units) of the intersecting {@link Ray}'s
+	 *         footprint at this Intersection, or 0 if the Ray is a
+	 *         point-sample
+	 */
+	public double getFootprint() {
+
+		if (ray == null || !ray.hasFootprint())
+			return 0d;
+
+		return ray.getFootprintWidth(distanceFromRayOrigin);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * An Intersection filters its diffuse color over its
+	 * {@link #getFootprint() footprint}.
+	 * </p>
+	 */
+	@Override
+	public RawColor getDiffuse(Vector3D worldCoord) {
+
+		return getDiffuse(worldCoord, getFootprint());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * An Intersection filters its specular color over its
+	 * {@link #getFootprint() footprint}.
+	 * </p>
+	 */
+	@Override
+	public RawColor getSpecular(Vector3D worldCoord) {
+
+		return getSpecular(worldCoord, getFootprint());
+	}
+
 	/**
 	 * @return the object intersected by the Ray
 	 */
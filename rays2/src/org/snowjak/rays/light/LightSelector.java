@@ -0,0 +1,238 @@
+package org.snowjak.rays.light;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.shape.Shape;
+
+/**
+ * Selects emissive {@link Shape}s in proportion to their estimated emitted
+ * power, so that lighting models need only trace shadow-rays toward a handful
+ * of lights at each shading-point -- no matter how many lights the World
+ * contains.
+ * <p>
+ * Selection is implemented with Vose's alias method: after an O(n) set-up,
+ * each selection costs O(1) regardless of the number of lights.
+ * </p>
+ * <p>
+ * Each light's power is estimated once, when this selector is built, as its
+ * average emissive luminance multiplied by a rough measure of its surface
+ * area. Because every emissive Shape is always given some non-zero
+ * probability, the estimates produced by
+ * {@link #estimate(int, Function)} are unbiased -- a poor power-estimate
+ * costs only variance, not correctness.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class LightSelector {
+
+	/**
+	 * The number of surface-points sampled from each light when estimating
+	 * its power.
+	 */
+	private static final int POWER_ESTIMATE_SAMPLE_COUNT = 16;
+
+	/**
+	 * No light's share of the total power is allowed to fall below this
+	 * fraction of the average share -- which keeps every light's selection
+	 * probability safely above 0.
+	 */
+	private static final double MINIMUM_RELATIVE_POWER = 0.01;
+
+	private final List<Shape> lights;
+
+	private final double[] probabilities;
+
+	private final double[] aliasThresholds;
+
+	private final int[] aliases;
+
+	/**
+	 * Construct a new LightSelector over the given emissive Shapes.
+	 *
+	 * @param lights
+	 */
+	public LightSelector(Collection<Shape> lights) {
+		this.lights = Collections.unmodifiableList(new ArrayList<>(lights));
+
+		int n = this.lights.size();
+		this.probabilities = new double[n];
+		this.aliasThresholds = new double[n];
+		this.aliases = new int[n];
+
+		if (n == 0)
+			return;
+
+		//
+		// Estimate each light's power, and normalize those estimates into
+		// selection-probabilities.
+		double[] powers = new double[n];
+		double totalPower = 0d;
+		for (int i = 0; i < n; i++) {
+			powers[i] = estimatePower(this.lights.get(i));
+			totalPower += powers[i];
+		}
+
+		double minimumPower = (totalPower > 0d) ? MINIMUM_RELATIVE_POWER * totalPower / (double) n : 1d;
+		totalPower = 0d;
+		for (int i = 0; i < n; i++) {
+			powers[i] = FastMath.max(powers[i], minimumPower);
+			totalPower += powers[i];
+		}
+
+		for (int i = 0; i < n; i++)
+			probabilities[i] = powers[i] / totalPower;
+
+		buildAliasTable();
+	}
+
+	/**
+	 * Vose's alias method: partition the scaled probabilities into "small"
+	 * (< 1) and "large" (>= 1) bins, and pair each small bin with a large one
+	 * that tops it up.
+	 */
+	private void buildAliasTable() {
+
+		int n = probabilities.length;
+		double[] scaled = new double[n];
+		LinkedList<Integer> small = new LinkedList<>(), large = new LinkedList<>();
+
+		for (int i = 0; i < n; i++) {
+			scaled[i] = probabilities[i] * (double) n;
+			if (scaled[i] < 1d)
+				small.add(i);
+			else
+				large.add(i);
+		}
+
+		while (!small.isEmpty() && !large.isEmpty()) {
+			int s = small.removeFirst(), l = large.removeFirst();
+
+			aliasThresholds[s] = scaled[s];
+			aliases[s] = l;
+
+			scaled[l] = (scaled[l] + scaled[s]) - 1d;
+			if (scaled[l] < 1d)
+				small.add(l);
+			else
+				large.add(l);
+		}
+
+		//
+		// Anything left over is (up to rounding-error) exactly 1.
+		for (int i : large) {
+			aliasThresholds[i] = 1d;
+			aliases[i] = i;
+		}
+		for (int i : small) {
+			aliasThresholds[i] = 1d;
+			aliases[i] = i;
+		}
+	}
+
+	private static double estimatePower(Shape light) {
+
+		Vector3D center = light.getLocation();
+		double totalLuminance = 0d, totalDistanceSq = 0d;
+
+		for (Vector3D point : light.selectPointsWithin(POWER_ESTIMATE_SAMPLE_COUNT, true)) {
+			totalLuminance += light.getEmissive(point).map(RawColor::getLuminance).orElse(0d);
+			totalDistanceSq += point.distanceSq(center);
+		}
+
+		//
+		// Average luminance * (average "radius")^2 -- proportional to
+		// radiance * surface-area, which is what we want.
+		return FastMath.max(totalLuminance / (double) POWER_ESTIMATE_SAMPLE_COUNT, 0d)
+				* (totalDistanceSq / (double) POWER_ESTIMATE_SAMPLE_COUNT);
+	}
+
+	/**
+	 * @return the emissive Shapes this selector chooses from
+	 */
+	public List<Shape> getLights() {
+
+		return lights;
+	}
+
+	/**
+	 * @return the number of lights this selector chooses from
+	 */
+	public int size() {
+
+		return lights.size();
+	}
+
+	/**
+	 * @param index
+	 * @return the probability that a single selection returns the light at
+	 *         {@code index}
+	 */
+	public double getProbability(int index) {
+
+		return probabilities[index];
+	}
+
+	/**
+	 * Select a single light index, with probability
+	 * {@link #getProbability(int)}.
+	 *
+	 * @param u1
+	 *            a uniformly-distributed number in [0,1)
+	 * @param u2
+	 *            a uniformly-distributed number in [0,1)
+	 * @return the selected light's index
+	 */
+	public int select(double u1, double u2) {
+
+		int bin = FastMath.min((int) (u1 * (double) probabilities.length), probabilities.length - 1);
+		return (u2 < aliasThresholds[bin]) ? bin : aliases[bin];
+	}
+
+	/**
+	 * Estimate the total contribution of all lights, by evaluating
+	 * {@code contribution} for no more than {@code sampleCount} lights.
+	 * <p>
+	 * If there are no more lights than {@code sampleCount}, every light is
+	 * evaluated exactly once and the result is exact. Otherwise,
+	 * {@code sampleCount} lights are selected (with replacement) and each
+	 * result is weighted by 1 / ({@code sampleCount} * selection-probability),
+	 * which yields an unbiased estimate of the total.
+	 * </p>
+	 *
+	 * @param sampleCount
+	 * @param contribution
+	 *            calculates the contribution of a single light
+	 * @return the estimated total contribution of all lights
+	 */
+	public RawColor estimate(int sampleCount, Function<Shape, RawColor> contribution) {
+
+		RawColor total = new RawColor();
+
+		if (lights.size() <= sampleCount) {
+			for (Shape light : lights)
+				total = total.add(contribution.apply(light));
+			return total;
+		}
+
+		ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		for (int i = 0; i < sampleCount; i++) {
+			int selected = select(rnd.nextDouble(), rnd.nextDouble());
+			double weight = 1d / ((double) sampleCount * probabilities[selected]);
+			total = total.add(contribution.apply(lights.get(selected)).multiplyScalar(weight));
+		}
+
+		return total;
+	}
+
+}
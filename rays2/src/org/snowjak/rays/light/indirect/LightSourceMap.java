@@ -44,6 +44,8 @@ public class LightSourceMap {
 
 	private int samplingRaysPerMapEntry = 0;
 
+	private World world = null;
+
 	private Shape lightSource = null;
 
 	private static final Random RND = new Random();
@@ -54,13 +56,16 @@ public class LightSourceMap {
 	 * The final map has a 2-d resolution of {@code [2u x u]}, where
 	 * {@code u = 180 / degreesPerMapEntry}
 	 * 
+	 * @param world
+	 *            the {@link World} to sample
 	 * @param lightSource
 	 * @param degreesPerMapEntry
 	 * @param samplingRaysPerMapEntry
 	 */
-	public LightSourceMap(Shape lightSource, double degreesPerMapEntry, int samplingRaysPerMapEntry) {
+	public LightSourceMap(World world, Shape lightSource, double degreesPerMapEntry, int samplingRaysPerMapEntry) {
 		int entriesPerHemisphere = (int) FastMath.round(FastMath.ceil(180d / degreesPerMapEntry));
 
+		this.world = world;
 		this.lightSource = lightSource;
 		this.degreesPerMapEntry = 180d / (double) entriesPerHemisphere;
 		this.entries = new Entry[2 * entriesPerHemisphere][entriesPerHemisphere];
@@ -141,9 +146,8 @@ public class LightSourceMap {
 			Vector3D sampleDirection = sampleCoordinates.getUnitVector();
 			Ray sampleRay = new Ray(lightSource.getLocation(), sampleDirection);
 
-			Optional<Intersection<Shape>> closestIntersection = RaytracerContext.getSingleton()
-					.getCurrentWorld()
-					.getClosestShapeIntersection(sampleRay, lightSource);
+			Optional<Intersection<Shape>> closestIntersection = world.getClosestShapeIntersection(sampleRay,
+					lightSource);
 
 			if (closestIntersection.isPresent()) {
 				isShape = true;
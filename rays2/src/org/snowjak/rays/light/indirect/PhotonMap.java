@@ -16,7 +16,6 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.indirect.LightSourceMap.Coordinates;
@@ -46,8 +45,8 @@ public class PhotonMap {
 
 	/**
 	 * Build a new {@link PhotonMap}. See
-	 * {@link #build(int, boolean, double, int, double, double)} for more
-	 * details.
+	 * {@link #build(World, int, boolean, double, int, double, double)} for
+	 * more details.
 	 * 
 	 * <p>
 	 * The map takes default values for:
@@ -59,13 +58,14 @@ public class PhotonMap {
 	 * </ul>
 	 * </p>
 	 * 
+	 * @param world
 	 * @param photonCount
 	 * @param isCausticsMap
 	 * @return a new PhotonMap instance
 	 */
-	public static PhotonMap build(int photonCount, boolean isCausticsMap) {
+	public static PhotonMap build(World world, int photonCount, boolean isCausticsMap) {
 
-		return build(photonCount, isCausticsMap, 5d, 16, 0.1, 0.2);
+		return build(world, photonCount, isCausticsMap, 5d, 16, 0.1, 0.2);
 	}
 
 	/**
@@ -84,6 +84,7 @@ public class PhotonMap {
 	 * {@link Material#getSurfaceTransparency()}.
 	 * </p>
 	 * 
+	 * @param world
 	 * @param photonCount
 	 * @param isCausticsMap
 	 * @param degreesPerLightSourceMapEntry
@@ -92,10 +93,9 @@ public class PhotonMap {
 	 * @param photonCullProbability
 	 * @return a new PhotonMap instance
 	 */
-	public static PhotonMap build(int photonCount, boolean isCausticsMap, double degreesPerLightSourceMapEntry,
-			int rayCountPerLightSourceMapEntry, double photonCullThreshold, double photonCullProbability) {
-
-		World world = RaytracerContext.getSingleton().getCurrentWorld();
+	public static PhotonMap build(World world, int photonCount, boolean isCausticsMap,
+			double degreesPerLightSourceMapEntry, int rayCountPerLightSourceMapEntry, double photonCullThreshold,
+			double photonCullProbability) {
 
 		double photonsPerUnitRadiance = photonCount / world.getEmissiveShapes()
 				.parallelStream()
@@ -106,7 +106,7 @@ public class PhotonMap {
 		PhotonMap photonMap = new PhotonMap();
 
 		Collection<PhotonEntry> photonEntries = world.getEmissiveShapes().parallelStream().flatMap(s -> {
-			LightSourceMap lightSourceMap = new LightSourceMap(s, degreesPerLightSourceMapEntry,
+			LightSourceMap lightSourceMap = new LightSourceMap(world, s, degreesPerLightSourceMapEntry,
 					rayCountPerLightSourceMapEntry);
 
 			List<LightSourceMap.Entry> shapeMapEntries = lightSourceMap
@@ -151,8 +151,8 @@ public class PhotonMap {
 
 						double weight = 1d;
 
-						return followPhoton(s, sampleRay, photonRadiance, weight, isCausticsMap, photonCullThreshold,
-								photonCullProbability);
+						return followPhoton(world, s, sampleRay, photonRadiance, weight, isCausticsMap,
+								photonCullThreshold, photonCullProbability);
 
 					});
 		}).flatMap(cpe -> cpe.stream()).collect(Collectors.toCollection(LinkedList::new));
@@ -162,12 +162,12 @@ public class PhotonMap {
 		return photonMap;
 	}
 
-	private static Collection<PhotonEntry> followPhoton(Shape emittingShape, Ray currentRay, RawColor photonRadiance,
-			double weight, boolean acceptOnlySpecular, double photonCullThreshold, double photonCullProbability) {
+	private static Collection<PhotonEntry> followPhoton(World world, Shape emittingShape, Ray currentRay,
+			RawColor photonRadiance, double weight, boolean acceptOnlySpecular, double photonCullThreshold,
+			double photonCullProbability) {
 
-		Optional<Intersection<Shape>> closestIntersection = RaytracerContext.getSingleton()
-				.getCurrentWorld()
-				.getClosestShapeIntersection(currentRay, emittingShape);
+		Optional<Intersection<Shape>> closestIntersection = world.getClosestShapeIntersection(currentRay,
+				emittingShape);
 
 		if (!closestIntersection.isPresent())
 			return Collections.emptyList();
@@ -230,8 +230,8 @@ public class PhotonMap {
 			weight *= (intersectAlbedo + photonCullProbability);
 		}
 
-		results.addAll(followPhoton(emittingShape, nextStageRay, nextStageRadiance, weight, false, photonCullThreshold,
-				photonCullProbability));
+		results.addAll(followPhoton(world, emittingShape, nextStageRay, nextStageRadiance, weight, false,
+				photonCullThreshold, photonCullProbability));
 		return results;
 	}
 
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Optional;
 
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -47,10 +48,11 @@ public class AdditiveCompositingLightingModel extends CompositingLightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		return getChildren().parallelStream()
-				.map(lm -> lm.determineRayColor(ray, intersection))
+				.map(lm -> lm.determineRayColor(context, ray, intersection))
 				.filter(o -> o.isPresent())
 				.map(o -> o.get())
 				.reduce((c1, c2) -> c1.add(c2));
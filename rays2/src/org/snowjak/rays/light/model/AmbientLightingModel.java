@@ -4,7 +4,7 @@ import java.util.Optional;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -22,18 +22,19 @@ import org.snowjak.rays.shape.Shape;
 public class AmbientLightingModel implements LightingModel {
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		if (!intersection.isPresent())
 			return Optional.empty();
 
-		return Optional.of(lightIntersection(intersection.get()));
+		return Optional.of(lightIntersection(context, intersection.get()));
 	}
 
-	private RawColor lightIntersection(Intersection<Shape> intersection) {
+	private RawColor lightIntersection(RenderContext context, Intersection<Shape> intersection) {
 
 		Vector3D point = intersection.getPoint();
-		RawColor worldAmbientRadiance = RaytracerContext.getSingleton().getCurrentWorld().getAmbientRadiance();
+		RawColor worldAmbientRadiance = context.getWorld().getAmbientRadiance();
 
 		RawColor pointColor = intersection.getDiffuse(point);
 
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.indirect.PhotonMap;
@@ -42,7 +43,8 @@ public class CausticsPhotonMapLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		Instant start = Instant.now();
 
@@ -11,7 +11,7 @@ import java.util.stream.IntStream;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.antialias.SuperSamplingAntialiaser;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
@@ -39,7 +39,8 @@ public class DiffuseIndirectPhotonMapLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		Instant start = Instant.now();
 
@@ -75,8 +76,7 @@ public class DiffuseIndirectPhotonMapLightingModel implements LightingModel {
 			return sampleVectors;
 
 		}, (v) -> {
-			Optional<Intersection<Shape>> sampledIntersection = RaytracerContext.getSingleton()
-					.getCurrentWorld()
+			Optional<Intersection<Shape>> sampledIntersection = context.getWorld()
 					.getClosestShapeIntersection(new Ray(point, v), intersected);
 			if (!sampledIntersection.isPresent())
 				return Optional.empty();
@@ -4,7 +4,11 @@ import java.util.Optional;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -37,14 +41,45 @@ public class EnvironmentMapDecoratingLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
-		Optional<RawColor> decoratedColor = decoratedLightingModel.determineRayColor(ray, intersection);
+		Optional<RawColor> decoratedColor = decoratedLightingModel.determineRayColor(context, ray, intersection);
 
 		if (decoratedColor.isPresent())
 			return decoratedColor;
 
-		return Optional.of(environmentMap.getColorAt(environmentMap.convert(ray.getVector())));
+		Vector2D uv = environmentMap.convert(ray.getVector());
+		return Optional.of(environmentMap.getColorAt(uv.getX(), uv.getY(), getFootprint(context, ray)));
+	}
+
+	/**
+	 * Estimate the angular width (in radians) of the cone of directions
+	 * covered by the given Ray -- i.e., how much of the environment map it
+	 * should be filtered over.
+	 * <p>
+	 * If the Ray carries a footprint, that footprint's spread is exactly this.
+	 * Otherwise, we assume a primary ray spreads as much as one shot through
+	 * the center of the camera's frame (see
+	 * {@link Camera#getCenterPixelSpread(RenderContext)}), and conservatively
+	 * that each bounce doubles it.
+	 * </p>
+	 * 
+	 * @param context
+	 * @param ray
+	 * @return the estimated angular width of the Ray's footprint
+	 */
+	protected double getFootprint(RenderContext context, Ray ray) {
+
+		if (ray.hasFootprint())
+			return FastMath.abs(ray.getFootprintSpread());
+
+		Camera camera = context.getWorld().getCamera();
+		if (camera == null)
+			return 0d;
+
+		double pixelAngle = camera.getCenterPixelSpread(context);
+		return FastMath.scalb(pixelAngle, FastMath.min(FastMath.max(ray.getRecursiveLevel() - 1, 0), 30));
 	}
 
 	/**
@@ -90,6 +125,58 @@ public class EnvironmentMapDecoratingLightingModel implements LightingModel {
 		 * @return the color at the given location
 		 */
 		public RawColor getColorAt(double u, double v);
+
+		/**
+		 * Query the environment map and return the color for the given
+		 * location, filtered over the given footprint.
+		 * <p>
+		 * By default, the footprint is ignored.
+		 * </p>
+		 * 
+		 * @param u
+		 * @param v
+		 * @param footprint
+		 *            the angular width (in radians) of the cone of directions
+		 *            to filter over
+		 * @return the (filtered) color at the given location
+		 */
+		public default RawColor getColorAt(double u, double v, double footprint) {
+
+			return getColorAt(u, v);
+		}
+
+		/**
+		 * Select a direction toward this environment map, with probability in
+		 * proportion to (roughly) the light arriving from that direction.
+		 * <p>
+		 * By default, directions are selected uniformly over the sphere.
+		 * </p>
+		 * 
+		 * @param r1
+		 *            a uniformly-distributed random number in [0,1)
+		 * @param r2
+		 *            a uniformly-distributed random number in [0,1)
+		 * @return the selected (unit) direction, along with its probability
+		 *         density (per steradian)
+		 * @see #getProbabilityDensity(Vector3D)
+		 */
+		public default Pair<Vector3D, Double> sampleDirection(double r1, double r2) {
+
+			double y = 1d - 2d * r2, r = FastMath.sqrt(FastMath.max(0d, 1d - y * y)), phi = 2d * FastMath.PI * r1;
+			return new Pair<>(new Vector3D(r * FastMath.cos(phi), y, r * FastMath.sin(phi)), 1d / (4d * FastMath.PI));
+		}
+
+		/**
+		 * Compute the probability density (per steradian) with which
+		 * {@link #sampleDirection(double, double)} selects the given direction.
+		 * 
+		 * @param worldVector
+		 * @return the probability density of that direction
+		 */
+		public default double getProbabilityDensity(Vector3D worldVector) {
+
+			return 1d / (4d * FastMath.PI);
+		}
 	}
 
 	/**
@@ -3,6 +3,7 @@ package org.snowjak.rays.light.model;
 import java.util.Optional;
 
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -18,7 +19,8 @@ import org.snowjak.rays.shape.Shape;
 public class FlatLightingModel implements LightingModel {
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		if (!intersection.isPresent())
 			return Optional.empty();
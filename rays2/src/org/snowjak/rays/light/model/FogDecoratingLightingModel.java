@@ -4,6 +4,7 @@ import java.util.Optional;
 
 import org.apache.commons.math3.util.FastMath;
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -55,9 +56,10 @@ public class FogDecoratingLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
-		Optional<RawColor> decoratedLightingResult = decoratedModel.determineRayColor(ray, intersection);
+		Optional<RawColor> decoratedLightingResult = decoratedModel.determineRayColor(context, ray, intersection);
 
 		RawColor unfoggedColor = decoratedLightingResult.orElse(new RawColor());
 
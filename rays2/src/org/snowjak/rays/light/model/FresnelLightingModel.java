@@ -9,8 +9,7 @@ import java.util.Optional;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
-import org.snowjak.rays.Renderer;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.function.Functions;
 import org.snowjak.rays.intersect.Intersection;
@@ -55,18 +54,18 @@ public class FresnelLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		Instant start = Instant.now();
 
 		if (!intersection.isPresent())
 			return Optional.empty();
 
-		World world = RaytracerContext.getSingleton().getCurrentWorld();
-		Renderer renderer = RaytracerContext.getSingleton().getCurrentRenderer();
+		World world = context.getWorld();
 
-		if (ray.getRecursiveLevel() > RaytracerContext.getSingleton().getSettings().getMaxRayRecursion())
-			return surfaceLightingModel.determineRayColor(ray, intersection);
+		if (ray.getRecursiveLevel() > context.getSettings().getMaxRayRecursion())
+			return surfaceLightingModel.determineRayColor(context, ray, intersection);
 
 		//
 		//
@@ -86,7 +85,8 @@ public class FresnelLightingModel implements LightingModel {
 		//
 		//
 		//
-		RawColor surfaceColor = surfaceLightingModel.determineRayColor(ray, intersection).orElse(new RawColor());
+		RawColor surfaceColor = surfaceLightingModel.determineRayColor(context, ray, intersection)
+				.orElse(new RawColor());
 		
 		ExecutionTimeTracker.logExecutionRecord("FresnelLightingModel - get child LightingModel color", start, Instant.now(), null);
 		start = Instant.now();
@@ -100,8 +100,8 @@ public class FresnelLightingModel implements LightingModel {
 		if (reflectance > 0d) {
 			Optional<Intersection<Shape>> reflectedIntersection = world
 					.getClosestShapeIntersection(fresnel.getReflectedRay());
-			reflectedColor = renderer.getLightingModel()
-					.determineRayColor(fresnel.getReflectedRay(), reflectedIntersection)
+			reflectedColor = context.getLightingModel()
+					.determineRayColor(context, fresnel.getReflectedRay(), reflectedIntersection)
 					.orElse(new RawColor());
 		}
 		if (transmittance > 0d) {
@@ -109,8 +109,8 @@ public class FresnelLightingModel implements LightingModel {
 			// Get the color of the refracted ray.
 			Optional<Intersection<Shape>> refractedIntersection = world
 					.getClosestShapeIntersection(fresnel.getRefractedRay());
-			refractedColor = renderer.getLightingModel()
-					.determineRayColor(fresnel.getRefractedRay(), refractedIntersection)
+			refractedColor = context.getLightingModel()
+					.determineRayColor(context, fresnel.getRefractedRay(), refractedIntersection)
 					.orElse(new RawColor());
 
 			//
@@ -151,11 +151,20 @@ public class FresnelLightingModel implements LightingModel {
 			double n1 = intersection.getLeavingMaterial().getRefractiveIndex(point),
 					n2 = intersection.getEnteringMaterial().getRefractiveIndex(point);
 
+			//
+			//
+			// Both new rays pick up the incoming ray's footprint where it
+			// meets the surface. We don't know the surface's curvature, so we
+			// treat it as flat: reflection keeps the footprint's spread, and
+			// refraction bends it by the ratio of refractive indices.
+			double footprintWidth = intersection.getFootprint(), footprintSpread = ray.getFootprintSpread();
+
 			//
 			//
 			// Determine reflected ray
 			Vector3D reflectedVector = getTangentPart(i, n).subtract(getNormalPart(i, n));
-			reflectedRay = new Ray(point, reflectedVector, ray.getRecursiveLevel() + 1);
+			reflectedRay = new Ray(point, reflectedVector, ray.getRecursiveLevel() + 1, footprintWidth,
+					footprintSpread);
 
 			//
 			//
@@ -163,7 +172,8 @@ public class FresnelLightingModel implements LightingModel {
 			double sin2_theta_t = pow(n1 / n2, 2d) * (1d - pow(cos(theta_i), 2d));
 			Vector3D refractedVector = i.scalarMultiply(n1 / n2)
 					.add(n.scalarMultiply((n1 / n2) * cos(theta_i) - sqrt(1d - sin2_theta_t)));
-			refractedRay = new Ray(point, refractedVector, ray.getRecursiveLevel() + 1);
+			refractedRay = new Ray(point, refractedVector, ray.getRecursiveLevel() + 1, footprintWidth,
+					footprintSpread * (n1 / n2));
 
 			//
 			//
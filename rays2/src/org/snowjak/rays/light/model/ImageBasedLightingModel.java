@@ -0,0 +1,122 @@
+package org.snowjak.rays.light.model;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.light.model.EnvironmentMapDecoratingLightingModel.EnvironmentMap;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.util.ExecutionTimeTracker;
+import org.snowjak.rays.world.World;
+
+/**
+ * Implements diffuse lighting from an {@link EnvironmentMap}, treating it as a
+ * light source at "infinite" distance.
+ * <p>
+ * For each intersection, this model traces a few shadow-rays toward the
+ * environment -- directions chosen via
+ * {@link EnvironmentMap#sampleDirection(double, double)}, so that bright
+ * regions of the map are sampled more often -- and weights each unoccluded
+ * sample by its probability-density.
+ * </p>
+ * <p>
+ * Like the other lighting models, this is meant to be combined with others
+ * (e.g., via an {@link AdditiveCompositingLightingModel}).
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class ImageBasedLightingModel implements LightingModel {
+
+	private final EnvironmentMap environmentMap;
+
+	private final boolean doLightOccluding;
+
+	/**
+	 * Construct a new {@link ImageBasedLightingModel}, lighting surfaces with
+	 * the given {@link EnvironmentMap}.
+	 *
+	 * @param environmentMap
+	 */
+	public ImageBasedLightingModel(EnvironmentMap environmentMap) {
+		this(environmentMap, true);
+	}
+
+	/**
+	 * Construct a new {@link ImageBasedLightingModel}, lighting surfaces with
+	 * the given {@link EnvironmentMap} and specifying whether to check for
+	 * occlusion.
+	 *
+	 * @param environmentMap
+	 * @param doLightOccluding
+	 */
+	public ImageBasedLightingModel(EnvironmentMap environmentMap, boolean doLightOccluding) {
+		this.environmentMap = environmentMap;
+		this.doLightOccluding = doLightOccluding;
+	}
+
+	@Override
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
+
+		if (!intersection.isPresent())
+			return Optional.empty();
+
+		Instant start = Instant.now();
+
+		final Vector3D point = intersection.get().getPoint();
+		final Vector3D normal = intersection.get().getNormal();
+		final Shape intersected = intersection.get().getIntersected();
+
+		ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		int sampleCount = context.getSettings().getDistributedRayCount();
+
+		//
+		// Estimate the (cosine-weighted) light arriving over the hemisphere,
+		// divided by PI so that a uniformly-white environment lights a white
+		// surface to exactly white.
+		RawColor totalLight = new RawColor();
+		for (int i = 0; i < sampleCount; i++) {
+			Pair<Vector3D, Double> sample = environmentMap.sampleDirection(rnd.nextDouble(), rnd.nextDouble());
+			Vector3D direction = sample.getFirst();
+			double pdf = sample.getSecond();
+
+			double exposure = direction.dotProduct(normal);
+			if (exposure <= 0d || pdf <= 0d)
+				continue;
+
+			if (doLightOccluding && !context.isLightVisible(environmentMap, point.add(World.FAR_AWAY, direction),
+					point, intersected))
+				continue;
+
+			Vector2D uv = environmentMap.convert(direction);
+			totalLight = totalLight
+					.add(environmentMap.getColorAt(uv.getX(), uv.getY()).multiplyScalar(exposure / (FastMath.PI * pdf)));
+		}
+
+		RawColor result = intersection.get()
+				.getDiffuse(point)
+				.multiply(totalLight.multiplyScalar(1d / (double) FastMath.max(sampleCount, 1)));
+
+		ExecutionTimeTracker.logExecutionRecord("ImageBasedLightingModel", start, Instant.now(), null);
+
+		return Optional.of(result);
+	}
+
+	/**
+	 * @return the {@link EnvironmentMap} this model lights surfaces with
+	 */
+	public EnvironmentMap getEnvironmentMap() {
+
+		return environmentMap;
+	}
+}
@@ -13,14 +13,13 @@ import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.antialias.SuperSamplingAntialiaser;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.DirectionalLight;
 import org.snowjak.rays.shape.Shape;
 import org.snowjak.rays.util.ExecutionTimeTracker;
-import org.snowjak.rays.world.World;
 
 /**
  * Implements the Lambertian diffuse lighting model.
@@ -55,33 +54,39 @@ public class LambertianDiffuseLightingModel implements LightingModel {
 	}
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		Instant start = Instant.now();
 
 		if (!intersection.isPresent())
 			return Optional.empty();
 
-		RawColor result = lightIntersection(intersection.get());
+		RawColor result = lightIntersection(context, intersection.get());
 
 		ExecutionTimeTracker.logExecutionRecord("LambertianDiffuseLightingModel", start, Instant.now(), null);
 
 		return Optional.of(result);
 	}
 
-	private RawColor lightIntersection(final Intersection<Shape> intersection) {
+	private RawColor lightIntersection(final RenderContext context, final Intersection<Shape> intersection) {
 
 		final Vector3D point = intersection.getPoint();
 		final Vector3D normal = intersection.getNormal();
 		RawColor totalLightAtPoint = new RawColor();
 
-		RawColor totalLightFromEmissives = RaytracerContext.getSingleton()
-				.getCurrentWorld()
-				.getEmissiveShapes()
-				.parallelStream()
-				.filter(s -> s != intersection.getIntersected())
-				.map(s -> {
-					int rayCount = RaytracerContext.getSingleton().getSettings().getDistributedRayCount();
+		//
+		// Rather than trace shadow-rays toward every single emissive Shape, we
+		// let the World's LightSelector pick a few of them (in proportion to
+		// their power) and scale up their contributions accordingly.
+		int lightSampleCount = context.getSettings().getLightSampleCount();
+
+		RawColor totalLightFromEmissives = context.getLightSelector()
+				.estimate(lightSampleCount, s -> {
+					if (s == intersection.getIntersected())
+						return new RawColor();
+
+					int rayCount = context.getSettings().getDistributedRayCount();
 
 					return lightAntialiaser.execute(s.getLocation(), (v) -> {
 						List<Pair<Vector3D, Double>> sampledPointsOnEmissive = s.selectPointsWithin(2 * rayCount, true)
@@ -99,9 +104,8 @@ public class LambertianDiffuseLightingModel implements LightingModel {
 						return IntStream.range(0, rayCount).mapToObj(i -> samplePointPicker.sample()).collect(
 								Collectors.toCollection(LinkedList::new));
 					}, (v) -> {
-						if (!doLightOccluding || RaytracerContext.getSingleton()
-								.getCurrentWorld()
-								.isPointVisibleFromEye(v, point, s, intersection.getIntersected())) {
+						if (!doLightOccluding
+								|| context.isLightVisible(s, v, point, s, intersection.getIntersected())) {
 
 							Ray toEmissiveRay = new Ray(point, v.subtract(point));
 							Optional<Intersection<Shape>> emissiveIntersection = s
@@ -132,19 +136,13 @@ public class LambertianDiffuseLightingModel implements LightingModel {
 								.reduce(new RawColor(), (c1, c2) -> (c1.add(c2)))
 								.multiplyScalar(1d / cp.size());
 					});
-				})
-				.reduce(new RawColor(), (c1, c2) -> c1.add(c2));
+				});
 
 		totalLightAtPoint = totalLightAtPoint.add(totalLightFromEmissives);
 
-		for (DirectionalLight light : RaytracerContext.getSingleton().getCurrentWorld().getDirectionalLights()) {
+		for (DirectionalLight light : context.getWorld().getDirectionalLights()) {
 
-			Ray toLightRay = new Ray(intersection.getPoint(), light.getDirection().negate());
-			if (!doLightOccluding || !RaytracerContext.getSingleton()
-					.getCurrentWorld()
-					.getShapeIntersections(toLightRay)
-					.parallelStream()
-					.anyMatch(i -> Double.compare(i.getDistanceFromRayOrigin(), World.NEARLY_ZERO) > 0)) {
+			if (!doLightOccluding || context.isDirectionalLightVisible(light, intersection.getPoint())) {
 
 				//
 				// Calculate the received radiance for this sample ray using
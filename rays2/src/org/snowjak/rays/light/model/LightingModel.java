@@ -7,6 +7,7 @@ import java.util.Optional;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.shape.Shape;
@@ -28,11 +29,14 @@ public interface LightingModel {
 	 * Determine the color resulting from a {@link Ray} and a given set of
 	 * {@link Intersection}s produced by it.
 	 * 
+	 * @param context
+	 *            the {@link RenderContext} of the render in progress
 	 * @param ray
 	 * @param intersection
 	 * @return the resulting Color, if any
 	 */
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection);
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection);
 
 	/**
 	 * Describes the outcome of executing this LightingModel.
@@ -0,0 +1,403 @@
+package org.snowjak.rays.light.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.light.LightSelector;
+import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.util.ExecutionTimeTracker;
+import org.snowjak.rays.world.World;
+
+/**
+ * An iterative, unidirectional path-tracing {@link LightingModel}.
+ * <p>
+ * Rather than recursing into both a reflected and a refracted Ray at every
+ * surface (as {@link FresnelLightingModel} does), each path follows exactly
+ * one continuation per bounce, chosen at random in proportion to the
+ * surface's Fresnel reflectance and {@link Material#getSurfaceTransparency()
+ * transparency}:
+ * <ul>
+ * <li>specular reflection, with probability equal to the Fresnel
+ * reflectance</li>
+ * <li>otherwise, refraction, with probability equal to the surface's
+ * transparency</li>
+ * <li>otherwise, a diffuse bounce in a cosine-weighted random direction</li>
+ * </ul>
+ * At every diffuse bounce, the path also estimates direct lighting via
+ * next-event estimation: a shadow-ray toward each {@link DirectionalLight},
+ * and toward one emissive Shape picked by the {@link LightSelector}. (Light
+ * from emissive Shapes is therefore <em>not</em> counted again when a diffuse
+ * bounce happens to hit one.) Direct lighting is normalized like
+ * {@link LambertianDiffuseLightingModel}.
+ * </p>
+ * <p>
+ * After a few bounces, paths are terminated by Russian roulette -- surviving
+ * in proportion to their remaining throughput, and re-weighted to
+ * compensate -- and never run longer than a fixed maximum.
+ * </p>
+ * <p>
+ * Each rendering thread traces its paths through a single, reusable
+ * {@link PathState}, which carries the path's throughput, radiance, and
+ * direction as plain scalars, and the normalized direction toward each
+ * {@link DirectionalLight} (computed once per call, not once per bounce).
+ * Each bounce still allocates what the World and Material APIs hand back:
+ * the next Ray and its Intersection, the surface's colors, and any sampled
+ * light-point.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class PathTracingLightingModel implements LightingModel {
+
+	/**
+	 * By default, no path will be longer than this many bounces.
+	 */
+	public static final int DEFAULT_MAX_BOUNCES = 16;
+
+	/**
+	 * By default, Russian roulette starts after this many bounces.
+	 */
+	public static final int DEFAULT_ROULETTE_BOUNCES = 3;
+
+	private static final ThreadLocal<PathState> PATH_STATES = ThreadLocal.withInitial(PathState::new);
+
+	private final int pathsPerRay, maxBounces, rouletteBounces;
+
+	/**
+	 * Construct a new {@link PathTracingLightingModel}, tracing
+	 * {@link org.snowjak.rays.Settings#getDistributedRayCount()} paths per
+	 * Ray, with the default bounce-limits.
+	 */
+	public PathTracingLightingModel() {
+		this(0, DEFAULT_MAX_BOUNCES, DEFAULT_ROULETTE_BOUNCES);
+	}
+
+	/**
+	 * Construct a new {@link PathTracingLightingModel}.
+	 *
+	 * @param pathsPerRay
+	 *            the number of paths to trace (and average) for each Ray, or
+	 *            {@code 0} to use
+	 *            {@link org.snowjak.rays.Settings#getDistributedRayCount()}
+	 * @param maxBounces
+	 *            the maximum number of surfaces any one path may interact
+	 *            with
+	 * @param rouletteBounces
+	 *            the number of bounces after which Russian roulette begins
+	 * @throws IllegalArgumentException
+	 *             if {@code pathsPerRay} is negative, or {@code maxBounces}
+	 *             is less than 1
+	 */
+	public PathTracingLightingModel(int pathsPerRay, int maxBounces, int rouletteBounces) {
+
+		if (pathsPerRay < 0)
+			throw new IllegalArgumentException("Paths-per-ray cannot be negative (was " + pathsPerRay + ").");
+		if (maxBounces < 1)
+			throw new IllegalArgumentException("Paths must allow at least 1 bounce (was " + maxBounces + ").");
+
+		this.pathsPerRay = pathsPerRay;
+		this.maxBounces = maxBounces;
+		this.rouletteBounces = rouletteBounces;
+	}
+
+	@Override
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
+
+		Instant start = Instant.now();
+
+		if (!intersection.isPresent())
+			return Optional.empty();
+
+		//
+		// Should we be called re-entrantly (e.g., from a decorated model
+		// further down the path), don't trample the in-flight state.
+		PathState state = PATH_STATES.get();
+		if (state.inUse)
+			state = new PathState();
+		state.inUse = true;
+
+		try {
+			int pathCount = (pathsPerRay > 0) ? pathsPerRay
+					: FastMath.max(context.getSettings().getDistributedRayCount(), 1);
+
+			state.prepareLights(context.getWorld().getDirectionalLights());
+
+			double red = 0d, green = 0d, blue = 0d;
+			for (int i = 0; i < pathCount; i++) {
+				tracePath(context, intersection.get(), state);
+				red += state.radianceRed;
+				green += state.radianceGreen;
+				blue += state.radianceBlue;
+			}
+
+			ExecutionTimeTracker.logExecutionRecord("PathTracingLightingModel", start, Instant.now(), null);
+
+			return Optional.of(new RawColor(red / pathCount, green / pathCount, blue / pathCount));
+
+		} finally {
+			state.inUse = false;
+		}
+	}
+
+	/**
+	 * Trace a single path, starting from the given (primary) intersection,
+	 * leaving its radiance in the given {@link PathState}.
+	 */
+	private void tracePath(RenderContext context, Intersection<Shape> firstIntersection, PathState state) {
+
+		ThreadLocalRandom rnd = ThreadLocalRandom.current();
+		World world = context.getWorld();
+		state.reset();
+
+		Intersection<Shape> intersection = firstIntersection;
+		for (int bounce = 0; bounce < maxBounces; bounce++) {
+
+			Vector3D point = intersection.getPoint();
+			Vector3D direction = intersection.getRay().getVector();
+			double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+
+			//
+			// Orient the normal against the incoming direction.
+			Vector3D normal = intersection.getNormal();
+			double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+			double cosIncident = -(dx * nx + dy * ny + dz * nz);
+			if (cosIncident < 0d) {
+				nx = -nx;
+				ny = -ny;
+				nz = -nz;
+				cosIncident = -cosIncident;
+			}
+
+			//
+			// Emission is counted only where next-event estimation couldn't
+			// have already found it.
+			if (state.countEmission && intersection.isEmissive()) {
+				RawColor emission = intersection.getEmissive(point).get();
+				state.addRadiance(emission.getRed(), emission.getGreen(), emission.getBlue());
+			}
+
+			//
+			// Choose one continuation.
+			Material leaving = intersection.getLeavingMaterial(), entering = intersection.getEnteringMaterial();
+			double n1 = (leaving == null) ? 1d : leaving.getRefractiveIndex(point),
+					n2 = (entering == null) ? 1d : entering.getRefractiveIndex(point);
+			double eta = n1 / n2;
+			double sin2Transmitted = eta * eta * (1d - cosIncident * cosIncident);
+			double reflectance = 1d, cosTransmitted = 0d;
+			if (sin2Transmitted <= 1d) {
+				cosTransmitted = FastMath.sqrt(1d - sin2Transmitted);
+				double rNormal = (n1 * cosIncident - n2 * cosTransmitted) / (n1 * cosIncident + n2 * cosTransmitted);
+				double rTangent = (n2 * cosIncident - n1 * cosTransmitted) / (n2 * cosIncident + n1 * cosTransmitted);
+				reflectance = 0.5d * (rNormal * rNormal + rTangent * rTangent);
+			}
+
+			double transparency = (entering == null) ? 0d : entering.getSurfaceTransparency(point);
+			double u = rnd.nextDouble();
+
+			if (u < reflectance) {
+				double scale = 2d * cosIncident;
+				state.setDirection(dx + scale * nx, dy + scale * ny, dz + scale * nz);
+				state.countEmission = true;
+
+			} else if (rnd.nextDouble() < transparency) {
+				double scale = eta * cosIncident - cosTransmitted;
+				state.setDirection(eta * dx + scale * nx, eta * dy + scale * ny, eta * dz + scale * nz);
+				state.countEmission = true;
+
+			} else {
+				RawColor diffuse = intersection.getDiffuse(point);
+				state.multiplyThroughput(diffuse.getRed(), diffuse.getGreen(), diffuse.getBlue());
+
+				estimateDirectLighting(context, intersection, point, nx, ny, nz, rnd, state);
+
+				sampleCosineWeighted(nx, ny, nz, rnd.nextDouble(), rnd.nextDouble(), state);
+				state.countEmission = false;
+			}
+
+			//
+			// Russian roulette.
+			if (bounce + 1 >= rouletteBounces) {
+				double survival = FastMath.min(
+						FastMath.max(state.throughputRed, FastMath.max(state.throughputGreen, state.throughputBlue)),
+						0.95d);
+				if (rnd.nextDouble() >= survival)
+					return;
+				state.multiplyThroughput(1d / survival, 1d / survival, 1d / survival);
+			}
+
+			Ray next = new Ray(point, new Vector3D(state.directionX, state.directionY, state.directionZ),
+					intersection.getRay().getRecursiveLevel() + 1);
+			Optional<Intersection<Shape>> nextIntersection = world.getClosestShapeIntersection(next);
+			if (!nextIntersection.isPresent())
+				return;
+
+			intersection = nextIntersection.get();
+		}
+	}
+
+	/**
+	 * Add the direct lighting at the given (diffuse) point to the path's
+	 * radiance: from every {@link DirectionalLight}, and from one emissive
+	 * Shape chosen by the {@link LightSelector}.
+	 */
+	private void estimateDirectLighting(RenderContext context, Intersection<Shape> intersection, Vector3D point,
+			double nx, double ny, double nz, ThreadLocalRandom rnd, PathState state) {
+
+		Shape intersected = intersection.getIntersected();
+
+		for (int i = 0; i < state.lights.size(); i++) {
+			DirectionalLight light = state.lights.get(i);
+			double exposure = state.lightDirections[3 * i] * nx + state.lightDirections[3 * i + 1] * ny
+					+ state.lightDirections[3 * i + 2] * nz;
+			if (exposure <= 0d || !context.isDirectionalLightVisible(light, point))
+				continue;
+
+			RawColor radiance = light.getRadiance();
+			state.addRadiance(exposure * radiance.getRed(), exposure * radiance.getGreen(),
+					exposure * radiance.getBlue());
+		}
+
+		LightSelector lightSelector = context.getLightSelector();
+		if (lightSelector.size() == 0)
+			return;
+
+		int selected = lightSelector.select(rnd.nextDouble(), rnd.nextDouble());
+		Shape light = lightSelector.getLights().get(selected);
+		if (light == intersected)
+			return;
+
+		Vector3D lightPoint = light.selectPointWithin(true);
+		double distance = lightPoint.distance(point);
+		if (distance <= World.NEARLY_ZERO)
+			return;
+
+		double exposure = ((lightPoint.getX() - point.getX()) * nx + (lightPoint.getY() - point.getY()) * ny
+				+ (lightPoint.getZ() - point.getZ()) * nz) / distance;
+		if (exposure <= 0d || !context.isLightVisible(light, lightPoint, point, light, intersected))
+			return;
+
+		Optional<RawColor> radiance = light.getEmissive(lightPoint);
+		if (!radiance.isPresent())
+			return;
+
+		double weight = exposure / (4d * FastMath.PI * distance * lightSelector.getProbability(selected));
+		state.addRadiance(weight * radiance.get().getRed(), weight * radiance.get().getGreen(),
+				weight * radiance.get().getBlue());
+	}
+
+	/**
+	 * Choose a cosine-weighted direction in the hemisphere around the given
+	 * normal, and store it as the path's next direction. (Its
+	 * probability-density exactly cancels a Lambertian surface's cosine term,
+	 * so the throughput needn't change.)
+	 */
+	private static void sampleCosineWeighted(double nx, double ny, double nz, double u1, double u2,
+			PathState state) {
+
+		//
+		// Build an orthonormal basis (t, b, n) around the normal.
+		double tx, ty, tz;
+		if (FastMath.abs(nx) > 0.9d) {
+			tx = -nz;
+			ty = 0d;
+			tz = nx;
+		} else {
+			tx = 0d;
+			ty = nz;
+			tz = -ny;
+		}
+		double tLength = FastMath.sqrt(tx * tx + ty * ty + tz * tz);
+		tx /= tLength;
+		ty /= tLength;
+		tz /= tLength;
+		double bx = ny * tz - nz * ty, by = nz * tx - nx * tz, bz = nx * ty - ny * tx;
+
+		double radius = FastMath.sqrt(u1), phi = 2d * FastMath.PI * u2;
+		double a = radius * FastMath.cos(phi), b = radius * FastMath.sin(phi), c = FastMath.sqrt(1d - u1);
+
+		state.setDirection(a * tx + b * bx + c * nx, a * ty + b * by + c * ny, a * tz + b * bz + c * nz);
+	}
+
+	/**
+	 * The in-flight state of a single path. Each rendering thread reuses one
+	 * PathState for all its paths.
+	 *
+	 * @author snowjak88
+	 *
+	 */
+	private static class PathState {
+
+		private boolean inUse = false;
+
+		private double throughputRed, throughputGreen, throughputBlue;
+
+		private double radianceRed, radianceGreen, radianceBlue;
+
+		private double directionX, directionY, directionZ;
+
+		private boolean countEmission;
+
+		private List<DirectionalLight> lights = Collections.emptyList();
+
+		private double[] lightDirections = new double[0];
+
+		/**
+		 * Record the normalized direction toward each of the given lights, as
+		 * consecutive (x,y,z) triples.
+		 */
+		private void prepareLights(List<DirectionalLight> lights) {
+
+			this.lights = lights;
+			if (lightDirections.length < 3 * lights.size())
+				lightDirections = new double[3 * lights.size()];
+
+			for (int i = 0; i < lights.size(); i++) {
+				Vector3D toLight = lights.get(i).getDirection().negate().normalize();
+				lightDirections[3 * i] = toLight.getX();
+				lightDirections[3 * i + 1] = toLight.getY();
+				lightDirections[3 * i + 2] = toLight.getZ();
+			}
+		}
+
+		private void reset() {
+
+			throughputRed = throughputGreen = throughputBlue = 1d;
+			radianceRed = radianceGreen = radianceBlue = 0d;
+			countEmission = true;
+		}
+
+		private void addRadiance(double red, double green, double blue) {
+
+			radianceRed += throughputRed * red;
+			radianceGreen += throughputGreen * green;
+			radianceBlue += throughputBlue * blue;
+		}
+
+		private void multiplyThroughput(double red, double green, double blue) {
+
+			throughputRed *= red;
+			throughputGreen *= green;
+			throughputBlue *= blue;
+		}
+
+		private void setDirection(double x, double y, double z) {
+
+			directionX = x;
+			directionY = y;
+			directionZ = z;
+		}
+	}
+}
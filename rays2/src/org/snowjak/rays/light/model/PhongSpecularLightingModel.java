@@ -7,13 +7,12 @@ import java.util.Optional;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.util.FastMath;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.antialias.SuperSamplingAntialiaser;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.DirectionalLight;
 import org.snowjak.rays.shape.Shape;
-import org.snowjak.rays.world.World;
 
 /**
  * Implements the Phong specular-reflection model.
@@ -26,7 +25,8 @@ public class PhongSpecularLightingModel implements LightingModel {
 	private SuperSamplingAntialiaser<Vector3D, RawColor, RawColor> sampler = new SuperSamplingAntialiaser<>();
 
 	@Override
-	public Optional<RawColor> determineRayColor(Ray ray, Optional<Intersection<Shape>> intersection) {
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
 
 		if (!intersection.isPresent())
 			return Optional.empty();
@@ -48,29 +48,28 @@ public class PhongSpecularLightingModel implements LightingModel {
 		//
 		// The total light received by this ray is partially a function of all
 		// the lights in the world ...
-		int rayCount = RaytracerContext.getSingleton().getSettings().getDistributedRayCount();
+		// (Or rather, of a few of those lights, selected in proportion to
+		// their power -- see LightSelector.)
+		int rayCount = context.getSettings().getDistributedRayCount();
+		int lightSampleCount = context.getSettings().getLightSampleCount();
 
-		RawColor totalLightFromEmissives = RaytracerContext.getSingleton()
-				.getCurrentWorld()
-				.getEmissiveShapes()
-				.parallelStream()
-				.map(s -> sampler.execute(s.getLocation(), (v) -> {
+		RawColor totalLightFromEmissives = context.getLightSelector()
+				.estimate(lightSampleCount, s -> sampler.execute(s.getLocation(), (v) -> {
 					Collection<Vector3D> results = new LinkedList<>();
 					results.add(v);
 					results.addAll(s.selectPointsWithin(rayCount, true));
 					return results;
 
 				}, (v) -> {
-					if (RaytracerContext.getSingleton().getCurrentWorld().isPointVisibleFromEye(v, point, s))
+					if (context.isLightVisible(s, v, point, s))
 						return calculatePhongSpecularityForEmissive(intersect, s);
 					else
 						return new RawColor();
 
-				}, (cp) -> cp.parallelStream().map(p -> p.getValue()).reduce(new RawColor(), (c1, c2) -> c1.add(c2))))
-				.reduce(new RawColor(), RawColor::add);
+				}, (cp) -> cp.parallelStream().map(p -> p.getValue()).reduce(new RawColor(), (c1, c2) -> c1.add(c2))));
 		totalSpecular = totalSpecular.add(totalLightFromEmissives);
 
-		for (DirectionalLight light : RaytracerContext.getSingleton().getCurrentWorld().getDirectionalLights()) {
+		for (DirectionalLight light : context.getWorld().getDirectionalLights()) {
 
 			totalSpecular = totalSpecular.add(calculatePhongSpecularityForDirectionalLight(intersect, light));
 
@@ -91,14 +90,12 @@ public class PhongSpecularLightingModel implements LightingModel {
 
 		Ray toLightRay = new Ray(intersect.getPoint(), toEmissiveVector.normalize());
 
-		World world = RaytracerContext.getSingleton().getCurrentWorld();
-
-		Collection<Shape> allButThisEmissive = new LinkedList<>();
-		allButThisEmissive.addAll(world.getEmissiveShapes());
-		allButThisEmissive.remove(emissiveShape);
-
-		Optional<Intersection<Shape>> emissiveSurfaceIntersection = world.getClosestShapeIntersection(toLightRay,
-				allButThisEmissive.toArray(new Shape[0]));
+		//
+		// Occlusion has already been checked -- so we need only find where
+		// this ray meets the emissive Shape itself. (Walking the World's
+		// entire list of emissive Shapes here would make each sample cost
+		// O(lights).)
+		Optional<Intersection<Shape>> emissiveSurfaceIntersection = emissiveShape.getIntersection(toLightRay);
 
 		if (emissiveSurfaceIntersection.isPresent()) {
 
@@ -2,34 +2,181 @@ package org.snowjak.rays.light.model;
 
 import static org.apache.commons.math3.util.FastMath.floor;
 
+import java.util.Arrays;
+
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.light.model.EnvironmentMapDecoratingLightingModel.EnvironmentMap;
 
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelFormat;
 
 /**
  * An implementation of {@link EnvironmentMap} that allows the use of
  * spherically-mapped images.
- * 
+ * <p>
+ * The image is decoded once, up-front, into a pyramid of progressively
+ * half-sized copies (a "mip-map"), stored as plain RGB float-arrays. Lookups
+ * are bilinearly filtered within a level, and -- when a footprint is given --
+ * trilinearly filtered between the two levels whose texels best match that
+ * footprint, so that distant or curved reflections don't alias.
+ * </p>
+ * <p>
+ * The mapping is an equal-area (cylindrical) projection -- U follows the
+ * azimuth, V follows the Y-coordinate -- so every texel covers the same solid
+ * angle. That makes it cheap to build a luminance-proportional sampling
+ * distribution over the texels, which {@link #sampleDirection(double, double)}
+ * uses to importance-sample the environment as a light source.
+ * </p>
+ *
  * @author snowjak88
  *
  */
 public class SphericalEnvironmentMap implements EnvironmentMap {
 
-	private Image image;
+	private final int width, height;
 
 	/**
-	 * Construct a new {@link SphericalEnvironmentMap}, referencing the provided
-	 * {@link Image} instance.
-	 * 
+	 * The mip-map levels, from full-size (level 0) down to 1x1. Each level
+	 * holds its texels' R,G,B components, row by row (top row first).
+	 */
+	private final float[][] levels;
+
+	private final int[] levelWidths, levelHeights;
+
+	/**
+	 * Cumulative luminance over the rows of level 0 ({@code height + 1}
+	 * entries), and over each row's texels ({@code height * (width + 1)}
+	 * entries).
+	 */
+	private final double[] rowCdf, texelCdf;
+
+	/**
+	 * Construct a new {@link SphericalEnvironmentMap}, decoding the provided
+	 * {@link Image} instance. Pixel values are taken as-is (i.e., in the same
+	 * color-space as the rest of the renderer).
+	 *
 	 * @param image
 	 */
 	public SphericalEnvironmentMap(Image image) {
-		this.image = image;
+		this(image, false);
+	}
+
+	/**
+	 * Construct a new {@link SphericalEnvironmentMap}, decoding the provided
+	 * {@link Image} instance.
+	 *
+	 * @param image
+	 * @param decodeSrgb
+	 *            if <code>true</code>, pixel values are converted from sRGB to
+	 *            linear values as they are decoded
+	 */
+	public SphericalEnvironmentMap(Image image, boolean decodeSrgb) {
+		this((int) image.getWidth(), (int) image.getHeight(), decode(image, decodeSrgb));
+	}
+
+	/**
+	 * Construct a new {@link SphericalEnvironmentMap} from raw (linear) RGB
+	 * data.
+	 *
+	 * @param width
+	 * @param height
+	 * @param rgb
+	 *            the R,G,B components of each texel, row by row (top row
+	 *            first) -- {@code 3 * width * height} values in all
+	 * @throws IllegalArgumentException
+	 *             if the dimensions are not positive, or do not match the
+	 *             given data
+	 */
+	public SphericalEnvironmentMap(int width, int height, float[] rgb) {
+
+		if (width < 1 || height < 1 || rgb.length != 3 * width * height)
+			throw new IllegalArgumentException("Cannot build a " + width + "x" + height
+					+ " environment map from " + rgb.length + " color components.");
+
+		this.width = width;
+		this.height = height;
+
+		int levelCount = 32 - Integer.numberOfLeadingZeros(FastMath.max(width, height));
+		levels = new float[levelCount][];
+		levelWidths = new int[levelCount];
+		levelHeights = new int[levelCount];
+
+		levels[0] = rgb;
+		levelWidths[0] = width;
+		levelHeights[0] = height;
+		for (int l = 1; l < levelCount; l++)
+			downsample(l);
+
+		rowCdf = new double[height + 1];
+		texelCdf = new double[height * (width + 1)];
+		for (int row = 0; row < height; row++) {
+			int cdfOffset = row * (width + 1);
+			for (int col = 0; col < width; col++)
+				texelCdf[cdfOffset + col + 1] = texelCdf[cdfOffset + col] + getTexelLuminance(row, col);
+
+			rowCdf[row + 1] = rowCdf[row] + texelCdf[cdfOffset + width];
+		}
+	}
+
+	private static float[] decode(Image image, boolean decodeSrgb) {
+
+		int width = (int) image.getWidth(), height = (int) image.getHeight();
+
+		float[] transfer = new float[256];
+		for (int i = 0; i < transfer.length; i++) {
+			double value = (double) i / 255d;
+			if (decodeSrgb)
+				value = (value <= 0.04045) ? value / 12.92 : FastMath.pow((value + 0.055) / 1.055, 2.4);
+			transfer[i] = (float) value;
+		}
+
+		int[] argb = new int[width * height];
+		image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), argb, 0, width);
+
+		float[] rgb = new float[3 * argb.length];
+		for (int i = 0; i < argb.length; i++) {
+			rgb[3 * i] = transfer[(argb[i] >> 16) & 0xFF];
+			rgb[3 * i + 1] = transfer[(argb[i] >> 8) & 0xFF];
+			rgb[3 * i + 2] = transfer[argb[i] & 0xFF];
+		}
+
+		return rgb;
+	}
+
+	/**
+	 * Build mip-map level {@code l} by box-filtering level {@code l-1}.
+	 */
+	private void downsample(int l) {
+
+		int sourceWidth = levelWidths[l - 1], sourceHeight = levelHeights[l - 1];
+		int levelWidth = FastMath.max(1, sourceWidth / 2), levelHeight = FastMath.max(1, sourceHeight / 2);
+		float[] source = levels[l - 1], level = new float[3 * levelWidth * levelHeight];
+
+		for (int row = 0; row < levelHeight; row++) {
+			int row0 = 2 * row, row1 = FastMath.min(row0 + 1, sourceHeight - 1);
+			for (int col = 0; col < levelWidth; col++) {
+				int col0 = 2 * col, col1 = FastMath.min(col0 + 1, sourceWidth - 1);
+				for (int c = 0; c < 3; c++)
+					level[3 * (row * levelWidth + col) + c] = 0.25f * (source[3 * (row0 * sourceWidth + col0) + c]
+							+ source[3 * (row0 * sourceWidth + col1) + c] + source[3 * (row1 * sourceWidth + col0) + c]
+							+ source[3 * (row1 * sourceWidth + col1) + c]);
+			}
+		}
+
+		levels[l] = level;
+		levelWidths[l] = levelWidth;
+		levelHeights[l] = levelHeight;
+	}
+
+	private double getTexelLuminance(int row, int col) {
+
+		int i = 3 * (row * width + col);
+		float[] level = levels[0];
+		return FastMath.max(0d, new RawColor(level[i], level[i + 1], level[i + 2]).getLuminance());
 	}
 
 	@Override
@@ -44,23 +191,149 @@ public class SphericalEnvironmentMap implements EnvironmentMap {
 		return new Vector2D(u, v.getY() * 0.5 + 0.5);
 	}
 
+	/**
+	 * Convert the provided image location to the corresponding (unit)
+	 * look-vector. The inverse of {@link #convert(Vector3D)}.
+	 *
+	 * @param u
+	 * @param v
+	 * @return the equivalent look-vector
+	 */
+	public Vector3D convert(double u, double v) {
+
+		double phi = (u - 0.5) * 2d * FastMath.PI;
+		double y = FastMath.min(FastMath.max(2d * v - 1d, -1d), 1d), r = FastMath.sqrt(1d - y * y);
+
+		return new Vector3D(r * FastMath.cos(phi), y, r * FastMath.sin(phi));
+	}
+
 	@Override
 	public RawColor getColorAt(double u, double v) {
 
-		double width = image.getWidth() - 1d, height = image.getHeight() - 1d;
+		return sampleLevel(0, u, v);
+	}
+
+	@Override
+	public RawColor getColorAt(double u, double v, double footprint) {
+
+		//
+		// Pick the level whose texels are about as wide as the footprint.
+		// (Texels are narrowest horizontally -- 2*PI / width radians at level
+		// 0.)
+		double texelAngle = 2d * FastMath.PI / width;
+		if (!(footprint > texelAngle))
+			return sampleLevel(0, u, v);
+
+		double lod = FastMath.log(2d, footprint / texelAngle);
+		if (lod >= levels.length - 1)
+			return sampleLevel(levels.length - 1, u, v);
 
-		int u0 = (int) (u * width), u1 = (u0 + 1) % ((int) width);
-		int v0 = (int) (height - v * height), v1 = (v0 - 1 < 0 ? (int) height - 1 : v0 - 1);
+		int level = (int) lod;
+		return sampleLevel(level, u, v).linearlyInterpolate(sampleLevel(level + 1, u, v), lod - level);
+	}
+
+	/**
+	 * Bilinearly sample the given mip-map level. U wraps around; V is clamped.
+	 */
+	private RawColor sampleLevel(int l, double u, double v) {
+
+		int levelWidth = levelWidths[l], levelHeight = levelHeights[l];
+		float[] level = levels[l];
+
+		double x = u * levelWidth - 0.5, y = (1d - v) * levelHeight - 0.5;
+		double x0 = floor(x), y0 = floor(y);
+		double fx = x - x0, fy = y - y0;
 
-		double fu = u - floor(u), fv = v - floor(v);
+		int col0 = (int) Math.floorMod((long) x0, (long) levelWidth), col1 = (col0 + 1 == levelWidth) ? 0 : col0 + 1;
+		int row0 = (int) FastMath.min(FastMath.max(y0, 0d), levelHeight - 1),
+				row1 = (int) FastMath.min(FastMath.max(y0 + 1d, 0d), levelHeight - 1);
 
-		PixelReader pixels = image.getPixelReader();
-		RawColor color_v0 = new RawColor(pixels.getColor(u0, v0))
-				.linearlyInterpolate(new RawColor(pixels.getColor(u1, v0)), fu);
-		RawColor color_v1 = new RawColor(pixels.getColor(u0, v1))
-				.linearlyInterpolate(new RawColor(pixels.getColor(u1, v1)), fu);
+		int i00 = 3 * (row0 * levelWidth + col0), i01 = 3 * (row0 * levelWidth + col1),
+				i10 = 3 * (row1 * levelWidth + col0), i11 = 3 * (row1 * levelWidth + col1);
 
-		return color_v0.linearlyInterpolate(color_v1, fv);
+		double w00 = (1d - fx) * (1d - fy), w01 = fx * (1d - fy), w10 = (1d - fx) * fy, w11 = fx * fy;
+
+		return new RawColor(
+				w00 * level[i00] + w01 * level[i01] + w10 * level[i10] + w11 * level[i11],
+				w00 * level[i00 + 1] + w01 * level[i01 + 1] + w10 * level[i10 + 1] + w11 * level[i11 + 1],
+				w00 * level[i00 + 2] + w01 * level[i01 + 2] + w10 * level[i10 + 2] + w11 * level[i11 + 2]);
 	}
 
+	@Override
+	public Pair<Vector3D, Double> sampleDirection(double r1, double r2) {
+
+		double total = rowCdf[height];
+		if (!(total > 0d))
+			return EnvironmentMap.super.sampleDirection(r1, r2);
+
+		//
+		// Pick a row in proportion to its total luminance, then a texel
+		// within that row in proportion to its luminance, then a point
+		// uniformly within that texel.
+		double rowTarget = r2 * total;
+		int row = search(rowCdf, 0, height, rowTarget);
+		double rowLuminance = rowCdf[row + 1] - rowCdf[row];
+
+		int cdfOffset = row * (width + 1);
+		double colTarget = r1 * rowLuminance;
+		int col = search(texelCdf, cdfOffset, width, colTarget);
+		double texelLuminance = texelCdf[cdfOffset + col + 1] - texelCdf[cdfOffset + col];
+
+		//
+		// Re-use what's left of each random number to place the point
+		// within the texel.
+		double dv = FastMath.min((rowTarget - rowCdf[row]) / rowLuminance, 1d),
+				du = FastMath.min((colTarget - texelCdf[cdfOffset + col]) / texelLuminance, 1d);
+
+		Vector3D direction = convert((col + du) / width, 1d - (row + dv) / height);
+		return new Pair<>(direction, getTexelProbabilityDensity(texelLuminance));
+	}
+
+	@Override
+	public double getProbabilityDensity(Vector3D worldVector) {
+
+		double total = rowCdf[height];
+		if (!(total > 0d))
+			return EnvironmentMap.super.getProbabilityDensity(worldVector);
+
+		Vector2D uv = convert(worldVector);
+		int col = FastMath.min(FastMath.max((int) (uv.getX() * width), 0), width - 1);
+		int row = FastMath.min(FastMath.max((int) ((1d - uv.getY()) * height), 0), height - 1);
+
+		return getTexelProbabilityDensity(getTexelLuminance(row, col));
+	}
+
+	/**
+	 * Every texel covers the same solid angle -- 4*PI / (width*height)
+	 * steradians -- so a texel's probability-density is simply its share of
+	 * the total luminance, spread over that solid angle.
+	 */
+	private double getTexelProbabilityDensity(double texelLuminance) {
+
+		return (texelLuminance / rowCdf[height]) * ((double) (width * height) / (4d * FastMath.PI));
+	}
+
+	/**
+	 * Find the bucket {@code i} in <code>[0, count)</code> such that
+	 * {@code cdf[offset + i] <= target < cdf[offset + i + 1]}, skipping over
+	 * empty buckets.
+	 */
+	private static int search(double[] cdf, int offset, int count, double target) {
+
+		int i = Arrays.binarySearch(cdf, offset, offset + count + 1, target);
+		if (i < 0)
+			i = -i - 2;
+		i -= offset;
+
+		//
+		// Exact matches land on the start of a run of equal values (or the
+		// very end); step forward over empty buckets.
+		i = FastMath.min(FastMath.max(i, 0), count - 1);
+		while (i < count - 1 && cdf[offset + i + 1] <= target)
+			i++;
+		while (i > 0 && cdf[offset + i + 1] == cdf[offset + i])
+			i--;
+
+		return i;
+	}
 }
@@ -0,0 +1,468 @@
+package org.snowjak.rays.light.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.medium.Medium;
+import org.snowjak.rays.medium.MediumVolume;
+import org.snowjak.rays.medium.ShadowTransmittanceGrid;
+import org.snowjak.rays.shape.BoundingBox;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.util.ExecutionTimeTracker;
+import org.snowjak.rays.world.World;
+
+/**
+ * A Decorator-type LightingModel that renders participating media -- fog
+ * volumes, smoke inside CSG shapes, etc. -- in front of another
+ * LightingModel's surfaces.
+ * <p>
+ * Each Ray is marched through every {@link MediumVolume} it crosses, front to
+ * back, accumulating light in-scattered from the World's
+ * {@link DirectionalLight}s and emissive Shapes while attenuating the light
+ * behind it. Steps are adaptive: each aims to cross no more than a fixed
+ * optical depth, so dense regions are sampled finely while thin or empty
+ * regions are crossed in a few long strides. Marching stops early once the
+ * remaining transmittance falls below a threshold -- in which case the
+ * decorated LightingModel isn't consulted at all.
+ * </p>
+ * <p>
+ * The transmittance from each point in a medium toward each light (including
+ * occlusion by other Shapes) is cached in a coarse
+ * {@link ShadowTransmittanceGrid}, one per volume and light, so that
+ * in-scattering costs a table-lookup rather than a shadow-ray. These grids are
+ * discarded whenever this model is used with a new {@link RenderContext}.
+ * Shadows cast by one volume onto another are not modeled, and overlapping
+ * volumes are composited one after the other, in the order the Ray enters
+ * them.
+ * </p>
+ * <p>
+ * In-scattering is isotropic, and normalized like
+ * {@link LambertianDiffuseLightingModel} -- so a white medium, fully lit,
+ * appears about as bright as a white diffuse surface facing the light.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class VolumetricLightingModel implements LightingModel {
+
+	/**
+	 * By default, no march-step will be longer than this.
+	 */
+	public static final double DEFAULT_MAX_STEP = 0.25d;
+
+	/**
+	 * By default, each march-step aims to cross no more than this optical
+	 * depth.
+	 */
+	public static final double DEFAULT_MAX_OPTICAL_DEPTH_PER_STEP = 0.1d;
+
+	/**
+	 * By default, marching stops once the transmittance falls below this.
+	 */
+	public static final double DEFAULT_MIN_TRANSMITTANCE = 0.01d;
+
+	/**
+	 * By default, each shadow-transmittance grid has this many nodes along
+	 * each axis.
+	 */
+	public static final int DEFAULT_SHADOW_GRID_RESOLUTION = 16;
+
+	private static final ThreadLocal<SpanBuffer> SPAN_BUFFERS = ThreadLocal.withInitial(SpanBuffer::new);
+
+	private final LightingModel decoratedModel;
+
+	private final List<MediumVolume> volumes;
+
+	private final double maxStep, minStep, maxOpticalDepthPerStep, minTransmittance;
+
+	private final int shadowGridResolution;
+
+	private final List<Map<Object, ShadowTransmittanceGrid>> shadowGrids;
+
+	private volatile RenderContext shadowGridContext = null;
+
+	/**
+	 * Construct a new VolumetricLightingModel, using the default
+	 * march-parameters.
+	 *
+	 * @param volumes
+	 * @param modelToDecorate
+	 */
+	public VolumetricLightingModel(List<MediumVolume> volumes, LightingModel modelToDecorate) {
+		this(volumes, modelToDecorate, DEFAULT_MAX_STEP, DEFAULT_MAX_OPTICAL_DEPTH_PER_STEP, DEFAULT_MIN_TRANSMITTANCE,
+				DEFAULT_SHADOW_GRID_RESOLUTION);
+	}
+
+	/**
+	 * Construct a new VolumetricLightingModel.
+	 *
+	 * @param volumes
+	 *            the media to render
+	 * @param modelToDecorate
+	 *            lights the surfaces behind (and within) those media
+	 * @param maxStep
+	 *            the longest allowed march-step
+	 * @param maxOpticalDepthPerStep
+	 *            the optical depth each march-step aims to cross (steps are,
+	 *            however, never shorter than {@code maxStep / 16})
+	 * @param minTransmittance
+	 *            stop marching once the transmittance falls below this
+	 * @param shadowGridResolution
+	 *            the number of shadow-grid nodes along each axis
+	 */
+	public VolumetricLightingModel(List<MediumVolume> volumes, LightingModel modelToDecorate, double maxStep,
+			double maxOpticalDepthPerStep, double minTransmittance, int shadowGridResolution) {
+
+		if (maxStep <= 0d || maxOpticalDepthPerStep <= 0d)
+			throw new IllegalArgumentException("March-step parameters must be positive.");
+
+		this.volumes = new ArrayList<>(volumes);
+		this.decoratedModel = modelToDecorate;
+		this.maxStep = maxStep;
+		this.minStep = maxStep / 16d;
+		this.maxOpticalDepthPerStep = maxOpticalDepthPerStep;
+		this.minTransmittance = minTransmittance;
+		this.shadowGridResolution = shadowGridResolution;
+
+		this.shadowGrids = new ArrayList<>(this.volumes.size());
+		for (int i = 0; i < this.volumes.size(); i++)
+			shadowGrids.add(new ConcurrentHashMap<>());
+	}
+
+	@Override
+	public Optional<RawColor> determineRayColor(RenderContext context, Ray ray,
+			Optional<Intersection<Shape>> intersection) {
+
+		Instant start = Instant.now();
+
+		if (context != shadowGridContext) {
+			synchronized (this) {
+				if (context != shadowGridContext) {
+					shadowGrids.forEach(Map::clear);
+					shadowGridContext = context;
+				}
+			}
+		}
+
+		double maxDistance = intersection.isPresent() ? intersection.get().getDistanceFromRayOrigin()
+				: World.FAR_AWAY;
+
+		SpanBuffer spans = SPAN_BUFFERS.get();
+		spans.clear();
+		for (int i = 0; i < volumes.size(); i++)
+			collectSpans(volumes.get(i).getBounds(), i, ray, maxDistance, spans);
+
+		if (spans.count == 0)
+			return decoratedModel.determineRayColor(context, ray, intersection);
+
+		spans.sort();
+
+		//
+		// March front to back.
+		MarchState state = new MarchState();
+		for (int i = 0; i < spans.count && state.transmittance >= minTransmittance; i++)
+			march(context, ray, spans.volumeIndices[i], spans.starts[i], spans.ends[i], state);
+
+		RawColor result = new RawColor(state.red, state.green, state.blue);
+
+		if (state.transmittance >= minTransmittance) {
+			Optional<RawColor> behind = decoratedModel.determineRayColor(context, ray, intersection);
+			if (behind.isPresent())
+				result = result.add(behind.get().multiplyScalar(state.transmittance));
+		}
+
+		ExecutionTimeTracker.logExecutionRecord("VolumetricLightingModel", start, Instant.now(), null);
+
+		return Optional.of(result);
+	}
+
+	/**
+	 * March along the given span of the given Ray, within the given volume,
+	 * accumulating in-scattered light into (and attenuating) the given
+	 * {@link MarchState}.
+	 */
+	private void march(RenderContext context, Ray ray, int volumeIndex, double start, double end,
+			MarchState state) {
+
+		MediumVolume volume = volumes.get(volumeIndex);
+		Medium medium = volume.getMedium();
+		RawColor albedo = medium.getAlbedo();
+
+		double t = start;
+		while (t < end) {
+
+			double density = volume.getDensity(pointAt(ray, t));
+			double step = (density > 0d) ? maxOpticalDepthPerStep / density : maxStep;
+			step = FastMath.min(FastMath.min(FastMath.max(step, minStep), maxStep), end - t);
+
+			Vector3D midpoint = pointAt(ray, t + 0.5d * step);
+			if (!medium.isHomogeneous())
+				density = volume.getDensity(midpoint);
+
+			if (density > 0d) {
+				double stepTransmittance = FastMath.exp(-density * step);
+				RawColor light = getInScatteredLight(context, volumeIndex, midpoint);
+
+				double weight = state.transmittance * (1d - stepTransmittance);
+				state.red += weight * albedo.getRed() * light.getRed();
+				state.green += weight * albedo.getGreen() * light.getGreen();
+				state.blue += weight * albedo.getBlue() * light.getBlue();
+
+				state.transmittance *= stepTransmittance;
+				if (state.transmittance < minTransmittance)
+					return;
+			}
+
+			t += step;
+		}
+	}
+
+	/**
+	 * @return the total light reaching the given point, within the given
+	 *         volume, from every light in the World
+	 */
+	private RawColor getInScatteredLight(RenderContext context, int volumeIndex, Vector3D point) {
+
+		MediumVolume volume = volumes.get(volumeIndex);
+		double red = 0d, green = 0d, blue = 0d;
+
+		for (DirectionalLight light : context.getWorld().getDirectionalLights()) {
+			double transmittance = getShadowTransmittance(context, volumeIndex, light, point);
+			red += transmittance * light.getRadiance().getRed();
+			green += transmittance * light.getRadiance().getGreen();
+			blue += transmittance * light.getRadiance().getBlue();
+		}
+
+		for (Shape light : context.getWorld().getEmissiveShapes()) {
+			if (light == volume.getBounds())
+				continue;
+
+			double transmittance = getShadowTransmittance(context, volumeIndex, light, point);
+			if (transmittance <= 0d)
+				continue;
+
+			Vector3D lightPoint = light.getLocation();
+			RawColor radiance = light.getEmissiveColorScheme().get().getColorForWorld(lightPoint);
+			double falloff = 1d / (4d * FastMath.PI * FastMath.max(point.distance(lightPoint), World.NEARLY_ZERO));
+
+			red += transmittance * falloff * radiance.getRed();
+			green += transmittance * falloff * radiance.getGreen();
+			blue += transmittance * falloff * radiance.getBlue();
+		}
+
+		return new RawColor(red, green, blue);
+	}
+
+	private double getShadowTransmittance(RenderContext context, int volumeIndex, Object light, Vector3D point) {
+
+		MediumVolume volume = volumes.get(volumeIndex);
+		if (volume.getBounds().getBoundingBox().isUnbounded())
+			return computeShadowTransmittance(context, volume, light, point);
+
+		return shadowGrids.get(volumeIndex)
+				.computeIfAbsent(light,
+						(l) -> new ShadowTransmittanceGrid(volume.getBounds().getBoundingBox(), shadowGridResolution,
+								(p) -> computeShadowTransmittance(context, volume, l, p)))
+				.getTransmittance(point);
+	}
+
+	/**
+	 * Compute -- the hard way -- the transmittance from the given point toward
+	 * the given light: zero if the light is occluded, or else the attenuation
+	 * along the way through the given volume.
+	 */
+	private double computeShadowTransmittance(RenderContext context, MediumVolume volume, Object light,
+			Vector3D point) {
+
+		Vector3D toLight;
+		double distance;
+		if (light instanceof DirectionalLight) {
+			if (!context.isDirectionalLightVisible((DirectionalLight) light, point, volume.getBounds()))
+				return 0d;
+			toLight = ((DirectionalLight) light).getDirection().negate();
+			distance = World.FAR_AWAY;
+
+		} else {
+			Shape lightShape = (Shape) light;
+			Vector3D lightPoint = lightShape.getLocation();
+			if (!context.isLightVisible(lightShape, lightPoint, point, lightShape, volume.getBounds()))
+				return 0d;
+			toLight = lightPoint.subtract(point);
+			distance = toLight.getNorm();
+		}
+
+		if (toLight.getNorm() == 0d)
+			return 1d;
+
+		Ray shadowRay = new Ray(point, toLight);
+		Shape bounds = volume.getBounds();
+		BoundingBox boundingBox = bounds.getBoundingBox();
+		double opticalDepth = 0d;
+
+		if (boundingBox.isUnbounded()) {
+			SpanBuffer spans = new SpanBuffer();
+			collectSpans(bounds, 0, shadowRay, distance, spans);
+			for (int i = 0; i < spans.count; i++)
+				for (double t = spans.starts[i]; t < spans.ends[i]; t += maxStep) {
+					double step = FastMath.min(maxStep, spans.ends[i] - t);
+					opticalDepth += step * volume.getDensity(pointAt(shadowRay, t + 0.5d * step));
+				}
+
+		} else {
+			//
+			// Shadow-rays often start right on (or graze along) the bounds'
+			// surface -- which is exactly where boundary-crossings are least
+			// reliable. So test each step for containment instead.
+			double extent = FastMath.min(distance, getExitDistance(boundingBox, shadowRay));
+			for (double t = 0d; t < extent; t += maxStep) {
+				double step = FastMath.min(maxStep, extent - t);
+				Vector3D midpoint = pointAt(shadowRay, t + 0.5d * step);
+				if (bounds.isInside(midpoint))
+					opticalDepth += step * volume.getDensity(midpoint);
+			}
+		}
+
+		return FastMath.exp(-opticalDepth);
+	}
+
+	/**
+	 * Find the spans along the given Ray, between its origin and
+	 * {@code maxDistance}, which lie within the given (closed) bounding Shape.
+	 */
+	private static void collectSpans(Shape bounds, int volumeIndex, Ray ray, double maxDistance, SpanBuffer spans) {
+
+		List<Intersection<Shape>> crossings = bounds.getIntersections(ray, true, false);
+		if (crossings.isEmpty())
+			return;
+
+		Vector3D origin = ray.getOrigin(), direction = ray.getVector();
+		double[] distances = spans.crossings(crossings.size());
+		int count = 0;
+		for (Intersection<Shape> crossing : crossings)
+			distances[count++] = crossing.getPoint().subtract(origin).dotProduct(direction);
+		Arrays.sort(distances, 0, count);
+
+		//
+		// Crossings alternate between entering and leaving the bounds. An
+		// odd crossing out leaves us inside for good (e.g., a Plane).
+		for (int i = 0; i < count; i += 2) {
+			double start = FastMath.max(distances[i], 0d);
+			double end = FastMath.min((i + 1 < count) ? distances[i + 1] : Double.POSITIVE_INFINITY, maxDistance);
+			if (end > start)
+				spans.add(volumeIndex, start, end);
+		}
+	}
+
+	/**
+	 * @return the distance along the given Ray (whose origin is assumed to lie
+	 *         within the given BoundingBox) at which it leaves that box
+	 */
+	private static double getExitDistance(BoundingBox box, Ray ray) {
+
+		Vector3D origin = ray.getOrigin(), direction = ray.getVector();
+		return FastMath.max(FastMath.min(
+				FastMath.min(getSlabExitDistance(origin.getX(), direction.getX(), box.getMinX(), box.getMaxX()),
+						getSlabExitDistance(origin.getY(), direction.getY(), box.getMinY(), box.getMaxY())),
+				getSlabExitDistance(origin.getZ(), direction.getZ(), box.getMinZ(), box.getMaxZ())), 0d);
+	}
+
+	private static double getSlabExitDistance(double origin, double direction, double min, double max) {
+
+		if (direction > 0d)
+			return (max - origin) / direction;
+		if (direction < 0d)
+			return (min - origin) / direction;
+		return Double.POSITIVE_INFINITY;
+	}
+
+	private static Vector3D pointAt(Ray ray, double distance) {
+
+		return new Vector3D(1d, ray.getOrigin(), distance, ray.getVector());
+	}
+
+	/**
+	 * The light accumulated, and transmittance remaining, so far along a
+	 * single Ray.
+	 */
+	private static class MarchState {
+
+		private double transmittance = 1d;
+
+		private double red = 0d, green = 0d, blue = 0d;
+	}
+
+	/**
+	 * A reusable, growable buffer of the spans along a Ray that lie within
+	 * each volume. Each rendering-thread keeps one of these, so that marching
+	 * a pixel's Rays allocates no arrays of its own.
+	 */
+	private static class SpanBuffer {
+
+		private int count = 0;
+
+		private int[] volumeIndices = new int[8];
+
+		private double[] starts = new double[8], ends = new double[8];
+
+		private double[] crossings = new double[16];
+
+		private void clear() {
+
+			count = 0;
+		}
+
+		private double[] crossings(int size) {
+
+			if (crossings.length < size)
+				crossings = new double[FastMath.max(size, 2 * crossings.length)];
+			return crossings;
+		}
+
+		private void add(int volumeIndex, double start, double end) {
+
+			if (count == starts.length) {
+				volumeIndices = Arrays.copyOf(volumeIndices, 2 * count);
+				starts = Arrays.copyOf(starts, 2 * count);
+				ends = Arrays.copyOf(ends, 2 * count);
+			}
+			volumeIndices[count] = volumeIndex;
+			starts[count] = start;
+			ends[count] = end;
+			count++;
+		}
+
+		/**
+		 * Insertion-sort the spans by their starting distances -- there are
+		 * seldom more than a handful.
+		 */
+		private void sort() {
+
+			for (int i = 1; i < count; i++) {
+				int volumeIndex = volumeIndices[i];
+				double start = starts[i], end = ends[i];
+				int j = i - 1;
+				for (; j >= 0 && starts[j] > start; j--) {
+					volumeIndices[j + 1] = volumeIndices[j];
+					starts[j + 1] = starts[j];
+					ends[j + 1] = ends[j];
+				}
+				volumeIndices[j + 1] = volumeIndex;
+				starts[j + 1] = start;
+				ends[j + 1] = end;
+			}
+		}
+	}
+}
@@ -1,13 +1,19 @@
 package org.snowjak.rays.material;
 
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Prototype;
 import org.snowjak.rays.color.ColorScheme;
 import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.function.expression.ScalarEvaluator;
 import org.snowjak.rays.transform.Transformable;
 import org.snowjak.rays.transform.Transformer;
 
@@ -15,6 +21,17 @@ import org.snowjak.rays.transform.Transformer;
  * A Material defines an object's visible properties, like a {@link ColorScheme}
  * -- but unlike that, a Material has depth, defining an object's internal as
  * well as surface properties.
+ * <p>
+ * Each property-function is {@link Expressions#compile(Function) compiled}
+ * when it is set, so that constant properties (by far the most common) cost
+ * only a field-read to evaluate.
+ * </p>
+ * <p>
+ * Materials whose properties are all constant may be {@link #intern(Material)
+ * interned} into a shared pool. An interned Material is immutable -- its
+ * setters throw an {@link IllegalStateException}, and {@link #copy()} simply
+ * returns it -- so any number of Shapes may share it.
+ * </p>
  * 
  * @author snowjak88
  *
@@ -23,13 +40,60 @@ public class Material implements Transformable, Prototype<Material> {
 
 	private Function<Vector3D, Double> surfaceTransparency, refractiveIndex, albedo;
 
+	private ScalarEvaluator surfaceTransparencyEvaluator, refractiveIndexEvaluator, albedoEvaluator;
+
 	private final Deque<Transformer> transformers = new LinkedList<>();
 
+	private boolean isConstant = false, isInterned = false;
+
+	private Material blendedForm = null;
+
+	private static final Map<List<Double>, Material> CONSTANT_POOL = new ConcurrentHashMap<>();
+
 	/**
 	 * Predefined Material: totally transparent, with a refractive index of 1.0
 	 */
-	public static final Material AIR = new Material(Functions.constant(1d), Functions.constant(0d),
-			Functions.constant(1d));
+	public static final Material AIR = constant(1d, 0d, 1d);
+
+	/**
+	 * Get the shared, immutable Material with the given constant properties.
+	 * 
+	 * @param surfaceTransparency
+	 * @param albedo
+	 * @param refractiveIndex
+	 * @return the interned Material with these properties
+	 */
+	public static Material constant(double surfaceTransparency, double albedo, double refractiveIndex) {
+
+		return CONSTANT_POOL.computeIfAbsent(Arrays.asList(surfaceTransparency, albedo, refractiveIndex), (k) -> {
+			Material material = new Material(Functions.constant(surfaceTransparency), Functions.constant(albedo),
+					Functions.constant(refractiveIndex));
+			material.isInterned = true;
+			return material;
+		});
+	}
+
+	/**
+	 * If the given Material is {@link #isConstant() constant}, get its shared,
+	 * immutable equivalent from the constant pool. Otherwise, return the given
+	 * Material unchanged.
+	 * <p>
+	 * <strong>Note</strong> that a constant Material's {@link Transformer}s
+	 * have no effect on its properties, and so are not carried over.
+	 * </p>
+	 * 
+	 * @param material
+	 * @return the interned Material, or {@code material} if it cannot be
+	 *         interned
+	 */
+	public static Material intern(Material material) {
+
+		if (material.isInterned || !material.isConstant)
+			return material;
+
+		return constant(material.getSurfaceTransparency(Vector3D.ZERO), material.getAlbedo(Vector3D.ZERO),
+				material.getRefractiveIndex(Vector3D.ZERO));
+	}
 
 	/**
 	 * Create a new Material by linearly-interpolating all visual properties of
@@ -44,10 +108,22 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public static Material blend(Material material1, Vector3D point1, Material material2, Vector3D point2) {
 
+		//
+		// Blending two constant Materials which agree everywhere is by far the
+		// most common case (e.g., CSG children sharing a Material) -- and
+		// needn't allocate anything at all.
+		if (material1.isConstant && material2.isConstant
+				&& material1.getSurfaceTransparency(point1) == material2.getSurfaceTransparency(point2)
+				&& material1.getRefractiveIndex(point1) == material2.getRefractiveIndex(point2))
+			return material1.getBlendedForm();
+
+		//
+		// Where both Materials agree on a property, that property folds down
+		// to a constant.
 		return new Material(
-				Functions.lerp(material1.getSurfaceTransparency(point1), point1,
+				Expressions.lerp(material1.getSurfaceTransparency(point1), point1,
 						material2.getSurfaceTransparency(point2), point2),
-				Functions.constant(0d), Functions.lerp(material1.getRefractiveIndex(point1), point1,
+				Expressions.constant(0d), Expressions.lerp(material1.getRefractiveIndex(point1), point1,
 						material2.getRefractiveIndex(point2), point2));
 	}
 
@@ -68,15 +144,68 @@ public class Material implements Transformable, Prototype<Material> {
 	public Material(Function<Vector3D, Double> surfaceTransparency, Function<Vector3D, Double> albedo,
 			Function<Vector3D, Double> refractiveIndex) {
 
-		this.surfaceTransparency = surfaceTransparency;
-		this.albedo = albedo;
-		this.refractiveIndex = refractiveIndex;
+		setSurfaceTransparency(surfaceTransparency);
+		setAlbedo(albedo);
+		setRefractiveIndex(refractiveIndex);
+	}
+
+	/**
+	 * @return the interned, constant Material that {@link #blend} produces
+	 *         when this constant Material is blended with another agreeing
+	 *         with it
+	 */
+	private Material getBlendedForm() {
+
+		//
+		// Benign race: every thread computes the same interned instance.
+		if (blendedForm == null)
+			blendedForm = constant(getSurfaceTransparency(Vector3D.ZERO), 0d, getRefractiveIndex(Vector3D.ZERO));
+		return blendedForm;
+	}
+
+	/**
+	 * @return <code>true</code> if every one of this Material's properties is
+	 *         the same at every point
+	 */
+	public boolean isConstant() {
+
+		return isConstant;
 	}
 
+	/**
+	 * @return <code>true</code> if this is a shared, immutable Material from
+	 *         the constant pool
+	 * @see #intern(Material)
+	 */
+	public boolean isInterned() {
+
+		return isInterned;
+	}
+
+	private void checkMutable() {
+
+		if (isInterned)
+			throw new IllegalStateException("Cannot modify an interned Material -- it may be shared.");
+	}
+
+	private void updateIsConstant() {
+
+		isConstant = surfaceTransparency != null && albedo != null && refractiveIndex != null
+				&& Expressions.getConstantValue(surfaceTransparency).isPresent()
+				&& Expressions.getConstantValue(albedo).isPresent()
+				&& Expressions.getConstantValue(refractiveIndex).isPresent();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * An interned Material has no Transformers, and may not be given any.
+	 * </p>
+	 */
 	@Override
 	public Deque<Transformer> getTransformers() {
 
-		return transformers;
+		return isInterned ? NO_TRANSFORMERS : transformers;
 	}
 
 	/**
@@ -86,7 +215,10 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setSurfaceTransparency(Function<Vector3D, Double> surfaceTransparency) {
 
+		checkMutable();
 		this.surfaceTransparency = surfaceTransparency;
+		this.surfaceTransparencyEvaluator = Expressions.compile(surfaceTransparency);
+		updateIsConstant();
 	}
 
 	/**
@@ -97,7 +229,7 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setSurfaceTransparency(double surfaceTransparency) {
 
-		this.surfaceTransparency = Functions.constant(surfaceTransparency);
+		setSurfaceTransparency(Functions.constant(surfaceTransparency));
 	}
 
 	/**
@@ -107,7 +239,10 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setAlbedo(Function<Vector3D, Double> albedo) {
 
+		checkMutable();
 		this.albedo = albedo;
+		this.albedoEvaluator = Expressions.compile(albedo);
+		updateIsConstant();
 	}
 
 	/**
@@ -117,7 +252,7 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setAlbedo(double albedo) {
 
-		this.albedo = Functions.constant(albedo);
+		setAlbedo(Functions.constant(albedo));
 	}
 
 	/**
@@ -127,7 +262,10 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setRefractiveIndex(Function<Vector3D, Double> refractiveIndex) {
 
+		checkMutable();
 		this.refractiveIndex = refractiveIndex;
+		this.refractiveIndexEvaluator = Expressions.compile(refractiveIndex);
+		updateIsConstant();
 	}
 
 	/**
@@ -137,7 +275,7 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public void setRefractiveIndex(double refractiveIndex) {
 
-		this.refractiveIndex = Functions.constant(refractiveIndex);
+		setRefractiveIndex(Functions.constant(refractiveIndex));
 	}
 
 	/**
@@ -155,7 +293,7 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public double getSurfaceTransparency(Vector3D localPoint) {
 
-		return surfaceTransparency.apply(localPoint);
+		return surfaceTransparencyEvaluator.applyAsDouble(localPoint);
 	}
 
 	/**
@@ -172,7 +310,7 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public double getAlbedo(Vector3D localPoint) {
 
-		return albedo.apply(localPoint);
+		return albedoEvaluator.applyAsDouble(localPoint);
 	}
 
 	/**
@@ -189,12 +327,17 @@ public class Material implements Transformable, Prototype<Material> {
 	 */
 	public double getRefractiveIndex(Vector3D localPoint) {
 
-		return refractiveIndex.apply(localPoint);
+		return refractiveIndexEvaluator.applyAsDouble(localPoint);
 	}
 
 	@Override
 	public Material copy() {
 
+		//
+		// Interned Materials are immutable, and so may be shared freely.
+		if (isInterned)
+			return this;
+
 		Material copy = new Material(surfaceTransparency, albedo, refractiveIndex);
 		copy.getTransformers().addAll(getTransformers());
 		return copy;
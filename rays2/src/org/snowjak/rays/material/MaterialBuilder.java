@@ -134,7 +134,7 @@ public class MaterialBuilder implements Builder<Material>, TransformableBuilder<
 		Material newMaterial = new Material(surfaceTransparency, albedo, refractiveIndex);
 		newMaterial.getTransformers().addAll(transformers);
 
-		return newMaterial;
+		return Material.intern(newMaterial);
 	}
 
 }
@@ -0,0 +1,56 @@
+package org.snowjak.rays.medium;
+
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.function.expression.ScalarEvaluator;
+
+/**
+ * A {@link Medium} whose density varies from point to point -- e.g., smoke,
+ * whose density is given by some {@link Expressions#turbulence(double, int)
+ * turbulence}.
+ * 
+ * @author snowjak88
+ *
+ */
+public class HeterogeneousMedium implements Medium {
+
+	private final ScalarEvaluator density;
+
+	private final double densityScale;
+
+	private final RawColor albedo;
+
+	/**
+	 * Construct a new HeterogeneousMedium.
+	 * 
+	 * @param density
+	 *            the medium's density at each (local) point. Negative values
+	 *            are treated as 0.
+	 * @param densityScale
+	 *            multiplies every value of {@code density}
+	 * @param albedo
+	 *            the medium's single-scattering albedo
+	 */
+	public HeterogeneousMedium(Function<Vector3D, Double> density, double densityScale, RawColor albedo) {
+		this.density = Expressions.compile(density);
+		this.densityScale = densityScale;
+		this.albedo = albedo;
+	}
+
+	@Override
+	public double getDensity(double x, double y, double z) {
+
+		double value = density.evaluate(x, y, z);
+		return (value > 0d) ? value * densityScale : 0d;
+	}
+
+	@Override
+	public RawColor getAlbedo() {
+
+		return albedo;
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.snowjak.rays.medium;
+
+import org.snowjak.rays.color.RawColor;
+
+/**
+ * A {@link Medium} with the same density everywhere -- e.g., a fog-bank.
+ * 
+ * @author snowjak88
+ *
+ */
+public class HomogeneousMedium implements Medium {
+
+	private final double density;
+
+	private final RawColor albedo;
+
+	/**
+	 * Construct a new HomogeneousMedium.
+	 * 
+	 * @param density
+	 *            the medium's extinction coefficient, per unit distance
+	 * @param albedo
+	 *            the medium's single-scattering albedo
+	 * @throws IllegalArgumentException
+	 *             if {@code density} is negative
+	 */
+	public HomogeneousMedium(double density, RawColor albedo) {
+
+		if (density < 0d)
+			throw new IllegalArgumentException("Density cannot be negative (was " + density + ").");
+
+		this.density = density;
+		this.albedo = albedo;
+	}
+
+	@Override
+	public double getDensity(double x, double y, double z) {
+
+		return density;
+	}
+
+	@Override
+	public RawColor getAlbedo() {
+
+		return albedo;
+	}
+
+	@Override
+	public boolean isHomogeneous() {
+
+		return true;
+	}
+
+}
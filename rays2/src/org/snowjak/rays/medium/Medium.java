@@ -0,0 +1,42 @@
+package org.snowjak.rays.medium;
+
+import org.snowjak.rays.color.RawColor;
+
+/**
+ * A participating medium -- fog, smoke, murky water -- which absorbs and
+ * scatters light passing through it.
+ * <p>
+ * A Medium is described by its density (i.e., its extinction coefficient: the
+ * fraction of light absorbed or scattered away per unit distance), and its
+ * single-scattering albedo (the fraction of that extinguished light which is
+ * scattered rather than absorbed, per color-channel). A Medium fills some
+ * volume only once it's bound to a {@link MediumVolume}.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ */
+public interface Medium {
+
+	/**
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return this Medium's density (extinction coefficient) at the given
+	 *         point, in its bounding Shape's local coordinates
+	 */
+	public double getDensity(double x, double y, double z);
+
+	/**
+	 * @return this Medium's single-scattering albedo
+	 */
+	public RawColor getAlbedo();
+
+	/**
+	 * @return <code>true</code> if this Medium has the same density everywhere
+	 */
+	public default boolean isHomogeneous() {
+
+		return false;
+	}
+}
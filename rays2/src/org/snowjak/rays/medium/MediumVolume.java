@@ -0,0 +1,67 @@
+package org.snowjak.rays.medium;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.shape.Shape;
+
+/**
+ * Binds a {@link Medium} to the volume enclosed by a {@link Shape}.
+ * <p>
+ * The bounding Shape must be closed, so that its boundary-crossings alternate
+ * between entering and leaving it. (A {@link org.snowjak.rays.shape.csg.Union
+ * Union} should be given a Material of its own, so that it reports only its
+ * outer boundary.) The bounding Shape need not be added to the World; if it
+ * is, it is still ignored when testing whether the medium's points can see a
+ * light.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ */
+public class MediumVolume {
+
+	private final Shape bounds;
+
+	private final Medium medium;
+
+	/**
+	 * Construct a new MediumVolume.
+	 * 
+	 * @param bounds
+	 * @param medium
+	 */
+	public MediumVolume(Shape bounds, Medium medium) {
+		this.bounds = bounds;
+		this.medium = medium;
+	}
+
+	/**
+	 * @param worldPoint
+	 * @return the medium's density at the given point, which is assumed to
+	 *         lie within the bounding Shape
+	 */
+	public double getDensity(Vector3D worldPoint) {
+
+		if (medium.isHomogeneous())
+			return medium.getDensity(0d, 0d, 0d);
+
+		Vector3D localPoint = bounds.worldToLocal(worldPoint);
+		return medium.getDensity(localPoint.getX(), localPoint.getY(), localPoint.getZ());
+	}
+
+	/**
+	 * @return the Shape enclosing this medium
+	 */
+	public Shape getBounds() {
+
+		return bounds;
+	}
+
+	/**
+	 * @return the medium filling this volume
+	 */
+	public Medium getMedium() {
+
+		return medium;
+	}
+
+}
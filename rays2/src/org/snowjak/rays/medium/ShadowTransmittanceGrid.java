@@ -0,0 +1,115 @@
+package org.snowjak.rays.medium;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.shape.BoundingBox;
+
+/**
+ * A coarse, regular 3-D grid caching the transmittance from points within a
+ * {@link MediumVolume} toward a single light.
+ * <p>
+ * Each grid-node's transmittance is computed (via the supplied function) the
+ * first time it's needed, and then remembered; lookups between nodes are
+ * trilinearly-interpolated. Concurrent lookups may occasionally compute the
+ * same node twice, but always store the same value.
+ * </p>
+ * 
+ * @author snowjak88
+ *
+ */
+public class ShadowTransmittanceGrid {
+
+	private final double minX, minY, minZ, spacingX, spacingY, spacingZ, scaleX, scaleY, scaleZ;
+
+	private final int resolution;
+
+	private final float[] nodes;
+
+	private final ToDoubleFunction<Vector3D> transmittance;
+
+	/**
+	 * Construct a new (empty) ShadowTransmittanceGrid.
+	 * 
+	 * @param bounds
+	 *            the (bounded) region this grid covers
+	 * @param resolution
+	 *            the number of grid-nodes along each axis
+	 * @param transmittance
+	 *            computes the transmittance from a given point toward the
+	 *            light, in [0,1]
+	 * @throws IllegalArgumentException
+	 *             if {@code bounds} is unbounded, or {@code resolution} is
+	 *             less than 2
+	 */
+	public ShadowTransmittanceGrid(BoundingBox bounds, int resolution, ToDoubleFunction<Vector3D> transmittance) {
+
+		if (bounds.isUnbounded())
+			throw new IllegalArgumentException("Cannot cover an unbounded region with a grid.");
+		if (resolution < 2)
+			throw new IllegalArgumentException("Grid resolution must be at least 2 (was " + resolution + ").");
+
+		this.resolution = resolution;
+		this.minX = bounds.getMinX();
+		this.minY = bounds.getMinY();
+		this.minZ = bounds.getMinZ();
+		this.spacingX = (bounds.getMaxX() - minX) / (resolution - 1);
+		this.spacingY = (bounds.getMaxY() - minY) / (resolution - 1);
+		this.spacingZ = (bounds.getMaxZ() - minZ) / (resolution - 1);
+		this.scaleX = (spacingX > 0d) ? 1d / spacingX : 0d;
+		this.scaleY = (spacingY > 0d) ? 1d / spacingY : 0d;
+		this.scaleZ = (spacingZ > 0d) ? 1d / spacingZ : 0d;
+		this.transmittance = transmittance;
+
+		this.nodes = new float[resolution * resolution * resolution];
+		Arrays.fill(nodes, Float.NaN);
+	}
+
+	/**
+	 * Look up the (interpolated) transmittance from the given point toward
+	 * this grid's light.
+	 * 
+	 * @param point
+	 * @return the transmittance, in [0,1]
+	 */
+	public double getTransmittance(Vector3D point) {
+
+		double gx = clamp((point.getX() - minX) * scaleX), gy = clamp((point.getY() - minY) * scaleY),
+				gz = clamp((point.getZ() - minZ) * scaleZ);
+
+		int x0 = FastMath.min((int) gx, resolution - 2), y0 = FastMath.min((int) gy, resolution - 2),
+				z0 = FastMath.min((int) gz, resolution - 2);
+		double fx = gx - x0, fy = gy - y0, fz = gz - z0;
+
+		double c00 = lerp(node(x0, y0, z0), node(x0 + 1, y0, z0), fx);
+		double c10 = lerp(node(x0, y0 + 1, z0), node(x0 + 1, y0 + 1, z0), fx);
+		double c01 = lerp(node(x0, y0, z0 + 1), node(x0 + 1, y0, z0 + 1), fx);
+		double c11 = lerp(node(x0, y0 + 1, z0 + 1), node(x0 + 1, y0 + 1, z0 + 1), fx);
+
+		return lerp(lerp(c00, c10, fy), lerp(c01, c11, fy), fz);
+	}
+
+	private double clamp(double gridCoordinate) {
+
+		return FastMath.max(FastMath.min(gridCoordinate, resolution - 1), 0d);
+	}
+
+	private static double lerp(double v1, double v2, double fraction) {
+
+		return v1 + (v2 - v1) * fraction;
+	}
+
+	private double node(int x, int y, int z) {
+
+		int index = (z * resolution + y) * resolution + x;
+		float value = nodes[index];
+		if (Float.isNaN(value)) {
+			value = (float) transmittance
+					.applyAsDouble(new Vector3D(minX + x * spacingX, minY + y * spacingY, minZ + z * spacingZ));
+			nodes[index] = value;
+		}
+		return value;
+	}
+}
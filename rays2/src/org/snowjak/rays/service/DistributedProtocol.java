@@ -0,0 +1,108 @@
+package org.snowjak.rays.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.ui.ScreenRegion;
+
+/**
+ * The wire-format spoken between a {@link RenderCoordinator} and its
+ * {@link RenderWorker}s.
+ * <p>
+ * After connecting, a worker sends {@link #MAGIC} and {@link #VERSION}. From
+ * then on, the coordinator drives the conversation:
+ * <ul>
+ * <li>{@link #MESSAGE_JOB}: job-ID, world-file text, and Settings (as
+ * properties-text). The worker parses the World and prepares to render
+ * it.</li>
+ * <li>{@link #MESSAGE_TILE}: job-ID, tile-index, and the tile's
+ * {@link ScreenRegion}. The worker renders the tile and replies with the
+ * tile-index followed by the tile's RGB values.</li>
+ * </ul>
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+class DistributedProtocol {
+
+	/**
+	 * Sent by every worker upon connecting.
+	 */
+	static final int MAGIC = 0x52415953;
+
+	/**
+	 * The current protocol version.
+	 */
+	static final int VERSION = 1;
+
+	static final byte MESSAGE_JOB = 1;
+
+	static final byte MESSAGE_TILE = 2;
+
+	private DistributedProtocol() {
+
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeSettings(DataOutputStream out, Settings settings) throws IOException {
+
+		StringWriter writer = new StringWriter();
+		settings.saveToProperties().store(writer, null);
+		writeString(out, writer.toString());
+	}
+
+	static Settings readSettings(DataInputStream in) throws IOException {
+
+		Properties properties = new Properties();
+		properties.load(new StringReader(readString(in)));
+		return Settings.fromProperties(properties, Settings.presetFast());
+	}
+
+	static void writeRegion(DataOutputStream out, ScreenRegion region) throws IOException {
+
+		out.writeInt(region.getMinX());
+		out.writeInt(region.getMinY());
+		out.writeInt(region.getMaxX());
+		out.writeInt(region.getMaxY());
+	}
+
+	static ScreenRegion readRegion(DataInputStream in) throws IOException {
+
+		return new ScreenRegion(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+	}
+
+	static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+
+		out.writeInt(values.length);
+		for (float value : values)
+			out.writeFloat(value);
+	}
+
+	static float[] readFloats(DataInputStream in) throws IOException {
+
+		float[] values = new float[in.readInt()];
+		for (int i = 0; i < values.length; i++)
+			values[i] = in.readFloat();
+		return values;
+	}
+}
@@ -0,0 +1,81 @@
+package org.snowjak.rays.service;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.snowjak.rays.light.indirect.PhotonMap;
+import org.snowjak.rays.world.World;
+
+/**
+ * Caches {@link PhotonMap}s by the {@link World} they were built for (and the
+ * parameters they were built with), so that repeated renders of the same
+ * World need not re-cast their photons.
+ * <p>
+ * Worlds are held weakly: once no render-job (or {@link WorldCache}) refers
+ * to a World, its PhotonMaps become eligible for garbage-collection too.
+ * Cached PhotonMaps are only valid so long as their World does not change.
+ * Each is stamped with the World's {@link World#getVersion() version}, and is
+ * discarded as soon as it is asked for a later version -- so an animation
+ * whose Shapes stay put (e.g., one that only moves the camera) can reuse its
+ * PhotonMaps across every frame. The World should be
+ * {@link World#isFrozen() frozen} while its PhotonMaps are in use.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class PhotonMapCache {
+
+	private final Map<World, VersionedPhotonMaps> photonMaps = new WeakHashMap<>();
+
+	/**
+	 * Get the {@link PhotonMap} built for the given {@link World} with the
+	 * given parameters, building it if necessary. See
+	 * {@link PhotonMap#build(World, int, boolean, double, int, double, double)}
+	 * for the meaning of each parameter.
+	 *
+	 * @param world
+	 * @param photonCount
+	 * @param isCausticsMap
+	 * @param degreesPerLightSourceMapEntry
+	 * @param rayCountPerLightSourceMapEntry
+	 * @param photonCullThreshold
+	 * @param photonCullProbability
+	 * @return the (possibly-cached) PhotonMap
+	 */
+	public PhotonMap get(World world, int photonCount, boolean isCausticsMap, double degreesPerLightSourceMapEntry,
+			int rayCountPerLightSourceMapEntry, double photonCullThreshold, double photonCullProbability) {
+
+		Map<String, PhotonMap> worldMaps;
+		synchronized (photonMaps) {
+			VersionedPhotonMaps versioned = photonMaps.get(world);
+			if (versioned == null || versioned.version != world.getVersion()) {
+				versioned = new VersionedPhotonMaps(world.getVersion());
+				photonMaps.put(world, versioned);
+			}
+			worldMaps = versioned.maps;
+		}
+
+		String key = photonCount + "/" + isCausticsMap + "/" + degreesPerLightSourceMapEntry + "/"
+				+ rayCountPerLightSourceMapEntry + "/" + photonCullThreshold + "/" + photonCullProbability;
+
+		//
+		// ConcurrentHashMap.computeIfAbsent() guarantees that each PhotonMap is
+		// built only once, even if several jobs ask for it at the same time.
+		return worldMaps.computeIfAbsent(key, k -> PhotonMap.build(world, photonCount, isCausticsMap,
+				degreesPerLightSourceMapEntry, rayCountPerLightSourceMapEntry, photonCullThreshold,
+				photonCullProbability));
+	}
+
+	private static class VersionedPhotonMaps {
+
+		private final long version;
+
+		private final Map<String, PhotonMap> maps = new ConcurrentHashMap<>();
+
+		public VersionedPhotonMaps(long version) {
+			this.version = version;
+		}
+	}
+}
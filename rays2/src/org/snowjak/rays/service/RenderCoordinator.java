@@ -0,0 +1,342 @@
+package org.snowjak.rays.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.ui.CanBeShutdown;
+import org.snowjak.rays.ui.MultithreadedScreenDecorator;
+import org.snowjak.rays.ui.ScreenRegion;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+/**
+ * Splits renders into tiles and farms them out to any number of
+ * {@link RenderWorker}s, each running in its own process (and possibly on its
+ * own machine).
+ * <p>
+ * The scene is shipped to each worker as world-file text, along with the
+ * render's {@link Settings}. Tiles are handed out one at a time, to whichever
+ * worker asks next, so faster workers naturally take on more of the image. If
+ * a worker's connection is lost, the tile it was working on goes back to the
+ * front of the queue, to be picked up by another worker. The same happens if a
+ * worker stays connected but takes longer than the tile-timeout to return its
+ * tile.
+ * </p>
+ *
+ * @author snowjak88
+ * @see DistributedProtocol
+ */
+public class RenderCoordinator implements CanBeShutdown {
+
+	private static final long IDLE_WAIT_MILLIS = 250;
+
+	/**
+	 * By default, how long a worker may take to return a tile before it is
+	 * presumed hung.
+	 */
+	public static final int DEFAULT_TILE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+	private final int tileTimeoutMillis;
+
+	private final ServerSocket serverSocket;
+
+	private final ExecutorService sessionPool = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "render-coordinator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final List<DistributedJob> jobs = new CopyOnWriteArrayList<>();
+
+	private final Object jobsChanged = new Object();
+
+	private final AtomicLong nextJobId = new AtomicLong();
+
+	private final AtomicInteger workerCount = new AtomicInteger();
+
+	private final WorldCache worldCache = new WorldCache(4);
+
+	private volatile boolean running = true;
+
+	/**
+	 * Create (but do not start) a new RenderCoordinator, listening for
+	 * workers on the given port.
+	 *
+	 * @param port
+	 *            the port to listen on, or 0 to choose any free port
+	 * @throws IOException
+	 *             if the port cannot be bound
+	 */
+	public RenderCoordinator(int port) throws IOException {
+		this(port, DEFAULT_TILE_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Create (but do not start) a new RenderCoordinator, listening for
+	 * workers on the given port.
+	 *
+	 * @param port
+	 *            the port to listen on, or 0 to choose any free port
+	 * @param tileTimeoutMillis
+	 *            how long a worker may take to return a tile before its
+	 *            connection is dropped and the tile given to another worker
+	 * @throws IOException
+	 *             if the port cannot be bound
+	 */
+	public RenderCoordinator(int port, int tileTimeoutMillis) throws IOException {
+		this.serverSocket = new ServerSocket(port);
+		this.tileTimeoutMillis = tileTimeoutMillis;
+	}
+
+	/**
+	 * Begin accepting connections from {@link RenderWorker}s.
+	 */
+	public void start() {
+
+		sessionPool.execute(() -> {
+			while (running) {
+				try {
+					Socket socket = serverSocket.accept();
+					sessionPool.execute(() -> runSession(socket));
+
+				} catch (IOException e) {
+					if (running)
+						System.err.println("Problem accepting a worker connection: " + e.getMessage());
+				}
+			}
+		});
+	}
+
+	/**
+	 * @return the port this coordinator is listening on
+	 */
+	public int getPort() {
+
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @return the number of workers currently connected
+	 */
+	public int getWorkerCount() {
+
+		return workerCount.get();
+	}
+
+	/**
+	 * Submit a world-file for rendering across all connected (and
+	 * subsequently-connecting) workers.
+	 *
+	 * @param worldText
+	 *            the contents of a world-file
+	 * @param settings
+	 * @return a Future which completes with the assembled image
+	 * @throws IOException
+	 *             if the world-file cannot be parsed
+	 */
+	public CompletableFuture<FramebufferPixelDrawer> render(String worldText, Settings settings) throws IOException {
+
+		//
+		// Parse the world once here, so that a bad world-file is reported to
+		// the caller rather than to every worker.
+		World world = worldCache.getWorld(worldText);
+		if (world.getCamera() == null)
+			throw new IOException("World-file does not specify a camera.");
+
+		DistributedJob job = new DistributedJob(nextJobId.getAndIncrement(), worldText, settings);
+		job.future.whenComplete((r, t) -> {
+			jobs.remove(job);
+			signalJobsChanged();
+		});
+
+		jobs.add(job);
+		signalJobsChanged();
+
+		return job.future;
+	}
+
+	@Override
+	public void shutdown() {
+
+		running = false;
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			// nothing to be done
+		}
+		for (DistributedJob job : jobs)
+			job.future.cancel(true);
+		sessionPool.shutdownNow();
+	}
+
+	private void runSession(Socket socket) {
+
+		String workerName = socket.getRemoteSocketAddress().toString();
+		DistributedJob job = null;
+		Integer tile = null;
+		boolean registered = false;
+
+		try (Socket s = socket) {
+			s.setSoTimeout(tileTimeoutMillis);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+
+			if (in.readInt() != DistributedProtocol.MAGIC || in.readInt() != DistributedProtocol.VERSION) {
+				System.err.println("Rejecting connection from " + workerName + " -- not a compatible worker.");
+				return;
+			}
+
+			workerCount.incrementAndGet();
+			registered = true;
+
+			Set<Long> shippedJobs = new HashSet<>();
+
+			while (running) {
+				job = null;
+				tile = null;
+
+				for (DistributedJob candidate : jobs) {
+					tile = candidate.pending.pollFirst();
+					if (tile != null) {
+						job = candidate;
+						break;
+					}
+				}
+
+				if (job == null) {
+					synchronized (jobsChanged) {
+						jobsChanged.wait(IDLE_WAIT_MILLIS);
+					}
+					continue;
+				}
+
+				if (shippedJobs.add(job.id)) {
+					out.writeByte(DistributedProtocol.MESSAGE_JOB);
+					out.writeLong(job.id);
+					DistributedProtocol.writeString(out, job.worldText);
+					DistributedProtocol.writeSettings(out, job.settings);
+				}
+
+				out.writeByte(DistributedProtocol.MESSAGE_TILE);
+				out.writeLong(job.id);
+				out.writeInt(tile);
+				DistributedProtocol.writeRegion(out, job.regions.get(tile));
+				out.flush();
+
+				int completedTile = in.readInt();
+				float[] colors = DistributedProtocol.readFloats(in);
+				if (completedTile != tile)
+					throw new IOException("Expected tile " + tile + ", but received tile " + completedTile + ".");
+
+				job.complete(tile, colors);
+			}
+
+		} catch (InterruptedException e) {
+			// the coordinator is shutting down
+
+		} catch (SocketTimeoutException e) {
+			//
+			// The worker is still connected, but appears to have hung. Drop
+			// it; its tile is requeued below.
+			System.err.println("Worker " + workerName + " timed out"
+					+ ((tile != null) ? " on tile " + tile : "") + " -- disconnecting.");
+
+		} catch (IOException e) {
+			if (running)
+				System.err.println("Lost connection to worker " + workerName + ": " + e.getMessage());
+
+		} catch (Throwable t) {
+			System.err.println("Problem encountered with worker " + workerName + ": " + t.getMessage());
+			t.printStackTrace(System.err);
+
+		} finally {
+			//
+			// If this worker was in the middle of a tile, give it to someone
+			// else.
+			if (job != null && tile != null && !job.isTileComplete(tile)) {
+				job.pending.addFirst(tile);
+				signalJobsChanged();
+			}
+			if (registered)
+				workerCount.decrementAndGet();
+		}
+	}
+
+	private void signalJobsChanged() {
+
+		synchronized (jobsChanged) {
+			jobsChanged.notifyAll();
+		}
+	}
+
+	private static class DistributedJob {
+
+		private final long id;
+
+		private final String worldText;
+
+		private final Settings settings;
+
+		private final List<ScreenRegion> regions;
+
+		private final FramebufferPixelDrawer framebuffer;
+
+		private final LinkedBlockingDeque<Integer> pending = new LinkedBlockingDeque<>();
+
+		private final AtomicIntegerArray completed;
+
+		private final AtomicInteger remaining;
+
+		private final CompletableFuture<FramebufferPixelDrawer> future = new CompletableFuture<>();
+
+		public DistributedJob(long id, String worldText, Settings settings) {
+			this.id = id;
+			this.worldText = worldText;
+			this.settings = new Settings(settings);
+			this.framebuffer = new FramebufferPixelDrawer(this.settings);
+			this.regions = ScreenRegion.split(framebuffer, MultithreadedScreenDecorator.REGION_SIDE_LENGTH);
+
+			this.completed = new AtomicIntegerArray(regions.size());
+			this.remaining = new AtomicInteger(regions.size());
+			for (int i = 0; i < regions.size(); i++)
+				pending.add(i);
+
+			if (regions.isEmpty())
+				future.complete(framebuffer);
+		}
+
+		public boolean isTileComplete(int tile) {
+
+			return completed.get(tile) != 0;
+		}
+
+		public void complete(int tile, float[] colors) {
+
+			if (!completed.compareAndSet(tile, 0, 1))
+				return;
+
+			framebuffer.setRegion(regions.get(tile), colors);
+
+			if (remaining.decrementAndGet() == 0)
+				future.complete(framebuffer);
+		}
+	}
+}
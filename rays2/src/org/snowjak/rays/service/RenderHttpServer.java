@@ -0,0 +1,192 @@
+package org.snowjak.rays.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.ui.CanBeShutdown;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A minimal HTTP front-end for a {@link RenderService}, for the use of local
+ * clients.
+ * <p>
+ * Clients {@code POST} the text of a world-file to {@code /render}. Any
+ * query-parameters are taken as {@link Settings} properties (e.g.,
+ * {@code ?rays2.render.imageWidth=800}), overriding this server's default
+ * Settings, except for {@code priority}, which sets the job's priority. The
+ * response is the finished image, as a PNG.
+ * </p>
+ * <p>
+ * The server binds only to the loopback address.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class RenderHttpServer implements CanBeShutdown {
+
+	/**
+	 * The name of the query-parameter giving a job's priority.
+	 */
+	public static final String PARAMETER_PRIORITY = "priority";
+
+	private final RenderService service;
+
+	private final Settings defaultSettings;
+
+	private final HttpServer server;
+
+	private final ExecutorService requestPool = Executors.newCachedThreadPool();
+
+	/**
+	 * Create (but do not start) a new RenderHttpServer.
+	 *
+	 * @param service
+	 *            the RenderService to submit jobs to
+	 * @param defaultSettings
+	 *            the Settings to use for any property not given by a request
+	 * @param port
+	 *            the port to listen on
+	 * @throws IOException
+	 *             if the server's socket cannot be bound
+	 */
+	public RenderHttpServer(RenderService service, Settings defaultSettings, int port) throws IOException {
+		this.service = service;
+		this.defaultSettings = new Settings(defaultSettings);
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.server.createContext("/render", this::handleRender);
+		this.server.setExecutor(requestPool);
+	}
+
+	/**
+	 * Start listening for requests.
+	 */
+	public void start() {
+
+		server.start();
+	}
+
+	/**
+	 * @return the port this server is listening on
+	 */
+	public int getPort() {
+
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void shutdown() {
+
+		server.stop(0);
+		requestPool.shutdownNow();
+	}
+
+	private void handleRender(HttpExchange exchange) throws IOException {
+
+		try {
+			if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+				sendError(exchange, 405, "Only POST is supported.");
+				return;
+			}
+
+			Properties properties = new Properties();
+			int priority = 0;
+			String query = exchange.getRequestURI().getRawQuery();
+			if (query != null)
+				for (String parameter : query.split("&")) {
+					if (parameter.isEmpty())
+						continue;
+
+					int equals = parameter.indexOf('=');
+					String name = decode((equals < 0) ? parameter : parameter.substring(0, equals));
+					String value = (equals < 0) ? "" : decode(parameter.substring(equals + 1));
+
+					if (name.equals(PARAMETER_PRIORITY))
+						priority = Integer.parseInt(value.trim());
+					else
+						properties.setProperty(name, value);
+				}
+
+			Settings settings = Settings.fromProperties(properties, defaultSettings);
+			String worldText = readFully(exchange.getRequestBody());
+
+			RenderJob job;
+			try {
+				job = service.submit(worldText, settings, priority);
+			} catch (IOException e) {
+				sendError(exchange, 400, "Cannot parse world-file: " + e.getMessage());
+				return;
+			}
+
+			ByteArrayOutputStream image = new ByteArrayOutputStream();
+			try {
+				ImageIO.write(job.getFuture().get().toBufferedImage(), "png", image);
+
+			} catch (InterruptedException | CancellationException e) {
+				job.getFuture().cancel(true);
+				sendError(exchange, 503, "Render was cancelled.");
+				return;
+
+			} catch (ExecutionException e) {
+				sendError(exchange, 500, "Render failed: " + e.getCause().getMessage());
+				return;
+			}
+
+			exchange.getResponseHeaders().set("Content-Type", "image/png");
+			exchange.sendResponseHeaders(200, image.size());
+			try (OutputStream out = exchange.getResponseBody()) {
+				image.writeTo(out);
+			}
+
+		} catch (NumberFormatException e) {
+			sendError(exchange, 400, "Cannot parse '" + PARAMETER_PRIORITY + "': " + e.getMessage());
+
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+
+		byte[] body = message.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static String decode(String value) throws UnsupportedEncodingException {
+
+		return URLDecoder.decode(value, "UTF-8");
+	}
+
+	private static String readFully(InputStream in) throws IOException {
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+		while ((read = in.read(chunk)) >= 0)
+			buffer.write(chunk, 0, read);
+
+		return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
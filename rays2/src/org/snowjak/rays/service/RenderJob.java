@@ -0,0 +1,140 @@
+package org.snowjak.rays.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.light.model.LightingModel;
+import org.snowjak.rays.ui.AntialiasingScreenDecorator;
+import org.snowjak.rays.ui.PixelDrawer;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+/**
+ * A single render submitted to a {@link RenderService}: one {@link World},
+ * rendered with one set of {@link Settings}, into one
+ * {@link FramebufferPixelDrawer}.
+ *
+ * @author snowjak88
+ *
+ */
+public class RenderJob {
+
+	private final long id;
+
+	private final int priority;
+
+	private final World world;
+
+	private final Settings settings;
+
+	private final FramebufferPixelDrawer framebuffer;
+
+	private final PixelDrawer pixelDrawer;
+
+	private final CompletableFuture<FramebufferPixelDrawer> future = new CompletableFuture<>();
+
+	private final AtomicInteger remainingRegions = new AtomicInteger();
+
+	private volatile LightingModel lightingModel;
+
+	private volatile RenderContext context = null;
+
+	RenderJob(long id, int priority, World world, Settings settings, LightingModel lightingModel) {
+		this.id = id;
+		this.priority = priority;
+		this.world = world;
+		this.settings = new Settings(settings);
+		this.lightingModel = lightingModel;
+
+		this.framebuffer = new FramebufferPixelDrawer(this.settings);
+		this.pixelDrawer = new AntialiasingScreenDecorator(framebuffer);
+	}
+
+	/**
+	 * @return this job's ID, unique within its {@link RenderService}
+	 */
+	public long getId() {
+
+		return id;
+	}
+
+	/**
+	 * @return this job's priority -- jobs with higher priorities are rendered
+	 *         first
+	 */
+	public int getPriority() {
+
+		return priority;
+	}
+
+	/**
+	 * @return the {@link Settings} this job is being rendered with
+	 */
+	public Settings getSettings() {
+
+		return settings;
+	}
+
+	/**
+	 * @return a Future which completes with the finished image. Cancelling this
+	 *         Future cancels the job.
+	 */
+	public CompletableFuture<FramebufferPixelDrawer> getFuture() {
+
+		return future;
+	}
+
+	World getWorld() {
+
+		return world;
+	}
+
+	Camera getCamera() {
+
+		return world.getCamera();
+	}
+
+	LightingModel getLightingModel() {
+
+		return lightingModel;
+	}
+
+	void setLightingModel(LightingModel lightingModel) {
+
+		this.lightingModel = lightingModel;
+	}
+
+	RenderContext getContext() {
+
+		return context;
+	}
+
+	void setContext(RenderContext context) {
+
+		this.context = context;
+	}
+
+	FramebufferPixelDrawer getFramebuffer() {
+
+		return framebuffer;
+	}
+
+	PixelDrawer getPixelDrawer() {
+
+		return pixelDrawer;
+	}
+
+	AtomicInteger getRemainingRegions() {
+
+		return remainingRegions;
+	}
+
+	@Override
+	public String toString() {
+
+		return "RenderJob [id=" + id + ", priority=" + priority + "]";
+	}
+}
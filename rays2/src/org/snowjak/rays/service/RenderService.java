@@ -0,0 +1,300 @@
+package org.snowjak.rays.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.light.model.AdditiveCompositingLightingModel;
+import org.snowjak.rays.light.model.AmbientLightingModel;
+import org.snowjak.rays.light.model.CausticsPhotonMapLightingModel;
+import org.snowjak.rays.light.model.EmissiveLightingModel;
+import org.snowjak.rays.light.model.FresnelLightingModel;
+import org.snowjak.rays.light.model.LambertianDiffuseLightingModel;
+import org.snowjak.rays.light.model.LightingModel;
+import org.snowjak.rays.light.model.PhongSpecularLightingModel;
+import org.snowjak.rays.ui.CanBeShutdown;
+import org.snowjak.rays.ui.MultithreadedScreenDecorator;
+import org.snowjak.rays.ui.ScreenRegion;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+/**
+ * Renders any number of {@link RenderJob}s concurrently, headlessly, within a
+ * single process.
+ * <p>
+ * Every job is split into {@link ScreenRegion}s, and every region is queued
+ * on one shared, fixed-size pool of worker-threads. The queue is ordered by
+ * job-priority (highest first), then by order of submission -- so a
+ * high-priority job will overtake a long-running low-priority job at the next
+ * region boundary. Cancelling a job's Future removes its remaining regions from
+ * the queue.
+ * </p>
+ * <p>
+ * Jobs share a {@link WorldCache} (so that repeatedly-submitted world-files
+ * are parsed only once) and a {@link PhotonMapCache} (so that repeated renders
+ * of one World cast their photons only once).
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class RenderService implements CanBeShutdown {
+
+	/**
+	 * The default number of {@link WorldCache} entries.
+	 */
+	public static final int DEFAULT_WORLD_CACHE_SIZE = 32;
+
+	private final ThreadPoolExecutor workerPool;
+
+	private final WorldCache worldCache = new WorldCache(DEFAULT_WORLD_CACHE_SIZE);
+
+	private final PhotonMapCache photonMapCache = new PhotonMapCache();
+
+	private final AtomicLong nextJobId = new AtomicLong();
+
+	/**
+	 * Create a new RenderService using one worker-thread for every available
+	 * processor.
+	 */
+	public RenderService() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a new RenderService using the given number of worker-threads.
+	 *
+	 * @param workerThreadCount
+	 */
+	public RenderService(int workerThreadCount) {
+		int threads = FastMath.max(workerThreadCount, 1);
+		AtomicInteger threadNumber = new AtomicInteger();
+
+		this.workerPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(), r -> {
+					Thread thread = new Thread(r, "render-service-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Submit a world-file for rendering, using the
+	 * {@link #createDefaultLightingModel(World) default lighting-model}.
+	 *
+	 * @param worldText
+	 *            the contents of a world-file
+	 * @param settings
+	 * @param priority
+	 *            jobs with higher priorities are rendered first
+	 * @return the submitted RenderJob
+	 * @throws IOException
+	 *             if the world-file cannot be parsed
+	 */
+	public RenderJob submit(String worldText, Settings settings, int priority) throws IOException {
+
+		return submit(worldCache.getWorld(worldText), settings, null, priority);
+	}
+
+	/**
+	 * Submit a {@link World} for rendering. The World is
+	 * {@link World#freeze() frozen} before it is rendered.
+	 *
+	 * @param world
+	 * @param settings
+	 * @param lightingModel
+	 *            the {@link LightingModel} to render with, or <code>null</code>
+	 *            to use the {@link #createDefaultLightingModel(World) default}
+	 * @param priority
+	 *            jobs with higher priorities are rendered first
+	 * @return the submitted RenderJob
+	 */
+	public RenderJob submit(World world, Settings settings, LightingModel lightingModel, int priority) {
+
+		if (workerPool.isShutdown())
+			throw new IllegalStateException("This RenderService has been shut down.");
+
+		RenderJob job = new RenderJob(nextJobId.getAndIncrement(), priority, world, settings, lightingModel);
+
+		job.getFuture().whenComplete((r, t) -> {
+			if (job.getFuture().isCancelled())
+				workerPool.getQueue().removeIf(task -> ((JobTask) task).job == job);
+		});
+
+		workerPool.execute(new PrepareTask(job));
+
+		return job;
+	}
+
+	/**
+	 * Construct the lighting-model used for jobs that do not specify their own.
+	 * This mirrors the interactive application's lighting-model, and draws its
+	 * caustics photon-map from this service's {@link PhotonMapCache}.
+	 *
+	 * @param world
+	 * @return a new LightingModel for the given World
+	 */
+	protected LightingModel createDefaultLightingModel(World world) {
+
+		return createDefaultLightingModel(world, photonMapCache);
+	}
+
+	/**
+	 * Construct the default lighting-model for the given {@link World},
+	 * drawing its caustics photon-map from the given {@link PhotonMapCache}.
+	 *
+	 * @param world
+	 * @param photonMapCache
+	 * @return a new LightingModel for the given World
+	 * @see #createDefaultLightingModel(World)
+	 */
+	public static LightingModel createDefaultLightingModel(World world, PhotonMapCache photonMapCache) {
+
+		return new FresnelLightingModel(new AdditiveCompositingLightingModel(new AmbientLightingModel(),
+				new LambertianDiffuseLightingModel(), new PhongSpecularLightingModel(), new EmissiveLightingModel(),
+				new CausticsPhotonMapLightingModel(photonMapCache.get(world, 30000, true, 1d, 16, 0.1, 0.25), 32)));
+	}
+
+	/**
+	 * @return the cache of parsed world-files shared by this service's jobs
+	 */
+	public WorldCache getWorldCache() {
+
+		return worldCache;
+	}
+
+	/**
+	 * @return the cache of photon-maps shared by this service's jobs
+	 */
+	public PhotonMapCache getPhotonMapCache() {
+
+		return photonMapCache;
+	}
+
+	/**
+	 * @return the number of tasks currently waiting for a worker-thread
+	 */
+	public int getQueuedTaskCount() {
+
+		return workerPool.getQueue().size();
+	}
+
+	@Override
+	public void shutdown() {
+
+		workerPool.shutdownNow();
+	}
+
+	/**
+	 * A unit of work on behalf of a single {@link RenderJob}. Tasks are ordered
+	 * by job-priority, then job-ID, then by their position within their job.
+	 */
+	private abstract static class JobTask implements Runnable, Comparable<JobTask> {
+
+		protected final RenderJob job;
+
+		private final int sequence;
+
+		public JobTask(RenderJob job, int sequence) {
+			this.job = job;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public void run() {
+
+			if (job.getFuture().isDone())
+				return;
+
+			try {
+				execute();
+
+			} catch (Throwable t) {
+				System.err.println("Problem encountered while rendering " + job + ": " + t.getMessage());
+				t.printStackTrace(System.err);
+				job.getFuture().completeExceptionally(t);
+			}
+		}
+
+		protected abstract void execute();
+
+		@Override
+		public int compareTo(JobTask o) {
+
+			if (job.getPriority() != o.job.getPriority())
+				return Integer.compare(o.job.getPriority(), job.getPriority());
+			if (job.getId() != o.job.getId())
+				return Long.compare(job.getId(), o.job.getId());
+			return Integer.compare(sequence, o.sequence);
+		}
+	}
+
+	/**
+	 * Builds a job's {@link RenderContext} (including any photon-maps its
+	 * lighting-model needs), and then queues up all of its regions.
+	 */
+	private class PrepareTask extends JobTask {
+
+		public PrepareTask(RenderJob job) {
+			super(job, -1);
+		}
+
+		@Override
+		protected void execute() {
+
+			if (job.getLightingModel() == null)
+				job.setLightingModel(createDefaultLightingModel(job.getWorld()));
+
+			job.setContext(new RenderContext(job.getWorld(), job.getSettings(), job.getLightingModel(), workerPool));
+
+			List<ScreenRegion> regions = ScreenRegion.split(job.getFramebuffer(),
+					MultithreadedScreenDecorator.REGION_SIDE_LENGTH);
+			job.getRemainingRegions().set(regions.size());
+
+			//
+			// With nothing to render, no RegionTask would ever complete the
+			// job.
+			if (regions.isEmpty()) {
+				job.getFuture().complete(job.getFramebuffer());
+				return;
+			}
+
+			for (int i = 0; i < regions.size(); i++)
+				workerPool.execute(new RegionTask(job, i, regions.get(i)));
+		}
+	}
+
+	/**
+	 * Renders a single {@link ScreenRegion} of a job, completing the job's
+	 * Future if it is the last region to finish.
+	 */
+	private static class RegionTask extends JobTask {
+
+		private final ScreenRegion region;
+
+		public RegionTask(RenderJob job, int sequence, ScreenRegion region) {
+			super(job, sequence);
+			this.region = region;
+		}
+
+		@Override
+		protected void execute() {
+
+			CompletableFuture<FramebufferPixelDrawer> future = job.getFuture();
+
+			if (!region.draw(job.getContext(), job.getPixelDrawer(), job.getCamera(), future::isDone))
+				return;
+
+			if (job.getRemainingRegions().decrementAndGet() == 0)
+				future.complete(job.getFramebuffer());
+		}
+	}
+}
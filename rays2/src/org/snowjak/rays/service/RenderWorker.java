@@ -0,0 +1,222 @@
+package org.snowjak.rays.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.ui.AntialiasingScreenDecorator;
+import org.snowjak.rays.ui.BasicScreen;
+import org.snowjak.rays.ui.CanBeShutdown;
+import org.snowjak.rays.ui.PixelDrawer;
+import org.snowjak.rays.ui.ScreenRegion;
+import org.snowjak.rays.world.World;
+
+/**
+ * Renders tiles on behalf of a {@link RenderCoordinator}.
+ * <p>
+ * A RenderWorker connects to its coordinator, and then renders whatever tiles
+ * it is given (spreading the rows of each tile across its own pool of
+ * worker-threads) until the coordinator hangs up.
+ * </p>
+ *
+ * @author snowjak88
+ * @see DistributedProtocol
+ */
+public class RenderWorker implements CanBeShutdown {
+
+	private static final int MAX_PREPARED_JOBS = 4;
+
+	private final String host;
+
+	private final int port;
+
+	private final ExecutorService renderPool;
+
+	private final WorldCache worldCache = new WorldCache(MAX_PREPARED_JOBS);
+
+	private final PhotonMapCache photonMapCache = new PhotonMapCache();
+
+	private final Map<Long, RenderContext> preparedJobs = new LinkedHashMap<Long, RenderContext>() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, RenderContext> eldest) {
+
+			return size() > MAX_PREPARED_JOBS;
+		}
+	};
+
+	private volatile Socket socket = null;
+
+	/**
+	 * Create a new RenderWorker, which will connect to the given coordinator
+	 * once {@link #run()} is called.
+	 *
+	 * @param host
+	 * @param port
+	 * @param threadCount
+	 *            the number of threads to render each tile with
+	 */
+	public RenderWorker(String host, int port, int threadCount) {
+		this.host = host;
+		this.port = port;
+		this.renderPool = Executors.newFixedThreadPool(FastMath.max(threadCount, 1), r -> {
+			Thread thread = new Thread(r, "render-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Connect to the coordinator and render tiles until it disconnects.
+	 *
+	 * @throws IOException
+	 *             if the coordinator cannot be reached, or sends something
+	 *             this worker cannot understand
+	 */
+	public void run() throws IOException {
+
+		try (Socket s = new Socket(host, port)) {
+			this.socket = s;
+
+			DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+
+			out.writeInt(DistributedProtocol.MAGIC);
+			out.writeInt(DistributedProtocol.VERSION);
+			out.flush();
+
+			while (true) {
+				byte message;
+				try {
+					message = in.readByte();
+				} catch (EOFException e) {
+					// The coordinator has hung up -- we're done.
+					return;
+				}
+
+				switch (message) {
+				case DistributedProtocol.MESSAGE_JOB:
+					long jobId = in.readLong();
+					String worldText = DistributedProtocol.readString(in);
+					Settings settings = DistributedProtocol.readSettings(in);
+					prepareJob(jobId, worldText, settings);
+					break;
+
+				case DistributedProtocol.MESSAGE_TILE:
+					RenderContext context = preparedJobs.get(in.readLong());
+					int tile = in.readInt();
+					ScreenRegion region = DistributedProtocol.readRegion(in);
+					if (context == null)
+						throw new IOException("Received a tile for a job that was never sent.");
+
+					out.writeInt(tile);
+					DistributedProtocol.writeFloats(out, renderTile(context, region));
+					out.flush();
+					break;
+
+				default:
+					throw new IOException("Unknown message-type [" + message + "] from coordinator.");
+				}
+			}
+
+		} finally {
+			this.socket = null;
+		}
+	}
+
+	@Override
+	public void shutdown() {
+
+		Socket s = socket;
+		if (s != null)
+			try {
+				s.close();
+			} catch (IOException e) {
+				// nothing to be done
+			}
+		renderPool.shutdownNow();
+	}
+
+	private void prepareJob(long jobId, String worldText, Settings settings) throws IOException {
+
+		World world = worldCache.getWorld(worldText);
+		preparedJobs.put(jobId, new RenderContext(world, settings,
+				RenderService.createDefaultLightingModel(world, photonMapCache), renderPool));
+	}
+
+	private float[] renderTile(RenderContext context, ScreenRegion region) throws IOException {
+
+		TilePixelDrawer tile = new TilePixelDrawer(context.getSettings(), region);
+		PixelDrawer drawer = new AntialiasingScreenDecorator(tile);
+
+		List<Callable<Boolean>> rows = new ArrayList<>();
+		for (int y = region.getMinY(); y <= region.getMaxY(); y++) {
+			ScreenRegion row = new ScreenRegion(region.getMinX(), y, region.getMaxX(), y);
+			rows.add(() -> row.draw(context, drawer, context.getWorld().getCamera(), () -> false));
+		}
+
+		try {
+			for (Future<Boolean> row : renderPool.invokeAll(rows))
+				row.get();
+
+		} catch (InterruptedException | ExecutionException e) {
+			throw new IOException("Could not render " + region + ": " + e.getMessage(), e);
+		}
+
+		return tile.colors;
+	}
+
+	/**
+	 * A {@link PixelDrawer} spanning the whole image, but storing only the
+	 * pixels of a single tile.
+	 */
+	private static class TilePixelDrawer extends BasicScreen implements PixelDrawer {
+
+		private final ScreenRegion region;
+
+		private final int regionWidth;
+
+		private final float[] colors;
+
+		public TilePixelDrawer(Settings settings, ScreenRegion region) {
+			super(settings.getImageWidth() - 1, settings.getImageHeight() - 1);
+
+			this.region = region;
+			this.regionWidth = region.getMaxX() - region.getMinX() + 1;
+			this.colors = new float[region.getPixelCount() * 3];
+		}
+
+		@Override
+		public void drawPixel(int x, int y, RawColor color) {
+
+			int i = ((y - region.getMinY()) * regionWidth + (x - region.getMinX())) * 3;
+			colors[i] = (float) color.getRed();
+			colors[i + 1] = (float) color.getGreen();
+			colors[i + 2] = (float) color.getBlue();
+		}
+
+		@Override
+		public void shutdown() {
+
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.snowjak.rays.service;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.snowjak.rays.world.World;
+import org.snowjak.rays.world.importfile.BuilderInvoker;
+import org.snowjak.rays.world.importfile.WorldFileParser;
+
+/**
+ * Caches {@link World}s parsed from world-file text, so that render-jobs
+ * submitted with the same world-file need parse and build it only once.
+ * <p>
+ * Every World handed out by this cache is {@link World#freeze() frozen}, and
+ * so may be safely shared between any number of concurrent renders. The cache
+ * holds only the most-recently-used {@code capacity} Worlds.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class WorldCache {
+
+	private final Map<String, World> worlds;
+
+	/**
+	 * Create a new WorldCache holding at most {@code capacity} Worlds.
+	 *
+	 * @param capacity
+	 */
+	public WorldCache(int capacity) {
+		this.worlds = Collections.synchronizedMap(new LinkedHashMap<String, World>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, World> eldest) {
+
+				return size() > capacity;
+			}
+		});
+	}
+
+	/**
+	 * Get the {@link World} described by the given world-file text, parsing it
+	 * if it is not already cached.
+	 *
+	 * @param worldText
+	 * @return the (frozen) World described by the given text
+	 * @throws IOException
+	 *             if the text cannot be parsed into a World
+	 */
+	public World getWorld(String worldText) throws IOException {
+
+		World world = worlds.get(worldText);
+		if (world != null)
+			return world;
+
+		//
+		// Parse outside of the lock -- two jobs racing to parse the same text
+		// will only waste a little effort, rather than blocking every other
+		// lookup.
+		world = parse(worldText);
+		world.freeze();
+
+		World existing = worlds.putIfAbsent(worldText, world);
+		return (existing != null) ? existing : world;
+	}
+
+	/**
+	 * @return the number of Worlds currently cached
+	 */
+	public int size() {
+
+		return worlds.size();
+	}
+
+	private static World parse(String worldText) throws IOException {
+
+		Optional<Object> result = BuilderInvoker.getSingleton()
+				.invokeBuilders(new WorldFileParser(new StringReader(worldText)));
+		if (!result.isPresent() || !(result.get() instanceof World))
+			throw new IOException("World-file text does not describe a World.");
+
+		return (World) result.get();
+	}
+}
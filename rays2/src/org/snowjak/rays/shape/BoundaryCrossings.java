@@ -0,0 +1,121 @@
+package org.snowjak.rays.shape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.intersect.Intersection;
+
+/**
+ * A Shape's boundary along a {@link Ray}: every point at which the Ray passes
+ * into or out of the Shape's volume (and no others), plus whether the Ray --
+ * traced infinitely far back behind its origin -- starts out inside that
+ * volume.
+ * <p>
+ * Sorted by signed distance along the Ray, the crossings strictly alternate
+ * between entering and leaving the Shape. Together with
+ * {@link #isStartingInside()}, that gives the Shape's spans along the Ray --
+ * which is what CSG operations need from their children.
+ * </p>
+ * 
+ * @author snowjak88
+ * @see Shape#getBoundaryCrossings(Ray)
+ *
+ */
+public class BoundaryCrossings {
+
+	/**
+	 * No crossings, starting outside -- the Ray misses the Shape entirely.
+	 */
+	public static final BoundaryCrossings NONE = new BoundaryCrossings(Collections.emptyList(), false);
+
+	private final List<Intersection<Shape>> crossings;
+
+	private final boolean startingInside;
+
+	/**
+	 * @param crossings
+	 *            the boundary-crossings (in any order)
+	 * @param startingInside
+	 *            <code>true</code> if the Ray starts out (infinitely far
+	 *            behind its origin) inside the Shape
+	 */
+	public BoundaryCrossings(List<Intersection<Shape>> crossings, boolean startingInside) {
+		this.crossings = crossings;
+		this.startingInside = startingInside;
+	}
+
+	/**
+	 * @return the boundary-crossings (in no particular order)
+	 */
+	public List<Intersection<Shape>> getCrossings() {
+
+		return crossings;
+	}
+
+	/**
+	 * @return <code>true</code> if the Ray starts out (infinitely far behind
+	 *         its origin) inside the Shape
+	 */
+	public boolean isStartingInside() {
+
+		return startingInside;
+	}
+
+	/**
+	 * @return <code>true</code> if the Ray never passes through the Shape
+	 */
+	public boolean isEmpty() {
+
+		return crossings.isEmpty() && !startingInside;
+	}
+
+	/**
+	 * Merge several Shapes' boundaries (all along the same Ray) into the
+	 * boundary of their union. The surviving crossings are those Intersections
+	 * where the Ray passes from being inside none of the Shapes to being
+	 * inside at least one, or vice versa; they are otherwise left unchanged.
+	 * 
+	 * @param boundaries
+	 * @param ray
+	 * @return the union's boundary
+	 */
+	public static BoundaryCrossings union(List<BoundaryCrossings> boundaries, Ray ray) {
+
+		Vector3D origin = ray.getOrigin(), direction = ray.getVector();
+
+		boolean[] inside = new boolean[boundaries.size()];
+		int insideCount = 0;
+		List<Pair<Double, Pair<Integer, Intersection<Shape>>>> crossings = new ArrayList<>();
+
+		for (int index = 0; index < boundaries.size(); index++) {
+			BoundaryCrossings boundary = boundaries.get(index);
+			inside[index] = boundary.isStartingInside();
+			insideCount += (inside[index] ? 1 : 0);
+
+			for (Intersection<Shape> crossing : boundary.getCrossings())
+				crossings.add(new Pair<>(crossing.getPoint().subtract(origin).dotProduct(direction),
+						new Pair<>(index, crossing)));
+		}
+
+		crossings.sort((c1, c2) -> Double.compare(c1.getKey(), c2.getKey()));
+
+		boolean startingInside = insideCount > 0;
+		List<Intersection<Shape>> results = new ArrayList<>();
+		for (Pair<Double, Pair<Integer, Intersection<Shape>>> crossing : crossings) {
+			int owner = crossing.getValue().getKey();
+			boolean wasInside = insideCount > 0;
+
+			inside[owner] = !inside[owner];
+			insideCount += (inside[owner] ? +1 : -1);
+
+			if (wasInside != (insideCount > 0))
+				results.add(crossing.getValue().getValue());
+		}
+
+		return new BoundaryCrossings(results, startingInside);
+	}
+}
@@ -0,0 +1,296 @@
+package org.snowjak.rays.shape;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.transform.Transformable;
+
+/**
+ * An immutable axis-aligned bounding-box, used to quickly reject Rays that
+ * cannot possibly intersect some {@link Shape}.
+ * <p>
+ * A BoundingBox may be {@link #EMPTY} (containing nothing at all), or
+ * {@link #UNBOUNDED} (containing everything -- e.g., for {@link Plane}s).
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class BoundingBox {
+
+	/**
+	 * A BoundingBox that contains nothing, and is intersected by no Ray.
+	 */
+	public static final BoundingBox EMPTY = new BoundingBox(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+			Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+	/**
+	 * A BoundingBox that contains everything, and is intersected by every
+	 * Ray.
+	 */
+	public static final BoundingBox UNBOUNDED = new BoundingBox(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+			Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+	/**
+	 * The BoundingBox extending from (-1,-1,-1) to (1,1,1) -- which is the
+	 * object-local extent of all our "unit" primitives.
+	 */
+	public static final BoundingBox UNIT = new BoundingBox(-1d, -1d, -1d, 1d, 1d, 1d);
+
+	private static final double SLAB_TOLERANCE = 1e-9;
+
+	private final double minX, minY, minZ, maxX, maxY, maxZ;
+
+	/**
+	 * Construct a new BoundingBox spanning the two given corners.
+	 *
+	 * @param corner1
+	 * @param corner2
+	 */
+	public BoundingBox(Vector3D corner1, Vector3D corner2) {
+		this(FastMath.min(corner1.getX(), corner2.getX()), FastMath.min(corner1.getY(), corner2.getY()),
+				FastMath.min(corner1.getZ(), corner2.getZ()), FastMath.max(corner1.getX(), corner2.getX()),
+				FastMath.max(corner1.getY(), corner2.getY()), FastMath.max(corner1.getZ(), corner2.getZ()));
+	}
+
+	/**
+	 * Construct a new BoundingBox with the given extents.
+	 *
+	 * @param minX
+	 * @param minY
+	 * @param minZ
+	 * @param maxX
+	 * @param maxY
+	 * @param maxZ
+	 */
+	public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+	}
+
+	/**
+	 * @return <code>true</code> if this BoundingBox contains nothing
+	 */
+	public boolean isEmpty() {
+
+		return minX > maxX || minY > maxY || minZ > maxZ;
+	}
+
+	/**
+	 * @return <code>true</code> if this BoundingBox extends infinitely far in
+	 *         any direction
+	 */
+	public boolean isUnbounded() {
+
+		return !isEmpty() && (Double.isInfinite(minX) || Double.isInfinite(minY) || Double.isInfinite(minZ)
+				|| Double.isInfinite(maxX) || Double.isInfinite(maxY) || Double.isInfinite(maxZ));
+	}
+
+	/**
+	 * @param other
+	 * @return the smallest BoundingBox containing both this and the other
+	 *         BoundingBox
+	 */
+	public BoundingBox union(BoundingBox other) {
+
+		if (other.isEmpty())
+			return this;
+		if (this.isEmpty())
+			return other;
+
+		return new BoundingBox(FastMath.min(minX, other.minX), FastMath.min(minY, other.minY),
+				FastMath.min(minZ, other.minZ), FastMath.max(maxX, other.maxX), FastMath.max(maxY, other.maxY),
+				FastMath.max(maxZ, other.maxZ));
+	}
+
+	/**
+	 * @param other
+	 * @return the BoundingBox containing only those points contained by both
+	 *         this and the other BoundingBox
+	 */
+	public BoundingBox intersect(BoundingBox other) {
+
+		BoundingBox result = new BoundingBox(FastMath.max(minX, other.minX), FastMath.max(minY, other.minY),
+				FastMath.max(minZ, other.minZ), FastMath.min(maxX, other.maxX), FastMath.min(maxY, other.maxY),
+				FastMath.min(maxZ, other.maxZ));
+		return (result.isEmpty()) ? EMPTY : result;
+	}
+
+	/**
+	 * Transform this BoundingBox (assumed to be expressed in the given
+	 * {@link Transformable}'s local coordinates) into the Transformable's
+	 * parent coordinates. The result is the axis-aligned box enclosing all 8
+	 * transformed corners -- so it may be somewhat larger than strictly
+	 * necessary.
+	 *
+	 * @param transformable
+	 * @return the transformed BoundingBox
+	 */
+	public BoundingBox localToWorld(Transformable transformable) {
+
+		if (isEmpty() || isUnbounded())
+			return this;
+
+		if (transformable.getTransformers().isEmpty())
+			return this;
+
+		BoundingBox result = EMPTY;
+		for (int i = 0; i < 8; i++) {
+			Vector3D corner = transformable.localToWorld(new Vector3D(((i & 1) == 0) ? minX : maxX,
+					((i & 2) == 0) ? minY : maxY, ((i & 4) == 0) ? minZ : maxZ));
+			result = result.union(new BoundingBox(corner, corner));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Determine the distance along the given {@link Ray} at which it first
+	 * enters this BoundingBox (the "slab" test).
+	 *
+	 * @param ray
+	 * @param maxDistance
+	 *            ignore any entry-points farther than this
+	 * @return the distance from the Ray's origin to this BoundingBox (0 if the
+	 *         Ray's origin lies within it), or {@link Double#NaN} if the Ray
+	 *         misses this BoundingBox, or enters it only behind its origin or
+	 *         beyond {@code maxDistance}
+	 */
+	public double getEntryDistance(Ray ray, double maxDistance) {
+
+		Vector3D origin = ray.getOrigin(), vector = ray.getVector();
+		return getEntryDistance(origin.getX(), origin.getY(), origin.getZ(), 1d / vector.getX(), 1d / vector.getY(),
+				1d / vector.getZ(), maxDistance);
+	}
+
+	/**
+	 * As {@link #getEntryDistance(Ray, double)}, but taking the Ray's origin
+	 * and inverse-direction as precomputed primitives.
+	 *
+	 * @param originX
+	 * @param originY
+	 * @param originZ
+	 * @param inverseX
+	 * @param inverseY
+	 * @param inverseZ
+	 * @param maxDistance
+	 * @return the distance from the Ray's origin to this BoundingBox, or
+	 *         {@link Double#NaN}
+	 */
+	public double getEntryDistance(double originX, double originY, double originZ, double inverseX, double inverseY,
+			double inverseZ, double maxDistance) {
+
+		return getEntryDistance(minX, minY, minZ, maxX, maxY, maxZ, originX, originY, originZ, inverseX, inverseY,
+				inverseZ, maxDistance);
+	}
+
+	/**
+	 * The slab test, over primitive extents, so that packed structures (like
+	 * a bounding-volume hierarchy) need not allocate BoundingBox instances.
+	 *
+	 * @return the entry-distance, or {@link Double#NaN}
+	 * @see #getEntryDistance(Ray, double)
+	 */
+	public static double getEntryDistance(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+			double originX, double originY, double originZ, double inverseX, double inverseY, double inverseZ,
+			double maxDistance) {
+
+		double tNear = 0d, tFar = maxDistance;
+
+		//
+		// For each axis, clip [tNear,tFar] to the interval over which the Ray
+		// lies between this box's two planes on that axis.
+		// (A Ray parallel to an axis has an infinite inverse; so long as its
+		// origin lies between the planes, the resulting interval is
+		// [-infinity,+infinity], which leaves [tNear,tFar] alone.)
+		double t0 = (minX - originX) * inverseX, t1 = (maxX - originX) * inverseX;
+		if (!(t0 <= t1)) {
+			double temp = t0;
+			t0 = t1;
+			t1 = temp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		t0 = (minY - originY) * inverseY;
+		t1 = (maxY - originY) * inverseY;
+		if (!(t0 <= t1)) {
+			double temp = t0;
+			t0 = t1;
+			t1 = temp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		t0 = (minZ - originZ) * inverseZ;
+		t1 = (maxZ - originZ) * inverseZ;
+		if (!(t0 <= t1)) {
+			double temp = t0;
+			t0 = t1;
+			t1 = temp;
+		}
+		if (t0 > tNear)
+			tNear = t0;
+		if (t1 < tFar)
+			tFar = t1;
+
+		//
+		// Allow a little slack for rounding-error, so that Rays which just
+		// graze this box's surface are not rejected.
+		return (tNear <= tFar * (1d + SLAB_TOLERANCE) + SLAB_TOLERANCE) ? tNear : Double.NaN;
+	}
+
+	/**
+	 * @return the center of this BoundingBox
+	 */
+	public Vector3D getCenter() {
+
+		return new Vector3D((minX + maxX) / 2d, (minY + maxY) / 2d, (minZ + maxZ) / 2d);
+	}
+
+	public double getMinX() {
+
+		return minX;
+	}
+
+	public double getMinY() {
+
+		return minY;
+	}
+
+	public double getMinZ() {
+
+		return minZ;
+	}
+
+	public double getMaxX() {
+
+		return maxX;
+	}
+
+	public double getMaxY() {
+
+		return maxY;
+	}
+
+	public double getMaxZ() {
+
+		return maxZ;
+	}
+
+	@Override
+	public String toString() {
+
+		return "BoundingBox [(" + minX + ", " + minY + ", " + minZ + ") - (" + maxX + ", " + maxY + ", " + maxZ
+				+ ")]";
+	}
+
+}
@@ -52,8 +52,9 @@ public class Cube extends Shape {
 		if (Double.compare(vz, 0d) == 0)
 			ignoreZ = true;
 
-		double t_x0 = (ignoreX ? -1 : solveForT(px, vx, -1)), t_y0 = (ignoreY ? -1 : solveForT(py, vy, -1)),
-				t_z0 = (ignoreZ ? -1 : solveForT(pz, vz, -1));
+		double t_x0 = (ignoreX ? -Double.MAX_VALUE : solveForT(px, vx, -1)),
+				t_y0 = (ignoreY ? -Double.MAX_VALUE : solveForT(py, vy, -1)),
+				t_z0 = (ignoreZ ? -Double.MAX_VALUE : solveForT(pz, vz, -1));
 		Vector3D n_x0 = Vector3D.MINUS_I, n_y0 = Vector3D.MINUS_J, n_z0 = Vector3D.MINUS_K;
 		double t_x1 = (ignoreX ? Double.MAX_VALUE : solveForT(px, vx, +1)),
 				t_y1 = (ignoreY ? Double.MAX_VALUE : solveForT(py, vy, +1)),
@@ -118,7 +119,7 @@ public class Cube extends Shape {
 				useT1 = includeBehindRayOrigin || Double.compare(t1, World.NEARLY_ZERO) >= 0;
 
 		List<Intersection<Shape>> results = new LinkedList<>();
-		if (useT0 && Double.compare(t0, World.NEARLY_ZERO) >= 0) {
+		if (useT0 && Double.compare(FastMath.abs(t0), World.NEARLY_ZERO) >= 0) {
 			Vector3D intersectionPoint = transformedRay.getOrigin().add(transformedRay.getVector().scalarMultiply(t0));
 			if (Double.compare(FastMath.abs(intersectionPoint.getX()) - 1d, World.NEARLY_ZERO) <= 0
 					&& Double.compare(FastMath.abs(intersectionPoint.getY()) - 1d, World.NEARLY_ZERO) <= 0
@@ -133,7 +134,8 @@ public class Cube extends Shape {
 						enteringMaterial)));
 			}
 		}
-		if (useT1 && Double.compare(t1, World.NEARLY_ZERO) >= 0 && !(onlyIncludeClosest && results.size() > 0)) {
+		if (useT1 && Double.compare(FastMath.abs(t1), World.NEARLY_ZERO) >= 0
+				&& !(onlyIncludeClosest && results.size() > 0)) {
 			Vector3D intersectionPoint = transformedRay.getOrigin().add(transformedRay.getVector().scalarMultiply(t1));
 			if (Double.compare(FastMath.abs(intersectionPoint.getX()) - 1d, World.NEARLY_ZERO) <= 0
 					&& Double.compare(FastMath.abs(intersectionPoint.getY()) - 1d, World.NEARLY_ZERO) <= 0
@@ -171,6 +173,12 @@ public class Cube extends Shape {
 		return (sol - p) / v;
 	}
 
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		return BoundingBox.UNIT;
+	}
+
 	@Override
 	public boolean isInside(Vector3D point) {
 
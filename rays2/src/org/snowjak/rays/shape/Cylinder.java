@@ -61,60 +61,61 @@ public class Cylinder extends Shape {
 		// For explanation of this routine, see the comments in
 		// org.snowjak.rays.shape.Sphere
 
-		Vector2D rayOrigin = new Vector2D(localRay.getOrigin().getX(), localRay.getOrigin().getZ());
-		Vector2D rayVector = new Vector2D(localRay.getVector().getX(), localRay.getVector().getZ()).normalize();
-		Vector2D circleOrigin = new Vector2D(localLocation.getX(), localLocation.getZ());
+		//
+		// If this ray runs parallel to the Y-axis, it can only cross the
+		// capped ends -- never the cylinder's sides.
+		double xzLength = FastMath.sqrt(FastMath.pow(localRay.getVector().getX(), 2d)
+				+ FastMath.pow(localRay.getVector().getZ(), 2d));
+		if (Double.compare(xzLength, World.NEARLY_ZERO) >= 0) {
 
-		Vector2D L = circleOrigin.subtract(rayOrigin);
-		double t_ca = rayVector.dotProduct(L);
-		double d2 = L.getNormSq() - FastMath.pow(t_ca, 2d);
+			Vector2D rayOrigin = new Vector2D(localRay.getOrigin().getX(), localRay.getOrigin().getZ());
+			Vector2D rayVector = new Vector2D(localRay.getVector().getX(), localRay.getVector().getZ()).normalize();
+			Vector2D circleOrigin = new Vector2D(localLocation.getX(), localLocation.getZ());
 
-		double r2 = 1d;
-		if (Double.compare(d2, r2) > 0)
-			return Collections.emptyList();
+			Vector2D L = circleOrigin.subtract(rayOrigin);
+			double t_ca = rayVector.dotProduct(L);
+			double d2 = L.getNormSq() - FastMath.pow(t_ca, 2d);
 
-		double t_hc = FastMath.sqrt(r2 - d2);
+			double r2 = 1d;
+			if (Double.compare(d2, r2) > 0)
+				return Collections.emptyList();
 
-		double t1_2d = t_ca - t_hc;
-		double t2_2d = t_ca + t_hc;
+			double t_hc = FastMath.sqrt(r2 - d2);
 
-		boolean useIntersection1 = (includeBehindRayOrigin || Double.compare(t1_2d, World.NEARLY_ZERO) >= 0),
-				useIntersection2 = (includeBehindRayOrigin || Double.compare(t2_2d, World.NEARLY_ZERO) >= 0);
-		//
-		// Now we can determine the intersection-point(s) in 2D space.
-		Vector2D intersectionPoint1_2D = rayOrigin.add(rayVector.scalarMultiply(t1_2d));
-		Vector2D intersectionPoint2_2D = rayOrigin.add(rayVector.scalarMultiply(t2_2d));
-		//
-		// And translate those 2D intersection-points into 3D equivalents.
-		double t1 = (intersectionPoint1_2D.getX() - localRay.getOrigin().getX()) / localRay.getVector().getX();
-		double t2 = (intersectionPoint2_2D.getX() - localRay.getOrigin().getX()) / localRay.getVector().getX();
+			//
+			// Distances in 2D (X,Z) space scale to 3D space by the length of
+			// the ray-vector's (X,Z) projection.
+			double t1 = (t_ca - t_hc) / xzLength;
+			double t2 = (t_ca + t_hc) / xzLength;
 
-		Vector3D intersectionPoint1 = localRay.getOrigin().add(localRay.getVector().scalarMultiply(t1));
-		Vector3D intersectionPoint2 = localRay.getOrigin().add(localRay.getVector().scalarMultiply(t2));
+			boolean useIntersection1 = (includeBehindRayOrigin || Double.compare(t1, World.NEARLY_ZERO) >= 0),
+					useIntersection2 = (includeBehindRayOrigin || Double.compare(t2, World.NEARLY_ZERO) >= 0);
 
-		//
-		//
-		// Now we've determined the intersection(s) to the cylinder in 3D-space.
-		// Time to see if those intersections are within the bounds of this
-		// cylinder.
-		//
-		if (useIntersection1 && Double.compare(FastMath.abs(t1), World.NEARLY_ZERO) >= 0
-				&& Double.compare(intersectionPoint1.getY(), -1d) >= 0
-				&& Double.compare(intersectionPoint1.getY(), 1d) <= 0) {
-
-			// We need to ensure that the reported surface normal is facing
-			// toward the intersecting ray.
-			// After all, it is possible to see on both sides of the
-			// cylinder's surface.
-			Vector3D normal = new Vector3D(intersectionPoint1.getX(), 0d, intersectionPoint1.getZ()).normalize();
-			double normalSign = FastMath.signum(localRay.getVector().negate().dotProduct(normal));
-			normal = normal.scalarMultiply(Double.compare(normalSign, 0d) != 0 ? normalSign : 1d);
-
-			results.add(new Intersection<Shape>(intersectionPoint1, normal, localRay, this, getDiffuseColorScheme(),
-					getSpecularColorScheme(), getEmissiveColorScheme(), getMaterial(), getMaterial()));
-		}
+			Vector3D intersectionPoint1 = localRay.getOrigin().add(localRay.getVector().scalarMultiply(t1));
+			Vector3D intersectionPoint2 = localRay.getOrigin().add(localRay.getVector().scalarMultiply(t2));
+
+			//
+			//
+			// Now we've determined the intersection(s) to the cylinder in
+			// 3D-space. Time to see if those intersections are within the
+			// bounds of this cylinder.
+			//
+			if (useIntersection1 && Double.compare(FastMath.abs(t1), World.NEARLY_ZERO) >= 0
+					&& Double.compare(intersectionPoint1.getY(), -1d) >= 0
+					&& Double.compare(intersectionPoint1.getY(), 1d) <= 0) {
+
+				// We need to ensure that the reported surface normal is facing
+				// toward the intersecting ray.
+				// After all, it is possible to see on both sides of the
+				// cylinder's surface.
+				Vector3D normal = new Vector3D(intersectionPoint1.getX(), 0d, intersectionPoint1.getZ()).normalize();
+				double normalSign = FastMath.signum(localRay.getVector().negate().dotProduct(normal));
+				normal = normal.scalarMultiply(Double.compare(normalSign, 0d) != 0 ? normalSign : 1d);
+
+				results.add(new Intersection<Shape>(intersectionPoint1, normal, localRay, this, getDiffuseColorScheme(),
+						getSpecularColorScheme(), getEmissiveColorScheme(), getMaterial(), getMaterial()));
+			}
 
-		if (!(onlyIncludeClosest && results.size() > 0))
 			if (useIntersection2 && Double.compare(FastMath.abs(t2), World.NEARLY_ZERO) >= 0
 					&& Double.compare(intersectionPoint2.getY(), -1d) >= 0
 					&& Double.compare(intersectionPoint2.getY(), 1d) <= 0) {
@@ -126,6 +127,7 @@ public class Cylinder extends Shape {
 				results.add(new Intersection<Shape>(intersectionPoint2, normal, localRay, this, getDiffuseColorScheme(),
 						getSpecularColorScheme(), getEmissiveColorScheme(), getMaterial(), getMaterial()));
 			}
+		}
 
 		//
 		//
@@ -135,49 +137,52 @@ public class Cylinder extends Shape {
 		// If any intersection exists, test if it lies within the circle of this
 		// cylinder.
 		//
+		// (Note that a ray can pass through both capped ends without ever
+		// touching the cylinder's sides.)
+		//
+		// Remember that a circle is x^2 + y^2 = r^2
+		// or, for points inside the circle:
+		// x^2 + y^2 <= r^2
+		//
+		results.addAll(minusYCap.getIntersections(localRay, includeBehindRayOrigin, false)
+				.parallelStream()
+				.filter(i -> Double.compare(
+						FastMath.pow(i.getPoint().getX(), 2d) + FastMath.pow(i.getPoint().getZ(), 2d), 1d) <= 0)
+				.peek(i -> {
+					i.setIntersected(this);
+					i.setDiffuseColorScheme(getDiffuseColorScheme());
+					i.setSpecularColorScheme(getSpecularColorScheme());
+					i.setEmissiveColorScheme(getEmissiveColorScheme());
+					i.setLeavingMaterial(getMaterial());
+					i.setEnteringMaterial(getMaterial());
+				})
+				.collect(Collectors.toCollection(LinkedList::new)));
+
+		results.addAll(plusYCap.getIntersections(localRay, includeBehindRayOrigin, false)
+				.parallelStream()
+				.filter(i -> Double.compare(
+						FastMath.pow(i.getPoint().getX(), 2d) + FastMath.pow(i.getPoint().getZ(), 2d), 1d) <= 0)
+				.peek(i -> {
+					i.setDiffuseColorScheme(getDiffuseColorScheme());
+					i.setSpecularColorScheme(getSpecularColorScheme());
+					i.setEmissiveColorScheme(getEmissiveColorScheme());
+					i.setLeavingMaterial(getMaterial());
+					i.setEnteringMaterial(getMaterial());
+					i.setIntersected(this);
+				})
+				.collect(Collectors.toCollection(LinkedList::new)));
 
-		if (!results.isEmpty()) {
-
-			//
-			// Remember that a circle is x^2 + y^2 = r^2
-			// or, for points inside the circle:
-			// x^2 + y^2 <= r^2
-			results.addAll(minusYCap.getIntersections(localRay, includeBehindRayOrigin, onlyIncludeClosest)
-					.parallelStream()
-					.filter(i -> Double.compare(
-							FastMath.pow(i.getPoint().getX(), 2d) + FastMath.pow(i.getPoint().getZ(), 2d), 1d) <= 0)
-					.peek(i -> {
-						i.setIntersected(this);
-						i.setDiffuseColorScheme(getDiffuseColorScheme());
-						i.setSpecularColorScheme(getSpecularColorScheme());
-						i.setEmissiveColorScheme(getEmissiveColorScheme());
-						i.setLeavingMaterial(getMaterial());
-						i.setEnteringMaterial(getMaterial());
-					})
-					.collect(Collectors.toCollection(LinkedList::new)));
-		}
-
-		if (!results.isEmpty()) {
-			results.addAll(plusYCap.getIntersections(localRay, includeBehindRayOrigin, onlyIncludeClosest)
-					.parallelStream()
-					.filter(i -> Double.compare(
-							FastMath.pow(i.getPoint().getX(), 2d) + FastMath.pow(i.getPoint().getZ(), 2d), 1d) <= 0)
-					.peek(i -> {
-						i.setDiffuseColorScheme(getDiffuseColorScheme());
-						i.setSpecularColorScheme(getSpecularColorScheme());
-						i.setEmissiveColorScheme(getEmissiveColorScheme());
-						i.setLeavingMaterial(getMaterial());
-						i.setEnteringMaterial(getMaterial());
-						i.setIntersected(this);
-					})
-					.collect(Collectors.toCollection(LinkedList::new)));
-		}
-
-		results = results.parallelStream()
-				.map(i -> localToWorld(i))
+		//
+		// Sort by signed distance along the (local) ray, so that the
+		// resulting crossings -- even those behind the ray's origin -- are
+		// reported in order.
+		results = results.stream()
 				.filter(i -> Double.compare(FastMath.abs(i.getDistanceFromRayOrigin()), World.NEARLY_ZERO) >= 0)
-				.sorted((i1, i2) -> Double.compare(i1.getDistanceFromRayOrigin(), i2.getDistanceFromRayOrigin()))
+				.sorted((i1, i2) -> Double.compare(
+						i1.getPoint().subtract(localRay.getOrigin()).dotProduct(localRay.getVector()),
+						i2.getPoint().subtract(localRay.getOrigin()).dotProduct(localRay.getVector())))
 				.limit(onlyIncludeClosest ? 1 : 2)
+				.map(i -> localToWorld(i))
 				.peek(i -> i.setIntersected(this))
 				.collect(Collectors.toCollection(LinkedList::new));
 		if (results.size() > 0)
@@ -188,6 +193,23 @@ public class Cylinder extends Shape {
 		return results;
 	}
 
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		return BoundingBox.UNIT;
+	}
+
+	@Override
+	public boolean isInside(Vector3D point) {
+
+		//
+		// In local coordinates, we're inside if we're within the unit circle
+		// (in X,Z) and between the capped ends (in Y).
+		Vector3D localPoint = worldToLocal(point);
+		return (Double.compare(FastMath.pow(localPoint.getX(), 2d) + FastMath.pow(localPoint.getZ(), 2d) - 1d,
+				World.NEARLY_ZERO) <= 0 && Double.compare(FastMath.abs(localPoint.getY()) - 1d, World.NEARLY_ZERO) <= 0);
+	}
+
 	@Override
 	public Cylinder copy() {
 
@@ -1,5 +1,6 @@
 package org.snowjak.rays.shape;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -89,6 +90,47 @@ public class Group extends Shape {
 		return results;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Taken as a volume, a Group is the union of its children.
+	 * </p>
+	 */
+	@Override
+	public BoundaryCrossings getBoundaryCrossings(Ray ray) {
+
+		Ray transformedRay = worldToLocal(ray);
+
+		List<BoundaryCrossings> childBoundaries = new ArrayList<>(children.size());
+		for (Shape child : children)
+			childBoundaries.add(child.getBoundaryCrossings(transformedRay));
+
+		BoundaryCrossings union = BoundaryCrossings.union(childBoundaries, transformedRay);
+		return new BoundaryCrossings(union.getCrossings().stream().map(i -> localToWorld(i)).collect(
+				Collectors.toCollection(LinkedList::new)), union.isStartingInside());
+	}
+
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		BoundingBox result = BoundingBox.EMPTY;
+		for (Shape child : children)
+			result = result.union(child.getBoundingBox());
+
+		return result;
+	}
+
+	@Override
+	public boolean isInside(Vector3D point) {
+
+		Vector3D localPoint = worldToLocal(point);
+		for (Shape child : children)
+			if (child.isInside(localPoint))
+				return true;
+
+		return false;
+	}
+
 	@Override
 	public Group copy() {
 
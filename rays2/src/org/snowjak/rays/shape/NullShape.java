@@ -33,6 +33,18 @@ public class NullShape extends Shape {
 		return Collections.emptyList();
 	}
 
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		return BoundingBox.EMPTY;
+	}
+
+	@Override
+	public boolean isInside(Vector3D point) {
+
+		return false;
+	}
+
 	@Override
 	public Shape copy() {
 
@@ -130,6 +130,32 @@ public class Plane extends Shape {
 		return results;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * A Plane, taken as a volume, is the half-space on its minus-Y side (the
+	 * side whose Material a Ray enters when crossing from plus to minus).
+	 * </p>
+	 */
+	@Override
+	public BoundaryCrossings getBoundaryCrossings(Ray ray) {
+
+		Ray transformedRay = worldToLocal(ray);
+		double vy = transformedRay.getVector().getY();
+
+		if (Double.compare(FastMath.abs(vy), World.NEARLY_ZERO) < 0)
+			return new BoundaryCrossings(Collections.emptyList(), transformedRay.getOrigin().getY() < 0d);
+
+		//
+		// Traced back to infinity, the Ray starts on the minus side if it's
+		// heading towards plus-Y. (If the crossing is too close to the Ray's
+		// origin to be reported, the Ray is treated as if it had already
+		// crossed.)
+		List<Intersection<Shape>> crossings = getIntersections(ray, true, false);
+		boolean startingInside = crossings.isEmpty() ? vy < 0d : vy > 0d;
+		return new BoundaryCrossings(crossings, startingInside);
+	}
+
 	@Override
 	@Deprecated
 	public Material getMaterial() {
@@ -181,14 +207,22 @@ public class Plane extends Shape {
 	}
 
 	@Override
-	public boolean isInside(Vector3D point) {
+	protected BoundingBox getLocalBoundingBox() {
 
-		Vector3D localPoint = worldToLocal(point);
+		return BoundingBox.UNBOUNDED;
+	}
 
-		if (Double.compare(FastMath.abs(localPoint.getY()), World.NEARLY_ZERO) <= 0)
-			return true;
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * As with {@link #getBoundaryCrossings(Ray)}, a Plane is taken to be the
+	 * half-space on its minus-Y side, including the surface itself.
+	 * </p>
+	 */
+	@Override
+	public boolean isInside(Vector3D point) {
 
-		return false;
+		return Double.compare(worldToLocal(point).getY(), World.NEARLY_ZERO) <= 0;
 	}
 
 	/**
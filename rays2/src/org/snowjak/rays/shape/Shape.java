@@ -17,7 +17,6 @@ import org.snowjak.rays.Ray;
 import org.snowjak.rays.color.ColorScheme;
 import org.snowjak.rays.color.HasColorScheme;
 import org.snowjak.rays.color.SimpleColorScheme;
-import org.snowjak.rays.function.Functions;
 import org.snowjak.rays.intersect.Intersectable;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.CanEmitLight;
@@ -42,12 +41,12 @@ public abstract class Shape implements Transformable, Locatable, Intersectable,
 	/**
 	 * By default, the ambient and diffuse color-schemes will take this value.
 	 */
-	public static final ColorScheme DEFAULT_COLOR_SCHEME = new SimpleColorScheme(Color.HOTPINK);
+	public static final ColorScheme DEFAULT_COLOR_SCHEME = SimpleColorScheme.intern(Color.HOTPINK);
 
 	/**
 	 * By default, the specular color-scheme will take this value.
 	 */
-	public static final ColorScheme DEFAULT_SPECULAR_COLOR_SCHEME = new SimpleColorScheme(Color.WHITE);
+	public static final ColorScheme DEFAULT_SPECULAR_COLOR_SCHEME = SimpleColorScheme.intern(Color.WHITE);
 
 	/**
 	 * By default, the emissive color-scheme will take this value.
@@ -57,8 +56,7 @@ public abstract class Shape implements Transformable, Locatable, Intersectable,
 	/**
 	 * By default, this Shape will use this Material.
 	 */
-	public static final Material DEFAULT_MATERIAL = new Material(Functions.constant(0d), Functions.constant(0d),
-			Functions.constant(1d));
+	public static final Material DEFAULT_MATERIAL = Material.constant(0d, 0d, 1d);
 
 	private final Deque<Transformer> transformers = new LinkedList<>();
 
@@ -157,6 +155,47 @@ public abstract class Shape implements Transformable, Locatable, Intersectable,
 	public abstract List<Intersection<Shape>> getIntersections(Ray ray, boolean includeBehindRayOrigin,
 			boolean onlyReturnClosest);
 
+	/**
+	 * Compute this Shape's {@link BoundaryCrossings} along the given Ray
+	 * (expressed in this Shape's parent coordinates) -- including those behind
+	 * the Ray's origin. CSG operations use this, rather than
+	 * {@link #getIntersections(Ray, boolean, boolean)}, to find their
+	 * children's spans.
+	 * <p>
+	 * By default, this Shape is assumed to be closed and bounded, and every
+	 * Intersection it reports to be a true boundary-crossing. Shapes for which
+	 * that is untrue (e.g., those that report interior Intersections, or are
+	 * unbounded) must override this.
+	 * </p>
+	 * 
+	 * @param ray
+	 * @return this Shape's boundary along the Ray
+	 */
+	public BoundaryCrossings getBoundaryCrossings(Ray ray) {
+
+		return new BoundaryCrossings(getIntersections(ray, true, false), false);
+	}
+
+	/**
+	 * @return a {@link BoundingBox}, expressed in this Shape's parent
+	 *         coordinates, that completely encloses this Shape
+	 * @see #getLocalBoundingBox()
+	 */
+	public BoundingBox getBoundingBox() {
+
+		return getLocalBoundingBox().localToWorld(this);
+	}
+
+	/**
+	 * @return a {@link BoundingBox}, expressed in this Shape's object-local
+	 *         coordinates, that completely encloses this Shape. By default,
+	 *         {@link BoundingBox#UNBOUNDED}.
+	 */
+	protected BoundingBox getLocalBoundingBox() {
+
+		return BoundingBox.UNBOUNDED;
+	}
+
 	@Override
 	public boolean isInside(Vector3D point) {
 
@@ -229,6 +268,10 @@ public abstract class Shape implements Transformable, Locatable, Intersectable,
 	 */
 	protected <T extends Shape> T configureCopy(T copy) {
 
+		//
+		// Interned ColorSchemes and Materials return themselves from copy(),
+		// and so are shared rather than duplicated.
+
 		copy.setDiffuseColorScheme(this.getDiffuseColorScheme().copy());
 		copy.setSpecularColorScheme(this.getSpecularColorScheme().copy());
 		if (this.isEmissive())
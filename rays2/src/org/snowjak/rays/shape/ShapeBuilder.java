@@ -61,7 +61,7 @@ public abstract class ShapeBuilder<T extends Shape> implements Builder<T>, HasCo
 	@HasName("diffuse")
 	public ShapeBuilder<T> diffuse(RawColor diffuseColor) {
 
-		this.diffuseColorScheme = new SimpleColorScheme(diffuseColor);
+		this.diffuseColorScheme = SimpleColorScheme.intern(new SimpleColorScheme(diffuseColor));
 		return this;
 	}
 
@@ -82,7 +82,7 @@ public abstract class ShapeBuilder<T extends Shape> implements Builder<T>, HasCo
 	@HasName("specular")
 	public ShapeBuilder<T> specular(RawColor specularColor) {
 
-		this.specularColorScheme = new SimpleColorScheme(specularColor);
+		this.specularColorScheme = SimpleColorScheme.intern(new SimpleColorScheme(specularColor));
 		return this;
 	}
 
@@ -103,7 +103,7 @@ public abstract class ShapeBuilder<T extends Shape> implements Builder<T>, HasCo
 	@HasName("emissive")
 	public ShapeBuilder<T> emissive(RawColor emissiveColor) {
 
-		return emissive(new SimpleColorScheme(emissiveColor));
+		return emissive(SimpleColorScheme.intern(new SimpleColorScheme(emissiveColor)));
 	}
 
 	@Override
@@ -151,6 +151,21 @@ public class Sphere extends Shape {
 		return results;
 	}
 
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		return BoundingBox.UNIT;
+	}
+
+	@Override
+	public boolean isInside(Vector3D point) {
+
+		//
+		// In local coordinates, this is simply the unit sphere:
+		// x^2 + y^2 + z^2 <= 1
+		return Double.compare(worldToLocal(point).getNormSq() - 1d, World.NEARLY_ZERO) <= 0;
+	}
+
 	@Override
 	public Sphere copy() {
 
@@ -172,7 +187,7 @@ public class Sphere extends Shape {
 		double phi = 2d * FastMath.PI * RND.nextDouble();
 		double r = (selectSurfaceOnly ? 1d : 1d * RND.nextDouble());
 		return localToWorld(new Vector3D(r * FastMath.sin(theta) * FastMath.cos(phi),
-				r * FastMath.sin(theta) * FastMath.cos(theta), r * FastMath.cos(theta)));
+				r * FastMath.sin(theta) * FastMath.sin(phi), r * FastMath.cos(theta)));
 	}
 
 }
@@ -3,21 +3,17 @@ package org.snowjak.rays.shape.csg;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
-import org.apache.commons.math3.util.FastMath;
 import org.snowjak.rays.Ray;
 import org.snowjak.rays.color.ColorScheme;
 import org.snowjak.rays.intersect.Intersection;
-import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.BoundaryCrossings;
+import org.snowjak.rays.shape.BoundingBox;
 import org.snowjak.rays.shape.Shape;
-import org.snowjak.rays.world.World;
 
 /**
  * Implements the CSG-operation "intersection".
@@ -27,7 +23,7 @@ import org.snowjak.rays.world.World;
  */
 public class Intersect extends Shape {
 
-	private Collection<Shape> children = new LinkedList<>();
+	private List<Shape> children = new LinkedList<>();
 
 	/**
 	 * Construct a new (empty) Intersection.
@@ -66,152 +62,27 @@ public class Intersect extends Shape {
 		return children;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public List<Intersection<Shape>> getIntersections(Ray ray, boolean includeBehindRayOrigin,
 			boolean onlyIncludeClosest) {
 
-		//
-		//
-		// Find the intersections between the ray and all child Shapes, sorted
-		// by distance.
-		//
-		// Literally: get the list of Intersections for each child Shape,
-		// flat-map those lists into a single list of Intersections, sort the
-		// Intersections by distance, and collect into a new list.
-		Ray localRay = worldToLocal(ray);
-		List<Intersection<Shape>> childIntersections = children.parallelStream()
-				.map(s -> s.getIntersections(localRay, includeBehindRayOrigin))
-				.flatMap(li -> li.stream())
-				.filter(i -> Double.compare(i.getDistanceFromRayOrigin(), World.NEARLY_ZERO) >= 0)
-				.sequential()
-				.sorted((i1, i2) -> Double.compare(i1.getDistanceFromRayOrigin(), i2.getDistanceFromRayOrigin()))
-				.collect(Collectors.toCollection(LinkedList::new));
-
-		//
-		//
-		// Now examine each Intersection in order. Each Intersection marks the
-		// point where the ray crosses the boundary of a Shape.
 		//
 		// With this particular CSG operation, we're interested in those
 		// boundary-crossings where we're currently inside every single child
-		// Shape at the same time.
-		//
-		Set<Shape> currentlyIn = new HashSet<>();
-		//
-		// Test to see if the given Ray starts inside of any of our
-		// child Shapes.
-		// children.parallelStream().filter(s ->
-		// s.isInside(localRay.getOrigin())).forEach(s -> currentlyIn.add(s));
-
-		List<Intersection<Shape>> results = new LinkedList<>();
-		//
-		int intersectCounter = 0;
-		for (Intersection<Shape> currentIntersect : childIntersections) {
-
-			intersectCounter++;
-			Shape intersectedShape = currentIntersect.getIntersected();
-
-			Material intersectOverrideMaterial = getMaterial();
-			Material oldMaterial = null;
-			Material newMaterial = null;
-
-			if (intersectOverrideMaterial == null) {
-
-				//
-				// This Intersect does not have a Material of its own.
-				// Therefore, each Intersection marks a boundary between two
-				// blends, each fading from one Material to another.
-				if (intersectCounter < childIntersections.size()) {
-					Material nextMaterial = childIntersections.get(intersectCounter).getIntersected().getMaterial();
-					Vector3D nextPoint = childIntersections.get(intersectCounter).getPoint();
-					newMaterial = Material.blend(currentIntersect.getIntersected().getMaterial(),
-							currentIntersect.getPoint(), nextMaterial, nextPoint);
-				} else {
-					newMaterial = Material.AIR;
-				}
-
-				if (intersectCounter > 1) {
-					Material previousMaterial = childIntersections.get(intersectCounter - 2)
-							.getIntersected()
-							.getMaterial();
-					Vector3D previousPoint = childIntersections.get(intersectCounter - 2).getPoint();
-					oldMaterial = Material.blend(previousMaterial, previousPoint,
-							currentIntersect.getIntersected().getMaterial(), currentIntersect.getPoint());
-				} else {
-					oldMaterial = Material.AIR;
-				}
-
-			} else {
-				oldMaterial = intersectOverrideMaterial;
-				newMaterial = intersectOverrideMaterial;
-			}
-
-			//
-			//
-			//
-
-			//
-			// We're crossing a boundary. Are we currently inside and coming
-			// out?
-			if (currentlyIn.contains(intersectedShape)) {
-
-				//
-				//
-				if (currentlyIn.containsAll(children)) {
-					currentIntersect.setLeavingMaterial(oldMaterial);
-					currentIntersect.setEnteringMaterial(Material.AIR);
-					results.add(currentIntersect);
-				}
-
-				currentlyIn.remove(intersectedShape);
-
-			} else {
-
-				//
-				//
-				// We're crossing into a Shape.
-				currentlyIn.add(intersectedShape);
-
-				// If we are now inside all child-Shapes -- after
-				// crossing into one of them -- then we're entering the
-				// Intersect.
-				if (currentlyIn.containsAll(children)) {
-					currentIntersect.setLeavingMaterial(Material.AIR);
-					currentIntersect.setEnteringMaterial(newMaterial);
-					results.add(currentIntersect);
-				}
-			}
-		}
-
-		//
-		//
-		// Finally, we need to convert each result Intersection so that
-		// the reported intersected-Shape is this Union, not the child Shape.
-		return results.stream()
-				.sequential()
-				.limit(onlyIncludeClosest ? 1 : results.size())
-				.filter(i -> Double.compare(FastMath.abs(i.getDistanceFromRayOrigin()), World.NEARLY_ZERO) >= 0)
-				.peek(i -> {
-					//
-					// Has this Intersect been given its own definitive
-					// ColorSchemes,
-					// which will override those of its children?
-					ColorScheme diffuse = (this.getDiffuseColorScheme() != null) ? this.getDiffuseColorScheme()
-							: i.getDiffuseColorScheme();
-					ColorScheme specular = (this.getSpecularColorScheme() != null) ? this.getSpecularColorScheme()
-							: i.getSpecularColorScheme();
-					Optional<ColorScheme> emissive = (this.isEmissive()) ? this.getEmissiveColorScheme()
-							: i.getEmissiveColorScheme();
+		// Shape at the same time. So if any one child is missed entirely,
+		// there's no need to test the rest.
+		final int childCount = children.size();
+		return IntervalSweep.sweep(this, children, childCount,
+				(insideChildren, insideCount) -> childCount > 0 && insideCount == childCount, false, ray,
+				includeBehindRayOrigin, onlyIncludeClosest);
+	}
 
-					i.setIntersected(this);
-					i.setDiffuseColorScheme(diffuse);
-					i.setSpecularColorScheme(specular);
-					i.setEmissiveColorScheme(emissive);
-				})
-				.map(i -> localToWorld(i))
-				.collect(Collectors.toCollection(LinkedList::new));
+	@Override
+	public BoundaryCrossings getBoundaryCrossings(Ray ray) {
 
+		final int childCount = children.size();
+		return IntervalSweep.boundary(this, children, childCount,
+				(insideChildren, insideCount) -> childCount > 0 && insideCount == childCount, ray);
 	}
 
 	@Override
@@ -236,10 +107,35 @@ public class Intersect extends Shape {
 				.getNormal();
 	}
 
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		if (children.isEmpty())
+			return BoundingBox.EMPTY;
+
+		BoundingBox result = BoundingBox.UNBOUNDED;
+		for (Shape child : children)
+			result = result.intersect(child.getBoundingBox());
+
+		return result;
+	}
+
 	@Override
 	public boolean isInside(Vector3D point) {
 
-		return children.parallelStream().allMatch(s -> s.isInside(worldToLocal(point)));
+		return isInsideLocal(worldToLocal(point));
+	}
+
+	private boolean isInsideLocal(Vector3D localPoint) {
+
+		if (children.isEmpty())
+			return false;
+
+		for (Shape child : children)
+			if (!child.isInside(localPoint))
+				return false;
+
+		return true;
 	}
 
 	@Override
@@ -249,7 +145,7 @@ public class Intersect extends Shape {
 		do {
 			result = children.parallelStream().map(s -> s.selectPointWithin(selectSurfaceOnly)).reduce(Vector3D.ZERO,
 					(v1, v2) -> v1.add(v2).scalarMultiply(0.5));
-		} while (!isInside(result));
+		} while (!isInsideLocal(result));
 
 		return localToWorld(result);
 	}
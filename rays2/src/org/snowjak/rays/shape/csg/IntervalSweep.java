@@ -0,0 +1,293 @@
+package org.snowjak.rays.shape.csg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.color.ColorScheme;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.BoundaryCrossings;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.world.World;
+
+/**
+ * Implements CSG evaluation as a sorted-interval merge.
+ * <p>
+ * Each child Shape is asked -- once -- for its
+ * {@link Shape#getBoundaryCrossings(Ray) boundary-crossings} along the ray
+ * (including those "behind" the ray's origin). Those crossings alternate
+ * between "entering" and "leaving" the child, starting from whether the ray
+ * starts out inside it. That gives us each child's entry/exit span list
+ * without ever having to ask a child whether a given point lies inside it.
+ * </p>
+ * <p>
+ * All children's crossings are then merged into a single list, sorted by
+ * (signed) distance along the ray, and swept linearly. At each crossing we
+ * toggle the crossed child's inside/outside state and ask the CSG operation's
+ * {@link Rule} whether we're now inside the composite Shape. Those crossings
+ * where that answer changes become the composite's own boundary-crossings.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+final class IntervalSweep {
+
+	/**
+	 * Defines a CSG operation in terms of its children's inside/outside
+	 * states.
+	 *
+	 * @author snowjak88
+	 *
+	 */
+	@FunctionalInterface
+	interface Rule {
+
+		/**
+		 * @param insideChildren
+		 *            for each child (in the order given to
+		 *            {@link IntervalSweep#sweep(Shape, List, int, Rule, boolean, Ray, boolean, boolean)}),
+		 *            whether the sweep is currently inside that child
+		 * @param insideCount
+		 *            the number of {@code true} entries in
+		 *            {@code insideChildren}
+		 * @return <code>true</code> if those child-states put the sweep
+		 *         inside the composite Shape
+		 */
+		public boolean isInside(boolean[] insideChildren, int insideCount);
+	}
+
+	private IntervalSweep() {
+
+	}
+
+	/**
+	 * Compute the {@link BoundaryCrossings} of a CSG composite -- i.e., its
+	 * boundary-crossings (including those behind the ray's origin, and
+	 * excluding any interior crossings), plus whether the ray starts out
+	 * inside it.
+	 *
+	 * @param composite
+	 * @param children
+	 * @param requiredChildren
+	 * @param rule
+	 * @param ray
+	 * @return the composite's boundary along the ray
+	 * @see #sweep(Shape, List, int, Rule, boolean, Ray, boolean, boolean)
+	 */
+	static BoundaryCrossings boundary(Shape composite, List<Shape> children, int requiredChildren, Rule rule,
+			Ray ray) {
+
+		boolean[] startingInside = new boolean[1];
+		List<Intersection<Shape>> crossings = sweep(composite, children, requiredChildren, rule, false, ray, true,
+				false, startingInside);
+		return new BoundaryCrossings(crossings, startingInside[0]);
+	}
+
+	/**
+	 * Compute the boundary-crossings of a CSG composite.
+	 *
+	 * @param composite
+	 *            the CSG Shape being evaluated -- supplies the local
+	 *            coordinate-system, and any overriding Material or
+	 *            ColorSchemes
+	 * @param children
+	 *            the composite's child Shapes
+	 * @param requiredChildren
+	 *            the first {@code requiredChildren} children must all be
+	 *            crossed by the ray for the composite to be crossed at all.
+	 *            If any of them reports no crossings, the remaining children
+	 *            are not tested.
+	 * @param rule
+	 *            the CSG operation
+	 * @param keepInteriorCrossings
+	 *            if <code>true</code>, report child-crossings which lie
+	 *            entirely within the composite, as well as those which cross
+	 *            the composite's own boundary
+	 * @param ray
+	 * @param includeBehindRayOrigin
+	 * @param onlyIncludeClosest
+	 * @return the composite's boundary-crossings, sorted by distance
+	 */
+	static List<Intersection<Shape>> sweep(Shape composite, List<Shape> children, int requiredChildren, Rule rule,
+			boolean keepInteriorCrossings, Ray ray, boolean includeBehindRayOrigin, boolean onlyIncludeClosest) {
+
+		return sweep(composite, children, requiredChildren, rule, keepInteriorCrossings, ray, includeBehindRayOrigin,
+				onlyIncludeClosest, new boolean[1]);
+	}
+
+	private static List<Intersection<Shape>> sweep(Shape composite, List<Shape> children, int requiredChildren,
+			Rule rule, boolean keepInteriorCrossings, Ray ray, boolean includeBehindRayOrigin,
+			boolean onlyIncludeClosest, boolean[] compositeStartingInside) {
+
+		Ray localRay = composite.worldToLocal(ray);
+		Vector3D origin = localRay.getOrigin(), direction = localRay.getVector();
+
+		//
+		//
+		// Collect every child's span list -- once.
+		//
+		List<Crossing> crossings = new ArrayList<>();
+		boolean[] startingInside = new boolean[children.size()];
+		int startingInsideCount = 0;
+		int childIndex = 0;
+		for (Shape child : children) {
+
+			BoundaryCrossings childBoundary = child.getBoundaryCrossings(localRay);
+			if (childBoundary.isEmpty() && childIndex < requiredChildren)
+				return Collections.emptyList();
+
+			startingInside[childIndex] = childBoundary.isStartingInside();
+			startingInsideCount += (startingInside[childIndex] ? 1 : 0);
+
+			for (Intersection<Shape> intersection : childBoundary.getCrossings())
+				crossings.add(new Crossing(intersection, childIndex,
+						intersection.getPoint().subtract(origin).dotProduct(direction)));
+
+			childIndex++;
+		}
+
+		compositeStartingInside[0] = rule.isInside(startingInside, startingInsideCount);
+
+		if (crossings.isEmpty())
+			return Collections.emptyList();
+
+		crossings.sort((c1, c2) -> Double.compare(c1.t, c2.t));
+
+		//
+		//
+		// Classify each child-crossing as entering or leaving its child,
+		// starting from each child's state at the far end of the ray behind
+		// us.
+		//
+		boolean[] insideChildren = Arrays.copyOf(startingInside, startingInside.length);
+		for (Crossing crossing : crossings) {
+			insideChildren[crossing.childIndex] = !insideChildren[crossing.childIndex];
+			crossing.isEnteringChild = insideChildren[crossing.childIndex];
+			crossing.childMaterial = crossing.findChildMaterial();
+		}
+
+		//
+		//
+		// Now sweep the merged list, tracking which children we're inside
+		// of, and record every transition into or out of the composite.
+		//
+		insideChildren = Arrays.copyOf(startingInside, startingInside.length);
+		int insideCount = startingInsideCount;
+		boolean isInside = rule.isInside(insideChildren, insideCount);
+
+		Material overrideMaterial = composite.getMaterial();
+		List<Intersection<Shape>> results = new LinkedList<>();
+
+		for (int index = 0; index < crossings.size(); index++) {
+			Crossing crossing = crossings.get(index);
+
+			insideChildren[crossing.childIndex] = crossing.isEnteringChild;
+			insideCount += (crossing.isEnteringChild ? +1 : -1);
+
+			boolean wasInside = isInside;
+			isInside = rule.isInside(insideChildren, insideCount);
+
+			if (wasInside == isInside && !keepInteriorCrossings)
+				continue;
+
+			if (Double.compare(FastMath.abs(crossing.t), World.NEARLY_ZERO) < 0)
+				continue;
+			if (!includeBehindRayOrigin && Double.compare(crossing.t, World.NEARLY_ZERO) < 0)
+				continue;
+
+			//
+			// Each crossing marks a boundary between two blends, each fading
+			// from one Material to another -- unless the composite has a
+			// Material of its own, which overrides its children's.
+			Material oldMaterial, newMaterial;
+			if (overrideMaterial == null) {
+				oldMaterial = (index > 0) ? blend(crossings.get(index - 1), crossing) : Material.AIR;
+				newMaterial = (index < crossings.size() - 1) ? blend(crossing, crossings.get(index + 1))
+						: Material.AIR;
+			} else {
+				oldMaterial = overrideMaterial;
+				newMaterial = overrideMaterial;
+			}
+
+			Intersection<Shape> intersection = crossing.intersection;
+			intersection.setLeavingMaterial((!wasInside && isInside) ? Material.AIR : oldMaterial);
+			intersection.setEnteringMaterial((wasInside && !isInside) ? Material.AIR : newMaterial);
+
+			//
+			// Has the composite been given its own definitive ColorSchemes,
+			// which will override those of its children?
+			ColorScheme diffuse = (composite.getDiffuseColorScheme() != null) ? composite.getDiffuseColorScheme()
+					: intersection.getDiffuseColorScheme();
+			ColorScheme specular = (composite.getSpecularColorScheme() != null) ? composite.getSpecularColorScheme()
+					: intersection.getSpecularColorScheme();
+			Optional<ColorScheme> emissive = (composite.isEmissive()) ? composite.getEmissiveColorScheme()
+					: intersection.getEmissiveColorScheme();
+
+			intersection.setIntersected(composite);
+			intersection.setDiffuseColorScheme(diffuse);
+			intersection.setSpecularColorScheme(specular);
+			intersection.setEmissiveColorScheme(emissive);
+
+			results.add(composite.localToWorld(intersection));
+
+			if (onlyIncludeClosest)
+				break;
+		}
+
+		return results;
+	}
+
+	private static Material blend(Crossing from, Crossing to) {
+
+		return Material.blend(from.childMaterial, from.intersection.getPoint(), to.childMaterial,
+				to.intersection.getPoint());
+	}
+
+	/**
+	 * A single child-crossing, tagged with the child it belongs to and its
+	 * signed distance along the ray.
+	 *
+	 * @author snowjak88
+	 *
+	 */
+	private static class Crossing {
+
+		private final Intersection<Shape> intersection;
+
+		private final int childIndex;
+
+		private final double t;
+
+		private boolean isEnteringChild;
+
+		private Material childMaterial;
+
+		public Crossing(Intersection<Shape> intersection, int childIndex, double t) {
+			this.intersection = intersection;
+			this.childIndex = childIndex;
+			this.t = t;
+		}
+
+		/**
+		 * @return the Material on the child's side of this crossing
+		 */
+		private Material findChildMaterial() {
+
+			Material material = (isEnteringChild ? intersection.getEnteringMaterial()
+					: intersection.getLeavingMaterial());
+			if (material == null)
+				material = intersection.getIntersected().getMaterial();
+
+			return (material == null) ? Material.AIR : material;
+		}
+	}
+
+}
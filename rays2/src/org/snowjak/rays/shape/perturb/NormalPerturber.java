@@ -12,6 +12,8 @@ import org.snowjak.rays.Ray;
 import org.snowjak.rays.color.ColorScheme;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.BoundaryCrossings;
+import org.snowjak.rays.shape.BoundingBox;
 import org.snowjak.rays.shape.Shape;
 import org.snowjak.rays.world.World;
 
@@ -125,6 +127,29 @@ public class NormalPerturber extends Shape {
 				.collect(Collectors.toCollection(LinkedList::new));
 	}
 
+	@Override
+	public BoundaryCrossings getBoundaryCrossings(Ray ray) {
+
+		BoundaryCrossings childBoundary = child.getBoundaryCrossings(worldToLocal(ray));
+		return new BoundaryCrossings(childBoundary.getCrossings()
+				.stream()
+				.peek(i -> i.setNormal(normalPerturbationFunction.apply(i.getNormal(), i)))
+				.map(i -> localToWorld(i))
+				.collect(Collectors.toCollection(LinkedList::new)), childBoundary.isStartingInside());
+	}
+
+	@Override
+	protected BoundingBox getLocalBoundingBox() {
+
+		return child.getBoundingBox();
+	}
+
+	@Override
+	public boolean isInside(Vector3D point) {
+
+		return child.isInside(worldToLocal(point));
+	}
+
 	@Override
 	public ColorScheme getDiffuseColorScheme() {
 
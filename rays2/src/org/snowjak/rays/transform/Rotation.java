@@ -48,16 +48,32 @@ public class Rotation implements Transformer {
 		this.inverseMatrix = matrix.transpose();
 	}
 
+	/**
+	 * Create a new Rotation from its already-computed matrices (e.g., as read
+	 * back from a compiled scene).
+	 * 
+	 * @param matrix
+	 *            the local-to-world matrix
+	 * @param inverseMatrix
+	 *            the world-to-local matrix
+	 */
+	public Rotation(RealMatrix matrix, RealMatrix inverseMatrix) {
+		this.matrix = matrix;
+		this.inverseMatrix = inverseMatrix;
+	}
+
 	@Override
 	public Ray localToWorld(Ray ray) {
 
-		return new Ray(localToWorld(ray.getOrigin()), localToWorld(ray.getVector()), ray.getRecursiveLevel());
+		return new Ray(localToWorld(ray.getOrigin()), localToWorld(ray.getVector()), ray.getRecursiveLevel(),
+				ray.getFootprintWidth(), ray.getFootprintSpread());
 	}
 
 	@Override
 	public Ray worldToLocal(Ray ray) {
 
-		return new Ray(worldToLocal(ray.getOrigin()), worldToLocal(ray.getVector()), ray.getRecursiveLevel());
+		return new Ray(worldToLocal(ray.getOrigin()), worldToLocal(ray.getVector()), ray.getRecursiveLevel(),
+				ray.getFootprintWidth(), ray.getFootprintSpread());
 	}
 
 	@Override
@@ -1,5 +1,6 @@
 package org.snowjak.rays.transform;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
 
@@ -18,6 +19,29 @@ import org.snowjak.rays.intersect.Intersection;
  */
 public interface Transformable {
 
+	/**
+	 * A shared, empty set of {@link Transformer}s, which refuses any additions.
+	 * Immutable Transformables may return this from {@link #getTransformers()}.
+	 */
+	public static final Deque<Transformer> NO_TRANSFORMERS = new ArrayDeque<Transformer>(0) {
+
+		private static final long serialVersionUID = 1L;
+
+		//
+		// Every insertion into an ArrayDeque goes through one of these two.
+		@Override
+		public void addFirst(Transformer transformer) {
+
+			throw new UnsupportedOperationException("Cannot add Transformers to an immutable Transformable.");
+		}
+
+		@Override
+		public void addLast(Transformer transformer) {
+
+			throw new UnsupportedOperationException("Cannot add Transformers to an immutable Transformable.");
+		}
+	};
+
 	/**
 	 * @return this object's set of {@link Transformer}s
 	 */
@@ -33,16 +33,32 @@ public class Translation implements Transformer {
 		// @formatter:on
 	}
 
+	/**
+	 * Create a new Translation from its already-computed matrices (e.g., as read
+	 * back from a compiled scene).
+	 * 
+	 * @param matrix
+	 *            the local-to-world matrix
+	 * @param inverseMatrix
+	 *            the world-to-local matrix
+	 */
+	public Translation(RealMatrix matrix, RealMatrix inverseMatrix) {
+		this.matrix = matrix;
+		this.inverseMatrix = inverseMatrix;
+	}
+
 	@Override
 	public Ray localToWorld(Ray ray) {
 
-		return new Ray(localToWorld(ray.getOrigin()), ray.getVector(), ray.getRecursiveLevel());
+		return new Ray(localToWorld(ray.getOrigin()), ray.getVector(), ray.getRecursiveLevel(),
+				ray.getFootprintWidth(), ray.getFootprintSpread());
 	}
 
 	@Override
 	public Ray worldToLocal(Ray ray) {
 
-		return new Ray(worldToLocal(ray.getOrigin()), ray.getVector(), ray.getRecursiveLevel());
+		return new Ray(worldToLocal(ray.getOrigin()), ray.getVector(), ray.getRecursiveLevel(),
+				ray.getFootprintWidth(), ray.getFootprintSpread());
 	}
 
 	@Override
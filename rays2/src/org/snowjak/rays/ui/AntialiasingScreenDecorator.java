@@ -1,16 +1,18 @@
 package org.snowjak.rays.ui;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.apache.commons.math3.util.FastMath;
 import org.apache.commons.math3.util.Pair;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.antialias.SuperSamplingAntialiaser;
 import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.color.RawColor;
@@ -30,6 +32,14 @@ import org.snowjak.rays.color.RawColor;
  *    factor = [sin(x) / (x)] * [sin(y) / (y)]
  * </pre>
  * </p>
+ * <p>
+ * Each sample also carries a 2-D lens-sample, passed along to
+ * {@link Camera#shootRay(RenderContext, double, double, double, double)}. The
+ * lens-samples for each pixel form a (per-pixel randomly-rotated) Hammersley
+ * set, shuffled against the pixel-samples -- so that a lensed Camera gets as
+ * many well-distributed lens-samples as there are pixel-samples, at no extra
+ * cost.
+ * </p>
  * 
  * @author snowjak88
  *
@@ -40,7 +50,7 @@ public class AntialiasingScreenDecorator implements PixelDrawer {
 
 	private PixelDrawer child;
 
-	private SuperSamplingAntialiaser<Vector3D, Optional<RawColor>, Optional<RawColor>> antialiaser;
+	private SuperSamplingAntialiaser<CameraSample, Optional<RawColor>, Optional<RawColor>> antialiaser;
 
 	/**
 	 * Create a new AntialiasingScreenDecorator on top of an existing
@@ -57,9 +67,9 @@ public class AntialiasingScreenDecorator implements PixelDrawer {
 	}
 
 	@Override
-	public Optional<RawColor> getRayColor(int screenX, int screenY, Camera camera) {
+	public Optional<RawColor> getRayColor(RenderContext context, int screenX, int screenY, Camera camera) {
 
-		final AA aaSetting = RaytracerContext.getSingleton().getSettings().getAntialiasing();
+		final AA aaSetting = context.getSettings().getAntialiasing();
 		final double filterSpan = 1;
 		final double coordinateDelta;
 		if (aaSetting != AA.OFF)
@@ -67,19 +77,20 @@ public class AntialiasingScreenDecorator implements PixelDrawer {
 		else
 			coordinateDelta = 0d;
 
-		return antialiaser.execute(new Vector3D(screenX, screenY, 0d), (v) -> {
-			Collection<Vector3D> results = new LinkedList<>();
+		return antialiaser.execute(new CameraSample(screenX, screenY, 0d, 0d), (v) -> {
+			List<Vector2D> pixelSamples = new ArrayList<>();
 			if (aaSetting == AA.OFF)
-				results.add(new Vector3D(getCameraX(v.getX(), camera), getCameraY(v.getY(), camera), 0d));
+				pixelSamples.add(new Vector2D(getCameraX(screenX, camera), getCameraY(screenY, camera)));
 			else
 				for (double dx = -(filterSpan / 2d); dx <= (filterSpan / 2d); dx += coordinateDelta)
 					for (double dy = -(filterSpan / 2d); dy <= (filterSpan / 2d); dy += coordinateDelta)
-						results.add(
-								new Vector3D(getCameraX(screenX + dx, camera), getCameraY(screenY + dy, camera), 0d));
-			return results;
+						pixelSamples.add(
+								new Vector2D(getCameraX(screenX + dx, camera), getCameraY(screenY + dy, camera)));
+
+			return pairWithLensSamples(pixelSamples, screenX, screenY);
 
 		}, (v) -> {
-			return (Optional<RawColor>) camera.shootRay(v.getX(), v.getY());
+			return (Optional<RawColor>) camera.shootRay(context, v.cameraX, v.cameraY, v.lensU, v.lensV);
 
 		}, (lp) -> {
 			if (aaSetting == AA.OFF)
@@ -87,11 +98,11 @@ public class AntialiasingScreenDecorator implements PixelDrawer {
 
 			double totalScale = 0d;
 			RawColor totalColor = new RawColor();
-			for (Pair<Vector3D, Optional<RawColor>> pair : lp) {
-				Vector3D samplePoint = pair.getKey();
+			for (Pair<CameraSample, Optional<RawColor>> pair : lp) {
+				CameraSample samplePoint = pair.getKey();
 				Optional<RawColor> sample = pair.getValue();
 				double scale = distribution.density(
-						FastMath.sqrt(FastMath.pow(samplePoint.getX(), 2d) + FastMath.pow(samplePoint.getY(), 2d)));
+						FastMath.sqrt(FastMath.pow(samplePoint.cameraX, 2d) + FastMath.pow(samplePoint.cameraY, 2d)));
 				totalScale += scale;
 				if (sample.isPresent())
 					totalColor = totalColor.add(sample.get().multiplyScalar(scale));
@@ -100,6 +111,82 @@ public class AntialiasingScreenDecorator implements PixelDrawer {
 		});
 	}
 
+	/**
+	 * Pair each of a pixel's samples with a lens-sample.
+	 * <p>
+	 * The lens-samples are a Hammersley set, randomly rotated (modulo 1) by an
+	 * amount hashed from the pixel's location, and assigned to the
+	 * pixel-samples in a shuffled (but deterministic) order -- so that a
+	 * sample's position within the pixel doesn't determine its position on
+	 * the lens.
+	 * </p>
+	 * 
+	 * @param pixelSamples
+	 * @param screenX
+	 * @param screenY
+	 * @return the paired samples
+	 */
+	static Collection<CameraSample> pairWithLensSamples(List<Vector2D> pixelSamples, int screenX, int screenY) {
+
+		int count = pixelSamples.size();
+		long hash = mix(((long) screenX << 32) ^ (screenY & 0xFFFFFFFFL));
+		double rotateU = (double) (hash >>> 11) * 0x1.0p-53, rotateV = (double) (mix(hash) >>> 11) * 0x1.0p-53;
+
+		int stride = 1;
+		for (int candidate : STRIDES)
+			if (count % candidate != 0) {
+				stride = candidate;
+				break;
+			}
+
+		Collection<CameraSample> results = new LinkedList<>();
+		for (int i = 0; i < count; i++) {
+			int lensIndex = (int) (((long) i * stride + (hash & 0xFFFF)) % count);
+			double u = ((lensIndex + 0.5d) / count) + rotateU, v = radicalInverse(lensIndex) + rotateV;
+			Vector2D pixelSample = pixelSamples.get(i);
+			results.add(new CameraSample(pixelSample.getX(), pixelSample.getY(), u - FastMath.floor(u),
+					v - FastMath.floor(v)));
+		}
+		return results;
+	}
+
+	/**
+	 * Candidate strides for shuffling lens-samples against pixel-samples --
+	 * the first of which that doesn't divide the sample-count is used.
+	 */
+	private static final int[] STRIDES = { 7, 11, 13, 17, 19 };
+
+	private static double radicalInverse(int index) {
+
+		return (double) (Integer.reverse(index) >>> 1) * 0x1.0p-31;
+	}
+
+	private static long mix(long value) {
+
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return value ^ (value >>> 33);
+	}
+
+	/**
+	 * A single sample within a pixel: a point on the camera's frame, and a
+	 * point on its lens.
+	 * 
+	 * @author snowjak88
+	 *
+	 */
+	static final class CameraSample {
+
+		final double cameraX, cameraY, lensU, lensV;
+
+		CameraSample(double cameraX, double cameraY, double lensU, double lensV) {
+			this.cameraX = cameraX;
+			this.cameraY = cameraY;
+			this.lensU = lensU;
+			this.lensV = lensV;
+		}
+	}
+
 	@Override
 	public void drawPixel(int x, int y, RawColor color) {
 
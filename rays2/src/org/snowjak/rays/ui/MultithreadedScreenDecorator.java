@@ -1,10 +1,10 @@
 package org.snowjak.rays.ui;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
-import org.apache.commons.math3.util.FastMath;
-import org.snowjak.rays.RaytracerContext;
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.color.RawColor;
 
@@ -22,6 +22,8 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 
 	private PixelDrawer child;
 
+	private final RenderCheckpoint checkpoint;
+
 	/**
 	 * Create a new {@link MultithreadedScreenDecorator} using the specified
 	 * number of rendering threads and splitting the render-job using the
@@ -32,32 +34,50 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 	 * @param splitType
 	 */
 	public MultithreadedScreenDecorator(PixelDrawer child) {
+		this(child, null);
+	}
+
+	/**
+	 * Create a new {@link MultithreadedScreenDecorator} which records its
+	 * progress to the given {@link RenderCheckpoint}. Regions already
+	 * completed in the checkpoint are drawn from the checkpoint, rather than
+	 * being rendered again.
+	 * <p>
+	 * When checkpointing, the screen is always rendered in the checkpoint's
+	 * regions, regardless of the configured {@link RenderSplitType}.
+	 * </p>
+	 *
+	 * @param child
+	 * @param checkpoint
+	 *            the checkpoint to record progress to, or <code>null</code>
+	 */
+	public MultithreadedScreenDecorator(PixelDrawer child, RenderCheckpoint checkpoint) {
 		this.child = child;
+		this.checkpoint = checkpoint;
 	}
 
 	@Override
-	public void draw(Camera camera) {
+	public void draw(RenderContext context, Camera camera) {
+
+		if (checkpoint != null) {
+			List<ScreenRegion> regions = checkpoint.getRegions();
+			for (int i = 0; i < regions.size(); i++)
+				context.getExecutor().submit(new CheckpointedRegionRenderTask(context, camera, i, regions.get(i)));
+			return;
+		}
 
-		RenderSplitType splitType = RaytracerContext.getSingleton().getSettings().getRenderSplitType();
+		RenderSplitType splitType = context.getSettings().getRenderSplitType();
 
 		switch (splitType) {
 		case COLUMN:
 			for (int column = child.getScreenMinX(); column <= child.getScreenMaxX(); column++)
-				RaytracerContext.getSingleton().getWorkerThreadPool().submit(new ColumnRenderTask(camera, column));
+				context.getExecutor().submit(new ColumnRenderTask(context, camera, column));
 			break;
 
 		case REGION:
-			int sizeX = FastMath.min(REGION_SIDE_LENGTH, child.getScreenMaxX() - child.getScreenMinX());
-			int sizeY = FastMath.min(REGION_SIDE_LENGTH, child.getScreenMaxY() - child.getScreenMinY());
-
-			for (int startY = child.getScreenMinY(); startY < child.getScreenMaxY(); startY += sizeY + 1)
-				for (int startX = child.getScreenMinX(); startX < child.getScreenMaxX(); startX += sizeX + 1) {
-
-					int extentX = FastMath.min(startX + sizeX, child.getScreenMaxX() - child.getScreenMinX());
-					int extentY = FastMath.min(startY + sizeY, child.getScreenMaxY() - child.getScreenMinY());
-					RaytracerContext.getSingleton().getWorkerThreadPool().submit(
-							new RegionRenderTask(camera, startX, startY, extentX - startX, extentY - startY));
-				}
+			for (ScreenRegion region : ScreenRegion.split(child, REGION_SIDE_LENGTH))
+				context.getExecutor().submit(new RegionRenderTask(context, camera, region.getMinX(),
+						region.getMinY(), region.getMaxX() - region.getMinX(), region.getMaxY() - region.getMinY()));
 		}
 	}
 
@@ -72,9 +92,12 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 
 		private int startX, startY, sizeX, sizeY;
 
+		private RenderContext context;
+
 		private Camera camera;
 
-		public RegionRenderTask(Camera camera, int startX, int startY, int sizeX, int sizeY) {
+		public RegionRenderTask(RenderContext context, Camera camera, int startX, int startY, int sizeX, int sizeY) {
+			this.context = context;
 			this.camera = camera;
 			this.startX = startX;
 			this.startY = startY;
@@ -93,7 +116,7 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 						if (Thread.interrupted())
 							return;
 
-						Optional<RawColor> color = child.getRayColor(startX + dx, startY + dy, camera);
+						Optional<RawColor> color = child.getRayColor(context, startX + dx, startY + dy, camera);
 						if (color.isPresent())
 							child.drawPixel(startX + dx, startY + dy, color.get());
 
@@ -108,14 +131,63 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 		}
 	}
 
+	@SuppressWarnings("javadoc")
+	public class CheckpointedRegionRenderTask implements Runnable {
+
+		private int regionIndex;
+
+		private ScreenRegion region;
+
+		private RenderContext context;
+
+		private Camera camera;
+
+		public CheckpointedRegionRenderTask(RenderContext context, Camera camera, int regionIndex,
+				ScreenRegion region) {
+			this.context = context;
+			this.camera = camera;
+			this.regionIndex = regionIndex;
+			this.region = region;
+		}
+
+		@Override
+		public void run() {
+
+			try {
+
+				if (checkpoint.isRegionComplete(regionIndex)) {
+					checkpoint.replayRegion(region, child);
+					return;
+				}
+
+				//
+				// Throw away anything left behind in this region by an
+				// interrupted render, so every pixel ends up with the same
+				// samples as an uninterrupted render would give it.
+				checkpoint.clearRegion(region);
+				if (region.draw(context, checkpoint.decorate(child), camera, () -> false))
+					checkpoint.regionCompleted(regionIndex);
+
+			} catch (Throwable t) {
+				System.err.println("Problem encountered in render-thread [" + Thread.currentThread().getName() + "]: "
+						+ t.getMessage());
+				t.printStackTrace(System.err);
+				return;
+			}
+		}
+	}
+
 	@SuppressWarnings("javadoc")
 	public class ColumnRenderTask implements Runnable {
 
 		private int column;
 
+		private RenderContext context;
+
 		private Camera camera;
 
-		public ColumnRenderTask(Camera camera, int column) {
+		public ColumnRenderTask(RenderContext context, Camera camera, int column) {
+			this.context = context;
 			this.camera = camera;
 			this.column = column;
 		}
@@ -128,7 +200,7 @@ public class MultithreadedScreenDecorator implements ScreenDrawer {
 					if (Thread.interrupted())
 						return;
 
-					Optional<RawColor> color = child.getRayColor(column, y, camera);
+					Optional<RawColor> color = child.getRayColor(context, column, y, camera);
 					if (color.isPresent())
 						child.drawPixel(column, y, color.get());
 
@@ -2,6 +2,7 @@ package org.snowjak.rays.ui;
 
 import java.util.Optional;
 
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.color.RawColor;
 
@@ -13,18 +14,20 @@ import org.snowjak.rays.color.RawColor;
  * @see BasicScreen
  *
  */
-public interface PixelDrawer extends CanBeShutdown {
+public interface PixelDrawer extends CanBeShutdown, HasScreenDimensions {
 
 	/**
+	 * @param context
+	 *            the {@link RenderContext} of the render in progress
 	 * @param screenX
 	 * @param screenY
 	 * @param camera
 	 * @return the computed RawColor, if present, for the corresponding screen
 	 *         location
 	 */
-	public default Optional<RawColor> getRayColor(int screenX, int screenY, Camera camera) {
+	public default Optional<RawColor> getRayColor(RenderContext context, int screenX, int screenY, Camera camera) {
 
-		return camera.shootRay(getCameraX(screenX, camera), getCameraY(screenY, camera));
+		return camera.shootRay(context, getCameraX(screenX, camera), getCameraY(screenY, camera));
 	}
 
 	/**
@@ -0,0 +1,299 @@
+package org.snowjak.rays.ui;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.transform.Transformer;
+
+/**
+ * Renders a quick, progressively-refined preview of a {@link RenderContext}'s
+ * World, for interactively placing the {@link Camera}.
+ * <p>
+ * Each time the camera is {@link #setCamera(Camera) set}, the preview starts
+ * over with a coarse frame -- one ray for every {@link #INITIAL_BLOCK_SIZE}
+ * -square block of pixels -- and then halves the block-size with each pass,
+ * until every pixel has been traced once. (Each pass only traces those pixels
+ * not already traced by a coarser pass, so reaching full resolution costs no
+ * more than a single one-sample frame.) From then on, while the camera stays
+ * put, each further pass adds one jittered sample to every pixel, up to
+ * {@link #getMaxSamples()} samples.
+ * </p>
+ * <p>
+ * Passes are split into tiles and rendered on the context's worker-pool. Every
+ * tile checks, before each pixel, whether the camera has since moved -- if so,
+ * it abandons its work at once, so a moving camera never waits on stale tiles.
+ * The preview reuses the context's World (and its acceleration structures)
+ * as-is; only the camera changes between frames.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class PreviewRenderer implements CanBeShutdown {
+
+	/**
+	 * The side-length (in pixels) of the blocks traced by a preview's first
+	 * pass. Must be a power of 2.
+	 */
+	public static final int INITIAL_BLOCK_SIZE = 8;
+
+	/**
+	 * The side-length (in pixels) of each tile of work.
+	 */
+	public static final int TILE_SIDE_LENGTH = 32;
+
+	/**
+	 * By default, refinement stops once each pixel has this many samples.
+	 */
+	public static final int DEFAULT_MAX_SAMPLES = 64;
+
+	private final RenderContext context;
+
+	private final PixelDrawer child;
+
+	private final List<ScreenRegion> tiles;
+
+	private final int width;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicInteger completedPasses = new AtomicInteger();
+
+	private volatile int maxSamples = DEFAULT_MAX_SAMPLES;
+
+	private volatile Camera camera = null;
+
+	/**
+	 * Create a new PreviewRenderer, rendering the given {@link RenderContext}
+	 * and drawing into the given {@link PixelDrawer}.
+	 * <p>
+	 * Every preview-ray is traced with the context's lighting-model, but
+	 * without anti-aliasing -- the given PixelDrawer is only asked to draw.
+	 * </p>
+	 *
+	 * @param context
+	 * @param child
+	 */
+	public PreviewRenderer(RenderContext context, PixelDrawer child) {
+		this.context = context;
+		this.child = child;
+		this.tiles = ScreenRegion.split(child, TILE_SIDE_LENGTH);
+		this.width = child.getScreenMaxX() - child.getScreenMinX() + 1;
+	}
+
+	/**
+	 * Move the preview to the given {@link Camera}, abandoning any work on the
+	 * previous camera and starting a new, coarse preview.
+	 *
+	 * @param camera
+	 */
+	public void setCamera(Camera camera) {
+
+		this.camera = camera;
+		long currentGeneration = generation.incrementAndGet();
+		completedPasses.set(0);
+
+		startPass(new Preview(currentGeneration, camera), 0);
+	}
+
+	/**
+	 * @return the camera currently being previewed
+	 */
+	public Camera getCamera() {
+
+		return camera;
+	}
+
+	/**
+	 * @return the number of passes completed since the camera was last set
+	 */
+	public int getCompletedPasses() {
+
+		return completedPasses.get();
+	}
+
+	/**
+	 * @return the number of passes needed to refine the preview to
+	 *         {@link #getMaxSamples()} samples per pixel
+	 */
+	public int getTotalPasses() {
+
+		return Integer.numberOfTrailingZeros(INITIAL_BLOCK_SIZE) + maxSamples;
+	}
+
+	/**
+	 * @return the number of samples per pixel at which refinement stops
+	 */
+	public int getMaxSamples() {
+
+		return maxSamples;
+	}
+
+	/**
+	 * @param maxSamples
+	 *            the number of samples per pixel at which refinement stops
+	 */
+	public void setMaxSamples(int maxSamples) {
+
+		this.maxSamples = FastMath.max(maxSamples, 1);
+	}
+
+	/**
+	 * Construct a copy of the given {@link Camera}, moved by the given
+	 * {@link Transformer} relative to its own frame of reference. (E.g.,
+	 * moving a camera by a {@code Translation(0, 0, 1)} moves it one unit in
+	 * the direction it faces.)
+	 * <p>
+	 * The copy is always a plain (pin-hole) Camera, which suits previewing.
+	 * </p>
+	 *
+	 * @param camera
+	 * @param localTransform
+	 * @return a new, moved Camera
+	 */
+	public static Camera moveCamera(Camera camera, Transformer localTransform) {
+
+		Camera moved = new Camera(camera.getCameraFrameSideLength(), camera.getCameraFieldOfView());
+		moved.getTransformers().addAll(camera.getTransformers());
+		moved.getTransformers().addFirst(localTransform);
+		return moved;
+	}
+
+	@Override
+	public void shutdown() {
+
+		//
+		// Abandon whatever is in progress.
+		generation.incrementAndGet();
+		child.shutdown();
+	}
+
+	private void startPass(Preview preview, int pass) {
+
+		if (pass >= getTotalPasses() || preview.isCancelled())
+			return;
+
+		AtomicInteger remainingTiles = new AtomicInteger(tiles.size());
+		for (ScreenRegion tile : tiles)
+			context.getExecutor().execute(() -> {
+				try {
+					if (!renderTile(preview, pass, tile))
+						return;
+
+				} catch (Throwable t) {
+					System.err.println("Problem encountered in preview-thread [" + Thread.currentThread().getName()
+							+ "]: " + t.getMessage());
+					t.printStackTrace(System.err);
+					return;
+				}
+
+				if (remainingTiles.decrementAndGet() == 0 && !preview.isCancelled()) {
+					completedPasses.incrementAndGet();
+					startPass(preview, pass + 1);
+				}
+			});
+	}
+
+	private boolean renderTile(Preview preview, int pass, ScreenRegion tile) {
+
+		int coarsePasses = Integer.numberOfTrailingZeros(INITIAL_BLOCK_SIZE);
+		int blockSize = (pass <= coarsePasses) ? (INITIAL_BLOCK_SIZE >> pass) : 1;
+
+		for (int y = tile.getMinY(); y <= tile.getMaxY(); y++)
+			for (int x = tile.getMinX(); x <= tile.getMaxX(); x++) {
+
+				if (pass <= coarsePasses) {
+					//
+					// Trace only those pixels on this pass's grid which were
+					// not on a coarser pass's grid.
+					if (x % blockSize != 0 || y % blockSize != 0)
+						continue;
+					if (pass > 0 && x % (blockSize * 2) == 0 && y % (blockSize * 2) == 0)
+						continue;
+				}
+
+				if (preview.isCancelled())
+					return false;
+
+				double jitterX = 0d, jitterY = 0d;
+				if (pass > coarsePasses) {
+					jitterX = ThreadLocalRandom.current().nextDouble() - 0.5;
+					jitterY = ThreadLocalRandom.current().nextDouble() - 0.5;
+				}
+
+				Optional<RawColor> sample = preview.camera.shootRay(context,
+						child.getCameraX(x + jitterX, preview.camera), child.getCameraY(y + jitterY, preview.camera));
+				RawColor mean = preview.accumulate(x, y, sample.orElse(new RawColor()));
+
+				if (blockSize == 1) {
+					child.drawPixel(x, y, mean);
+					continue;
+				}
+
+				//
+				// Stand this sample in for every pixel in its block that
+				// hasn't yet been traced itself.
+				for (int by = y; by < FastMath.min(y + blockSize, tile.getMaxY() + 1); by++)
+					for (int bx = x; bx < FastMath.min(x + blockSize, tile.getMaxX() + 1); bx++)
+						if ((bx == x && by == y) || preview.getSampleCount(bx, by) == 0)
+							child.drawPixel(bx, by, mean);
+			}
+
+		return true;
+	}
+
+	/**
+	 * The accumulated samples for a single camera-position.
+	 */
+	private class Preview {
+
+		private final long generation;
+
+		private final Camera camera;
+
+		private final float[] radiance;
+
+		private final int[] samples;
+
+		public Preview(long generation, Camera camera) {
+			this.generation = generation;
+			this.camera = camera;
+
+			int pixelCount = width * (child.getScreenMaxY() - child.getScreenMinY() + 1);
+			this.radiance = new float[pixelCount * 3];
+			this.samples = new int[pixelCount];
+		}
+
+		public boolean isCancelled() {
+
+			return generation != PreviewRenderer.this.generation.get();
+		}
+
+		public int getSampleCount(int x, int y) {
+
+			return samples[(y - child.getScreenMinY()) * width + (x - child.getScreenMinX())];
+		}
+
+		/**
+		 * Only one thread ever works on a given pixel at a time (tiles never
+		 * overlap, and each pass waits on the last), so no locking is needed.
+		 */
+		public RawColor accumulate(int x, int y, RawColor sample) {
+
+			int i = (y - child.getScreenMinY()) * width + (x - child.getScreenMinX());
+			radiance[i * 3] += (float) sample.getRed();
+			radiance[i * 3 + 1] += (float) sample.getGreen();
+			radiance[i * 3 + 2] += (float) sample.getBlue();
+			int count = ++samples[i];
+
+			return new RawColor(radiance[i * 3] / count, radiance[i * 3 + 1] / count, radiance[i * 3 + 2] / count);
+		}
+	}
+}
@@ -0,0 +1,437 @@
+package org.snowjak.rays.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+
+/**
+ * Persists a render's progress to a memory-mapped file, so that a render
+ * interrupted by a crash (or a redeploy) can be resumed where it left off.
+ * <p>
+ * The file holds, for every pixel, the accumulated radiance and the number of
+ * samples accumulated so far, as well as a bitmap of those
+ * {@link ScreenRegion}s which have been completely rendered. Pixels are
+ * written straight into the mapped file as they are drawn; at each
+ * {@link #checkpoint()}, those writes are forced to disk <em>before</em> the
+ * newly-completed regions are marked in the bitmap (and forced in turn). So a
+ * region is only ever marked complete in the file if all of its pixels have
+ * made it to disk.
+ * </p>
+ * <p>
+ * Every checkpoint-file is stamped with a {@link #fingerprint(String, Settings)
+ * fingerprint} of the world and settings it was written for, and will not be
+ * resumed for any other.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class RenderCheckpoint implements CanBeShutdown {
+
+	/**
+	 * The default interval between periodic checkpoints, in seconds.
+	 */
+	public static final long DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 30;
+
+	private static final int MAGIC = 0x52434B50;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 32;
+
+	private final RandomAccessFile file;
+
+	private final int width, height;
+
+	private final List<ScreenRegion> regions;
+
+	private final MappedByteBuffer headerMap, bitmapMap, radianceMap, countMap;
+
+	private final FloatBuffer radiance;
+
+	private final IntBuffer counts;
+
+	private final BitSet completedRegions = new BitSet();
+
+	private final BitSet pendingRegions = new BitSet();
+
+	private ScheduledExecutorService checkpointThread = null;
+
+	private RenderCheckpoint(RandomAccessFile file, HasScreenDimensions screen, int regionSideLength,
+			long fingerprint, boolean resume) throws IOException {
+
+		this.file = file;
+		this.width = screen.getScreenMaxX() - screen.getScreenMinX() + 1;
+		this.height = screen.getScreenMaxY() - screen.getScreenMinY() + 1;
+		this.regions = ScreenRegion.split(screen, regionSideLength);
+
+		long pixelCount = (long) width * (long) height;
+		long bitmapSize = (regions.size() + 7) / 8;
+		long radianceOffset = HEADER_SIZE + bitmapSize;
+		long countOffset = radianceOffset + pixelCount * 3L * 4L;
+		long fileSize = countOffset + pixelCount * 4L;
+
+		boolean resumed = resume && file.length() == fileSize && isHeaderValid(file, regionSideLength, fingerprint);
+		if (!resumed) {
+			//
+			// Start afresh -- truncating clears out any stale data.
+			file.setLength(0);
+			file.setLength(fileSize);
+		}
+
+		FileChannel channel = file.getChannel();
+		this.headerMap = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+		this.bitmapMap = channel.map(MapMode.READ_WRITE, HEADER_SIZE, FastMath.max(bitmapSize, 1));
+		this.radianceMap = channel.map(MapMode.READ_WRITE, radianceOffset, pixelCount * 3L * 4L);
+		this.countMap = channel.map(MapMode.READ_WRITE, countOffset, pixelCount * 4L);
+		this.radiance = radianceMap.asFloatBuffer();
+		this.counts = countMap.asIntBuffer();
+
+		if (resumed) {
+			for (int i = 0; i < regions.size(); i++)
+				if ((bitmapMap.get(i / 8) & (1 << (i % 8))) != 0)
+					completedRegions.set(i);
+
+		} else {
+			headerMap.putInt(0, MAGIC);
+			headerMap.putInt(4, VERSION);
+			headerMap.putInt(8, width);
+			headerMap.putInt(12, height);
+			headerMap.putInt(16, regionSideLength);
+			headerMap.putLong(20, fingerprint);
+			headerMap.force();
+		}
+	}
+
+	/**
+	 * Open a checkpoint-file for the given screen.
+	 *
+	 * @param checkpointFile
+	 * @param screen
+	 *            the screen being rendered
+	 * @param regionSideLength
+	 *            the size of the {@link ScreenRegion}s the screen is rendered
+	 *            in
+	 * @param fingerprint
+	 *            identifies the world and settings being rendered (see
+	 *            {@link #fingerprint(String, Settings)})
+	 * @param resume
+	 *            if <code>true</code>, and the file holds a checkpoint for
+	 *            the same screen and fingerprint, continue from that
+	 *            checkpoint; otherwise, start a new checkpoint
+	 * @return the opened RenderCheckpoint
+	 * @throws IOException
+	 *             if the checkpoint-file cannot be opened or mapped
+	 */
+	public static RenderCheckpoint open(File checkpointFile, HasScreenDimensions screen, int regionSideLength,
+			long fingerprint, boolean resume) throws IOException {
+
+		RandomAccessFile file = new RandomAccessFile(checkpointFile, "rw");
+		try {
+			return new RenderCheckpoint(file, screen, regionSideLength, fingerprint, resume);
+
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Compute a fingerprint identifying the given world-file and
+	 * {@link Settings}. A checkpoint will only be resumed by a render of the
+	 * same world with the same settings.
+	 *
+	 * @param worldText
+	 * @param settings
+	 * @return a fingerprint of the given world and settings
+	 */
+	public static long fingerprint(String worldText, Settings settings) {
+
+		CRC32 crc = new CRC32();
+		crc.update(worldText.getBytes(StandardCharsets.UTF_8));
+		crc.update(new TreeMap<>(settings.saveToProperties()).toString().getBytes(StandardCharsets.UTF_8));
+		return crc.getValue();
+	}
+
+	private static boolean isHeaderValid(RandomAccessFile file, int regionSideLength, long fingerprint)
+			throws IOException {
+
+		file.seek(0);
+		return file.readInt() == MAGIC && file.readInt() == VERSION && file.skipBytes(8) == 8
+				&& file.readInt() == regionSideLength && file.readLong() == fingerprint;
+	}
+
+	/**
+	 * Begin checkpointing at the given interval, on a background thread.
+	 *
+	 * @param interval
+	 * @param unit
+	 */
+	public synchronized void startPeriodicCheckpoints(long interval, TimeUnit unit) {
+
+		if (checkpointThread != null)
+			return;
+
+		checkpointThread = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "render-checkpoint");
+			thread.setDaemon(true);
+			return thread;
+		});
+		checkpointThread.scheduleWithFixedDelay(() -> {
+			try {
+				checkpoint();
+			} catch (Throwable t) {
+				System.err.println("Could not write render checkpoint: " + t.getMessage());
+				t.printStackTrace(System.err);
+			}
+		}, interval, interval, unit);
+	}
+
+	/**
+	 * @return the {@link ScreenRegion}s the screen is rendered in, in the
+	 *         order their completion is recorded
+	 */
+	public List<ScreenRegion> getRegions() {
+
+		return regions;
+	}
+
+	/**
+	 * @param regionIndex
+	 * @return <code>true</code> if the given region was completed (and
+	 *         checkpointed) by a previous render
+	 */
+	public synchronized boolean isRegionComplete(int regionIndex) {
+
+		return completedRegions.get(regionIndex);
+	}
+
+	/**
+	 * @return the number of regions completed so far
+	 */
+	public synchronized int getCompletedRegionCount() {
+
+		return completedRegions.cardinality() + pendingRegions.cardinality();
+	}
+
+	/**
+	 * Add a sample of radiance to the given pixel.
+	 *
+	 * @param x
+	 * @param y
+	 * @param color
+	 */
+	public void accumulate(int x, int y, RawColor color) {
+
+		int i = y * width + x;
+		radiance.put(i * 3, radiance.get(i * 3) + (float) color.getRed());
+		radiance.put(i * 3 + 1, radiance.get(i * 3 + 1) + (float) color.getGreen());
+		radiance.put(i * 3 + 2, radiance.get(i * 3 + 2) + (float) color.getBlue());
+		counts.put(i, counts.get(i) + 1);
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return the number of samples accumulated at the given pixel
+	 */
+	public int getSampleCount(int x, int y) {
+
+		return counts.get(y * width + x);
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return the mean of the samples accumulated at the given pixel (black if
+	 *         none have been accumulated)
+	 */
+	public RawColor getPixel(int x, int y) {
+
+		int i = y * width + x;
+		int count = counts.get(i);
+		if (count == 0)
+			return new RawColor();
+
+		return new RawColor(radiance.get(i * 3) / count, radiance.get(i * 3 + 1) / count,
+				radiance.get(i * 3 + 2) / count);
+	}
+
+	/**
+	 * Discard any samples accumulated within the given region -- e.g., those
+	 * left behind by a render that was interrupted part-way through the
+	 * region.
+	 *
+	 * @param region
+	 */
+	public void clearRegion(ScreenRegion region) {
+
+		for (int y = region.getMinY(); y <= region.getMaxY(); y++)
+			for (int x = region.getMinX(); x <= region.getMaxX(); x++) {
+				int i = y * width + x;
+				radiance.put(i * 3, 0f);
+				radiance.put(i * 3 + 1, 0f);
+				radiance.put(i * 3 + 2, 0f);
+				counts.put(i, 0);
+			}
+	}
+
+	/**
+	 * Draw every pixel in the given region, as recorded in this checkpoint,
+	 * to the given {@link PixelDrawer}.
+	 *
+	 * @param region
+	 * @param drawer
+	 */
+	public void replayRegion(ScreenRegion region, PixelDrawer drawer) {
+
+		for (int y = region.getMinY(); y <= region.getMaxY(); y++)
+			for (int x = region.getMinX(); x <= region.getMaxX(); x++)
+				if (getSampleCount(x, y) > 0)
+					drawer.drawPixel(x, y, getPixel(x, y));
+	}
+
+	/**
+	 * Wrap the given {@link PixelDrawer} such that every pixel drawn to it is
+	 * first accumulated into this checkpoint. The wrapped drawer is given the
+	 * pixel's accumulated color, exactly as it will be restored on resume --
+	 * so a resumed render will draw exactly what an uninterrupted render
+	 * would have.
+	 *
+	 * @param child
+	 * @return the wrapping PixelDrawer
+	 */
+	public PixelDrawer decorate(PixelDrawer child) {
+
+		return new CheckpointingPixelDrawer(child);
+	}
+
+	/**
+	 * Note that the given region has been completely rendered. It will be
+	 * marked as complete in the file at the next {@link #checkpoint()} -- or
+	 * immediately, if it was the last region to complete.
+	 *
+	 * @param regionIndex
+	 */
+	public void regionCompleted(int regionIndex) {
+
+		boolean allComplete;
+		synchronized (this) {
+			pendingRegions.set(regionIndex);
+			allComplete = getCompletedRegionCount() == regions.size();
+		}
+
+		if (allComplete)
+			checkpoint();
+	}
+
+	/**
+	 * Force all accumulated pixels to disk, and then mark every region
+	 * completed since the last checkpoint.
+	 */
+	public synchronized void checkpoint() {
+
+		if (pendingRegions.isEmpty())
+			return;
+
+		radianceMap.force();
+		countMap.force();
+
+		for (int i = pendingRegions.nextSetBit(0); i >= 0; i = pendingRegions.nextSetBit(i + 1)) {
+			bitmapMap.put(i / 8, (byte) (bitmapMap.get(i / 8) | (1 << (i % 8))));
+			completedRegions.set(i);
+		}
+		pendingRegions.clear();
+
+		bitmapMap.force();
+	}
+
+	@Override
+	public void shutdown() {
+
+		synchronized (this) {
+			if (checkpointThread != null)
+				checkpointThread.shutdownNow();
+		}
+
+		checkpoint();
+
+		try {
+			file.close();
+		} catch (IOException e) {
+			System.err.println("Could not close the render checkpoint: " + e.getMessage());
+		}
+	}
+
+	private class CheckpointingPixelDrawer implements PixelDrawer {
+
+		private final PixelDrawer child;
+
+		public CheckpointingPixelDrawer(PixelDrawer child) {
+			this.child = child;
+		}
+
+		@Override
+		public Optional<RawColor> getRayColor(RenderContext context, int screenX, int screenY, Camera camera) {
+
+			return child.getRayColor(context, screenX, screenY, camera);
+		}
+
+		@Override
+		public void drawPixel(int x, int y, RawColor color) {
+
+			accumulate(x, y, color);
+			child.drawPixel(x, y, getPixel(x, y));
+		}
+
+		@Override
+		public int getScreenMinX() {
+
+			return child.getScreenMinX();
+		}
+
+		@Override
+		public int getScreenMinY() {
+
+			return child.getScreenMinY();
+		}
+
+		@Override
+		public int getScreenMaxX() {
+
+			return child.getScreenMaxX();
+		}
+
+		@Override
+		public int getScreenMaxY() {
+
+			return child.getScreenMaxY();
+		}
+
+		@Override
+		public void shutdown() {
+
+			child.shutdown();
+		}
+	}
+}
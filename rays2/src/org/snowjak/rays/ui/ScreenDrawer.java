@@ -1,5 +1,6 @@
 package org.snowjak.rays.ui;
 
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.camera.Camera;
 
 import javafx.scene.paint.Color;
@@ -18,7 +19,9 @@ public interface ScreenDrawer extends CanBeShutdown {
 	 * screenMinY) - (screenMaxX, screenMaxY) is iterated across; the Camera is
 	 * queried for each, and {@link #drawPixel(int, int, Color)} executed.
 	 * 
+	 * @param context
+	 *            the {@link RenderContext} of the render to draw
 	 * @param camera
 	 */
-	public void draw(Camera camera);
+	public void draw(RenderContext context, Camera camera);
 }
@@ -0,0 +1,139 @@
+package org.snowjak.rays.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+
+/**
+ * A rectangular block of pixels on a screen, from {@code (minX, minY)} to
+ * {@code (maxX, maxY)} inclusive. Screens are rendered region-by-region, so
+ * that each worker-thread works on a compact (and cache-friendly) block of
+ * pixels.
+ *
+ * @author snowjak88
+ *
+ */
+public class ScreenRegion {
+
+	private final int minX, minY, maxX, maxY;
+
+	/**
+	 * Create a new ScreenRegion spanning the given (inclusive) pixel-bounds.
+	 *
+	 * @param minX
+	 * @param minY
+	 * @param maxX
+	 * @param maxY
+	 */
+	public ScreenRegion(int minX, int minY, int maxX, int maxY) {
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+
+	/**
+	 * Split the given screen into square regions of (at most)
+	 * {@code sideLength} pixels on a side, ordered row by row from the screen's
+	 * minimum corner.
+	 *
+	 * @param screen
+	 * @param sideLength
+	 * @return the list of regions covering every pixel on the screen exactly
+	 *         once
+	 */
+	public static List<ScreenRegion> split(HasScreenDimensions screen, int sideLength) {
+
+		List<ScreenRegion> regions = new ArrayList<>();
+
+		for (int startY = screen.getScreenMinY(); startY <= screen.getScreenMaxY(); startY += sideLength)
+			for (int startX = screen.getScreenMinX(); startX <= screen.getScreenMaxX(); startX += sideLength)
+				regions.add(new ScreenRegion(startX, startY,
+						FastMath.min(startX + sideLength - 1, screen.getScreenMaxX()),
+						FastMath.min(startY + sideLength - 1, screen.getScreenMaxY())));
+
+		return regions;
+	}
+
+	/**
+	 * Render every pixel in this region, row by row, drawing each into the
+	 * given {@link PixelDrawer}.
+	 *
+	 * @param context
+	 *            the {@link RenderContext} of the render in progress
+	 * @param drawer
+	 * @param camera
+	 * @param isCancelled
+	 *            checked before each row -- if it returns <code>true</code>,
+	 *            the region is abandoned
+	 * @return <code>true</code> if every pixel was rendered, or
+	 *         <code>false</code> if the region was abandoned
+	 */
+	public boolean draw(RenderContext context, PixelDrawer drawer, Camera camera, BooleanSupplier isCancelled) {
+
+		for (int y = minY; y <= maxY; y++) {
+			if (isCancelled.getAsBoolean() || Thread.currentThread().isInterrupted())
+				return false;
+
+			for (int x = minX; x <= maxX; x++) {
+				Optional<RawColor> color = drawer.getRayColor(context, x, y, camera);
+				if (color.isPresent())
+					drawer.drawPixel(x, y, color.get());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return this region's minimum X-coordinate
+	 */
+	public int getMinX() {
+
+		return minX;
+	}
+
+	/**
+	 * @return this region's minimum Y-coordinate
+	 */
+	public int getMinY() {
+
+		return minY;
+	}
+
+	/**
+	 * @return this region's maximum X-coordinate
+	 */
+	public int getMaxX() {
+
+		return maxX;
+	}
+
+	/**
+	 * @return this region's maximum Y-coordinate
+	 */
+	public int getMaxY() {
+
+		return maxY;
+	}
+
+	/**
+	 * @return the number of pixels in this region
+	 */
+	public int getPixelCount() {
+
+		return (maxX - minX + 1) * (maxY - minY + 1);
+	}
+
+	@Override
+	public String toString() {
+
+		return "ScreenRegion [(" + minX + ", " + minY + ") - (" + maxX + ", " + maxY + ")]";
+	}
+}
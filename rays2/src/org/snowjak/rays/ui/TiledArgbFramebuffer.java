@@ -0,0 +1,170 @@
+package org.snowjak.rays.ui;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * A shared, primitive ARGB framebuffer, through which render-threads can hand
+ * finished pixels to a display without any locking.
+ * <p>
+ * The framebuffer is divided into square tiles. Render-threads
+ * {@link #setPixel(int, int, int) write} pixels straight into the shared array,
+ * and then mark the pixel's tile as dirty. The display periodically
+ * {@link #drainDirtyTiles(TileConsumer) drains} the dirty tiles, clearing each
+ * tile's marker <em>before</em> reading its pixels. A pixel written while its
+ * tile is being read will re-mark that tile, and so will be picked up by the
+ * next drain -- no update is ever lost, although a tile may be delivered more
+ * than once.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class TiledArgbFramebuffer {
+
+	/**
+	 * The default side-length of each tile, in pixels.
+	 */
+	public static final int DEFAULT_TILE_SIDE_LENGTH = 32;
+
+	private final int width, height, tileSideLength, tilesAcross;
+
+	private final int[] pixels;
+
+	private final AtomicIntegerArray dirtyTiles;
+
+	/**
+	 * Create a new TiledArgbFramebuffer of the given size, using the
+	 * {@link #DEFAULT_TILE_SIDE_LENGTH default tile-size}.
+	 *
+	 * @param width
+	 * @param height
+	 */
+	public TiledArgbFramebuffer(int width, int height) {
+		this(width, height, DEFAULT_TILE_SIDE_LENGTH);
+	}
+
+	/**
+	 * Create a new TiledArgbFramebuffer of the given size.
+	 *
+	 * @param width
+	 * @param height
+	 * @param tileSideLength
+	 */
+	public TiledArgbFramebuffer(int width, int height, int tileSideLength) {
+		this.width = width;
+		this.height = height;
+		this.tileSideLength = tileSideLength;
+		this.tilesAcross = (width + tileSideLength - 1) / tileSideLength;
+
+		int tilesDown = (height + tileSideLength - 1) / tileSideLength;
+
+		this.pixels = new int[width * height];
+		this.dirtyTiles = new AtomicIntegerArray(tilesAcross * tilesDown);
+	}
+
+	/**
+	 * Write a pixel, and mark its tile as needing to be redrawn.
+	 *
+	 * @param x
+	 * @param y
+	 * @param argb
+	 */
+	public void setPixel(int x, int y, int argb) {
+
+		pixels[y * width + x] = argb;
+		//
+		// This ordered write publishes the pixel (above) to whichever thread
+		// next drains this tile, without the cost of a full volatile write.
+		dirtyTiles.lazySet(getTileIndex(x, y), 1);
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return the ARGB value last written to the given pixel
+	 */
+	public int getPixel(int x, int y) {
+
+		return pixels[y * width + x];
+	}
+
+	/**
+	 * Hand every dirty tile to the given {@link TileConsumer}, clearing each
+	 * tile's dirty-marker as it goes.
+	 *
+	 * @param consumer
+	 * @return the number of tiles drained
+	 */
+	public int drainDirtyTiles(TileConsumer consumer) {
+
+		int drained = 0;
+		for (int tile = 0; tile < dirtyTiles.length(); tile++) {
+			if (dirtyTiles.get(tile) == 0 || dirtyTiles.getAndSet(tile, 0) == 0)
+				continue;
+
+			int minX = (tile % tilesAcross) * tileSideLength;
+			int minY = (tile / tilesAcross) * tileSideLength;
+			consumer.accept(minX, minY, FastMath.min(tileSideLength, width - minX),
+					FastMath.min(tileSideLength, height - minY));
+			drained++;
+		}
+
+		return drained;
+	}
+
+	/**
+	 * Get the shared pixel-array underlying this framebuffer, for bulk-copying
+	 * within a {@link TileConsumer}. Pixels are stored row by row, with a
+	 * scanline-stride of {@link #getWidth()}.
+	 *
+	 * @return the shared pixel-array
+	 */
+	public int[] getPixels() {
+
+		return pixels;
+	}
+
+	/**
+	 * @return this framebuffer's width, in pixels
+	 */
+	public int getWidth() {
+
+		return width;
+	}
+
+	/**
+	 * @return this framebuffer's height, in pixels
+	 */
+	public int getHeight() {
+
+		return height;
+	}
+
+	private int getTileIndex(int x, int y) {
+
+		return (y / tileSideLength) * tilesAcross + (x / tileSideLength);
+	}
+
+	/**
+	 * Receives dirty tiles from
+	 * {@link TiledArgbFramebuffer#drainDirtyTiles(TileConsumer)}.
+	 *
+	 * @author snowjak88
+	 *
+	 */
+	@FunctionalInterface
+	public interface TileConsumer {
+
+		/**
+		 * Accept a dirty tile.
+		 *
+		 * @param minX
+		 * @param minY
+		 * @param width
+		 * @param height
+		 */
+		public void accept(int minX, int minY, int width, int height);
+	}
+}
@@ -7,6 +7,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.snowjak.rays.RenderContext;
 import org.snowjak.rays.camera.Camera;
 
 import javafx.application.Platform;
@@ -68,7 +69,7 @@ public class TotalTimeElapsedScreenDecorator implements ScreenDrawer {
 	}
 
 	@Override
-	public void draw(Camera camera) {
+	public void draw(RenderContext context, Camera camera) {
 
 		AtomicReference<Instant> startedRunning = new AtomicReference<Instant>(Instant.now());
 
@@ -87,7 +88,7 @@ public class TotalTimeElapsedScreenDecorator implements ScreenDrawer {
 
 		}, timeUpdateInterval, timeUpdateInterval, intervalUnit);
 
-		child.draw(camera);
+		child.draw(context, camera);
 
 		timeUpdateThread.shutdown();
 	}
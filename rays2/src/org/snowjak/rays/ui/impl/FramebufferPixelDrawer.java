@@ -0,0 +1,162 @@
+package org.snowjak.rays.ui.impl;
+
+import java.awt.image.BufferedImage;
+
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.ui.BasicScreen;
+import org.snowjak.rays.ui.PixelDrawer;
+import org.snowjak.rays.ui.ScreenRegion;
+
+/**
+ * A headless implementation of {@link PixelDrawer}, which draws into an
+ * off-screen buffer of floating-point RGB triplets.
+ * <p>
+ * Each pixel is written by exactly one worker-thread, so drawing requires no
+ * locking. Readers must wait for the render to complete (e.g., by waiting on
+ * its {@link java.util.concurrent.Future}) before reading the buffer.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class FramebufferPixelDrawer extends BasicScreen implements PixelDrawer {
+
+	private final int width, height;
+
+	private final float[] rgb;
+
+	/**
+	 * Create a new FramebufferPixelDrawer sized according to the given
+	 * {@link Settings}.
+	 *
+	 * @param settings
+	 */
+	public FramebufferPixelDrawer(Settings settings) {
+		this(settings.getImageWidth(), settings.getImageHeight());
+	}
+
+	/**
+	 * Create a new FramebufferPixelDrawer of the given size.
+	 *
+	 * @param width
+	 * @param height
+	 */
+	public FramebufferPixelDrawer(int width, int height) {
+		super(width - 1, height - 1);
+
+		this.width = width;
+		this.height = height;
+		this.rgb = new float[width * height * 3];
+	}
+
+	@Override
+	public void drawPixel(int x, int y, RawColor color) {
+
+		int i = (y * width + x) * 3;
+		rgb[i] = (float) color.getRed();
+		rgb[i + 1] = (float) color.getGreen();
+		rgb[i + 2] = (float) color.getBlue();
+	}
+
+	/**
+	 * @param x
+	 * @param y
+	 * @return the color drawn at the given pixel (black if nothing has been
+	 *         drawn there)
+	 */
+	public RawColor getPixel(int x, int y) {
+
+		int i = (y * width + x) * 3;
+		return new RawColor(rgb[i], rgb[i + 1], rgb[i + 2]);
+	}
+
+	/**
+	 * Copy out the colors in the given {@link ScreenRegion}, as consecutive RGB
+	 * triplets, row by row.
+	 *
+	 * @param region
+	 * @return a new array of {@code 3 * region.getPixelCount()} color
+	 *         components
+	 */
+	public float[] getRegion(ScreenRegion region) {
+
+		int regionWidth = region.getMaxX() - region.getMinX() + 1;
+		float[] result = new float[region.getPixelCount() * 3];
+
+		for (int y = region.getMinY(); y <= region.getMaxY(); y++)
+			System.arraycopy(rgb, (y * width + region.getMinX()) * 3, result,
+					(y - region.getMinY()) * regionWidth * 3, regionWidth * 3);
+
+		return result;
+	}
+
+	/**
+	 * Copy the given colors (as produced by {@link #getRegion(ScreenRegion)})
+	 * into the given {@link ScreenRegion}.
+	 *
+	 * @param region
+	 * @param colors
+	 */
+	public void setRegion(ScreenRegion region, float[] colors) {
+
+		int regionWidth = region.getMaxX() - region.getMinX() + 1;
+		if (colors.length != region.getPixelCount() * 3)
+			throw new IllegalArgumentException("Expected " + (region.getPixelCount() * 3)
+					+ " color components for " + region + ", but was given " + colors.length + ".");
+
+		for (int y = region.getMinY(); y <= region.getMaxY(); y++)
+			System.arraycopy(colors, (y - region.getMinY()) * regionWidth * 3, rgb,
+					(y * width + region.getMinX()) * 3, regionWidth * 3);
+	}
+
+	/**
+	 * @return this framebuffer's width, in pixels
+	 */
+	public int getWidth() {
+
+		return width;
+	}
+
+	/**
+	 * @return this framebuffer's height, in pixels
+	 */
+	public int getHeight() {
+
+		return height;
+	}
+
+	/**
+	 * Convert this framebuffer's contents into a {@link BufferedImage}, clamping
+	 * each color component into [0,1].
+	 *
+	 * @return a new BufferedImage
+	 */
+	public BufferedImage toBufferedImage() {
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int i = (y * width + x) * 3;
+				row[x] = (toByte(rgb[i]) << 16) | (toByte(rgb[i + 1]) << 8) | toByte(rgb[i + 2]);
+			}
+			image.setRGB(0, y, width, 1, row, 0, width);
+		}
+
+		return image;
+	}
+
+	private static int toByte(float component) {
+
+		return FastMath.round(FastMath.max(FastMath.min(component, 1f), 0f) * 255f);
+	}
+
+	@Override
+	public void shutdown() {
+
+	}
+
+}
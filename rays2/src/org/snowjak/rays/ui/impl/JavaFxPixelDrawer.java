@@ -10,7 +10,9 @@ import org.snowjak.rays.Settings;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.ui.BasicScreen;
 import org.snowjak.rays.ui.PixelDrawer;
+import org.snowjak.rays.ui.TiledArgbFramebuffer;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.DoubleProperty;
@@ -24,6 +26,7 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
@@ -35,7 +38,10 @@ import javafx.stage.Stage;
  * A basic implementation of PixelDrawer under JavaFX.
  * <p>
  * This implementation creates a new window into which the Renderer draws the
- * finished image. The window has a context-menu (summoned by right-clicking the
+ * finished image. Render-threads do not touch the image directly -- instead,
+ * they write into a {@link TiledArgbFramebuffer}, whose dirty tiles are copied
+ * into the image in bulk, once per {@link #FRAME_INTERVAL_NANOS frame}. The
+ * window has a context-menu (summoned by right-clicking the
  * completed image) which allows the user to save the finished image to
  * secondary storage in a variety of formats.
  * </p>
@@ -45,7 +51,15 @@ import javafx.stage.Stage;
  */
 public class JavaFxPixelDrawer extends BasicScreen implements PixelDrawer {
 
-	private PixelWriter pixels;
+	/**
+	 * The interval between refreshes of the displayed image, in nanoseconds
+	 * (i.e., 30 frames per second).
+	 */
+	public static final long FRAME_INTERVAL_NANOS = 1000000000L / 30L;
+
+	private final TiledArgbFramebuffer framebuffer;
+
+	private final AnimationTimer refreshTimer;
 
 	/**
 	 * Create a new JavaFxScreen contained within the provided {@link Stage}.
@@ -91,13 +105,34 @@ public class JavaFxPixelDrawer extends BasicScreen implements PixelDrawer {
 		root.translateXProperty().bind(scene.widthProperty().divide(2.0).subtract(image.getWidth() / 2.0));
 		root.translateYProperty().bind(scene.heightProperty().divide(2.0).subtract(image.getHeight() / 2.0));
 
-		this.pixels = image.getPixelWriter();
+		this.framebuffer = new TiledArgbFramebuffer(settings.getImageWidth(), settings.getImageHeight());
+
+		PixelWriter pixels = image.getPixelWriter();
+		int[] buffer = framebuffer.getPixels();
+		int scanlineStride = framebuffer.getWidth();
+
+		this.refreshTimer = new AnimationTimer() {
+
+			private long lastRefresh = 0;
+
+			@Override
+			public void handle(long now) {
+
+				if (now - lastRefresh < FRAME_INTERVAL_NANOS)
+					return;
+				lastRefresh = now;
+
+				framebuffer.drainDirtyTiles((minX, minY, width, height) -> pixels.setPixels(minX, minY, width, height,
+						PixelFormat.getIntArgbInstance(), buffer, minY * scanlineStride + minX, scanlineStride));
+			}
+		};
+		this.refreshTimer.start();
 	}
 
 	@Override
 	public void drawPixel(int x, int y, RawColor color) {
 
-		Platform.runLater(() -> pixels.setColor(x, y, color.toColor()));
+		framebuffer.setPixel(x, y, color.toArgb());
 	}
 
 	private ContextMenu constructImageContextMenu(Stage screenStage, ImageView imageView) {
@@ -146,6 +181,7 @@ public class JavaFxPixelDrawer extends BasicScreen implements PixelDrawer {
 	@Override
 	public void shutdown() {
 
+		Platform.runLater(() -> refreshTimer.stop());
 	}
 
 }
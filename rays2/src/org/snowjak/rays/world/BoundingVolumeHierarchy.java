@@ -0,0 +1,556 @@
+package org.snowjak.rays.world;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.shape.BoundingBox;
+import org.snowjak.rays.shape.Shape;
+
+/**
+ * A bounding-volume hierarchy over a set of {@link Shape}s, allowing a
+ * {@link World} to test a {@link Ray} against only those Shapes whose
+ * {@link BoundingBox}es it actually crosses.
+ * <p>
+ * The hierarchy is a binary tree, built top-down by splitting each node's
+ * Shapes at the median of their bounding-box centers (along whichever axis
+ * those centers are most spread out). The tree is stored "flattened" into
+ * primitive arrays, in depth-first order -- each interior node's left child
+ * immediately follows it -- so traversal requires no object allocation.
+ * </p>
+ * <p>
+ * Shapes that are {@link BoundingBox#isUnbounded() unbounded} (e.g.,
+ * {@link org.snowjak.rays.shape.Plane}s) cannot usefully be placed in the
+ * tree; they are kept to one side, and tested against every Ray. Shapes that
+ * are {@link BoundingBox#isEmpty() empty} can never be intersected, and are
+ * dropped entirely.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class BoundingVolumeHierarchy {
+
+	/**
+	 * Nodes with no more than this many Shapes will not be split further.
+	 */
+	private static final int MAX_LEAF_SIZE = 4;
+
+	/**
+	 * Generous upper bound on the depth of any tree we build. (Median-splits
+	 * ensure that depth grows only with log2 of the Shape-count.)
+	 */
+	private static final int MAX_DEPTH = 64;
+
+	private final Shape[] shapes;
+
+	private final List<Shape> unboundedShapes;
+
+	/**
+	 * 6 values per node: minX, minY, minZ, maxX, maxY, maxZ
+	 */
+	private final double[] nodeBounds;
+
+	/**
+	 * For leaf nodes: the index of the node's first Shape in {@link #shapes}.
+	 * For interior nodes: the index of the node's right child. (Its left child
+	 * is always the very next node.)
+	 */
+	private final int[] nodeOffsets;
+
+	/**
+	 * For leaf nodes: the number of Shapes in the node. For interior nodes: 0.
+	 */
+	private final int[] nodeCounts;
+
+	/**
+	 * The parent of each node (or -1, for the root).
+	 */
+	private final int[] nodeParents;
+
+	/**
+	 * The leaf-node holding each bounded Shape.
+	 */
+	private final Map<Shape, Integer> shapeLeaves = new IdentityHashMap<>();
+
+	private int nodeCount = 0;
+
+	/**
+	 * Build a new bounding-volume hierarchy over the given Shapes.
+	 *
+	 * @param shapes
+	 */
+	public BoundingVolumeHierarchy(Collection<Shape> shapes) {
+
+		List<Shape> bounded = new ArrayList<>(shapes.size());
+		List<BoundingBox> boundedBoxes = new ArrayList<>(shapes.size());
+		List<Shape> unbounded = new LinkedList<>();
+
+		for (Shape shape : shapes) {
+			BoundingBox box = shape.getBoundingBox();
+			if (box.isEmpty())
+				continue;
+			if (box.isUnbounded())
+				unbounded.add(shape);
+			else {
+				bounded.add(shape);
+				boundedBoxes.add(box);
+			}
+		}
+
+		this.shapes = new Shape[bounded.size()];
+		this.unboundedShapes = Collections.unmodifiableList(new ArrayList<>(unbounded));
+
+		//
+		// A binary tree with N leaves has (2N - 1) nodes, and we have no more
+		// leaves than we have Shapes.
+		int maxNodes = FastMath.max(2 * bounded.size() - 1, 1);
+		this.nodeBounds = new double[6 * maxNodes];
+		this.nodeOffsets = new int[maxNodes];
+		this.nodeCounts = new int[maxNodes];
+		this.nodeParents = new int[maxNodes];
+
+		if (bounded.isEmpty()) {
+			writeBounds(0, BoundingBox.EMPTY);
+			nodeCount = 1;
+			return;
+		}
+
+		Integer[] order = new Integer[bounded.size()];
+		Vector3D[] centers = new Vector3D[bounded.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+			centers[i] = boundedBoxes.get(i).getCenter();
+		}
+
+		build(-1, order, 0, order.length, bounded, boundedBoxes, centers);
+	}
+
+	private int build(int parent, Integer[] order, int from, int to, List<Shape> bounded, List<BoundingBox> boxes,
+			Vector3D[] centers) {
+
+		int node = nodeCount++;
+		nodeParents[node] = parent;
+
+		BoundingBox nodeBox = BoundingBox.EMPTY, centerBox = BoundingBox.EMPTY;
+		for (int i = from; i < to; i++) {
+			nodeBox = nodeBox.union(boxes.get(order[i]));
+			centerBox = centerBox.union(new BoundingBox(centers[order[i]], centers[order[i]]));
+		}
+		writeBounds(node, nodeBox);
+
+		int count = to - from;
+		if (count <= MAX_LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				shapes[i] = bounded.get(order[i]);
+				shapeLeaves.put(shapes[i], node);
+			}
+			nodeOffsets[node] = from;
+			nodeCounts[node] = count;
+			return node;
+		}
+
+		//
+		// Split along whichever axis the Shapes' centers are most spread out.
+		double spreadX = centerBox.getMaxX() - centerBox.getMinX(),
+				spreadY = centerBox.getMaxY() - centerBox.getMinY(),
+				spreadZ = centerBox.getMaxZ() - centerBox.getMinZ();
+		Comparator<Integer> byCenter;
+		if (spreadX >= spreadY && spreadX >= spreadZ)
+			byCenter = (i1, i2) -> Double.compare(centers[i1].getX(), centers[i2].getX());
+		else if (spreadY >= spreadZ)
+			byCenter = (i1, i2) -> Double.compare(centers[i1].getY(), centers[i2].getY());
+		else
+			byCenter = (i1, i2) -> Double.compare(centers[i1].getZ(), centers[i2].getZ());
+
+		Arrays.sort(order, from, to, byCenter);
+
+		int middle = from + count / 2;
+		build(node, order, from, middle, bounded, boxes, centers);
+		nodeOffsets[node] = build(node, order, middle, to, bounded, boxes, centers);
+		nodeCounts[node] = 0;
+
+		return node;
+	}
+
+	private BoundingVolumeHierarchy(Shape[] shapes, List<Shape> unboundedShapes, double[] nodeBounds,
+			int[] nodeOffsets, int[] nodeCounts, int[] nodeParents) {
+
+		this.shapes = shapes;
+		this.unboundedShapes = Collections.unmodifiableList(unboundedShapes);
+		this.nodeBounds = nodeBounds;
+		this.nodeOffsets = nodeOffsets;
+		this.nodeCounts = nodeCounts;
+		this.nodeParents = nodeParents;
+		this.nodeCount = nodeOffsets.length;
+
+		for (int node = 0; node < nodeCount; node++)
+			for (int i = nodeOffsets[node]; i < nodeOffsets[node] + nodeCounts[node]; i++)
+				shapeLeaves.put(shapes[i], node);
+	}
+
+	/**
+	 * Write this hierarchy's structure to the given output, so that it may be
+	 * {@link #readFrom(ByteBuffer, IntFunction) read back} without being
+	 * rebuilt. Shapes are not written, but identified by index.
+	 * 
+	 * @param out
+	 * @param shapeIndex
+	 *            gives the index of each Shape in this hierarchy
+	 * @throws IOException
+	 */
+	public void writeTo(DataOutput out, ToIntFunction<Shape> shapeIndex) throws IOException {
+
+		out.writeInt(unboundedShapes.size());
+		for (Shape shape : unboundedShapes)
+			out.writeInt(shapeIndex.applyAsInt(shape));
+
+		out.writeInt(shapes.length);
+		for (Shape shape : shapes)
+			out.writeInt(shapeIndex.applyAsInt(shape));
+
+		out.writeInt(nodeCount);
+		for (int i = 0; i < 6 * nodeCount; i++)
+			out.writeDouble(nodeBounds[i]);
+		for (int node = 0; node < nodeCount; node++)
+			out.writeInt(nodeOffsets[node]);
+		for (int node = 0; node < nodeCount; node++)
+			out.writeInt(nodeCounts[node]);
+		for (int node = 0; node < nodeCount; node++)
+			out.writeInt(nodeParents[node]);
+	}
+
+	/**
+	 * Read back a hierarchy written by
+	 * {@link #writeTo(DataOutput, ToIntFunction)}, starting at the buffer's
+	 * current position.
+	 * 
+	 * @param in
+	 * @param shapeForIndex
+	 *            gives the Shape for each index
+	 * @return the hierarchy, as it was written
+	 */
+	public static BoundingVolumeHierarchy readFrom(ByteBuffer in, IntFunction<Shape> shapeForIndex) {
+
+		List<Shape> unbounded = new ArrayList<>();
+		for (int count = in.getInt(), i = 0; i < count; i++)
+			unbounded.add(shapeForIndex.apply(in.getInt()));
+
+		Shape[] shapes = new Shape[in.getInt()];
+		for (int i = 0; i < shapes.length; i++)
+			shapes[i] = shapeForIndex.apply(in.getInt());
+
+		int nodeCount = in.getInt();
+		double[] nodeBounds = new double[6 * nodeCount];
+		in.asDoubleBuffer().get(nodeBounds);
+		in.position(in.position() + Double.BYTES * nodeBounds.length);
+
+		int[] nodeOffsets = new int[nodeCount], nodeCounts = new int[nodeCount], nodeParents = new int[nodeCount];
+		for (int[] array : new int[][] { nodeOffsets, nodeCounts, nodeParents }) {
+			in.asIntBuffer().get(array);
+			in.position(in.position() + Integer.BYTES * array.length);
+		}
+
+		return new BoundingVolumeHierarchy(shapes, unbounded, nodeBounds, nodeOffsets, nodeCounts, nodeParents);
+	}
+
+	/**
+	 * Recompute every node's bounds from its Shapes' current
+	 * {@link Shape#getBoundingBox() bounding-boxes}, without changing the
+	 * tree's structure. Useful when Shapes have moved a little -- but the
+	 * tree will become less efficient the farther they move.
+	 */
+	public void refit() {
+
+		//
+		// Children are always stored after their parents, so we can update
+		// the whole tree bottom-up in a single reverse pass.
+		for (int node = nodeCount - 1; node >= 0; node--)
+			refitNode(node);
+	}
+
+	/**
+	 * Recompute the bounds of only those nodes which contain any of the given
+	 * Shapes -- i.e., their leaves, and those leaves' ancestors. The rest of
+	 * the tree is left untouched. This is much cheaper than a full
+	 * {@link #refit()} when only a few of many Shapes have moved.
+	 * <p>
+	 * Each Shape must either be held in this hierarchy, or be
+	 * {@link #getUnboundedShapes() unbounded} both before and after it moved.
+	 * </p>
+	 *
+	 * @param movedShapes
+	 * @return <code>false</code> if any of the given Shapes could not be
+	 *         refitted (because it is not held in this hierarchy's tree), in
+	 *         which case the hierarchy should be rebuilt
+	 */
+	public boolean refit(Collection<Shape> movedShapes) {
+
+		BitSet dirty = new BitSet(nodeCount);
+		for (Shape shape : movedShapes) {
+			Integer leaf = shapeLeaves.get(shape);
+			if (leaf == null) {
+				if (unboundedShapes.contains(shape) && shape.getBoundingBox().isUnbounded())
+					continue;
+				return false;
+			}
+			if (shape.getBoundingBox().isUnbounded())
+				return false;
+
+			for (int node = leaf; node >= 0 && !dirty.get(node); node = nodeParents[node])
+				dirty.set(node);
+		}
+
+		//
+		// Children are always stored after their parents -- so, as above,
+		// refitting in reverse order handles each node after its children.
+		for (int node = dirty.previousSetBit(nodeCount - 1); node >= 0; node = dirty.previousSetBit(node - 1))
+			refitNode(node);
+
+		return true;
+	}
+
+	private void refitNode(int node) {
+
+		BoundingBox box = BoundingBox.EMPTY;
+		if (nodeCounts[node] > 0) {
+			for (int i = nodeOffsets[node]; i < nodeOffsets[node] + nodeCounts[node]; i++)
+				box = box.union(shapes[i].getBoundingBox());
+		} else if (shapes.length > 0) {
+			box = readBounds(node + 1).union(readBounds(nodeOffsets[node]));
+		}
+		writeBounds(node, box);
+	}
+
+	/**
+	 * Find the closest {@link Intersection} the given {@link Ray} produces
+	 * with any of this hierarchy's Shapes.
+	 *
+	 * @param ray
+	 * @param ignoreShapes
+	 * @return the closest Intersection, if any
+	 */
+	public Optional<Intersection<Shape>> getClosestIntersection(Ray ray, List<Shape> ignoreShapes) {
+
+		Intersection<Shape> closest = null;
+		double closestDistance = Double.POSITIVE_INFINITY;
+
+		for (Shape shape : unboundedShapes) {
+			if (ignoreShapes.contains(shape))
+				continue;
+			Optional<Intersection<Shape>> intersection = shape.getIntersection(ray);
+			if (intersection.isPresent() && intersection.get().getDistanceFromRayOrigin() < closestDistance) {
+				closest = intersection.get();
+				closestDistance = closest.getDistanceFromRayOrigin();
+			}
+		}
+
+		if (shapes.length > 0) {
+			final double ox = ray.getOrigin().getX(), oy = ray.getOrigin().getY(), oz = ray.getOrigin().getZ();
+			final double ix = 1d / ray.getVector().getX(), iy = 1d / ray.getVector().getY(),
+					iz = 1d / ray.getVector().getZ();
+
+			int[] stack = new int[MAX_DEPTH];
+			int stackSize = 0;
+			stack[stackSize++] = 0;
+
+			while (stackSize > 0) {
+				int node = stack[--stackSize];
+				if (Double.isNaN(entryDistance(node, ox, oy, oz, ix, iy, iz, closestDistance)))
+					continue;
+
+				if (nodeCounts[node] > 0) {
+					for (int i = nodeOffsets[node]; i < nodeOffsets[node] + nodeCounts[node]; i++) {
+						if (ignoreShapes.contains(shapes[i]))
+							continue;
+						Optional<Intersection<Shape>> intersection = shapes[i].getIntersection(ray);
+						if (intersection.isPresent()
+								&& intersection.get().getDistanceFromRayOrigin() < closestDistance) {
+							closest = intersection.get();
+							closestDistance = closest.getDistanceFromRayOrigin();
+						}
+					}
+				} else {
+					//
+					// Visit the nearer child first, so that we find a close
+					// intersection early and can prune the farther child.
+					int left = node + 1, right = nodeOffsets[node];
+					double leftDistance = entryDistance(left, ox, oy, oz, ix, iy, iz, closestDistance),
+							rightDistance = entryDistance(right, ox, oy, oz, ix, iy, iz, closestDistance);
+					if (Double.isNaN(rightDistance)) {
+						if (!Double.isNaN(leftDistance))
+							stack[stackSize++] = left;
+					} else if (Double.isNaN(leftDistance)) {
+						stack[stackSize++] = right;
+					} else if (leftDistance <= rightDistance) {
+						stack[stackSize++] = right;
+						stack[stackSize++] = left;
+					} else {
+						stack[stackSize++] = left;
+						stack[stackSize++] = right;
+					}
+				}
+			}
+		}
+
+		return Optional.ofNullable(closest);
+	}
+
+	/**
+	 * Find any Shape that intersects the given {@link Ray} at a distance in
+	 * ({@link World#NEARLY_ZERO}, {@code maxDistance}). This is not
+	 * necessarily the closest such Shape.
+	 *
+	 * @param ray
+	 * @param maxDistance
+	 * @param ignoreShapes
+	 * @return an occluding Shape, if any
+	 */
+	public Optional<Shape> findOccluder(Ray ray, double maxDistance, List<Shape> ignoreShapes) {
+
+		for (Shape shape : unboundedShapes)
+			if (!ignoreShapes.contains(shape) && isOccludedBy(shape, ray, maxDistance))
+				return Optional.of(shape);
+
+		if (shapes.length == 0)
+			return Optional.empty();
+
+		final double ox = ray.getOrigin().getX(), oy = ray.getOrigin().getY(), oz = ray.getOrigin().getZ();
+		final double ix = 1d / ray.getVector().getX(), iy = 1d / ray.getVector().getY(),
+				iz = 1d / ray.getVector().getZ();
+
+		int[] stack = new int[MAX_DEPTH];
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			if (Double.isNaN(entryDistance(node, ox, oy, oz, ix, iy, iz, maxDistance)))
+				continue;
+
+			if (nodeCounts[node] > 0) {
+				for (int i = nodeOffsets[node]; i < nodeOffsets[node] + nodeCounts[node]; i++)
+					if (!ignoreShapes.contains(shapes[i]) && isOccludedBy(shapes[i], ray, maxDistance))
+						return Optional.of(shapes[i]);
+			} else {
+				stack[stackSize++] = nodeOffsets[node];
+				stack[stackSize++] = node + 1;
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Determine if the given Shape intersects the given Ray at a distance in
+	 * ({@link World#NEARLY_ZERO}, {@code maxDistance}).
+	 *
+	 * @param shape
+	 * @param ray
+	 * @param maxDistance
+	 * @return <code>true</code> if the Shape occludes the Ray
+	 */
+	public static boolean isOccludedBy(Shape shape, Ray ray, double maxDistance) {
+
+		Optional<Intersection<Shape>> intersection = shape.getIntersection(ray);
+		return intersection.isPresent()
+				&& Double.compare(intersection.get().getDistanceFromRayOrigin(), World.NEARLY_ZERO) > 0
+				&& Double.compare(intersection.get().getDistanceFromRayOrigin(), maxDistance) < 0;
+	}
+
+	/**
+	 * @param ray
+	 * @return every Shape that the given Ray might possibly intersect
+	 */
+	public List<Shape> getCandidates(Ray ray) {
+
+		List<Shape> candidates = new LinkedList<>(unboundedShapes);
+
+		if (shapes.length == 0)
+			return candidates;
+
+		final double ox = ray.getOrigin().getX(), oy = ray.getOrigin().getY(), oz = ray.getOrigin().getZ();
+		final double ix = 1d / ray.getVector().getX(), iy = 1d / ray.getVector().getY(),
+				iz = 1d / ray.getVector().getZ();
+
+		int[] stack = new int[MAX_DEPTH];
+		int stackSize = 0;
+		stack[stackSize++] = 0;
+
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			if (Double.isNaN(entryDistance(node, ox, oy, oz, ix, iy, iz, Double.POSITIVE_INFINITY)))
+				continue;
+
+			if (nodeCounts[node] > 0) {
+				for (int i = nodeOffsets[node]; i < nodeOffsets[node] + nodeCounts[node]; i++)
+					candidates.add(shapes[i]);
+			} else {
+				stack[stackSize++] = nodeOffsets[node];
+				stack[stackSize++] = node + 1;
+			}
+		}
+
+		return candidates;
+	}
+
+	/**
+	 * @return the bounding-box enclosing every bounded Shape in this hierarchy
+	 */
+	public BoundingBox getBoundingBox() {
+
+		return readBounds(0);
+	}
+
+	/**
+	 * @return those Shapes which are not held in the tree, because they are
+	 *         unbounded
+	 */
+	public List<Shape> getUnboundedShapes() {
+
+		return unboundedShapes;
+	}
+
+	private double entryDistance(int node, double ox, double oy, double oz, double ix, double iy, double iz,
+			double maxDistance) {
+
+		int b = 6 * node;
+		return BoundingBox.getEntryDistance(nodeBounds[b], nodeBounds[b + 1], nodeBounds[b + 2], nodeBounds[b + 3],
+				nodeBounds[b + 4], nodeBounds[b + 5], ox, oy, oz, ix, iy, iz, maxDistance);
+	}
+
+	private void writeBounds(int node, BoundingBox box) {
+
+		int b = 6 * node;
+		nodeBounds[b] = box.getMinX();
+		nodeBounds[b + 1] = box.getMinY();
+		nodeBounds[b + 2] = box.getMinZ();
+		nodeBounds[b + 3] = box.getMaxX();
+		nodeBounds[b + 4] = box.getMaxY();
+		nodeBounds[b + 5] = box.getMaxZ();
+	}
+
+	private BoundingBox readBounds(int node) {
+
+		int b = 6 * node;
+		return new BoundingBox(nodeBounds[b], nodeBounds[b + 1], nodeBounds[b + 2], nodeBounds[b + 3],
+				nodeBounds[b + 4], nodeBounds[b + 5]);
+	}
+}
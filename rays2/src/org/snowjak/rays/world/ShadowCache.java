@@ -0,0 +1,96 @@
+package org.snowjak.rays.world;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.shape.Shape;
+
+/**
+ * A per-thread cache of the last {@link Shape} found to occlude each light.
+ * <p>
+ * Neighboring primary rays -- and all the antialiasing sub-samples of a
+ * single pixel -- tend to shade nearly the same point against the same light.
+ * If a Shape occluded that light the last time around, it very likely
+ * occludes it this time as well. Testing that one Shape first is far cheaper
+ * than a full traversal of the World.
+ * </p>
+ * <p>
+ * Lights are keyed by identity: either the emissive {@link Shape} or the
+ * {@link DirectionalLight} in question. Because each rendering thread has its
+ * own cache, no synchronization is needed on the hot path.
+ * </p>
+ * <p>
+ * The cache holds only <em>hints</em>: a cached occluder is always re-tested
+ * before being trusted. Still, an occluder removed from the World must not be
+ * reported, so each thread's cache is discarded whenever the World's
+ * {@link World#getVersion() version} changes.
+ * </p>
+ * <p>
+ * A ShadowCache belongs to a single render (see
+ * {@link org.snowjak.rays.RenderContext}), so that concurrent renders of the
+ * same World do not disturb each others' hints.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class ShadowCache {
+
+	private final World world;
+
+	private final ThreadLocal<CacheEntries> entries = ThreadLocal.withInitial(() -> new CacheEntries());
+
+	/**
+	 * Create a new (empty) ShadowCache for the given {@link World}.
+	 *
+	 * @param world
+	 */
+	public ShadowCache(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * @param light
+	 * @return the Shape last found to occlude the given light, on this thread,
+	 *         or <code>null</code> if there is none
+	 */
+	public Shape getLastOccluder(Object light) {
+
+		return getEntries().lastOccluders.get(light);
+	}
+
+	/**
+	 * Record the Shape just found to occlude the given light, on this thread.
+	 *
+	 * @param light
+	 * @param occluder
+	 *            if <code>null</code>, forget any occluder recorded for this
+	 *            light
+	 */
+	public void setLastOccluder(Object light, Shape occluder) {
+
+		if (occluder == null)
+			getEntries().lastOccluders.remove(light);
+		else
+			getEntries().lastOccluders.put(light, occluder);
+	}
+
+	private CacheEntries getEntries() {
+
+		CacheEntries current = entries.get();
+		long currentVersion = world.getVersion();
+		if (current.worldVersion != currentVersion) {
+			current.lastOccluders.clear();
+			current.worldVersion = currentVersion;
+		}
+		return current;
+	}
+
+	private static class CacheEntries {
+
+		private long worldVersion = -1;
+
+		private final Map<Object, Shape> lastOccluders = new IdentityHashMap<>();
+	}
+}
@@ -1,20 +1,24 @@
 package org.snowjak.rays.world;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.snowjak.rays.Ray;
-import org.snowjak.rays.RaytracerContext;
 import org.snowjak.rays.camera.Camera;
 import org.snowjak.rays.color.RawColor;
 import org.snowjak.rays.intersect.Intersection;
 import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.light.LightSelector;
 import org.snowjak.rays.shape.Shape;
 import org.snowjak.rays.util.ExecutionTimeTracker;
 
@@ -23,8 +27,23 @@ import org.snowjak.rays.util.ExecutionTimeTracker;
  * Represents the entire 3D context in which the raytracer operates.
  * </p>
  * <p>
- * A <strong>singleton</strong>, there will only be 1 instance of this object in
- * the JVM.
+ * A World is an explicit scene-container: {@link Shape}s and
+ * {@link DirectionalLight}s are added and removed through
+ * {@link #addShape(Shape)}, {@link #removeShape(Shape)}, and so on. This lets
+ * the World keep its derived indexes -- the list of emissive Shapes, the
+ * {@link LightSelector}, and the {@link BoundingVolumeHierarchy} -- up to date
+ * as the scene changes, rather than having to re-derive them on the hot path.
+ * </p>
+ * <p>
+ * If you modify a Shape already in the World (e.g., by changing its
+ * {@link Shape#getTransformers() transformers}), you must report it via
+ * {@link #shapeChanged(Shape)}.
+ * </p>
+ * <p>
+ * Every change to the World's contents increments its {@link #getVersion()
+ * version}, which caches may consult to detect when they have become stale.
+ * Once {@link #freeze() frozen}, a World's contents may no longer be
+ * changed.
  * </p>
  * 
  * @author snowjak88
@@ -46,15 +65,30 @@ public class World {
 
 	private Camera camera = null;
 
-	private final List<Shape> shapes = new LinkedList<>();
+	private final List<Shape> shapes = new ArrayList<>();
+
+	private final List<Shape> unmodifiableShapes = Collections.unmodifiableList(shapes);
+
+	private final List<Shape> emissiveShapes = new ArrayList<>();
 
-	private List<Shape> emissiveShapes = null;
+	private final List<Shape> unmodifiableEmissiveShapes = Collections.unmodifiableList(emissiveShapes);
 
-	private long lastShapesHashWhenGeneratedEmissiveShapes = -1;
+	private volatile LightSelector lightSelector = null;
+
+	private volatile BoundingVolumeHierarchy boundingVolumeHierarchy = null;
 
 	private RawColor ambientRadiance = new RawColor();
 
-	private List<DirectionalLight> directionalLights = new LinkedList<>();
+	private final List<DirectionalLight> directionalLights = new ArrayList<>();
+
+	private final List<DirectionalLight> unmodifiableDirectionalLights = Collections
+			.unmodifiableList(directionalLights);
+
+	private final AtomicLong version = new AtomicLong();
+
+	private volatile boolean frozen = false;
+
+	private final List<WorldChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
 	/**
 	 * Create a new (empty) {@link World} instance.
@@ -79,26 +113,119 @@ public class World {
 
 		Instant start = Instant.now();
 
-		List<Intersection<Shape>> occludingIntersections = RaytracerContext.getSingleton()
-				.getCurrentWorld()
-				.getShapeIntersections(new Ray(eyePoint, point.subtract(eyePoint)), ignoreShapes);
+		boolean result = !isOccluded(null, null, new Ray(eyePoint, point.subtract(eyePoint)), eyePoint.distance(point),
+				ignoreShapes);
 
-		double pointDistanceFromEye = eyePoint.distance(point);
+		ExecutionTimeTracker.logExecutionRecord("World.isPointVisibleFromEye", start, Instant.now(), null);
+
+		return result;
+	}
 
-		boolean result = true;
+	/**
+	 * Determine if the given {@code eyePoint} can see the given
+	 * {@code lightPoint} (lying on the given emissive Shape, or some other kind
+	 * of light) -- i.e., if there are no Shapes between the two points. Ignore
+	 * any Shapes included in {@code ignoreShapes}.
+	 * <p>
+	 * Unlike {@link #isPointVisibleFromEye(Vector3D, Vector3D, Shape...)}, this
+	 * method consults (and updates) the given {@link ShadowCache}, if any.
+	 * </p>
+	 * 
+	 * @param shadowCache
+	 *            the {@link ShadowCache} to use, or <code>null</code> to skip
+	 *            the shadow-cache entirely
+	 * @param light
+	 *            the light being tested, used to key the {@link ShadowCache}
+	 * @param lightPoint
+	 * @param eyePoint
+	 * @param ignoreShapes
+	 * @return <code>true</code> if the two points are not occluded from each
+	 *         other by any Shape (not including those Shapes in
+	 *         {@code ignoreShapes})
+	 */
+	public boolean isPointVisibleFromLight(ShadowCache shadowCache, Object light, Vector3D lightPoint,
+			Vector3D eyePoint, Shape... ignoreShapes) {
 
-		if (!occludingIntersections.isEmpty() && occludingIntersections.parallelStream()
-				.anyMatch(i -> Double.compare(i.getDistanceFromRayOrigin(), pointDistanceFromEye) < 0))
-			result = false;
+		return !isOccluded(shadowCache, light, new Ray(eyePoint, lightPoint.subtract(eyePoint)),
+				eyePoint.distance(lightPoint), ignoreShapes);
+	}
 
-		ExecutionTimeTracker.logExecutionRecord("World.isPointVisibleFromEye", start, Instant.now(), null);
+	/**
+	 * Determine if the given {@link DirectionalLight} can illuminate the given
+	 * {@code eyePoint} -- i.e., if there are no Shapes in the way, looking back
+	 * along the light's direction. Ignore any Shapes included in
+	 * {@code ignoreShapes}.
+	 * <p>
+	 * This method consults (and updates) the given {@link ShadowCache}, if any.
+	 * </p>
+	 * 
+	 * @param shadowCache
+	 *            the {@link ShadowCache} to use, or <code>null</code> to skip
+	 *            the shadow-cache entirely
+	 * @param light
+	 * @param eyePoint
+	 * @param ignoreShapes
+	 * @return <code>true</code> if the light is not occluded from the given
+	 *         point by any Shape (not including those Shapes in
+	 *         {@code ignoreShapes})
+	 */
+	public boolean isDirectionalLightVisible(ShadowCache shadowCache, DirectionalLight light, Vector3D eyePoint,
+			Shape... ignoreShapes) {
 
-		return result;
+		return !isOccluded(shadowCache, light, new Ray(eyePoint, light.getDirection().negate()),
+				Double.POSITIVE_INFINITY, ignoreShapes);
 	}
 
 	/**
-	 * Check every single {@link Shape} in this world and return the closest
-	 * resulting {@link Intersection} the given {@link Ray} produces.
+	 * Determine if any Shape (aside from {@code ignoreShapes}) intersects the
+	 * given Ray closer than {@code maxDistance}.
+	 * <p>
+	 * If a {@code shadowCache} and {@code light} are given, the Shape
+	 * that last occluded that light on this thread is tested first. Only if
+	 * that Shape does not occlude this Ray do we fall back to testing the
+	 * whole World -- and we remember whichever occluder we find (if any) for
+	 * next time.
+	 * </p>
+	 */
+	private boolean isOccluded(ShadowCache shadowCache, Object light, Ray ray, double maxDistance,
+			Shape... ignoreShapes) {
+
+		if (ignoreShapes == null)
+			ignoreShapes = new Shape[0];
+
+		final List<Shape> ignoreShapesList = Arrays.asList(ignoreShapes);
+
+		if (shadowCache == null || light == null)
+			return findOccluder(ray, maxDistance, ignoreShapesList).isPresent();
+
+		Instant start = Instant.now();
+
+		Shape lastOccluder = shadowCache.getLastOccluder(light);
+		if (lastOccluder != null && !ignoreShapesList.contains(lastOccluder)
+				&& BoundingVolumeHierarchy.isOccludedBy(lastOccluder, ray, maxDistance)) {
+
+			ExecutionTimeTracker.logExecutionRecord("World.shadowCache (hit)", start, Instant.now(), null);
+			return true;
+		}
+
+		Optional<Shape> occluder = findOccluder(ray, maxDistance, ignoreShapesList);
+		shadowCache.setLastOccluder(light, occluder.orElse(null));
+
+		ExecutionTimeTracker.logExecutionRecord("World.shadowCache (miss)", start, Instant.now(), null);
+		return occluder.isPresent();
+	}
+
+	private Optional<Shape> findOccluder(Ray ray, double maxDistance, List<Shape> ignoreShapes) {
+
+		//
+		// We don't need the closest occluder -- any one will do -- so we can
+		// stop as soon as we find one.
+		return getBoundingVolumeHierarchy().findOccluder(ray, maxDistance, ignoreShapes);
+	}
+
+	/**
+	 * Check every {@link Shape} in this world and return the closest resulting
+	 * {@link Intersection} the given {@link Ray} produces.
 	 * 
 	 * @param ray
 	 *            the ray to use, expressed in global coordinates
@@ -114,13 +241,8 @@ public class World {
 		final List<Shape> ignoreShapesList = Arrays.asList(ignoreShapes);
 
 		Instant start = Instant.now();
-		Optional<Intersection<Shape>> result = getShapes().parallelStream()
-				.filter(s -> !ignoreShapesList.contains(s))
-				.map(s -> s.getIntersection(ray))
-				.filter(oi -> oi.isPresent())
-				.map(o -> o.get())
-				.sorted((i1, i2) -> Double.compare(i1.getDistanceFromRayOrigin(), i2.getDistanceFromRayOrigin()))
-				.findFirst();
+		Optional<Intersection<Shape>> result = getBoundingVolumeHierarchy().getClosestIntersection(ray,
+				ignoreShapesList);
 
 		ExecutionTimeTracker.logExecutionRecord("World.getClosestShapeIntersection", start, Instant.now(), null);
 
@@ -128,8 +250,8 @@ public class World {
 	}
 
 	/**
-	 * Check every single {@link Shape} in this world and return a list of every
-	 * single {@link Intersection} the given {@link Ray} produces.
+	 * Check every {@link Shape} in this world and return a list of every single
+	 * {@link Intersection} the given {@link Ray} produces.
 	 * 
 	 * @param ray
 	 *            the ray to use, expressed in global coordinates
@@ -147,7 +269,7 @@ public class World {
 		Instant start = Instant.now();
 
 		List<Intersection<Shape>> intersections = new LinkedList<>();
-		for (Shape shape : getShapes())
+		for (Shape shape : getBoundingVolumeHierarchy().getCandidates(ray))
 			if (!ignoreShapesList.contains(shape))
 				intersections.addAll(shape.getIntersections(ray));
 
@@ -179,46 +301,285 @@ public class World {
 	}
 
 	/**
-	 * @return the world's current set of {@link Shape}s
+	 * @return the world's current set of {@link Shape}s (as an unmodifiable
+	 *         List)
+	 * @see #addShape(Shape)
+	 * @see #removeShape(Shape)
 	 */
 	public List<Shape> getShapes() {
 
-		return shapes;
+		return unmodifiableShapes;
+	}
+
+	/**
+	 * Add the given {@link Shape} to this World.
+	 * 
+	 * @param shape
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized void addShape(Shape shape) {
+
+		checkNotFrozen();
+
+		shapes.add(shape);
+		if (shape.isEmissive()) {
+			emissiveShapes.add(shape);
+			lightSelector = null;
+		}
+		boundingVolumeHierarchy = null;
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			listener.shapeAdded(this, shape);
 	}
 
 	/**
-	 * @return the world's set of Shapes that are emissive
+	 * Add all the given {@link Shape}s to this World.
+	 * 
+	 * @param shapes
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 * @see #addShape(Shape)
+	 */
+	public synchronized void addShapes(Collection<Shape> shapes) {
+
+		for (Shape shape : shapes)
+			addShape(shape);
+	}
+
+	/**
+	 * Remove the given {@link Shape} from this World.
+	 * 
+	 * @param shape
+	 * @return <code>true</code> if the Shape was present in this World
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized boolean removeShape(Shape shape) {
+
+		checkNotFrozen();
+
+		if (!shapes.remove(shape))
+			return false;
+
+		if (emissiveShapes.remove(shape))
+			lightSelector = null;
+		boundingVolumeHierarchy = null;
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			listener.shapeRemoved(this, shape);
+
+		return true;
+	}
+
+	/**
+	 * Report that the given {@link Shape} -- already present in this World --
+	 * has been modified. This World will update its indexes accordingly.
+	 * 
+	 * @param shape
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized void shapeChanged(Shape shape) {
+
+		checkNotFrozen();
+
+		if (!shapes.contains(shape))
+			return;
+
+		boolean wasEmissive = emissiveShapes.remove(shape);
+		if (shape.isEmissive())
+			emissiveShapes.add(shape);
+		if (wasEmissive || shape.isEmissive())
+			lightSelector = null;
+		boundingVolumeHierarchy = null;
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			listener.shapeChanged(this, shape);
+	}
+
+	/**
+	 * Report that the given {@link Shape}s -- already present in this World --
+	 * have been moved (i.e., have had their
+	 * {@link Shape#getTransformers() transformers} changed), but are otherwise
+	 * unchanged.
+	 * <p>
+	 * Unlike {@link #shapeChanged(Shape)}, this does not throw away the
+	 * World's {@link BoundingVolumeHierarchy}: only those parts of the
+	 * hierarchy holding the moved Shapes are
+	 * {@link BoundingVolumeHierarchy#refit(Collection) refitted}, so that
+	 * static geometry is indexed once and for all. (The hierarchy will become
+	 * less efficient the farther the moved Shapes travel.)
+	 * </p>
+	 * 
+	 * @param movedShapes
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized void shapesMoved(Collection<Shape> movedShapes) {
+
+		checkNotFrozen();
+
+		List<Shape> moved = movedShapes.stream().filter(shapes::contains).collect(Collectors.toList());
+		if (moved.isEmpty())
+			return;
+
+		if (moved.stream().anyMatch(Shape::isEmissive))
+			lightSelector = null;
+
+		BoundingVolumeHierarchy bvh = boundingVolumeHierarchy;
+		if (bvh != null && !bvh.refit(moved))
+			boundingVolumeHierarchy = null;
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			for (Shape shape : moved)
+				listener.shapeChanged(this, shape);
+	}
+
+	/**
+	 * @return the world's set of Shapes that are emissive (as an unmodifiable
+	 *         List)
 	 * @see Shape#isEmissive()
 	 */
 	public List<Shape> getEmissiveShapes() {
 
-		//
-		// We don't originally store a list of emissive-shapes as distinct from
-		// all shapes.
-		// However, we still want to cache that list instead of recomputing it
-		// every time, as
-		// we'll be referring to it many times per pixel.
-		//
-		// Obviously, this emissive-shape cache should be recomputed if the list
-		// of all shapes
-		// has changed.
-		// We can't tell explicitly when the user has modified the list of all
-		// shapes,
-		// but we *can* look at that list's hash-code.
-		// Therefore, we check the current hashcode against our cached hash, and
-		// recalculate
-		// the emissive-shapes list if they differ.
-		//
-		// It's admittedly crude, but I don't yet have the heart to modify my
-		// World model to admit of a more efficient solution.
-		if (emissiveShapes == null || lastShapesHashWhenGeneratedEmissiveShapes != shapes.hashCode()) {
-			lastShapesHashWhenGeneratedEmissiveShapes = shapes.hashCode();
-			emissiveShapes = shapes.parallelStream()
-					.filter(s -> s.isEmissive())
-					.collect(Collectors.toCollection(LinkedList::new));
+		return unmodifiableEmissiveShapes;
+	}
+
+	/**
+	 * @return a {@link LightSelector} over this world's emissive Shapes
+	 * @see #getEmissiveShapes()
+	 */
+	public LightSelector getLightSelector() {
+
+		LightSelector selector = lightSelector;
+		if (selector == null) {
+			synchronized (this) {
+				selector = lightSelector;
+				if (selector == null) {
+					selector = new LightSelector(emissiveShapes);
+					lightSelector = selector;
+				}
+			}
 		}
 
-		return Collections.unmodifiableList(emissiveShapes);
+		return selector;
+	}
+
+	/**
+	 * @return a {@link BoundingVolumeHierarchy} over this world's Shapes
+	 */
+	public BoundingVolumeHierarchy getBoundingVolumeHierarchy() {
+
+		BoundingVolumeHierarchy bvh = boundingVolumeHierarchy;
+		if (bvh == null) {
+			synchronized (this) {
+				bvh = boundingVolumeHierarchy;
+				if (bvh == null) {
+					bvh = new BoundingVolumeHierarchy(shapes);
+					boundingVolumeHierarchy = bvh;
+				}
+			}
+		}
+
+		return bvh;
+	}
+
+	/**
+	 * Install an already-built {@link BoundingVolumeHierarchy} (e.g., one read
+	 * back from a compiled scene), so that it need not be built afresh. The
+	 * hierarchy must index exactly this World's current Shapes; it will be
+	 * discarded, as usual, when those Shapes change.
+	 * 
+	 * @param boundingVolumeHierarchy
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized void setBoundingVolumeHierarchy(BoundingVolumeHierarchy boundingVolumeHierarchy) {
+
+		checkNotFrozen();
+
+		this.boundingVolumeHierarchy = boundingVolumeHierarchy;
+	}
+
+	/**
+	 * Freeze this World, so that its contents may no longer be changed. All
+	 * derived indexes are built immediately, so that they're ready for
+	 * rendering.
+	 */
+	public synchronized void freeze() {
+
+		frozen = true;
+		getLightSelector();
+		getBoundingVolumeHierarchy();
+	}
+
+	/**
+	 * Thaw this World, so that its contents may be changed once more (e.g.,
+	 * between the frames of an animation). Its derived indexes are kept, and
+	 * will be updated by subsequent changes as usual.
+	 * <p>
+	 * It is up to the caller to make sure that no render of this World is in
+	 * progress.
+	 * </p>
+	 */
+	public synchronized void thaw() {
+
+		frozen = false;
+	}
+
+	/**
+	 * @return <code>true</code> if this World has been {@link #freeze()
+	 *         frozen}
+	 */
+	public boolean isFrozen() {
+
+		return frozen;
+	}
+
+	/**
+	 * @return this World's current version -- incremented every time its
+	 *         contents are changed
+	 */
+	public long getVersion() {
+
+		return version.get();
+	}
+
+	/**
+	 * Register a {@link WorldChangeListener}, to be notified whenever this
+	 * World's contents change.
+	 * 
+	 * @param listener
+	 */
+	public void addChangeListener(WorldChangeListener listener) {
+
+		changeListeners.add(listener);
+	}
+
+	/**
+	 * Unregister a {@link WorldChangeListener}.
+	 * 
+	 * @param listener
+	 */
+	public void removeChangeListener(WorldChangeListener listener) {
+
+		changeListeners.remove(listener);
+	}
+
+	private void checkNotFrozen() {
+
+		if (frozen)
+			throw new IllegalStateException("This World has been frozen, and cannot be modified.");
+	}
+
+	private void incrementVersion() {
+
+		version.incrementAndGet();
 	}
 
 	/**
@@ -240,11 +601,52 @@ public class World {
 	}
 
 	/**
-	 * @return this World's list of {@link DirectionalLight}s
+	 * @return this World's list of {@link DirectionalLight}s (as an
+	 *         unmodifiable List)
 	 */
 	public List<DirectionalLight> getDirectionalLights() {
 
-		return directionalLights;
+		return unmodifiableDirectionalLights;
+	}
+
+	/**
+	 * Add the given {@link DirectionalLight} to this World.
+	 * 
+	 * @param light
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized void addDirectionalLight(DirectionalLight light) {
+
+		checkNotFrozen();
+
+		directionalLights.add(light);
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			listener.directionalLightAdded(this, light);
+	}
+
+	/**
+	 * Remove the given {@link DirectionalLight} from this World.
+	 * 
+	 * @param light
+	 * @return <code>true</code> if the light was present in this World
+	 * @throws IllegalStateException
+	 *             if this World has been {@link #freeze() frozen}
+	 */
+	public synchronized boolean removeDirectionalLight(DirectionalLight light) {
+
+		checkNotFrozen();
+
+		if (!directionalLights.remove(light))
+			return false;
+
+		incrementVersion();
+		for (WorldChangeListener listener : changeListeners)
+			listener.directionalLightRemoved(this, light);
+
+		return true;
 	}
 
 }
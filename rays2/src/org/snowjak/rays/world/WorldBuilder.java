@@ -97,9 +97,10 @@ public class WorldBuilder implements Builder<World> {
 		World world = new World();
 
 		world.setCamera(camera);
-		world.getShapes().addAll(shapes);
+		world.addShapes(shapes);
 		world.setAmbientRadiance(ambientRadiance);
-		world.getDirectionalLights().addAll(directionalLights);
+		for (DirectionalLight directionalLight : directionalLights)
+			world.addDirectionalLight(directionalLight);
 
 		return world;
 	}
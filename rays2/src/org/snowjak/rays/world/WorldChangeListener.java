@@ -0,0 +1,71 @@
+package org.snowjak.rays.world;
+
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.shape.Shape;
+
+/**
+ * Receives notice of changes made to a {@link World}'s contents.
+ * <p>
+ * Every method has a do-nothing default, so implementations need override
+ * only those notifications they care about. Notifications are delivered on
+ * the thread that made the change, after the World has updated its own
+ * indexes.
+ * </p>
+ *
+ * @author snowjak88
+ * @see World#addChangeListener(WorldChangeListener)
+ */
+public interface WorldChangeListener {
+
+	/**
+	 * A {@link Shape} has been added to the World.
+	 *
+	 * @param world
+	 * @param shape
+	 */
+	public default void shapeAdded(World world, Shape shape) {
+
+	}
+
+	/**
+	 * A {@link Shape} has been removed from the World.
+	 *
+	 * @param world
+	 * @param shape
+	 */
+	public default void shapeRemoved(World world, Shape shape) {
+
+	}
+
+	/**
+	 * A {@link Shape} already in the World has been modified (e.g., moved, or
+	 * given a new emissive color-scheme).
+	 *
+	 * @param world
+	 * @param shape
+	 * @see World#shapeChanged(Shape)
+	 */
+	public default void shapeChanged(World world, Shape shape) {
+
+	}
+
+	/**
+	 * A {@link DirectionalLight} has been added to the World.
+	 *
+	 * @param world
+	 * @param light
+	 */
+	public default void directionalLightAdded(World world, DirectionalLight light) {
+
+	}
+
+	/**
+	 * A {@link DirectionalLight} has been removed from the World.
+	 *
+	 * @param world
+	 * @param light
+	 */
+	public default void directionalLightRemoved(World world, DirectionalLight light) {
+
+	}
+}
@@ -0,0 +1,453 @@
+package org.snowjak.rays.world.compiled;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.linear.BlockRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.ColorScheme;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.function.ConstantFunction;
+import org.snowjak.rays.function.expression.Expressions;
+import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.shape.Cylinder;
+import org.snowjak.rays.shape.Plane;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Rotation;
+import org.snowjak.rays.transform.Scale;
+import org.snowjak.rays.transform.Transformer;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.world.BoundingVolumeHierarchy;
+import org.snowjak.rays.world.World;
+
+/**
+ * Saves a fully-built {@link World} to a compiled-scene (".sceneb") file, and
+ * loads it back again -- without re-parsing the world-file, re-running its
+ * Builders, or rebuilding the World's {@link BoundingVolumeHierarchy}.
+ * <p>
+ * A compiled scene holds:
+ * <ul>
+ * <li>a header (a magic number and the {@link #FORMAT_VERSION format
+ * version})</li>
+ * <li>a table of {@link ColorScheme}s and a table of {@link Material}s, each
+ * written once and referred to by index wherever it is used</li>
+ * <li>every {@link Shape}, with its {@link Transformer}s' already-computed
+ * matrices</li>
+ * <li>the {@link Camera}, ambient radiance, and {@link DirectionalLight}s</li>
+ * <li>the World's {@link BoundingVolumeHierarchy}, as built</li>
+ * </ul>
+ * Loading a compiled scene maps the file into memory and reads it from
+ * front to back.
+ * </p>
+ * <p>
+ * Only those parts of a World which can be stored as plain data can be
+ * compiled: {@link Sphere}s, {@link Plane}s, {@link Cube}s, and
+ * {@link Cylinder}s; {@link Translation}s, {@link Rotation}s, and
+ * {@link Scale}s; {@link SimpleColorScheme}s; and Materials with
+ * {@link ConstantFunction constant} properties. Anything defined by an
+ * arbitrary function (e.g., a checkerboard color-scheme, or a CSG shape)
+ * cannot be compiled, and is reported as such.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class CompiledScene {
+
+	/**
+	 * The file-name extension conventionally given to compiled scenes.
+	 */
+	public static final String FILE_EXTENSION = ".sceneb";
+
+	/**
+	 * The version of the compiled-scene format written by this class. Files
+	 * of any other version are refused.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	private static final int MAGIC = 0x5343454E;
+
+	private static final int NONE = -1;
+
+	private static final byte SPHERE = 1, PLANE = 2, CUBE = 3, CYLINDER = 4;
+
+	private static final byte TRANSLATION = 1, ROTATION = 2, SCALE = 3;
+
+	private CompiledScene() {
+
+	}
+
+	/**
+	 * Write the given World to a compiled-scene file, building its
+	 * {@link BoundingVolumeHierarchy} first if necessary.
+	 *
+	 * @param world
+	 * @param file
+	 * @throws IllegalArgumentException
+	 *             if the World contains anything which cannot be compiled
+	 * @throws IOException
+	 */
+	public static void write(World world, Path file) throws IOException {
+
+		//
+		// Gather the referenced color-schemes and materials -- and make sure
+		// that everything can be compiled -- before writing anything.
+		Map<ColorScheme, Integer> colorSchemes = new IdentityHashMap<>();
+		Map<Material, Integer> materials = new IdentityHashMap<>();
+		Map<Shape, Integer> shapes = new IdentityHashMap<>();
+
+		for (Shape shape : world.getShapes()) {
+			getShapeType(shape);
+			checkTransformers(shape.getTransformers(), shape);
+
+			index(colorSchemes, shape.getDiffuseColorScheme());
+			index(colorSchemes, shape.getSpecularColorScheme());
+			if (shape.getEmissiveColorScheme().isPresent())
+				index(colorSchemes, shape.getEmissiveColorScheme().get());
+
+			index(materials, shape.getMaterial());
+			if (shape instanceof Plane) {
+				index(materials, ((Plane) shape).getPlusMaterial());
+				index(materials, ((Plane) shape).getMinusMaterial());
+			}
+
+			shapes.put(shape, shapes.size());
+		}
+
+		for (ColorScheme colorScheme : colorSchemes.keySet()) {
+			if (colorScheme.getClass() != SimpleColorScheme.class)
+				throw new IllegalArgumentException("Cannot compile color-scheme of type '"
+						+ colorScheme.getClass().getName() + "' -- only constant color-schemes can be compiled.");
+			checkTransformers(colorScheme.getTransformers(), colorScheme);
+		}
+
+		for (Material material : materials.keySet()) {
+			getConstantValue(material.getSurfaceTransparency());
+			getConstantValue(material.getAlbedo());
+			getConstantValue(material.getRefractiveIndex());
+			checkTransformers(material.getTransformers(), material);
+		}
+
+		Camera camera = world.getCamera();
+		if (camera != null) {
+			if (camera.getClass() != Camera.class)
+				throw new IllegalArgumentException(
+						"Cannot compile camera of type '" + camera.getClass().getName() + "'.");
+			checkTransformers(camera.getTransformers(), camera);
+		}
+
+		BoundingVolumeHierarchy bvh = world.getBoundingVolumeHierarchy();
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+
+			out.writeInt(colorSchemes.size());
+			for (ColorScheme colorScheme : inIndexOrder(colorSchemes)) {
+				writeColor(out, colorScheme.getColor(0d, 0d, 0d));
+				out.writeDouble(colorScheme.getShininess());
+				writeTransformers(out, colorScheme.getTransformers());
+			}
+
+			out.writeInt(materials.size());
+			for (Material material : inIndexOrder(materials)) {
+				out.writeDouble(getConstantValue(material.getSurfaceTransparency()));
+				out.writeDouble(getConstantValue(material.getAlbedo()));
+				out.writeDouble(getConstantValue(material.getRefractiveIndex()));
+				writeTransformers(out, material.getTransformers());
+			}
+
+			out.writeInt(shapes.size());
+			for (Shape shape : world.getShapes()) {
+				out.writeByte(getShapeType(shape));
+				writeTransformers(out, shape.getTransformers());
+				out.writeInt(colorSchemes.get(shape.getDiffuseColorScheme()));
+				out.writeInt(colorSchemes.get(shape.getSpecularColorScheme()));
+				out.writeInt(shape.getEmissiveColorScheme().map(colorSchemes::get).orElse(NONE));
+				out.writeInt(materials.get(shape.getMaterial()));
+				if (shape instanceof Plane) {
+					out.writeInt(materials.get(((Plane) shape).getPlusMaterial()));
+					out.writeInt(materials.get(((Plane) shape).getMinusMaterial()));
+				}
+			}
+
+			out.writeBoolean(camera != null);
+			if (camera != null) {
+				out.writeDouble(camera.getCameraFrameSideLength());
+				out.writeDouble(camera.getCameraFieldOfView());
+				writeTransformers(out, camera.getTransformers());
+			}
+
+			writeColor(out, world.getAmbientRadiance());
+
+			out.writeInt(world.getDirectionalLights().size());
+			for (DirectionalLight light : world.getDirectionalLights()) {
+				out.writeDouble(light.getDirection().getX());
+				out.writeDouble(light.getDirection().getY());
+				out.writeDouble(light.getDirection().getZ());
+				writeColor(out, light.getRadiance());
+			}
+
+			bvh.writeTo(out, shapes::get);
+		}
+	}
+
+	/**
+	 * Read a World from the given compiled-scene file. The World is returned
+	 * un-{@link World#freeze() frozen}, but with its
+	 * {@link BoundingVolumeHierarchy} already in place.
+	 *
+	 * @param file
+	 * @return the World, as it was compiled
+	 * @throws IOException
+	 *             if the file cannot be read, is not a compiled scene, or is
+	 *             of an unsupported format-version
+	 */
+	public static World read(Path file) throws IOException {
+
+		ByteBuffer in;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			in = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			if (in.getInt() != MAGIC)
+				throw new IOException("'" + file + "' is not a compiled scene.");
+
+			int version = in.getInt();
+			if (version != FORMAT_VERSION)
+				throw new IOException("'" + file + "' is a compiled scene of version " + version
+						+ ", but only version " + FORMAT_VERSION + " is supported. Please recompile it.");
+
+			ColorScheme[] colorSchemes = new ColorScheme[in.getInt()];
+			for (int i = 0; i < colorSchemes.length; i++) {
+				SimpleColorScheme colorScheme = new SimpleColorScheme(readColor(in));
+				colorScheme.setShininess(in.getDouble());
+				readTransformers(in, colorScheme.getTransformers());
+				colorSchemes[i] = SimpleColorScheme.intern(colorScheme);
+			}
+
+			Material[] materials = new Material[in.getInt()];
+			for (int i = 0; i < materials.length; i++) {
+				double surfaceTransparency = in.getDouble(), albedo = in.getDouble(), refractiveIndex = in.getDouble();
+				Material material = new Material(Functions.constant(surfaceTransparency), Functions.constant(albedo),
+						Functions.constant(refractiveIndex));
+				readTransformers(in, material.getTransformers());
+				materials[i] = Material.intern(material);
+			}
+
+			World world = new World();
+
+			Shape[] shapes = new Shape[in.getInt()];
+			for (int i = 0; i < shapes.length; i++) {
+				shapes[i] = readShape(in, colorSchemes, materials);
+				world.addShape(shapes[i]);
+			}
+
+			if (in.get() != 0) {
+				Camera camera = new Camera(in.getDouble(), in.getDouble());
+				readTransformers(in, camera.getTransformers());
+				world.setCamera(camera);
+			}
+
+			world.setAmbientRadiance(readColor(in));
+
+			for (int count = in.getInt(), i = 0; i < count; i++) {
+				DirectionalLight light = new DirectionalLight();
+				light.setDirection(new Vector3D(in.getDouble(), in.getDouble(), in.getDouble()));
+				light.setRadiance(readColor(in));
+				world.addDirectionalLight(light);
+			}
+
+			world.setBoundingVolumeHierarchy(BoundingVolumeHierarchy.readFrom(in, i -> shapes[i]));
+
+			if (in.hasRemaining())
+				throw new IOException("'" + file + "' has unexpected data after the end of the compiled scene.");
+
+			return world;
+
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException("'" + file + "' is truncated or corrupt.", e);
+		}
+	}
+
+	private static Shape readShape(ByteBuffer in, ColorScheme[] colorSchemes, Material[] materials)
+			throws IOException {
+
+		byte type = in.get();
+		Shape shape;
+		switch (type) {
+		case SPHERE:
+			shape = new Sphere();
+			break;
+		case PLANE:
+			shape = new Plane();
+			break;
+		case CUBE:
+			shape = new Cube();
+			break;
+		case CYLINDER:
+			shape = new Cylinder();
+			break;
+		default:
+			throw new IOException("Unknown shape-type " + type + " in compiled scene.");
+		}
+
+		readTransformers(in, shape.getTransformers());
+		shape.setDiffuseColorScheme(colorSchemes[in.getInt()]);
+		shape.setSpecularColorScheme(colorSchemes[in.getInt()]);
+		int emissive = in.getInt();
+		shape.setEmissiveColorScheme((emissive == NONE) ? Optional.empty() : Optional.of(colorSchemes[emissive]));
+		shape.setMaterial(materials[in.getInt()]);
+		if (shape instanceof Plane) {
+			((Plane) shape).setPlusMaterial(materials[in.getInt()]);
+			((Plane) shape).setMinusMaterial(materials[in.getInt()]);
+		}
+
+		return shape;
+	}
+
+	private static byte getShapeType(Shape shape) {
+
+		if (shape.getClass() == Sphere.class)
+			return SPHERE;
+		if (shape.getClass() == Plane.class)
+			return PLANE;
+		if (shape.getClass() == Cube.class)
+			return CUBE;
+		if (shape.getClass() == Cylinder.class)
+			return CYLINDER;
+
+		throw new IllegalArgumentException("Cannot compile shape of type '" + shape.getClass().getName() + "'.");
+	}
+
+	private static void checkTransformers(Collection<Transformer> transformers, Object owner) {
+
+		for (Transformer transformer : transformers)
+			if (getTransformerType(transformer) == NONE)
+				throw new IllegalArgumentException("Cannot compile transformer of type '"
+						+ transformer.getClass().getName() + "' (on " + owner.getClass().getSimpleName() + ").");
+	}
+
+	private static byte getTransformerType(Transformer transformer) {
+
+		if (transformer.getClass() == Translation.class)
+			return TRANSLATION;
+		if (transformer.getClass() == Rotation.class)
+			return ROTATION;
+		if (transformer.getClass() == Scale.class)
+			return SCALE;
+
+		return NONE;
+	}
+
+	private static void writeTransformers(DataOutputStream out, Collection<Transformer> transformers)
+			throws IOException {
+
+		out.writeInt(transformers.size());
+		for (Transformer transformer : transformers) {
+			out.writeByte(getTransformerType(transformer));
+			writeMatrix(out, transformer.getLocalToWorldMatrix());
+			writeMatrix(out, transformer.getWorldToLocalMatrix());
+		}
+	}
+
+	private static void readTransformers(ByteBuffer in, Collection<Transformer> transformers) throws IOException {
+
+		for (int count = in.getInt(), i = 0; i < count; i++) {
+			byte type = in.get();
+			RealMatrix matrix = readMatrix(in), inverseMatrix = readMatrix(in);
+			switch (type) {
+			case TRANSLATION:
+				transformers.add(new Translation(matrix, inverseMatrix));
+				break;
+			case ROTATION:
+				transformers.add(new Rotation(matrix, inverseMatrix));
+				break;
+			case SCALE:
+				transformers.add(new Scale(matrix, inverseMatrix));
+				break;
+			default:
+				throw new IOException("Unknown transformer-type " + type + " in compiled scene.");
+			}
+		}
+	}
+
+	private static void writeMatrix(DataOutputStream out, RealMatrix matrix) throws IOException {
+
+		for (int row = 0; row < 4; row++)
+			for (int column = 0; column < 4; column++)
+				out.writeDouble(matrix.getEntry(row, column));
+	}
+
+	private static RealMatrix readMatrix(ByteBuffer in) {
+
+		double[][] entries = new double[4][4];
+		for (int row = 0; row < 4; row++)
+			for (int column = 0; column < 4; column++)
+				entries[row][column] = in.getDouble();
+
+		return new BlockRealMatrix(entries);
+	}
+
+	private static void writeColor(DataOutputStream out, RawColor color) throws IOException {
+
+		out.writeDouble(color.getRed());
+		out.writeDouble(color.getGreen());
+		out.writeDouble(color.getBlue());
+	}
+
+	private static RawColor readColor(ByteBuffer in) {
+
+		return new RawColor(in.getDouble(), in.getDouble(), in.getDouble());
+	}
+
+	private static double getConstantValue(Function<Vector3D, Double> function) {
+
+		return Expressions.getConstantValue(function)
+				.orElseThrow(() -> new IllegalArgumentException(
+						"Cannot compile material -- only materials with constant properties can be compiled."));
+	}
+
+	private static <T> void index(Map<T, Integer> index, T item) {
+
+		if (!index.containsKey(item))
+			index.put(item, index.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> inIndexOrder(Map<T, Integer> index) {
+
+		Object[] items = new Object[index.size()];
+		for (Map.Entry<T, Integer> entry : index.entrySet())
+			items[entry.getValue()] = entry.getKey();
+
+		List<T> result = new ArrayList<>(items.length);
+		for (Object item : items)
+			result.add((T) item);
+		return result;
+	}
+}
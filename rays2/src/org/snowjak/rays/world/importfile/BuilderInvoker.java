@@ -1,7 +1,11 @@
 package org.snowjak.rays.world.importfile;
 
-import java.lang.reflect.Method;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 
@@ -10,24 +14,24 @@ import org.snowjak.rays.builder.Builder;
 
 /**
  * The BuilderInvoker is responsible for identifying and invoking appropriate
- * {@link Builder}s, based on provided {@link WorldFileObjectDefinition}s.
+ * {@link Builder}s, based on provided {@link WorldFileObjectDefinition}s -- or
+ * directly from a {@link WorldFileParser}, as the world-file is parsed.
+ * <p>
+ * Within each object, all literal values are given to its Builder before any
+ * child objects.
+ * </p>
  * 
  * @author snowjak88
  *
  */
 public class BuilderInvoker {
 
-	private static BuilderInvoker INSTANCE = null;
-
 	/**
 	 * @return the singleton BuilderInvoker instance
 	 */
 	public static BuilderInvoker getSingleton() {
 
-		if (INSTANCE == null)
-			INSTANCE = new BuilderInvoker();
-
-		return INSTANCE;
+		return Holder.INSTANCE;
 	}
 
 	protected BuilderInvoker() {
@@ -46,27 +50,47 @@ public class BuilderInvoker {
 	 */
 	public Optional<Object> invokeBuilders(WorldFileObjectDefinition objectDefinition) {
 
-		Optional<Object> result = Optional.empty();
+		BuildingHandler handler = new BuildingHandler();
+		replay(null, objectDefinition, handler);
+		return handler.getResult();
+	}
 
-		NamedBuilderRegistrar registrar = NamedBuilderRegistrar.getSingleton();
-		Optional<? extends Builder<?>> builder = registrar.getBuilderByName(objectDefinition.getObjectName());
+	/**
+	 * Parse a world-file with the given {@link WorldFileParser}, invoking
+	 * Builders as each object-definition is read -- without first building a
+	 * {@link WorldFileObjectDefinition} tree.
+	 * 
+	 * @param parser
+	 * @return the tree of objects represented by the world-file, or nothing if
+	 *         the file is empty or its outermost object cannot be created
+	 * @throws WorldFileParseException
+	 *             if the world-file is malformed
+	 * @throws IOException
+	 *             if the world-file cannot be read
+	 */
+	public Optional<Object> invokeBuilders(WorldFileParser parser) throws IOException {
 
-		if (builder.isPresent()) {
+		BuildingHandler handler = new BuildingHandler();
+		if (!parser.parse(handler))
+			return Optional.empty();
 
-			for (Entry<String, Collection<String>> literals : objectDefinition.getAllLiteralValues().entrySet())
-				for (String literal : literals.getValue())
-					invokeLiteralMethod(builder.get(), new Pair<>(literals.getKey(), literal));
+		return handler.getResult();
+	}
 
-			for (Entry<String, Collection<WorldFileObjectDefinition>> childObjects : objectDefinition
-					.getAllChildObjects().entrySet())
-				for (WorldFileObjectDefinition childObject : childObjects.getValue())
-					invokeChildObjectMethod(builder.get(), new Pair<>(childObjects.getKey(), childObject));
+	private void replay(String fieldName, WorldFileObjectDefinition objectDefinition, BuildingHandler handler) {
 
-			result = Optional.of(builder.get().build());
-		}
+		handler.beginObject(fieldName, objectDefinition.getObjectName());
+
+		for (Entry<String, Collection<String>> literals : objectDefinition.getAllLiteralValues().entrySet())
+			for (String literal : literals.getValue())
+				handler.literal(literals.getKey(), literal);
 
-		return result;
+		for (Entry<String, Collection<WorldFileObjectDefinition>> childObjects : objectDefinition.getAllChildObjects()
+				.entrySet())
+			for (WorldFileObjectDefinition childObject : childObjects.getValue())
+				replay(childObjects.getKey(), childObject, handler);
 
+		handler.endObject();
 	}
 
 	private void invokeLiteralMethod(Builder<?> builder, Pair<String, String> literalEntry) {
@@ -76,24 +100,22 @@ public class BuilderInvoker {
 		@SuppressWarnings("unchecked")
 		Class<? extends Builder<?>> builderClass = (Class<? extends Builder<?>>) builder.getClass();
 
-		Optional<Method> builderMethod = registrar.getBuilderMethodByName(builderClass, literalEntry.getKey(),
-				Optional.empty());
+		Optional<NamedBuilderMethod> builderMethod = registrar.getNamedBuilderMethod(builderClass,
+				literalEntry.getKey(), Optional.empty());
 		if (builderMethod.isPresent()) {
 
-			Class<?> parameterType = builderMethod.get().getParameterTypes()[0];
+			Class<?> parameterType = builderMethod.get().getParameterType();
+			if (!builderMethod.get().acceptsLiteral()) {
+				System.err.println("\nUnable to populate field '" + literalEntry.getKey()
+						+ "' on Builder -- field does not accept literal values!");
+				System.err.println("Builder: '" + builderClass.getName() + "'");
+				System.err.println("Parameter type: '" + parameterType.getName() + "'");
+				System.err.println("Provided literal value: '" + literalEntry.getValue() + "'");
+				return;
+			}
+
 			try {
-				if (String.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, literalEntry.getValue());
-				else if (Boolean.class.isAssignableFrom(parameterType) || boolean.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, Boolean.parseBoolean(literalEntry.getValue()));
-				else if (Integer.class.isAssignableFrom(parameterType) || int.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, Integer.parseInt(literalEntry.getValue()));
-				else if (Long.class.isAssignableFrom(parameterType) || long.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, Long.parseLong(literalEntry.getValue()));
-				else if (Float.class.isAssignableFrom(parameterType) || float.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, Float.parseFloat(literalEntry.getValue()));
-				else if (Double.class.isAssignableFrom(parameterType) || double.class.isAssignableFrom(parameterType))
-					builderMethod.get().invoke(builder, Double.parseDouble(literalEntry.getValue()));
+				builderMethod.get().invokeWithLiteral(builder, literalEntry.getValue());
 
 			} catch (Exception e) {
 				System.err.println("\nUnable to populate field '" + literalEntry.getKey()
@@ -111,14 +133,13 @@ public class BuilderInvoker {
 		}
 	}
 
-	private void invokeChildObjectMethod(Builder<?> builder, Pair<String, WorldFileObjectDefinition> childObjectEntry) {
+	private void invokeChildObjectMethod(Builder<?> builder, Pair<String, BuiltChildObject> childObjectEntry) {
 
 		NamedBuilderRegistrar registrar = NamedBuilderRegistrar.getSingleton();
 		@SuppressWarnings("unchecked")
 		Class<? extends Builder<?>> builderClass = (Class<? extends Builder<?>>) builder.getClass();
 
-		Optional<Builder<?>> childObjectBuilder = registrar
-				.getBuilderByName(childObjectEntry.getValue().getObjectName());
+		Optional<Builder<?>> childObjectBuilder = childObjectEntry.getValue().builder;
 
 		if (childObjectBuilder.isPresent()) {
 
@@ -128,11 +149,11 @@ public class BuilderInvoker {
 			Optional<Class<?>> childObjectBuilderProductType = registrar
 					.getBuilderProductClass(childObjectBuilderClass);
 
-			Optional<Method> builderMethod = registrar.getBuilderMethodByName(builderClass, childObjectEntry.getKey(),
-					childObjectBuilderProductType);
+			Optional<NamedBuilderMethod> builderMethod = registrar.getNamedBuilderMethod(builderClass,
+					childObjectEntry.getKey(), childObjectBuilderProductType);
 			if (builderMethod.isPresent()) {
 
-				Class<?> parameterType = builderMethod.get().getParameterTypes()[0];
+				Class<?> parameterType = builderMethod.get().getParameterType();
 
 				if (childObjectBuilderProductType.isPresent()) {
 
@@ -148,10 +169,10 @@ public class BuilderInvoker {
 						return;
 					}
 
-					Optional<Object> childObject = invokeBuilders(childObjectEntry.getValue());
+					Optional<Object> childObject = childObjectEntry.getValue().product;
 					if (childObject.isPresent()) {
 						try {
-							builderMethod.get().invoke(builder, parameterType.cast(childObject.get()));
+							builderMethod.get().invoke(builder, childObject.get());
 
 						} catch (Exception e) {
 							System.err.println("\nUnable to populate field '" + childObjectEntry.getKey()
@@ -180,7 +201,7 @@ public class BuilderInvoker {
 						"\nUnable to create child-object for Builder -- cannot find Builder for child-object!");
 				System.err.println("Builder: '" + builderClass.getName() + "'");
 				System.err.println("Field-name: '" + childObjectEntry.getKey() + "'");
-				System.err.println("Given child-object name: '" + childObjectEntry.getValue().getObjectName() + "'");
+				System.err.println("Given child-object name: '" + childObjectEntry.getValue().typeName + "'");
 				return;
 			}
 
@@ -191,4 +212,101 @@ public class BuilderInvoker {
 			return;
 		}
 	}
+
+	/**
+	 * Invokes Builders as a world-file's contents are handed to it.
+	 * <p>
+	 * Literal values are given to their Builder immediately. Each child
+	 * object is built as soon as it ends, but given to its parent's Builder
+	 * only when the parent ends -- after all of the parent's literal values.
+	 * </p>
+	 */
+	private class BuildingHandler implements WorldFileHandler {
+
+		private final Deque<PendingObject> stack = new ArrayDeque<>();
+
+		private Optional<Object> result = Optional.empty();
+
+		@Override
+		public void beginObject(String fieldName, String typeName) {
+
+			//
+			// Objects nested within an unrecognized object are themselves
+			// skipped.
+			Optional<Builder<?>> builder = Optional.empty();
+			if (stack.isEmpty() || stack.peek().builder.isPresent())
+				builder = NamedBuilderRegistrar.getSingleton().getBuilderByName(typeName);
+
+			stack.push(new PendingObject(fieldName, typeName, builder));
+		}
+
+		@Override
+		public void literal(String fieldName, String value) {
+
+			PendingObject current = stack.peek();
+			if (current.builder.isPresent())
+				invokeLiteralMethod(current.builder.get(), new Pair<>(fieldName, value));
+		}
+
+		@Override
+		public void endObject() {
+
+			PendingObject current = stack.pop();
+			PendingObject parent = stack.peek();
+
+			Optional<Object> product = Optional.empty();
+			if (current.builder.isPresent()) {
+				for (Pair<String, BuiltChildObject> childObject : current.childObjects)
+					invokeChildObjectMethod(current.builder.get(), childObject);
+
+				product = Optional.of(current.builder.get().build());
+			}
+
+			if (parent == null)
+				result = product;
+			else if (parent.builder.isPresent())
+				parent.childObjects.add(new Pair<>(current.fieldName,
+						new BuiltChildObject(current.typeName, current.builder, product)));
+		}
+
+		public Optional<Object> getResult() {
+
+			return result;
+		}
+	}
+
+	private static class PendingObject {
+
+		private final String fieldName, typeName;
+
+		private final Optional<Builder<?>> builder;
+
+		private final List<Pair<String, BuiltChildObject>> childObjects = new ArrayList<>();
+
+		public PendingObject(String fieldName, String typeName, Optional<Builder<?>> builder) {
+			this.fieldName = fieldName;
+			this.typeName = typeName;
+			this.builder = builder;
+		}
+	}
+
+	private static class BuiltChildObject {
+
+		private final String typeName;
+
+		private final Optional<Builder<?>> builder;
+
+		private final Optional<Object> product;
+
+		public BuiltChildObject(String typeName, Optional<Builder<?>> builder, Optional<Object> product) {
+			this.typeName = typeName;
+			this.builder = builder;
+			this.product = product;
+		}
+	}
+
+	private static class Holder {
+
+		private static final BuilderInvoker INSTANCE = new BuilderInvoker();
+	}
 }
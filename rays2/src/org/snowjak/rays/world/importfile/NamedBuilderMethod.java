@@ -0,0 +1,147 @@
+package org.snowjak.rays.world.importfile;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.snowjak.rays.builder.Builder;
+
+/**
+ * A {@link Builder} method annotated with {@link HasName}, prepared for
+ * repeated invocation.
+ * <p>
+ * The method is held as a {@link MethodHandle}, adapted once to accept any
+ * Builder and any argument, so that invoking it costs no more than a
+ * type-check on each argument. If the method's parameter can be given as a
+ * literal value in a .world file (i.e., it is a {@link String}, or a
+ * primitive boolean or number), the conversion from text is chosen once, too.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class NamedBuilderMethod {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final String name;
+
+	private final Method method;
+
+	private final Class<?> parameterType;
+
+	private final MethodHandle handle;
+
+	private final Optional<Function<String, Object>> literalConverter;
+
+	/**
+	 * Prepare the given single-argument method for invocation.
+	 *
+	 * @param name
+	 * @param method
+	 * @throws IllegalAccessException
+	 *             if the method is not accessible
+	 */
+	public NamedBuilderMethod(String name, Method method) throws IllegalAccessException {
+		this.name = name;
+		this.method = method;
+		this.parameterType = method.getParameterTypes()[0];
+		this.handle = MethodHandles.publicLookup().unreflect(method).asType(SETTER_TYPE);
+		this.literalConverter = getLiteralConverter(parameterType);
+	}
+
+	private static Optional<Function<String, Object>> getLiteralConverter(Class<?> parameterType) {
+
+		if (String.class.isAssignableFrom(parameterType))
+			return Optional.of(s -> s);
+		else if (Boolean.class.isAssignableFrom(parameterType) || boolean.class.isAssignableFrom(parameterType))
+			return Optional.of(Boolean::parseBoolean);
+		else if (Integer.class.isAssignableFrom(parameterType) || int.class.isAssignableFrom(parameterType))
+			return Optional.of(Integer::parseInt);
+		else if (Long.class.isAssignableFrom(parameterType) || long.class.isAssignableFrom(parameterType))
+			return Optional.of(Long::parseLong);
+		else if (Float.class.isAssignableFrom(parameterType) || float.class.isAssignableFrom(parameterType))
+			return Optional.of(Float::parseFloat);
+		else if (Double.class.isAssignableFrom(parameterType) || double.class.isAssignableFrom(parameterType))
+			return Optional.of(Double::parseDouble);
+
+		return Optional.empty();
+	}
+
+	/**
+	 * @return the name given to this method by its {@link HasName} annotation
+	 */
+	public String getName() {
+
+		return name;
+	}
+
+	/**
+	 * @return the underlying {@link Method}
+	 */
+	public Method getMethod() {
+
+		return method;
+	}
+
+	/**
+	 * @return the type of this method's single parameter
+	 */
+	public Class<?> getParameterType() {
+
+		return parameterType;
+	}
+
+	/**
+	 * @return <code>true</code> if this method's parameter can be given as a
+	 *         literal value
+	 */
+	public boolean acceptsLiteral() {
+
+		return literalConverter.isPresent();
+	}
+
+	/**
+	 * Invoke this method on the given Builder.
+	 *
+	 * @param builder
+	 * @param argument
+	 * @throws ClassCastException
+	 *             if the argument is not of this method's parameter-type
+	 */
+	public void invoke(Builder<?> builder, Object argument) {
+
+		try {
+			handle.invokeExact((Object) builder, argument);
+
+		} catch (RuntimeException | Error e) {
+			throw e;
+
+		} catch (Throwable t) {
+			throw new IllegalStateException(t);
+		}
+	}
+
+	/**
+	 * Convert the given literal value to this method's parameter-type, and
+	 * invoke this method with it.
+	 *
+	 * @param builder
+	 * @param literal
+	 * @throws UnsupportedOperationException
+	 *             if this method does not {@link #acceptsLiteral() accept
+	 *             literal values}
+	 * @throws NumberFormatException
+	 *             if the literal value cannot be converted
+	 */
+	public void invokeWithLiteral(Builder<?> builder, String literal) {
+
+		invoke(builder, literalConverter
+				.orElseThrow(() -> new UnsupportedOperationException(
+						"Method '" + method.getName() + "' does not accept literal values."))
+				.apply(literal));
+	}
+}
@@ -1,15 +1,18 @@
 package org.snowjak.rays.world.importfile;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
-import org.apache.commons.math3.util.Pair;
 import org.snowjak.rays.builder.Builder;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
@@ -18,31 +21,63 @@ import org.springframework.core.type.filter.AnnotationTypeFilter;
 /**
  * The NamedObjectRegistrar is responsible for discovering and registering
  * Builders and methods annotated with {@link HasName}.
+ * <p>
+ * The classpath is scanned only once, when the registrar is first used; every
+ * Builder found, along with its named methods (prepared as
+ * {@link NamedBuilderMethod}s), is indexed by name. Thereafter, finding a
+ * Builder or one of its methods is a simple look-up.
+ * </p>
+ * <p>
+ * Where a Builder gives the same name to several overloaded methods, those
+ * overloads are kept in a fixed order -- those accepting literal values first,
+ * then by parameter-type name -- so that the choice between them never hangs
+ * on the (unspecified) order of {@link Class#getMethods()}.
+ * </p>
  * 
  * @author snowjak88
  *
  */
 public class NamedBuilderRegistrar {
 
-	private static NamedBuilderRegistrar INSTANCE = null;
+	private static final Comparator<NamedBuilderMethod> OVERLOAD_ORDER = Comparator
+			.comparing((NamedBuilderMethod m) -> !m.acceptsLiteral())
+			.thenComparing(m -> m.getParameterType().getName());
 
-	private Map<String, Class<? extends Builder<?>>> discoveredBuilders = new HashMap<>();
+	//
+	// The index is built in full before it is published, and never modified
+	// afterward -- so several render-jobs may parse world-files at once.
+	private final Map<String, IndexedBuilder> buildersByName;
 
-	private Map<Class<? extends Builder<?>>, Set<Pair<String, Method>>> discoveredBuilderMethods = new HashMap<>();
+	private final Map<Class<?>, IndexedBuilder> buildersByClass;
 
 	/**
 	 * @return the singleton NamedBuilderRegistrar instance
 	 */
 	public static NamedBuilderRegistrar getSingleton() {
 
-		if (INSTANCE == null)
-			INSTANCE = new NamedBuilderRegistrar();
-
-		return INSTANCE;
+		return Holder.INSTANCE;
 	}
 
 	protected NamedBuilderRegistrar() {
 
+		Map<String, IndexedBuilder> byName = new HashMap<>();
+		Map<Class<?>, IndexedBuilder> byClass = new HashMap<>();
+
+		for (Class<? extends Builder<?>> builderClass : scanClasspathForBuilders()) {
+
+			String name = builderClass.getAnnotation(HasName.class).value();
+			if (byName.containsKey(name))
+				continue;
+
+			Optional<IndexedBuilder> indexed = indexBuilder(name, builderClass);
+			if (indexed.isPresent()) {
+				byName.put(name, indexed.get());
+				byClass.put(builderClass, indexed.get());
+			}
+		}
+
+		this.buildersByName = byName;
+		this.buildersByClass = byClass;
 	}
 
 	/**
@@ -54,37 +89,19 @@ public class NamedBuilderRegistrar {
 	 */
 	public Optional<Builder<?>> getBuilderByName(String name) {
 
-		Optional<Class<? extends Builder<?>>> builderClass = Optional.empty();
-
-		if (discoveredBuilders.containsKey(name))
-			builderClass = Optional.of(discoveredBuilders.get(name));
-
-		else {
-
-			Optional<Class<? extends Builder<?>>> discoveredBuilder = scanClasspathForBuilder(name);
-			if (discoveredBuilder.isPresent()) {
-				discoveredBuilders.put(name, discoveredBuilder.get());
-				scanClassForNamedMethodNames(discoveredBuilder.get());
-			}
-
-			builderClass = discoveredBuilder;
-		}
-
-		if (!builderClass.isPresent())
+		IndexedBuilder indexed = buildersByName.get(name);
+		if (indexed == null)
 			return Optional.empty();
 
 		try {
-			Builder<?> builder = (Builder<?>) builderClass.get().getMethod("builder", (Class<?>[]) null).invoke(null,
-					(Object[]) null);
-			return Optional.of(builder);
+			return Optional.of((Builder<?>) indexed.factory.invokeExact());
 
-		} catch (NoSuchMethodException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-				| SecurityException e) {
+		} catch (Throwable t) {
 
 			System.err.println("Cannot instantiate Builder -- unexpected exception!");
 			System.err.println("Given name: '" + name + "'");
-			System.err.println("Discovered class: '" + builderClass.get().getName() + "'");
-			System.err.println("Exception message: " + e.getMessage());
+			System.err.println("Discovered class: '" + indexed.builderClass.getName() + "'");
+			System.err.println("Exception message: " + t.getMessage());
 			return Optional.empty();
 		}
 	}
@@ -98,17 +115,11 @@ public class NamedBuilderRegistrar {
 	 */
 	public Optional<Class<?>> getBuilderProductClass(Class<? extends Builder<?>> builderClass) {
 
-		try {
-			return Optional.of(builderClass.getMethod("build", (Class<?>[]) null).getReturnType());
-
-		} catch (NoSuchMethodException | SecurityException e) {
-			System.err.println("Cannot query Builder for its product type -- unexpected exception!");
-			System.err.println("Builder class: '" + builderClass.getName() + "'");
-			System.err.println("Exception message: " + e.getMessage());
-
-			return Optional.empty();
-		}
+		IndexedBuilder indexed = buildersByClass.get(builderClass);
+		if (indexed != null)
+			return indexed.productClass;
 
+		return findBuilderProductClass(builderClass);
 	}
 
 	/**
@@ -119,27 +130,67 @@ public class NamedBuilderRegistrar {
 	 * @param name
 	 * @param givenArgumentClass
 	 * @return a Method on the given class with a matching name, if any exists
+	 * @see #getNamedBuilderMethod(Class, String, Optional)
 	 */
 	public Optional<Method> getBuilderMethodByName(Class<? extends Builder<?>> builderClass, String name,
 			Optional<Class<?>> givenArgumentClass) {
 
-		if (!discoveredBuilderMethods.containsKey(builderClass))
+		return getNamedBuilderMethod(builderClass, name, givenArgumentClass).map(NamedBuilderMethod::getMethod);
+	}
+
+	/**
+	 * Given a Builder class and a name, attempt to find a method annotated
+	 * (with {@link HasName}) with a matching name, ready to be invoked.
+	 * <p>
+	 * If an argument-type is given, the overload with the most specific
+	 * parameter-type that accepts it is chosen. Otherwise, an overload that
+	 * {@link NamedBuilderMethod#acceptsLiteral() accepts literal values} is
+	 * preferred; if there is none, the first overload is returned anyway, and
+	 * it is up to the caller to notice that it cannot take a literal.
+	 * </p>
+	 * 
+	 * @param builderClass
+	 * @param name
+	 * @param givenArgumentClass
+	 *            the type of argument the method must accept, if known
+	 * @return a method on the given class with a matching name, if any exists
+	 */
+	public Optional<NamedBuilderMethod> getNamedBuilderMethod(Class<? extends Builder<?>> builderClass, String name,
+			Optional<Class<?>> givenArgumentClass) {
+
+		IndexedBuilder indexed = buildersByClass.get(builderClass);
+		if (indexed == null)
+			return Optional.empty();
+
+		List<NamedBuilderMethod> methods = indexed.methods.get(name);
+		if (methods == null)
 			return Optional.empty();
 
-		return discoveredBuilderMethods.get(builderClass)
-				.parallelStream()
-				.filter(p -> p.getKey().equals(name))
-				.map(p -> p.getValue())
-				.filter(m -> Arrays.stream(m.getParameterTypes())
-						.anyMatch(c -> c.isAssignableFrom(givenArgumentClass.orElse(c))))
-				.findAny();
+		if (!givenArgumentClass.isPresent())
+			return Optional.of(methods.get(0));
+
+		//
+		// Overloads are already in a fixed order, so a later overload replaces
+		// the best-so-far only if it is strictly more specific.
+		NamedBuilderMethod best = null;
+		for (NamedBuilderMethod method : methods) {
+
+			Class<?> parameterType = method.getParameterType();
+			if (!parameterType.isAssignableFrom(givenArgumentClass.get()))
+				continue;
+
+			if (best == null || (parameterType != best.getParameterType()
+					&& best.getParameterType().isAssignableFrom(parameterType)))
+				best = method;
+		}
 
+		return Optional.ofNullable(best);
 	}
 
 	@SuppressWarnings("unchecked")
-	private Optional<Class<? extends Builder<?>>> scanClasspathForBuilder(String name) {
+	private static List<Class<? extends Builder<?>>> scanClasspathForBuilders() {
 
-		Optional<Class<? extends Builder<?>>> result = Optional.empty();
+		List<Class<? extends Builder<?>>> result = new LinkedList<>();
 
 		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
 		scanner.addIncludeFilter(new AnnotationTypeFilter(HasName.class));
@@ -155,31 +206,90 @@ public class NamedBuilderRegistrar {
 				System.err.println("Exception message: " + e.getMessage());
 				continue;
 			}
-			if (Builder.class.isAssignableFrom(discoveredClass)
-					&& discoveredClass.getAnnotation(HasName.class).value().equals(name)) {
-
-				result = Optional.of((Class<? extends Builder<?>>) discoveredClass);
-				break;
-			}
+			if (Builder.class.isAssignableFrom(discoveredClass))
+				result.add((Class<? extends Builder<?>>) discoveredClass);
 		}
 
 		return result;
 	}
 
-	private void scanClassForNamedMethodNames(Class<? extends Builder<?>> classToScan) {
+	private static Optional<IndexedBuilder> indexBuilder(String name, Class<? extends Builder<?>> builderClass) {
+
+		MethodHandle factory;
+		try {
+			factory = MethodHandles.publicLookup()
+					.unreflect(builderClass.getMethod("builder", (Class<?>[]) null))
+					.asType(MethodType.methodType(Builder.class));
+
+		} catch (NoSuchMethodException | IllegalAccessException | SecurityException | WrongMethodTypeException e) {
+
+			System.err.println("Cannot index Builder -- unexpected exception!");
+			System.err.println("Given name: '" + name + "'");
+			System.err.println("Discovered class: '" + builderClass.getName() + "'");
+			System.err.println("Exception message: " + e.getMessage());
+			return Optional.empty();
+		}
 
-		Set<Pair<String, Method>> methods = new HashSet<>();
+		Map<String, List<NamedBuilderMethod>> methods = new HashMap<>();
+		for (Method method : builderClass.getMethods()) {
 
-		for (Method method : classToScan.getMethods()) {
+			if (method.isBridge() || !method.isAnnotationPresent(HasName.class) || method.getParameterCount() != 1)
+				continue;
 
-			if (method.isAnnotationPresent(HasName.class)) {
+			String methodName = method.getAnnotation(HasName.class).value();
+			try {
+				methods.computeIfAbsent(methodName, n -> new ArrayList<>())
+						.add(new NamedBuilderMethod(methodName, method));
 
-				String nameValue = method.getAnnotation(HasName.class).value();
-				methods.add(new Pair<>(nameValue, method));
+			} catch (IllegalAccessException e) {
+				System.err.println("Cannot index Builder method -- unexpected exception!");
+				System.err.println("Builder: '" + builderClass.getName() + "'");
+				System.err.println("Method: '" + method.getName() + "'");
+				System.err.println("Exception message: " + e.getMessage());
 			}
 		}
 
-		discoveredBuilderMethods.put(classToScan, methods);
+		for (List<NamedBuilderMethod> overloads : methods.values())
+			overloads.sort(OVERLOAD_ORDER);
+
+		return Optional.of(new IndexedBuilder(builderClass, factory, findBuilderProductClass(builderClass), methods));
+	}
+
+	private static Optional<Class<?>> findBuilderProductClass(Class<? extends Builder<?>> builderClass) {
+
+		try {
+			return Optional.of(builderClass.getMethod("build", (Class<?>[]) null).getReturnType());
+
+		} catch (NoSuchMethodException | SecurityException e) {
+			System.err.println("Cannot query Builder for its product type -- unexpected exception!");
+			System.err.println("Builder class: '" + builderClass.getName() + "'");
+			System.err.println("Exception message: " + e.getMessage());
+
+			return Optional.empty();
+		}
+	}
+
+	private static class IndexedBuilder {
+
+		private final Class<? extends Builder<?>> builderClass;
+
+		private final MethodHandle factory;
+
+		private final Optional<Class<?>> productClass;
+
+		private final Map<String, List<NamedBuilderMethod>> methods;
+
+		public IndexedBuilder(Class<? extends Builder<?>> builderClass, MethodHandle factory,
+				Optional<Class<?>> productClass, Map<String, List<NamedBuilderMethod>> methods) {
+			this.builderClass = builderClass;
+			this.factory = factory;
+			this.productClass = productClass;
+			this.methods = methods;
+		}
 	}
 
+	private static class Holder {
+
+		private static final NamedBuilderRegistrar INSTANCE = new NamedBuilderRegistrar();
+	}
 }
@@ -0,0 +1,48 @@
+package org.snowjak.rays.world.importfile;
+
+import java.io.IOException;
+
+/**
+ * Receives the contents of a .world file from a {@link WorldFileParser}, as
+ * they are parsed.
+ * <p>
+ * Every {@link #beginObject(String, String) beginObject()} is matched by an
+ * {@link #endObject()}, and every {@link #literal(String, String) literal()}
+ * belongs to the innermost object begun but not yet ended.
+ * </p>
+ *
+ * @author snowjak88
+ * @see WorldFileParser#parse(WorldFileHandler)
+ */
+public interface WorldFileHandler {
+
+	/**
+	 * An object-definition has begun.
+	 *
+	 * @param fieldName
+	 *            the field (of the enclosing object) to which this object is
+	 *            assigned, or <code>null</code> for the outermost object
+	 * @param typeName
+	 * @throws IOException
+	 *             to abandon parsing
+	 */
+	public void beginObject(String fieldName, String typeName) throws IOException;
+
+	/**
+	 * A literal field-value has been read.
+	 *
+	 * @param fieldName
+	 * @param value
+	 * @throws IOException
+	 *             to abandon parsing
+	 */
+	public void literal(String fieldName, String value) throws IOException;
+
+	/**
+	 * The most-recently-begun object-definition has ended.
+	 *
+	 * @throws IOException
+	 *             to abandon parsing
+	 */
+	public void endObject() throws IOException;
+}
@@ -0,0 +1,182 @@
+package org.snowjak.rays.world.importfile;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits the contents of a .world file into tokens, one at a time, keeping
+ * track of the line and column at which each token starts.
+ * <p>
+ * A token is either one of the punctuation-characters {@code :}, <code>{</code>,
+ * or <code>}</code>, or a "word" -- a run of characters containing neither
+ * punctuation nor whitespace. Whitespace is otherwise ignored.
+ * </p>
+ * <p>
+ * The lexer reads through its own fixed-size character-buffer, and holds only
+ * the current token in memory.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+class WorldFileLexer {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The kinds of token a WorldFileLexer produces.
+	 */
+	enum TokenType {
+		WORD, COLON, OPEN_BRACE, CLOSE_BRACE, END
+	}
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private int position = 0, limit = 0;
+
+	private int line = 1, column = 1;
+
+	private TokenType tokenType = null;
+
+	private final StringBuilder tokenText = new StringBuilder();
+
+	private int tokenLine = 1, tokenColumn = 1;
+
+	/**
+	 * Create a new WorldFileLexer reading from the given {@link Reader}.
+	 *
+	 * @param reader
+	 */
+	public WorldFileLexer(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Advance to the next token.
+	 *
+	 * @return the new token's type ({@link TokenType#END} once the input is
+	 *         exhausted)
+	 * @throws IOException
+	 */
+	public TokenType next() throws IOException {
+
+		int c = peek();
+		while (c >= 0 && Character.isWhitespace(c)) {
+			consume();
+			c = peek();
+		}
+
+		tokenLine = line;
+		tokenColumn = column;
+		tokenText.setLength(0);
+
+		switch (c) {
+		case -1:
+			tokenType = TokenType.END;
+			break;
+		case ':':
+			consume();
+			tokenType = TokenType.COLON;
+			break;
+		case '{':
+			consume();
+			tokenType = TokenType.OPEN_BRACE;
+			break;
+		case '}':
+			consume();
+			tokenType = TokenType.CLOSE_BRACE;
+			break;
+		default:
+			while (c >= 0 && !Character.isWhitespace(c) && c != ':' && c != '{' && c != '}') {
+				tokenText.append((char) consume());
+				c = peek();
+			}
+			tokenType = TokenType.WORD;
+		}
+
+		return tokenType;
+	}
+
+	/**
+	 * @return the current token's type
+	 */
+	public TokenType getTokenType() {
+
+		return tokenType;
+	}
+
+	/**
+	 * @return the current token's text (if it is a {@link TokenType#WORD})
+	 */
+	public String getTokenText() {
+
+		return tokenText.toString();
+	}
+
+	/**
+	 * @return a description of the current token, suitable for error-messages
+	 */
+	public String describeToken() {
+
+		switch (tokenType) {
+		case WORD:
+			return "'" + tokenText + "'";
+		case COLON:
+			return "':'";
+		case OPEN_BRACE:
+			return "'{'";
+		case CLOSE_BRACE:
+			return "'}'";
+		default:
+			return "end of file";
+		}
+	}
+
+	/**
+	 * @return the (1-based) line on which the current token starts
+	 */
+	public int getTokenLine() {
+
+		return tokenLine;
+	}
+
+	/**
+	 * @return the (1-based) column at which the current token starts
+	 */
+	public int getTokenColumn() {
+
+		return tokenColumn;
+	}
+
+	private int peek() throws IOException {
+
+		if (position >= limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+
+		return buffer[position];
+	}
+
+	private int consume() throws IOException {
+
+		int c = peek();
+		if (c < 0)
+			return c;
+
+		position++;
+		if (c == '\n') {
+			line++;
+			column = 1;
+		} else if (c != '\r')
+			column++;
+
+		return c;
+	}
+}
@@ -0,0 +1,47 @@
+package org.snowjak.rays.world.importfile;
+
+import java.io.IOException;
+
+/**
+ * Indicates that a .world file is malformed, and where.
+ *
+ * @author snowjak88
+ *
+ */
+public class WorldFileParseException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int line, column;
+
+	/**
+	 * Create a new WorldFileParseException.
+	 *
+	 * @param message
+	 * @param line
+	 *            the (1-based) line at which the problem was found
+	 * @param column
+	 *            the (1-based) column at which the problem was found
+	 */
+	public WorldFileParseException(String message, int line, int column) {
+		super("line " + line + ", column " + column + ": " + message);
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * @return the (1-based) line at which the problem was found
+	 */
+	public int getLine() {
+
+		return line;
+	}
+
+	/**
+	 * @return the (1-based) column at which the problem was found
+	 */
+	public int getColumn() {
+
+		return column;
+	}
+}
@@ -0,0 +1,189 @@
+package org.snowjak.rays.world.importfile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.snowjak.rays.world.importfile.WorldFileLexer.TokenType;
+
+/**
+ * A single-pass, streaming parser for .world files (see
+ * {@link WorldFileScanner} for the format).
+ * <p>
+ * The parser hands each object-definition and literal value to a
+ * {@link WorldFileHandler} as soon as it is read, holding no more than a
+ * single token of look-ahead -- so even very large world-files are parsed in
+ * linear time and constant memory (apart from whatever the handler chooses to
+ * keep). Malformed input is reported with a
+ * {@link WorldFileParseException}, giving the line and column of the problem.
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+public class WorldFileParser {
+
+	private final WorldFileLexer lexer;
+
+	/**
+	 * Create a new WorldFileParser reading from the given {@link Reader}.
+	 *
+	 * @param reader
+	 */
+	public WorldFileParser(Reader reader) {
+		this.lexer = new WorldFileLexer(reader);
+	}
+
+	/**
+	 * Create a new WorldFileParser reading the given (UTF-8) file through a
+	 * memory-mapping.
+	 *
+	 * @param file
+	 * @return a new WorldFileParser
+	 * @throws IOException
+	 *             if the file cannot be opened or mapped
+	 */
+	public static WorldFileParser forFile(Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				return new WorldFileParser(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+
+			return new WorldFileParser(new MappedFileReader(channel.map(MapMode.READ_ONLY, 0, channel.size())));
+		}
+	}
+
+	/**
+	 * Parse the input, passing its contents to the given
+	 * {@link WorldFileHandler} as they are read.
+	 *
+	 * @param handler
+	 * @return <code>false</code> if the input was empty
+	 * @throws WorldFileParseException
+	 *             if the input is malformed
+	 * @throws IOException
+	 *             if the input cannot be read, or the handler abandons
+	 *             parsing
+	 */
+	public boolean parse(WorldFileHandler handler) throws IOException {
+
+		if (lexer.next() == TokenType.END)
+			return false;
+
+		String typeName = expectWord("the name of an object");
+		expect(TokenType.OPEN_BRACE, "'{'");
+
+		handler.beginObject(null, typeName);
+		parseObjectBody(handler);
+
+		if (lexer.next() != TokenType.END)
+			throw error("Expected end of file after the outermost object, but found " + lexer.describeToken());
+
+		return true;
+	}
+
+	private void parseObjectBody(WorldFileHandler handler) throws IOException {
+
+		//
+		// A literal's value can only be told apart from a child object's
+		// type-name by the token that follows it -- so, after a literal, that
+		// following token is kept as look-ahead for the next field.
+		boolean haveToken = false;
+		while (true) {
+			if (!haveToken)
+				lexer.next();
+			haveToken = false;
+
+			if (lexer.getTokenType() == TokenType.CLOSE_BRACE) {
+				handler.endObject();
+				return;
+			}
+
+			String fieldName = expectWord("a field-name or '}'");
+			expect(TokenType.COLON, "':'");
+			lexer.next();
+			String value = expectWord("a value");
+
+			if (lexer.next() == TokenType.OPEN_BRACE) {
+				handler.beginObject(fieldName, value);
+				parseObjectBody(handler);
+			} else {
+				handler.literal(fieldName, value);
+				haveToken = true;
+			}
+		}
+	}
+
+	private String expectWord(String expected) throws WorldFileParseException {
+
+		if (lexer.getTokenType() != TokenType.WORD)
+			throw error("Expected " + expected + ", but found " + lexer.describeToken());
+		return lexer.getTokenText();
+	}
+
+	private void expect(TokenType type, String expected) throws IOException {
+
+		if (lexer.next() != type)
+			throw error("Expected " + expected + ", but found " + lexer.describeToken());
+	}
+
+	private WorldFileParseException error(String message) {
+
+		return new WorldFileParseException(message, lexer.getTokenLine(), lexer.getTokenColumn());
+	}
+
+	/**
+	 * Decodes UTF-8 characters from a (memory-mapped) {@link ByteBuffer}, a
+	 * buffer-full at a time.
+	 */
+	private static class MappedFileReader extends Reader {
+
+		private final ByteBuffer bytes;
+
+		private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+
+		private boolean flushed = false;
+
+		public MappedFileReader(ByteBuffer bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+
+			if (flushed)
+				return -1;
+
+			CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+			//
+			// The whole file is mapped, so every call sees the end of the
+			// input.
+			if (bytes.hasRemaining()) {
+				CoderResult result = decoder.decode(bytes, out, true);
+				if (result.isError())
+					result.throwException();
+			}
+
+			if (!bytes.hasRemaining())
+				flushed = decoder.flush(out).isUnderflow();
+
+			int read = out.position() - off;
+			return (read == 0 && flushed) ? -1 : read;
+		}
+
+		@Override
+		public void close() {
+
+		}
+	}
+}
@@ -1,14 +1,10 @@
 package org.snowjak.rays.world.importfile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.NoSuchElementException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.StringTokenizer;
 
 /**
  * The WorldFileScanner is responsible for accepting a Reader of some kind and
@@ -31,6 +27,11 @@ import java.util.StringTokenizer;
  * separate words.
  * </p>
  * <p>
+ * To build objects without holding the whole definition-tree in memory, give
+ * a {@link WorldFileParser} directly to
+ * {@link BuilderInvoker#invokeBuilders(WorldFileParser)}.
+ * </p>
+ * <p>
  * Field-names and object type-names are defined in the source-code by the
  * annotation {@link HasName}, and detected at runtime by the
  * {@link NamedBuilderRegistrar}.
@@ -54,76 +55,22 @@ public class WorldFileScanner {
 	}
 
 	/**
-	 * Scan the provided {@link BufferedReader} and convert it to a
+	 * Scan the provided {@link Reader} and convert it to a
 	 * {@link WorldFileObjectDefinition} tree, if possible.
 	 * 
-	 * @return the result WorldFileObjectDefinition tree, or nothing if said
-	 *         conversion is not possible
+	 * @return the result WorldFileObjectDefinition tree, or nothing if the
+	 *         input is empty
+	 * @throws WorldFileParseException
+	 *             if the input is malformed
 	 * @throws IOException
 	 */
 	public Optional<WorldFileObjectDefinition> scan() throws IOException {
 
-		Iterator<String> worldFileIterator = new TokenizedReaderIterator(worldReader);
-
-		String outerObjectName = worldFileIterator.next();
-		if (outerObjectName.length() < 1)
-			return Optional.empty();
-
-		String outerBrace = worldFileIterator.next();
-		if (!outerBrace.equals("{"))
+		DefinitionTreeHandler handler = new DefinitionTreeHandler();
+		if (!new WorldFileParser(worldReader).parse(handler))
 			return Optional.empty();
 
-		return scanObject(outerObjectName, worldFileIterator);
-	}
-
-	private Optional<WorldFileObjectDefinition> scanObject(String typeName, Iterator<String> worldFileIterator) {
-
-		WorldFileObjectDefinition result = new WorldFileObjectDefinition(typeName);
-
-		String currentToken = null, currentName = null;
-		boolean skipGettingNextToken = false;
-		do {
-			if (!skipGettingNextToken)
-				currentToken = worldFileIterator.next();
-			else
-				skipGettingNextToken = false;
-
-			if (currentToken != null) {
-
-				if (currentToken.equals(":") && currentName != null) {
-					String valueToken = worldFileIterator.next();
-					String followingToken = worldFileIterator.next();
-
-					if (followingToken.equals("{")) {
-
-						Optional<WorldFileObjectDefinition> childObject = scanObject(valueToken, worldFileIterator);
-
-						if (childObject.isPresent())
-							result.addChildObject(currentName, childObject.get());
-
-					} else {
-						addField(result, currentName, valueToken);
-
-						currentToken = followingToken;
-						skipGettingNextToken = true;
-					}
-				}
-
-				else if (currentToken.equals("{") && currentName != null) {
-
-				} else
-					currentName = currentToken;
-			}
-
-		} while (currentToken != null && !currentToken.equals("}"));
-
-		return Optional.of(result);
-	}
-
-	private void addField(WorldFileObjectDefinition currentObject, String fieldName, String fieldValue) {
-
-		if (fieldValue != null)
-			currentObject.addLiteralValue(fieldName, fieldValue);
+		return Optional.of(handler.root);
 	}
 
 	/**
@@ -136,55 +83,38 @@ public class WorldFileScanner {
 		worldReader.close();
 	}
 
-	@SuppressWarnings("javadoc")
-	public static class TokenizedReaderIterator implements Iterator<String> {
+	/**
+	 * Assembles a {@link WorldFileObjectDefinition} tree from a
+	 * {@link WorldFileParser}.
+	 */
+	private static class DefinitionTreeHandler implements WorldFileHandler {
 
-		private BufferedReader worldReader = null;
+		private final Deque<WorldFileObjectDefinition> stack = new ArrayDeque<>();
 
-		private Queue<String> tokens = new LinkedList<>();
-
-		public TokenizedReaderIterator(Reader worldReader) {
-			this.worldReader = new BufferedReader(worldReader);
-		}
+		private WorldFileObjectDefinition root = null;
 
 		@Override
-		public boolean hasNext() {
+		public void beginObject(String fieldName, String typeName) {
 
-			try {
-				return worldReader.ready();
+			WorldFileObjectDefinition object = new WorldFileObjectDefinition(typeName);
+			if (stack.isEmpty())
+				root = object;
+			else
+				stack.peek().addChildObject(fieldName, object);
 
-			} catch (IOException e) {
-				return false;
-			}
+			stack.push(object);
 		}
 
 		@Override
-		public String next() {
-
-			try {
-				if (!worldReader.ready())
-					throw new NoSuchElementException();
-
-				while (tokens.size() < 1) {
+		public void literal(String fieldName, String value) {
 
-					String nextLine = worldReader.readLine();
-					if (nextLine == null)
-						throw new NoSuchElementException();
-
-					StringTokenizer tokenizer = new StringTokenizer(nextLine, " \t\r\n\f:{}", true);
-					while (tokenizer.hasMoreTokens()) {
-						String currentToken = tokenizer.nextToken();
-						if (!currentToken.matches("[ \\t\\r\\n\\f]"))
-							tokens.add(currentToken);
-					}
-				}
+			stack.peek().addLiteralValue(fieldName, value);
+		}
 
-				return tokens.remove();
+		@Override
+		public void endObject() {
 
-			} catch (Exception e) {
-				throw new NoSuchElementException();
-			}
+			stack.pop();
 		}
-
 	}
 }
@@ -0,0 +1,78 @@
+package org.snowjak.rays;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.light.model.FlatLightingModel;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class RenderContextTest extends TestCase {
+
+	public void testIndependentRendersRunConcurrently() throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			RenderContext red = createContext(new RawColor(1d, 0d, 0d), executor);
+			RenderContext blue = createContext(new RawColor(0d, 0d, 1d), executor);
+			Camera camera = new Camera(4d, 60d);
+
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				RenderContext context = (i % 2 == 0) ? red : blue;
+				double expectedRed = (i % 2 == 0) ? 1d : 0d;
+				results.add(executor.submit((Callable<Boolean>) () -> {
+					for (int j = 0; j < 500; j++) {
+						Optional<RawColor> color = camera.shootRay(context, 0d, 0d);
+						if (!color.isPresent() || color.get().getRed() != expectedRed
+								|| color.get().getBlue() != 1d - expectedRed)
+							return false;
+					}
+					return true;
+				}));
+			}
+
+			for (Future<Boolean> result : results)
+				assertTrue(result.get());
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public void testContextFreezesWorldAndCopiesSettings() {
+
+		World world = new World();
+		Settings settings = Settings.presetFast();
+		RenderContext context = new RenderContext(world, settings, new FlatLightingModel(), null);
+
+		assertTrue(world.isFrozen());
+		assertNotSame(settings, context.getSettings());
+
+		settings.setShadowCache(!settings.isShadowCache());
+		assertTrue(settings.isShadowCache() != context.getSettings().isShadowCache());
+	}
+
+	private RenderContext createContext(RawColor color, ExecutorService executor) {
+
+		World world = new World();
+		Sphere sphere = new Sphere();
+		sphere.setDiffuseColorScheme(new SimpleColorScheme(color));
+		sphere.getTransformers().add(new Translation(0d, 0d, 5d));
+		world.addShape(sphere);
+
+		return new RenderContext(world, Settings.presetFast(), new FlatLightingModel(), executor);
+	}
+}
@@ -0,0 +1,90 @@
+package org.snowjak.rays.animation;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.light.model.AmbientLightingModel;
+import org.snowjak.rays.service.WorldCache;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.world.BoundingVolumeHierarchy;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class FrameSequenceRendererTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0.2 g:0.9 b:0.4 }\n" + "	}\n" + "	shape: sphere {\n"
+			+ "		transform: translate { x:3 y:0 z:0 }\n" + "		diffuse: color { r:0.9 g:0.2 b:0.4 }\n"
+			+ "	}\n" + "	camera: camera {\n" + "		transform: translate { x:0 y:0 z:-10 }\n"
+			+ "		frame-width: 4\n" + "		field-of-view: 60\n" + "	}\n"
+			+ "	ambient: color { r:1 g:1 b:1 }\n" + "}";
+
+	private File directory;
+
+	private World world;
+
+	private Settings settings;
+
+	private FrameSequenceRenderer renderer;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		directory = Files.createTempDirectory("frames").toFile();
+		world = new WorldCache(1).getWorld(WORLD_TEXT);
+
+		settings = Settings.presetFast();
+		settings.setImageWidth(40);
+		settings.setImageHeight(30);
+
+		renderer = new FrameSequenceRenderer(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		renderer.shutdown();
+		for (File file : directory.listFiles())
+			file.delete();
+		directory.delete();
+	}
+
+	public void testEveryFrameIsWrittenInOrder() throws Exception {
+
+		List<File> frames = renderer.render(world, settings, Animation.turntable(world, 4),
+				w -> new AmbientLightingModel(), new File(directory, "frame-%02d.png").getPath(), null);
+
+		assertEquals(4, frames.size());
+		for (int i = 0; i < frames.size(); i++) {
+			assertEquals("frame-0" + i + ".png", frames.get(i).getName());
+
+			BufferedImage image = ImageIO.read(frames.get(i));
+			assertEquals(40, image.getWidth());
+			assertEquals(30, image.getHeight());
+		}
+	}
+
+	public void testMovingShapesAreRefittedRatherThanRebuilt() throws Exception {
+
+		world.freeze();
+		BoundingVolumeHierarchy bvh = world.getBoundingVolumeHierarchy();
+
+		Shape moving = world.getShapes().get(0);
+		Animation animation = new Animation(2).animateShape(moving, new TransformTrack()
+				.keyframe(0, Vector3D.ZERO, Vector3D.ZERO).keyframe(1, Vector3D.ZERO, new Vector3D(0d, 5d, 0d)));
+
+		renderer.render(world, settings, animation, w -> new AmbientLightingModel(),
+				new File(directory, "frame-%d.png").getPath(), null);
+
+		assertSame(bvh, world.getBoundingVolumeHierarchy());
+		assertEquals(5d, moving.getBoundingBox().getCenter().getY(), 1e-6);
+	}
+}
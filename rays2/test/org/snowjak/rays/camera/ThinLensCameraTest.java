@@ -0,0 +1,41 @@
+package org.snowjak.rays.camera;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class ThinLensCameraTest extends TestCase {
+
+	private final ThinLensCamera camera = new ThinLensCamera(4d, 60d, 10d, 1d);
+
+	public void testLensCenterMatchesPinhole() {
+
+		Ray ray = camera.getRay(0.5, -0.25, 0.5, 0.5);
+		Vector3D pinhole = new Vector3D(0.5, -0.25, 0d).subtract(camera.getEyeLocation()).normalize();
+
+		assertEquals(0d, ray.getOrigin().distance(new Vector3D(0.5, -0.25, 0d)), 1e-12);
+		assertEquals(0d, ray.getVector().normalize().distance(pinhole), 1e-12);
+	}
+
+	public void testLensSamplesConvergeOnFocalPlane() {
+
+		Ray center = camera.getRay(-1d, 0.75, 0.5, 0.5);
+		double focalZ = 10d;
+		Vector3D expected = pointAtZ(center, focalZ);
+
+		for (double u = 0.05; u < 1d; u += 0.3)
+			for (double v = 0.1; v < 1d; v += 0.2) {
+				Ray ray = camera.getRay(-1d, 0.75, u, v);
+				assertTrue(ray.getOrigin().distance(center.getOrigin()) <= camera.getLensRadius() + 1e-12);
+				assertEquals(0d, pointAtZ(ray, focalZ).distance(expected), 1e-9);
+			}
+	}
+
+	private static Vector3D pointAtZ(Ray ray, double z) {
+
+		double t = (z - ray.getOrigin().getZ()) / ray.getVector().getZ();
+		return ray.getOrigin().add(ray.getVector().scalarMultiply(t));
+	}
+}
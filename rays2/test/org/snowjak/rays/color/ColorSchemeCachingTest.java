@@ -0,0 +1,97 @@
+package org.snowjak.rays.color;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.function.Functions;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class ColorSchemeCachingTest extends TestCase {
+
+	public void testBakingLinearSchemeIsExact() {
+
+		ColorScheme linear = new FunctionalColorScheme(
+				v -> new RawColor(0.5 + 0.25 * v.getX(), 0.5 - 0.25 * v.getY(), 0.1 * v.getZ()));
+
+		BakedColorScheme baked = new BakedColorScheme(linear, new Vector3D(-2, -2, -2), new Vector3D(2, 2, 2), 5);
+
+		assertEquals(0d, baked.getMaximumError(), 1e-6);
+		assertEquals(0.5 + 0.25 * 1.3, baked.getColor(1.3, 0.2, -0.7).getRed(), 1e-6);
+
+		//
+		// Outside the box, coordinates are clamped onto it.
+		assertEquals(0.5 + 0.25 * 2d, baked.getColor(10d, 0d, 0d).getRed(), 1e-6);
+	}
+
+	public void testBakingReportsError() {
+
+		ColorScheme smooth = new FunctionalColorScheme(
+				v -> new RawColor(FastMath.sin(3d * v.getX()) * FastMath.cos(2d * v.getZ()), 0d, 0d));
+
+		BakedColorScheme coarse = new BakedColorScheme(smooth, new Vector3D(-1, 0, -1), new Vector3D(1, 0, 1), 4);
+		BakedColorScheme fine = new BakedColorScheme(smooth, new Vector3D(-1, 0, -1), new Vector3D(1, 0, 1), 64);
+
+		assertTrue(coarse.getMaximumError() > 0.01);
+		assertTrue(fine.getRmsError() < coarse.getRmsError());
+		assertTrue(fine.getMaximumError() < 0.01);
+		assertTrue(fine.getRmsError() <= fine.getMaximumError());
+	}
+
+	public void testCopyingDoesNotRebake() {
+
+		AtomicInteger evaluations = new AtomicInteger();
+		ColorScheme counted = new FunctionalColorScheme(v -> {
+			evaluations.incrementAndGet();
+			return new RawColor(0.5 + 0.25 * v.getX(), 0d, 0d);
+		});
+
+		BakedColorScheme baked = new BakedColorScheme(counted, new Vector3D(-1, 0, 0), new Vector3D(1, 0, 0), 8);
+		evaluations.set(0);
+
+		BakedColorScheme copy = (BakedColorScheme) baked.copy();
+		assertEquals(0, evaluations.get());
+		assertEquals(baked.getMaximumError(), copy.getMaximumError(), 0.0);
+		assertEquals(baked.getColor(0.3, 0d, 0d).getRed(), copy.getColor(0.3, 0d, 0d).getRed(), 0.0);
+	}
+
+	public void testMemoizingAvoidsReevaluation() {
+
+		AtomicInteger evaluations = new AtomicInteger();
+		ColorScheme counted = new FunctionalColorScheme(v -> {
+			evaluations.incrementAndGet();
+			return Functions.checkerboard(v) > 0.5 ? new RawColor(1, 1, 1) : new RawColor();
+		});
+		MemoizingColorScheme memoizing = new MemoizingColorScheme(counted);
+
+		Vector3D point = new Vector3D(0.3, 1.7, -2.2), other = new Vector3D(0.3, 1.7, -2.1);
+		RawColor first = memoizing.getColorForWorld(point);
+		assertSame(first, memoizing.getColorForWorld(point));
+		assertSame(first, memoizing.getColorForWorld(point.getX(), point.getY(), point.getZ()));
+		assertEquals(1, evaluations.get());
+
+		memoizing.getColorForWorld(other);
+		assertEquals(2, evaluations.get());
+		assertEquals(counted.getColorForWorld(other).getRed(), memoizing.getColorForWorld(other).getRed(), 0.0);
+
+		memoizing.invalidate();
+		evaluations.set(0);
+		memoizing.getColorForWorld(point);
+		assertEquals(1, evaluations.get());
+	}
+
+	public void testBuilderWrapsSchemes() {
+
+		ColorScheme built = ColorSchemeBuilder.builder()
+				.function(v -> new RawColor(v.getX(), 0d, 0d))
+				.bakeResolution(8)
+				.memoize(true)
+				.build();
+
+		assertTrue(built instanceof MemoizingColorScheme);
+		assertTrue(((MemoizingColorScheme) built).getColorScheme() instanceof BakedColorScheme);
+		assertEquals(0.25, built.getColorForWorld(new Vector3D(0.25, 0d, 0d)).getRed(), 1e-6);
+	}
+}
@@ -0,0 +1,101 @@
+package org.snowjak.rays.color;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.world.importfile.NamedBuilderRegistrar;
+
+import javafx.scene.paint.Color;
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class GradientTest extends TestCase {
+
+	private static final List<Pair<Double, Color>> STOPS = Arrays.asList(new Pair<>(0.5d, Color.RED),
+			new Pair<>(-0.25d, Color.WHITE), new Pair<>(1d, Color.BLUE), new Pair<>(0.5d, Color.GREEN));
+
+	public void testMatchesLinearSearch() {
+
+		Gradient gradient = new Gradient(STOPS);
+		for (double t = -1d; t <= 1.5d; t += 0.01d)
+			assertColorEquals(expectedColor(t), gradient.getColor(t), 1e-12);
+
+		assertColorEquals(new RawColor(Color.GREEN), gradient.getColor(0.5d), 0d);
+		assertColorEquals(new RawColor(Color.BLUE), gradient.getColor(Double.NaN), 0d);
+	}
+
+	public void testLookupTable() {
+
+		Gradient gradient = new Gradient(STOPS, 1024);
+		for (double t = -1d; t <= 1.5d; t += 0.01d)
+			if (Math.abs(t - 0.5d) > 0.01d)
+				assertColorEquals(expectedColor(t), gradient.getColor(t), 4d / 1024d);
+
+		//
+		// Table lookups return pre-built colors.
+		assertSame(gradient.getColor(0.25d), gradient.getColor(0.25d));
+
+		try {
+			new Gradient(STOPS, 1);
+			fail("A 1-entry lookup-table should be rejected.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	public void testGradientColorScheme() {
+
+		GradientColorScheme colorScheme = new GradientColorScheme((v) -> v.getX(), new Gradient(STOPS));
+		assertColorEquals(expectedColor(0.1d), colorScheme.getColor(new Vector3D(0.1d, 7d, -3d)), 1e-12);
+
+		GradientColorScheme copy = colorScheme.copy();
+		assertSame(colorScheme.getGradient(), copy.getGradient());
+		assertColorEquals(expectedColor(0.8d), copy.getColor(0.8d, 0d, 0d), 1e-12);
+	}
+
+	public void testGradientColorSchemeBuilder() {
+
+		ColorScheme colorScheme = GradientColorSchemeBuilder.builder().parameter((v) -> v.getX()).stops(STOPS)
+				.build();
+		assertTrue(colorScheme instanceof GradientColorScheme);
+		assertColorEquals(expectedColor(0.3d), colorScheme.getColor(new Vector3D(0.3d, 0d, 0d)), 1e-12);
+
+		ColorScheme constant = GradientColorSchemeBuilder.builder().parameter((v) -> v.getX())
+				.stop(0d, Color.RED).stop(1d, Color.RED).build();
+		assertTrue(constant instanceof SimpleColorScheme);
+
+		assertTrue(NamedBuilderRegistrar.getSingleton().getBuilderByName("gradient")
+				.get() instanceof GradientColorSchemeBuilder);
+	}
+
+	/**
+	 * The original, linear-search blend.
+	 */
+	private static RawColor expectedColor(double t) {
+
+		List<Pair<Double, Color>> sorted = STOPS.stream()
+				.sorted((p1, p2) -> Double.compare(p1.getKey(), p2.getKey()))
+				.collect(java.util.stream.Collectors.toList());
+
+		if (t < sorted.get(0).getKey())
+			return new RawColor(sorted.get(0).getValue());
+
+		for (int i = 1; i < sorted.size(); i++)
+			if (sorted.get(i).getKey() > t)
+				return Functions.lerp(new RawColor(sorted.get(i - 1).getValue()),
+						new RawColor(sorted.get(i).getValue()),
+						(t - sorted.get(i - 1).getKey()) / (sorted.get(i).getKey() - sorted.get(i - 1).getKey()));
+
+		return new RawColor(sorted.get(sorted.size() - 1).getValue());
+	}
+
+	private static void assertColorEquals(RawColor expected, RawColor actual, double delta) {
+
+		assertEquals(expected.getRed(), actual.getRed(), delta);
+		assertEquals(expected.getGreen(), actual.getGreen(), delta);
+		assertEquals(expected.getBlue(), actual.getBlue(), delta);
+	}
+}
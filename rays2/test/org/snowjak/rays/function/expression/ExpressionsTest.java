@@ -0,0 +1,105 @@
+package org.snowjak.rays.function.expression;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.material.Material;
+
+import javafx.scene.paint.Color;
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class ExpressionsTest extends TestCase {
+
+	private static final Vector3D P1 = new Vector3D(-1, 0, 2), P2 = new Vector3D(3, 1, -1);
+
+	public void testConstantsFold() {
+
+		assertTrue(Expressions.lerp(0.5, P1, 0.5, P2).isConstant());
+		assertFalse(Expressions.lerp(0.5, P1, 0.75, P2).isConstant());
+
+		Expression folded = Expressions.lerp(Expressions.constant(2d), Expressions.constant(4d),
+				Expressions.constant(0.25d));
+		assertTrue(folded.isConstant());
+		assertEquals(2.5d, folded.evaluate(7, 8, 9), 0.0);
+
+		assertSame(Expressions.checkerboard(),
+				Expressions.lerp(Expressions.checkerboard(), Expressions.noise(1d), Expressions.constant(0d)));
+		assertTrue(Expressions.smoothstep(Expressions.constant(0.3d), 0d, 1d).isConstant());
+		assertTrue(Expressions.turbulence(1d, 0).isConstant());
+
+		RawColor grey = new RawColor(0.5, 0.5, 0.5);
+		assertTrue(Expressions.lerp(grey, P1, new RawColor(0.5, 0.5, 0.5), P2).isConstant());
+		assertTrue(Expressions.blend(Expressions.noise(1d), Arrays.asList(new Pair<>(0d, Color.RED),
+				new Pair<>(1d, Color.RED))).isConstant());
+	}
+
+	public void testExpressionsMatchFunctions() {
+
+		Function<Vector3D, Double> expected = (v) -> {
+			double dotProduct = P2.subtract(P1).normalize().dotProduct(v.subtract(P1)), distance = P2.distance(P1);
+			return Functions.lerp(0.2, 0.9, dotProduct / distance);
+		};
+		Expression lerp = Expressions.lerp(0.2, P1, 0.9, P2);
+		ScalarEvaluator compiled = lerp.compile();
+
+		Expression smooth = Expressions.smoothstep(Expressions.turbulence(2d, 3), -0.2, 0.2);
+		ScalarEvaluator smoothCompiled = smooth.compile();
+
+		for (double x = -2; x <= 2; x += 0.37)
+			for (double z = -2; z <= 2; z += 0.41) {
+				Vector3D v = new Vector3D(x, 0.3 * x - z, z);
+				assertEquals(expected.apply(v), lerp.apply(v), 1e-12);
+				assertEquals(expected.apply(v), compiled.applyAsDouble(v), 1e-12);
+
+				double turbulence = Functions.turbulence(2d * x, 2d * v.getY(), 2d * z, 3);
+				assertEquals(Functions.smoothstep(turbulence, -0.2, 0.2), smoothCompiled.applyAsDouble(v), 1e-12);
+				assertEquals(smooth.evaluate(x, v.getY(), z), smoothCompiled.evaluate(x, v.getY(), z), 1e-12);
+			}
+	}
+
+	public void testFootprintFiltering() {
+
+		Expression checkerboard = Expressions.checkerboard();
+		Expression turbulence = Expressions.turbulence(1d, 4);
+		Vector3D p = new Vector3D(0.3, -1.2, 2.45);
+
+		assertEquals(checkerboard.evaluate(0.3, -1.2, 2.45), checkerboard.evaluate(0.3, -1.2, 2.45, 0d), 0.0);
+		assertEquals(turbulence.apply(p), turbulence.evaluate(0.3, -1.2, 2.45, 1e-6), 0.0);
+
+		//
+		// The analytic filter should match a brute-force box-average.
+		double width = 0.7, sum = 0d;
+		int steps = 40;
+		for (int i = 0; i < steps; i++)
+			for (int j = 0; j < steps; j++)
+				for (int k = 0; k < steps; k++)
+					sum += checkerboard.evaluate(0.3 + width * ((i + 0.5) / steps - 0.5),
+							-1.2 + width * ((j + 0.5) / steps - 0.5), 2.45 + width * ((k + 0.5) / steps - 0.5));
+		assertEquals(sum / (steps * steps * steps), checkerboard.evaluate(0.3, -1.2, 2.45, width), 1e-2);
+
+		//
+		// Detail much finer than the footprint averages away.
+		assertEquals(0.5d, checkerboard.evaluate(0.3, -1.2, 2.45, 1000d), 1e-3);
+		assertEquals(0d, turbulence.evaluate(0.3, -1.2, 2.45, 10d), 0.0);
+		assertEquals(0d, Expressions.noise(4d).evaluate(0.3, -1.2, 2.45, 1d), 0.0);
+	}
+
+	public void testMaterialBlendFoldsAgreeingProperties() {
+
+		Material glass = new Material(Functions.constant(0.9d), Functions.constant(0d), Functions.constant(1.5d));
+		Material tinted = new Material(Functions.constant(0.5d), Functions.constant(0d), Functions.constant(1.5d));
+
+		Material blended = Material.blend(glass, P1, tinted, P2);
+		assertTrue(Expressions.getConstantValue(blended.getRefractiveIndex()).isPresent());
+		assertFalse(Expressions.getConstantValue(blended.getSurfaceTransparency()).isPresent());
+
+		assertEquals(1.5d, blended.getRefractiveIndex(new Vector3D(5, 5, 5)), 0.0);
+		assertEquals(0.9d, blended.getSurfaceTransparency(P1), 1e-12);
+		assertEquals(0.5d, blended.getSurfaceTransparency(P2), 1e-12);
+	}
+}
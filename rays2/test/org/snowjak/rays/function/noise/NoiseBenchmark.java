@@ -0,0 +1,84 @@
+package org.snowjak.rays.function.noise;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.snowjak.rays.function.PerlinNoise;
+
+/**
+ * Simple wall-clock benchmark of the noise-functions in this package, against
+ * the old {@link PerlinNoise} generator, for single samples and for
+ * multi-octave (fractal) samples.
+ * <p>
+ * Not a unit-test -- run it by hand:
+ *
+ * <pre>
+ *   java org.snowjak.rays.function.noise.NoiseBenchmark [samples] [octaves]
+ * </pre>
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+@SuppressWarnings({ "javadoc", "deprecation" })
+public class NoiseBenchmark {
+
+	private static final Random RND = new Random(12345);
+
+	public static void main(String[] args) {
+
+		int sampleCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+		int octaves = (args.length > 1) ? Integer.parseInt(args[1]) : 6;
+
+		double[] points = new double[3 * sampleCount];
+		for (int i = 0; i < points.length; i++)
+			points[i] = 40d * RND.nextDouble() - 20d;
+
+		PerlinNoise perlin = PerlinNoise.getSingleton();
+		Noise legacy = (x, y, z) -> perlin.perlinNoise(x, y, z);
+
+		run("PerlinNoise (legacy)", legacy, points, octaves);
+		run("GradientNoise", new GradientNoise(1L), points, octaves);
+		run("ValueNoise", new ValueNoise(1L), points, octaves);
+		run("SimplexNoise", new SimplexNoise(1L), points, octaves);
+		run("WorleyNoise", new WorleyNoise(1L), points, octaves);
+	}
+
+	private static void run(String name, Noise noise, double[] points, int octaves) {
+
+		//
+		// Warm up, then time.
+		single(noise, points);
+		fractal(noise, points, octaves);
+
+		long start = System.nanoTime();
+		double singleSum = single(noise, points);
+		long singleElapsed = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		double fractalSum = fractal(noise, points, octaves);
+		long fractalElapsed = System.nanoTime() - start;
+
+		int sampleCount = points.length / 3;
+		System.out.println(String.format(Locale.ROOT,
+				"%-22s single %7.1f ns/sample, %d-octave %7.1f ns/sample (checksums %.3f, %.3f)", name,
+				(double) singleElapsed / (double) sampleCount, octaves,
+				(double) fractalElapsed / (double) sampleCount, singleSum, fractalSum));
+	}
+
+	private static double single(Noise noise, double[] points) {
+
+		double sum = 0d;
+		for (int i = 0; i < points.length; i += 3)
+			sum += noise.noise(points[i], points[i + 1], points[i + 2]);
+		return sum;
+	}
+
+	private static double fractal(Noise noise, double[] points, int octaves) {
+
+		double sum = 0d;
+		for (int i = 0; i < points.length; i += 3)
+			sum += noise.fractal(points[i], points[i + 1], points[i + 2], octaves, 2d, 0.5d);
+		return sum;
+	}
+}
@@ -0,0 +1,91 @@
+package org.snowjak.rays.function.noise;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class NoiseTest extends TestCase {
+
+	private final Random rnd = new Random(12345);
+
+	public void testSeedsAreDeterministic() {
+
+		for (long seed : new long[] { 0L, 1L, -42L }) {
+			Noise[] first = all(seed), second = all(seed), other = all(seed + 1);
+
+			for (int n = 0; n < first.length; n++) {
+				boolean anyDifferent = false;
+				for (int i = 0; i < 100; i++) {
+					double x = 20d * rnd.nextDouble(), y = 20d * rnd.nextDouble(), z = 20d * rnd.nextDouble();
+					assertEquals(first[n].noise(x, y, z), second[n].noise(x, y, z), 0.0);
+					anyDifferent |= (first[n].noise(x, y, z) != other[n].noise(x, y, z));
+				}
+				assertTrue(first[n].getClass().getSimpleName() + " ignores its seed", anyDifferent);
+			}
+		}
+	}
+
+	public void testNoiseIsPeriodicAndBounded() {
+
+		double period = PermutationTable.PERIOD;
+		for (Noise noise : all(7L)) {
+			boolean isWorley = (noise instanceof WorleyNoise);
+
+			for (int i = 0; i < 2000; i++) {
+				double x = 100d * rnd.nextDouble() - 50d, y = 100d * rnd.nextDouble() - 50d,
+						z = 100d * rnd.nextDouble() - 50d;
+				double value = noise.noise(x, y, z);
+
+				if (isWorley) {
+					assertTrue(value >= 0d);
+					assertTrue(value <= Math.sqrt(3d));
+				} else {
+					assertTrue(value >= -1.1d);
+					assertTrue(value <= 1.1d);
+				}
+
+				//
+				// (Chosen so that SimplexNoise's skewed lattice repeats, too.)
+				assertEquals(value, noise.noise(x + period, y - period, z + 3d * period), 1e-9);
+			}
+
+			//
+			// Huge coordinates shouldn't hang or fall out of the table.
+			noise.noise(1e12, -1e15, 3e9);
+		}
+	}
+
+	public void testGradientNoiseVanishesAtLatticePoints() {
+
+		GradientNoise noise = new GradientNoise(3L);
+		for (int x = -5; x <= 5; x++)
+			for (int z = -5; z <= 5; z++)
+				assertEquals(0d, noise.noise(x, 2d, z), 0.0);
+	}
+
+	public void testFractalSumsOctaves() {
+
+		GradientNoise noise = new GradientNoise(5L);
+		double x = 1.3d, y = -2.7d, z = 0.45d;
+
+		double expected = noise.noise(x, y, z) + 0.5d * noise.noise(2d * x, 2d * y, 2d * z)
+				+ 0.25d * noise.noise(4d * x, 4d * y, 4d * z);
+		assertEquals(expected, noise.fractal(x, y, z, 3, 2d, 0.5d), 1e-12);
+		assertEquals(0d, noise.fractal(x, y, z, 0, 2d, 0.5d), 0.0);
+
+		try {
+			noise.fractal(x, y, z, -1, 2d, 0.5d);
+			fail("Expected an IllegalArgumentException.");
+
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static Noise[] all(long seed) {
+
+		return new Noise[] { new GradientNoise(seed), new ValueNoise(seed), new SimplexNoise(seed),
+				new WorleyNoise(seed) };
+	}
+}
@@ -0,0 +1,106 @@
+package org.snowjak.rays.light;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Translation;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class LightSelectorTest extends TestCase {
+
+	public void testProbabilitiesFollowPower() {
+
+		List<Shape> lights = new LinkedList<>();
+		lights.add(light(1d, 0d));
+		lights.add(light(3d, 5d));
+
+		LightSelector selector = new LightSelector(lights);
+
+		assertEquals(1d, selector.getProbability(0) + selector.getProbability(1), 1e-9);
+		assertEquals(0.25d, selector.getProbability(0), 1e-6);
+		assertEquals(0.75d, selector.getProbability(1), 1e-6);
+	}
+
+	public void testEveryLightIsSelectable() {
+
+		List<Shape> lights = new LinkedList<>();
+		lights.add(light(1000d, 0d));
+		lights.add(light(0d, 5d));
+
+		LightSelector selector = new LightSelector(lights);
+
+		assertTrue(selector.getProbability(1) > 0d);
+	}
+
+	public void testSelectionFrequencies() {
+
+		List<Shape> lights = new LinkedList<>();
+		for (int i = 0; i < 10; i++)
+			lights.add(light(i + 1, 3d * i));
+
+		LightSelector selector = new LightSelector(lights);
+
+		Random rnd = new Random(1234L);
+		int trials = 200000;
+		int[] counts = new int[lights.size()];
+		for (int i = 0; i < trials; i++)
+			counts[selector.select(rnd.nextDouble(), rnd.nextDouble())]++;
+
+		for (int i = 0; i < lights.size(); i++)
+			assertEquals(selector.getProbability(i), (double) counts[i] / (double) trials, 0.005d);
+	}
+
+	public void testEstimateIsUnbiased() {
+
+		List<Shape> lights = new LinkedList<>();
+		for (int i = 0; i < 100; i++)
+			lights.add(light(1d + (i % 7), 3d * i));
+
+		LightSelector selector = new LightSelector(lights);
+
+		//
+		// Deliberately give each light a contribution that is *not*
+		// proportional to its power.
+		double exact = 0d;
+		for (int i = 0; i < lights.size(); i++)
+			exact += contribution(lights, lights.get(i));
+
+		int trials = 20000;
+		double total = 0d;
+		for (int i = 0; i < trials; i++)
+			total += selector.estimate(4, s -> new RawColor(contribution(lights, s), 0d, 0d)).getRed();
+
+		assertEquals(exact, total / (double) trials, 0.02d * exact);
+	}
+
+	public void testEstimateIsExactForFewLights() {
+
+		List<Shape> lights = new LinkedList<>();
+		lights.add(light(1d, 0d));
+		lights.add(light(2d, 5d));
+
+		LightSelector selector = new LightSelector(lights);
+
+		assertEquals(3d, selector.estimate(4, s -> new RawColor(1d + lights.indexOf(s), 0d, 0d)).getRed(), 1e-9);
+	}
+
+	private static double contribution(List<Shape> lights, Shape light) {
+
+		return 1d + (double) (lights.indexOf(light) % 5);
+	}
+
+	private static Shape light(double luminance, double x) {
+
+		Sphere sphere = new Sphere();
+		sphere.getTransformers().add(new Translation(x, 0d, 0d));
+		sphere.setEmissiveColorScheme(new SimpleColorScheme(luminance, luminance, luminance));
+		return sphere;
+	}
+}
@@ -0,0 +1,83 @@
+package org.snowjak.rays.light.model;
+
+import java.util.Optional;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class PathTracingLightingModelTest extends TestCase {
+
+	private static final Ray RAY = new Ray(new Vector3D(10d, 0d, 0d), Vector3D.MINUS_I);
+
+	public void testDirectLightingMatchesLambertian() {
+
+		World world = createWorld(false);
+		RenderContext context = new RenderContext(world, Settings.presetFast(), new FlatLightingModel(), null);
+		Optional<Intersection<Shape>> intersection = world.getClosestShapeIntersection(RAY);
+
+		RawColor expected = new LambertianDiffuseLightingModel().determineRayColor(context, RAY, intersection).get();
+		RawColor actual = new PathTracingLightingModel(1, 1, 1).determineRayColor(context, RAY, intersection).get();
+
+		assertEquals(FastMath.sqrt(0.5d), expected.getRed(), 1e-9);
+		assertEquals(expected.getRed(), actual.getRed(), 1e-9);
+		assertEquals(expected.getBlue(), actual.getBlue(), 1e-9);
+
+		assertFalse(new PathTracingLightingModel()
+				.determineRayColor(context, new Ray(RAY.getOrigin(), Vector3D.PLUS_J), Optional.empty())
+				.isPresent());
+	}
+
+	public void testPathsContinueThroughTransparentSurfaces() {
+
+		//
+		// An index-matched, perfectly-transparent sphere neither reflects
+		// nor bends the path -- so after two refractions, we should see the
+		// lit sphere behind it exactly as though it weren't there.
+		World world = createWorld(true);
+		RenderContext context = new RenderContext(world, Settings.presetFast(), new FlatLightingModel(), null);
+		Optional<Intersection<Shape>> intersection = world.getClosestShapeIntersection(RAY);
+
+		RawColor color = new PathTracingLightingModel(4, 3, 3).determineRayColor(context, RAY, intersection).get();
+
+		assertEquals(FastMath.sqrt(0.5d), color.getRed(), 1e-9);
+		assertEquals(FastMath.sqrt(0.5d), color.getGreen(), 1e-9);
+	}
+
+	private World createWorld(boolean withGlass) {
+
+		World world = new World();
+
+		Sphere lit = new Sphere();
+		lit.setDiffuseColorScheme(new SimpleColorScheme(1d, 1d, 1d));
+		world.addShape(lit);
+
+		if (withGlass) {
+			Sphere glass = new Sphere();
+			glass.getTransformers().add(new Translation(4d, 0d, 0d));
+			glass.setMaterial(Material.constant(1d, 0d, 1d));
+			world.addShape(glass);
+		}
+
+		DirectionalLight light = new DirectionalLight();
+		light.setDirection(new Vector3D(-1d, -1d, 0d).normalize());
+		light.setRadiance(new RawColor(1d, 1d, 1d));
+		world.addDirectionalLight(light);
+
+		return world;
+	}
+}
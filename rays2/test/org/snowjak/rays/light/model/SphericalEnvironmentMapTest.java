@@ -0,0 +1,97 @@
+package org.snowjak.rays.light.model;
+
+import java.util.Random;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
+import org.apache.commons.math3.util.FastMath;
+import org.apache.commons.math3.util.Pair;
+import org.snowjak.rays.color.RawColor;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class SphericalEnvironmentMapTest extends TestCase {
+
+	private final Random rnd = new Random(12345);
+
+	public void testFootprintSelectsFilteredLevels() {
+
+		//
+		// A 1-texel black-and-white checkerboard: sharp up close, and a flat
+		// grey when filtered over a wide footprint.
+		int width = 64, height = 32;
+		float[] rgb = new float[3 * width * height];
+		for (int row = 0; row < height; row++)
+			for (int col = 0; col < width; col++)
+				if (((row + col) & 1) == 0)
+					for (int c = 0; c < 3; c++)
+						rgb[3 * (row * width + col) + c] = 1f;
+
+		SphericalEnvironmentMap map = new SphericalEnvironmentMap(width, height, rgb);
+
+		double u = (10.5d) / width, v = 1d - (6.5d) / height;
+		assertEquals(1d, map.getColorAt(u, v).getRed(), 1e-6);
+		assertEquals(0d, map.getColorAt(u + 1d / width, v).getRed(), 1e-6);
+
+		RawColor filtered = map.getColorAt(u, v, FastMath.PI);
+		assertEquals(0.5d, filtered.getRed(), 1e-6);
+		assertEquals(0.5d, map.getColorAt(u + 1d / width, v, FastMath.PI).getRed(), 1e-6);
+
+		//
+		// U wraps around.
+		assertEquals(map.getColorAt(0.01d, 0.3d).getGreen(), map.getColorAt(1.01d, 0.3d).getGreen(), 1e-6);
+	}
+
+	public void testImportanceSamplingFollowsLuminance() {
+
+		//
+		// A dim map, with one very bright texel.
+		int width = 16, height = 8, brightRow = 3, brightCol = 5;
+		float[] rgb = new float[3 * width * height];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = 0.01f;
+		for (int c = 0; c < 3; c++)
+			rgb[3 * (brightRow * width + brightCol) + c] = 100f;
+
+		SphericalEnvironmentMap map = new SphericalEnvironmentMap(width, height, rgb);
+
+		int hits = 0, samples = 2000;
+		for (int i = 0; i < samples; i++) {
+			Pair<Vector3D, Double> sample = map.sampleDirection(rnd.nextDouble(), rnd.nextDouble());
+			Vector3D direction = sample.getFirst();
+			assertEquals(1d, direction.getNorm(), 1e-9);
+			assertEquals(map.getProbabilityDensity(direction), sample.getSecond(), 1e-6 * sample.getSecond());
+
+			Vector2D uv = map.convert(direction);
+			if ((int) (uv.getX() * width) == brightCol && (int) ((1d - uv.getY()) * height) == brightRow)
+				hits++;
+		}
+		assertTrue("only " + hits + " of " + samples + " samples hit the bright texel", hits > 0.95 * samples);
+
+		//
+		// The probability-density should integrate to 1 over the sphere.
+		double integral = 0d;
+		for (int row = 0; row < height; row++)
+			for (int col = 0; col < width; col++)
+				integral += map.getProbabilityDensity(map.convert((col + 0.5d) / width, 1d - (row + 0.5d) / height));
+		assertEquals(1d, integral * 4d * FastMath.PI / (width * height), 1e-9);
+	}
+
+	public void testUniformMapSamplesUniformly() {
+
+		float[] rgb = new float[3 * 8 * 4];
+		for (int i = 0; i < rgb.length; i++)
+			rgb[i] = 0.5f;
+		SphericalEnvironmentMap map = new SphericalEnvironmentMap(8, 4, rgb);
+
+		for (int i = 0; i < 100; i++) {
+			Pair<Vector3D, Double> sample = map.sampleDirection(rnd.nextDouble(), rnd.nextDouble());
+			assertEquals(1d / (4d * FastMath.PI), sample.getSecond(), 1e-9);
+
+			Vector2D uv = map.convert(sample.getFirst());
+			Vector3D roundTrip = map.convert(uv.getX(), uv.getY());
+			assertEquals(0d, roundTrip.distance(sample.getFirst()), 1e-9);
+		}
+	}
+}
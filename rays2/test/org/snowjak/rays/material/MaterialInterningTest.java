@@ -0,0 +1,113 @@
+package org.snowjak.rays.material;
+
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.function.Functions;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.shape.csg.Union;
+import org.snowjak.rays.transform.Translation;
+
+import javafx.scene.paint.Color;
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class MaterialInterningTest extends TestCase {
+
+	public void testInterningSharesInstances() {
+
+		Material glass = Material.constant(0.9d, 0d, 1.5d);
+		assertSame(glass, Material.constant(0.9d, 0d, 1.5d));
+		assertSame(glass, Material.intern(
+				new Material(Functions.constant(0.9d), Functions.constant(0d), Functions.constant(1.5d))));
+		assertSame(glass, glass.copy());
+
+		Material varying = new Material(Functions::checkerboard, Functions.constant(0d), Functions.constant(1d));
+		assertFalse(varying.isConstant());
+		assertSame(varying, Material.intern(varying));
+
+		try {
+			glass.setRefractiveIndex(1.33d);
+			fail("An interned Material should be immutable.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		SimpleColorScheme red = SimpleColorScheme.intern(Color.RED);
+		assertSame(red, SimpleColorScheme.intern(new SimpleColorScheme(Color.RED)));
+		assertSame(red, red.copy());
+		try {
+			red.setShininess(4d);
+			fail("An interned SimpleColorScheme should be immutable.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	public void testInternedTransformersAreUnmodifiable() {
+
+		Material glass = Material.constant(0.9d, 0d, 1.5d);
+		try {
+			glass.getTransformers().add(new Translation(1d, 0d, 0d));
+			fail("An interned Material's Transformers should be unmodifiable.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertTrue(glass.getTransformers().isEmpty());
+
+		SimpleColorScheme red = SimpleColorScheme.intern(Color.RED);
+		try {
+			red.getTransformers().push(new Translation(1d, 0d, 0d));
+			fail("An interned SimpleColorScheme's Transformers should be unmodifiable.");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertTrue(red.getTransformers().isEmpty());
+
+		SimpleColorScheme blue = new SimpleColorScheme(Color.BLUE);
+		blue.getTransformers().add(new Translation(1d, 0d, 0d));
+		assertEquals(1, blue.getTransformers().size());
+	}
+
+	public void testBlendingAgreeingConstantsAllocatesNothing() {
+
+		Vector3D p1 = new Vector3D(-1, 0, 2), p2 = new Vector3D(3, 1, -1);
+
+		Material glass = Material.constant(0.9d, 0d, 1.5d);
+		assertSame(glass, Material.blend(glass, p1, Material.constant(0.9d, 0d, 1.5d), p2));
+
+		//
+		// Blending always discards albedo -- but agreeing constants still
+		// resolve to a single shared instance.
+		Material dusty = Material.constant(0.9d, 0.5d, 1.5d);
+		Material blended = Material.blend(dusty, p1, glass, p2);
+		assertSame(glass, blended);
+		assertSame(blended, Material.blend(dusty, p2, dusty, p1));
+	}
+
+	public void testUnionOfSharedMaterialReusesIt() {
+
+		Material glass = Material.constant(0.9d, 0d, 1.5d);
+		Shape left = new Sphere(), right = new Sphere();
+		left.getTransformers().add(new Translation(-0.5d, 0d, 0d));
+		right.getTransformers().add(new Translation(0.5d, 0d, 0d));
+		left.setMaterial(glass);
+		right.setMaterial(glass.copy());
+
+		Union union = new Union(left, right);
+		union.setMaterial(null);
+
+		List<Intersection<Shape>> intersections = union
+				.getIntersections(new Ray(new Vector3D(-5d, 0d, 0d), Vector3D.PLUS_I), false, false);
+		assertEquals(4, intersections.size());
+		for (Intersection<Shape> intersection : intersections) {
+			assertTrue(intersection.getLeavingMaterial() == glass || intersection.getLeavingMaterial() == Material.AIR);
+			assertTrue(
+					intersection.getEnteringMaterial() == glass || intersection.getEnteringMaterial() == Material.AIR);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package org.snowjak.rays.medium;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.util.FastMath;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.light.DirectionalLight;
+import org.snowjak.rays.light.model.LightingModel;
+import org.snowjak.rays.light.model.VolumetricLightingModel;
+import org.snowjak.rays.shape.BoundingBox;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class VolumetricLightingModelTest extends TestCase {
+
+	private static final Ray RAY = new Ray(new Vector3D(0.2d, -0.3d, -5d), Vector3D.PLUS_K);
+
+	private static final RawColor WHITE = new RawColor(1d, 1d, 1d);
+
+	public void testHomogeneousAttenuation() {
+
+		AtomicInteger calls = new AtomicInteger();
+		LightingModel background = (c, r, i) -> {
+			calls.incrementAndGet();
+			return Optional.of(WHITE);
+		};
+
+		VolumetricLightingModel model = new VolumetricLightingModel(
+				Arrays.asList(new MediumVolume(new Cube(), new HomogeneousMedium(0.5d, WHITE))), background);
+		RawColor color = model.determineRayColor(createContext(new World()), RAY, Optional.empty()).get();
+
+		assertEquals(FastMath.exp(-0.5d * 2d), color.getRed(), 1e-9);
+		assertEquals(1, calls.get());
+
+		//
+		// Dense enough, and we never even look behind the medium.
+		model = new VolumetricLightingModel(
+				Arrays.asList(new MediumVolume(new Cube(), new HomogeneousMedium(10d, WHITE))), background);
+		color = model.determineRayColor(createContext(new World()), RAY, Optional.empty()).get();
+
+		assertEquals(0d, color.getRed(), VolumetricLightingModel.DEFAULT_MIN_TRANSMITTANCE);
+		assertEquals(1, calls.get());
+	}
+
+	public void testInScattering() {
+
+		World world = new World();
+		DirectionalLight light = new DirectionalLight();
+		light.setRadiance(WHITE);
+		world.addDirectionalLight(light);
+
+		LightingModel background = (c, r, i) -> Optional.empty();
+		double density = 0.5d;
+		VolumetricLightingModel model = new VolumetricLightingModel(
+				Arrays.asList(new MediumVolume(new Cube(), new HomogeneousMedium(density, WHITE))), background);
+		RawColor color = model.determineRayColor(createContext(world), RAY, Optional.empty()).get();
+
+		//
+		// Light reaches each point in the cube through (1 - y) units of the
+		// medium.
+		double expected = 0d, lightTransmittance = FastMath.exp(-density * (1d - RAY.getOrigin().getY()));
+		for (double z = -1d + 0.0005d; z < 1d; z += 0.001d)
+			expected += 0.001d * density * FastMath.exp(-density * (z + 1d)) * lightTransmittance;
+
+		assertEquals(expected, color.getRed(), 0.01d);
+		assertEquals(color.getRed(), color.getBlue(), 1e-12);
+	}
+
+	public void testShadowGridCachesAndInterpolates() {
+
+		AtomicInteger calls = new AtomicInteger();
+		ShadowTransmittanceGrid grid = new ShadowTransmittanceGrid(BoundingBox.UNIT, 5, (p) -> {
+			calls.incrementAndGet();
+			return 0.5d + 0.25d * p.getX() - 0.125d * p.getZ();
+		});
+
+		for (double x = -1d; x <= 1d; x += 0.1d)
+			for (double z = -1d; z <= 1d; z += 0.1d)
+				assertEquals(0.5d + 0.25d * x - 0.125d * z, grid.getTransmittance(new Vector3D(x, 0.3d, z)), 1e-6);
+
+		assertTrue(calls.get() <= 5 * 5 * 5);
+		assertEquals(0.75d, grid.getTransmittance(new Vector3D(5d, 0d, 0d)), 1e-6);
+	}
+
+	private RenderContext createContext(World world) {
+
+		return new RenderContext(world, Settings.presetFast(), (c, r, i) -> Optional.empty(), null);
+	}
+}
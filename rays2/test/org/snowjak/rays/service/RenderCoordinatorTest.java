@@ -0,0 +1,142 @@
+package org.snowjak.rays.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class RenderCoordinatorTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0.2 g:0.9 b:0.4 }\n" + "	}\n" + "	camera: camera {\n"
+			+ "		transform: translate { x:0 y:0 z:-10 }\n" + "		frame-width: 4\n"
+			+ "		field-of-view: 60\n" + "	}\n" + "	ambient: color { r:1 g:1 b:1 }\n" + "}";
+
+	private RenderCoordinator coordinator;
+
+	private Settings settings;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		coordinator = new RenderCoordinator(0);
+		coordinator.start();
+
+		settings = Settings.presetFast();
+		settings.setImageWidth(150);
+		settings.setImageHeight(100);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		coordinator.shutdown();
+	}
+
+	public void testWorkersAssembleTheSameImage() throws Exception {
+
+		startWorker();
+		startWorker();
+
+		FramebufferPixelDrawer distributed = coordinator.render(WORLD_TEXT, settings).get(60, TimeUnit.SECONDS);
+
+		RenderService service = new RenderService(2);
+		try {
+			FramebufferPixelDrawer local = service.submit(WORLD_TEXT, settings, 0)
+					.getFuture()
+					.get(60, TimeUnit.SECONDS);
+
+			assertImagesEqual(local, distributed);
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	public void testTilesFromDeadWorkersAreReassigned() throws Exception {
+
+		CompletableFuture<FramebufferPixelDrawer> future = coordinator.render(WORLD_TEXT, settings);
+
+		//
+		// This "worker" accepts a tile and then dies without answering.
+		try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.writeInt(DistributedProtocol.MAGIC);
+			out.writeInt(DistributedProtocol.VERSION);
+			out.flush();
+
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			assertEquals(DistributedProtocol.MESSAGE_JOB, in.readByte());
+		}
+
+		startWorker();
+
+		FramebufferPixelDrawer image = future.get(60, TimeUnit.SECONDS);
+		assertTrue(image.getPixel(75, 50).getGreen() > 0d);
+	}
+
+	public void testTilesFromHungWorkersAreReassigned() throws Exception {
+
+		coordinator.shutdown();
+		coordinator = new RenderCoordinator(0, 500);
+		coordinator.start();
+
+		CompletableFuture<FramebufferPixelDrawer> future = coordinator.render(WORLD_TEXT, settings);
+
+		//
+		// This "worker" accepts a tile and then stays connected without ever
+		// answering.
+		try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+			DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+			out.writeInt(DistributedProtocol.MAGIC);
+			out.writeInt(DistributedProtocol.VERSION);
+			out.flush();
+
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			assertEquals(DistributedProtocol.MESSAGE_JOB, in.readByte());
+
+			startWorker();
+
+			FramebufferPixelDrawer image = future.get(60, TimeUnit.SECONDS);
+			assertTrue(image.getPixel(75, 50).getGreen() > 0d);
+		}
+	}
+
+	private void startWorker() {
+
+		Thread thread = new Thread(() -> {
+			RenderWorker worker = new RenderWorker("localhost", coordinator.getPort(), 2);
+			try {
+				worker.run();
+			} catch (Exception e) {
+				// the coordinator has shut down
+			} finally {
+				worker.shutdown();
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void assertImagesEqual(FramebufferPixelDrawer expected, FramebufferPixelDrawer actual) {
+
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+
+		for (int y = 0; y < expected.getHeight(); y++)
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals("red at (" + x + "," + y + ")", expected.getPixel(x, y).getRed(),
+						actual.getPixel(x, y).getRed(), 1e-6);
+				assertEquals("green at (" + x + "," + y + ")", expected.getPixel(x, y).getGreen(),
+						actual.getPixel(x, y).getGreen(), 1e-6);
+				assertEquals("blue at (" + x + "," + y + ")", expected.getPixel(x, y).getBlue(),
+						actual.getPixel(x, y).getBlue(), 1e-6);
+			}
+	}
+}
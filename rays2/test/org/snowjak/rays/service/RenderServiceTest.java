@@ -0,0 +1,142 @@
+package org.snowjak.rays.service;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.light.model.FlatLightingModel;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class RenderServiceTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0 g:1 b:0 }\n" + "	}\n" + "	camera: camera {\n"
+			+ "		transform: translate { x:0 y:0 z:-10 }\n" + "		frame-width: 4\n"
+			+ "		field-of-view: 60\n" + "	}\n" + "}";
+
+	private RenderService service;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		service = new RenderService(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		service.shutdown();
+	}
+
+	public void testConcurrentJobsRenderTheirOwnWorlds() throws Exception {
+
+		RenderJob red = service.submit(createWorld(new RawColor(1d, 0d, 0d)), createSettings(32, 32),
+				new FlatLightingModel(), 0);
+		RenderJob blue = service.submit(createWorld(new RawColor(0d, 0d, 1d)), createSettings(48, 32),
+				new FlatLightingModel(), 0);
+
+		FramebufferPixelDrawer redImage = red.getFuture().get(30, TimeUnit.SECONDS);
+		FramebufferPixelDrawer blueImage = blue.getFuture().get(30, TimeUnit.SECONDS);
+
+		assertEquals(32, redImage.getWidth());
+		assertEquals(48, blueImage.getWidth());
+		assertEquals(1d, redImage.getPixel(16, 16).getRed(), 1e-6);
+		assertEquals(0d, redImage.getPixel(16, 16).getBlue(), 1e-6);
+		assertEquals(1d, blueImage.getPixel(24, 16).getBlue(), 1e-6);
+		assertEquals(0d, blueImage.getPixel(24, 16).getRed(), 1e-6);
+		assertEquals(0d, redImage.getPixel(0, 0).getRed(), 1e-6);
+	}
+
+	public void testEmptyJobsCompleteImmediately() throws Exception {
+
+		RenderJob empty = service.submit(createWorld(new RawColor(1d, 0d, 0d)), createSettings(0, 0),
+				new FlatLightingModel(), 0);
+
+		assertEquals(0, empty.getFuture().get(30, TimeUnit.SECONDS).getWidth());
+	}
+
+	public void testHigherPriorityJobsFinishFirst() throws Exception {
+
+		service.shutdown();
+		service = new RenderService(1);
+
+		List<String> finished = new CopyOnWriteArrayList<>();
+
+		RenderJob low = service.submit(createWorld(new RawColor(1d, 1d, 1d)), createSettings(256, 256),
+				new FlatLightingModel(), 0);
+		RenderJob high = service.submit(createWorld(new RawColor(1d, 1d, 1d)), createSettings(64, 64),
+				new FlatLightingModel(), 10);
+		low.getFuture().thenRun(() -> finished.add("low"));
+		high.getFuture().thenRun(() -> finished.add("high"));
+
+		low.getFuture().get(30, TimeUnit.SECONDS);
+		high.getFuture().get(30, TimeUnit.SECONDS);
+
+		assertEquals("high", finished.get(0));
+	}
+
+	public void testCancelledJobsAreRemovedFromTheQueue() throws Exception {
+
+		service.shutdown();
+		service = new RenderService(1);
+
+		RenderJob job = service.submit(createWorld(new RawColor(1d, 1d, 1d)), createSettings(1024, 1024),
+				new FlatLightingModel(), 0);
+		assertTrue(job.getFuture().cancel(true));
+
+		try {
+			job.getFuture().get();
+			fail("Expected a CancellationException");
+		} catch (CancellationException e) {
+			// expected
+		}
+
+		RenderJob next = service.submit(createWorld(new RawColor(1d, 1d, 1d)), createSettings(8, 8),
+				new FlatLightingModel(), 0);
+		next.getFuture().get(30, TimeUnit.SECONDS);
+		assertEquals(0, service.getQueuedTaskCount());
+	}
+
+	public void testWorldFilesAreParsedOnce() throws Exception {
+
+		World first = service.getWorldCache().getWorld(WORLD_TEXT);
+		World second = service.getWorldCache().getWorld(WORLD_TEXT);
+
+		assertSame(first, second);
+		assertTrue(first.isFrozen());
+		assertEquals(1, first.getShapes().size());
+	}
+
+	private World createWorld(RawColor color) {
+
+		World world = new World();
+		Sphere sphere = new Sphere();
+		sphere.setDiffuseColorScheme(new SimpleColorScheme(color));
+		world.addShape(sphere);
+
+		Camera camera = new Camera(4d, 60d);
+		camera.getTransformers().add(new Translation(0d, 0d, -10d));
+		world.setCamera(camera);
+
+		return world;
+	}
+
+	private Settings createSettings(int width, int height) {
+
+		Settings settings = Settings.presetFast();
+		settings.setImageWidth(width);
+		settings.setImageHeight(height);
+		return settings;
+	}
+}
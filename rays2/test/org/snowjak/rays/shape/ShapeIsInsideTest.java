@@ -0,0 +1,191 @@
+package org.snowjak.rays.shape;
+
+import java.util.Random;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.material.Material;
+import org.snowjak.rays.shape.csg.Intersect;
+import org.snowjak.rays.shape.csg.Minus;
+import org.snowjak.rays.shape.csg.Union;
+import org.snowjak.rays.transform.Rotation;
+import org.snowjak.rays.transform.Scale;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class ShapeIsInsideTest extends TestCase {
+
+	private static final int SAMPLE_COUNT = 2000;
+
+	private Random rnd;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		rnd = new Random(8675309L);
+	}
+
+	public void testSphere() {
+
+		assertAgreesWithRayCast(transform(new Sphere()));
+	}
+
+	public void testCube() {
+
+		assertAgreesWithRayCast(transform(new Cube()));
+	}
+
+	public void testCylinder() {
+
+		assertAgreesWithRayCast(transform(new Cylinder()));
+	}
+
+	public void testPlane() {
+
+		Plane plane = new Plane();
+		plane.getTransformers().add(new Translation(0d, 1d, 0d));
+
+		//
+		// A Plane is the half-space on its minus-Y side.
+		assertTrue(plane.isInside(new Vector3D(3d, 1d, -2d)));
+		assertFalse(plane.isInside(new Vector3D(3d, 1.5d, -2d)));
+		assertTrue(plane.isInside(new Vector3D(3d, 0.5d, -2d)));
+
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			Vector3D point = randomPoint();
+			assertEquals("Disagreement at " + point, point.getY() <= 1d, plane.isInside(point));
+		}
+	}
+
+	public void testIntersectWithPlane() {
+
+		//
+		// Composites must agree with the CSG sweep, which treats a Plane as a
+		// half-space.
+		Shape intersect = new Intersect(new Sphere(), new Plane());
+		assertTrue(intersect.isInside(new Vector3D(0d, -0.5d, 0d)));
+		assertFalse(intersect.isInside(new Vector3D(0d, 0.5d, 0d)));
+		assertFalse(intersect.isInside(new Vector3D(0d, -1.5d, 0d)));
+	}
+
+	public void testUnion() {
+
+		Shape union = transform(new Union(offset(new Sphere(), -0.5d), offset(new Cube(), 0.5d)));
+		//
+		// Without an overriding Material, a Union reports its interior
+		// crossings as well -- which would throw off the crossing-count.
+		union.setMaterial(new Material());
+
+		assertAgreesWithCrossingParity(union);
+		assertAgreesWithChildren(union, (a, b) -> a || b, offset(new Sphere(), -0.5d), offset(new Cube(), 0.5d));
+	}
+
+	public void testIntersect() {
+
+		Shape intersect = transform(new Intersect(offset(new Sphere(), -0.5d), offset(new Cylinder(), 0.5d)));
+
+		assertAgreesWithCrossingParity(intersect);
+		assertAgreesWithChildren(intersect, (a, b) -> a && b, offset(new Sphere(), -0.5d),
+				offset(new Cylinder(), 0.5d));
+	}
+
+	public void testMinus() {
+
+		Shape minus = transform(new Minus(new Cube(), offset(new Sphere(), 0.75d)));
+
+		assertAgreesWithCrossingParity(minus);
+		assertAgreesWithChildren(minus, (a, b) -> a && !b, new Cube(), offset(new Sphere(), 0.75d));
+	}
+
+	public void testNestedComposition() {
+
+		Shape nested = transform(new Minus(new Union(offset(new Sphere(), -0.5d), offset(new Sphere(), 0.5d)),
+				new Intersect(new Cube(), offset(new Cylinder(), 0.25d))));
+
+		assertAgreesWithCrossingParity(nested);
+	}
+
+	/**
+	 * The ray-cast definition of "inside", for convex Shapes centered on their
+	 * location: cast a ray from the point directly away from the Shape's
+	 * center, and look for any intersection.
+	 */
+	private boolean rayCastIsInside(Shape shape, Vector3D point) {
+
+		Vector3D centerToPoint = point.subtract(shape.getLocation());
+		if (Double.compare(centerToPoint.getNorm(), World.NEARLY_ZERO) <= 0)
+			return true;
+
+		return !shape.getIntersections(new Ray(point, centerToPoint.normalize())).isEmpty();
+	}
+
+	/**
+	 * The ray-cast definition of "inside", for arbitrary closed Shapes: cast a
+	 * ray from the point in some direction, and count the boundaries it
+	 * crosses. An odd count means we started inside.
+	 */
+	private boolean crossingParityIsInside(Shape shape, Vector3D point) {
+
+		Ray ray = new Ray(point, new Vector3D(0.2718281828d, 0.3141592653d, 0.9d));
+		return (shape.getIntersections(ray).size() % 2) == 1;
+	}
+
+	private void assertAgreesWithRayCast(Shape shape) {
+
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			Vector3D point = randomPoint();
+			assertEquals("Disagreement at " + point, rayCastIsInside(shape, point), shape.isInside(point));
+		}
+	}
+
+	private void assertAgreesWithCrossingParity(Shape shape) {
+
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			Vector3D point = randomPoint();
+			assertEquals("Disagreement at " + point, crossingParityIsInside(shape, point), shape.isInside(point));
+		}
+	}
+
+	private void assertAgreesWithChildren(Shape composite, BooleanOperator operator, Shape first, Shape second) {
+
+		Shape transformedFirst = transform(first), transformedSecond = transform(second);
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			Vector3D point = randomPoint();
+			assertEquals("Disagreement at " + point,
+					operator.apply(transformedFirst.isInside(point), transformedSecond.isInside(point)),
+					composite.isInside(point));
+		}
+	}
+
+	private Vector3D randomPoint() {
+
+		return new Vector3D(6d * rnd.nextDouble() - 3d, 6d * rnd.nextDouble() - 3d, 6d * rnd.nextDouble() - 3d);
+	}
+
+	private static Shape offset(Shape shape, double dX) {
+
+		shape.getTransformers().add(new Translation(dX, 0d, 0d));
+		return shape;
+	}
+
+	/**
+	 * Apply the same (non-trivial) transformation to every Shape under test,
+	 * so that we exercise the world-to-local conversions as well.
+	 */
+	private static Shape transform(Shape shape) {
+
+		shape.getTransformers().add(new Scale(1.5d, 0.75d, 1.25d));
+		shape.getTransformers().add(new Rotation(30d, 45d, 10d));
+		shape.getTransformers().add(new Translation(0.25d, -0.5d, 0.1d));
+		return shape;
+	}
+
+	@FunctionalInterface
+	private interface BooleanOperator {
+
+		public boolean apply(boolean a, boolean b);
+	}
+}
@@ -0,0 +1,86 @@
+package org.snowjak.rays.shape.csg;
+
+import java.util.Random;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Scale;
+import org.snowjak.rays.transform.Translation;
+
+/**
+ * Simple wall-clock benchmark of CSG evaluation over deeply-nested
+ * {@link Minus} and {@link Union} trees.
+ * <p>
+ * Not a unit-test -- run it by hand:
+ *
+ * <pre>
+ *   java org.snowjak.rays.shape.csg.CsgBenchmark [max-depth] [rays-per-depth]
+ * </pre>
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+@SuppressWarnings("javadoc")
+public class CsgBenchmark {
+
+	private static final Random RND = new Random(12345);
+
+	public static void main(String[] args) {
+
+		int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : 8;
+		int rayCount = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+
+		Ray[] rays = new Ray[rayCount];
+		for (int i = 0; i < rayCount; i++) {
+			Vector3D origin = new Vector3D(RND.nextDouble() - 0.5, RND.nextDouble() - 0.5, -10d);
+			Vector3D target = new Vector3D(2d * RND.nextDouble() - 1d, 2d * RND.nextDouble() - 1d, 0d);
+			rays[i] = new Ray(origin, target.subtract(origin));
+		}
+
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			Shape tree = buildTree(depth);
+
+			//
+			// Warm up, then time.
+			run(tree, rays);
+			long start = System.nanoTime();
+			int hits = run(tree, rays);
+			long elapsed = System.nanoTime() - start;
+
+			System.out.println(String.format("depth %2d: %8.1f ns/ray (%d hits over %d rays)", depth,
+					(double) elapsed / (double) rayCount, hits, rayCount));
+		}
+	}
+
+	private static int run(Shape tree, Ray[] rays) {
+
+		int hits = 0;
+		for (Ray ray : rays)
+			hits += tree.getIntersections(ray).size();
+		return hits;
+	}
+
+	/**
+	 * Build a CSG tree of the given depth, alternating between Minus and
+	 * Union at each level.
+	 */
+	private static Shape buildTree(int depth) {
+
+		if (depth <= 0) {
+			Shape leaf = (RND.nextBoolean()) ? new Sphere() : new Cube();
+			leaf.getTransformers().add(new Scale(0.5d, 0.5d, 0.5d));
+			leaf.getTransformers().add(
+					new Translation(RND.nextDouble() - 0.5d, RND.nextDouble() - 0.5d, RND.nextDouble() - 0.5d));
+			return leaf;
+		}
+
+		if (depth % 2 == 0)
+			return new Minus(buildTree(depth - 1), buildTree(depth - 1));
+		else
+			return new Union(buildTree(depth - 1), buildTree(depth - 1));
+	}
+}
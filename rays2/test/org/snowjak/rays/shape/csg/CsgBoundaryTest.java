@@ -0,0 +1,74 @@
+package org.snowjak.rays.shape.csg;
+
+import java.util.List;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.shape.Group;
+import org.snowjak.rays.shape.Plane;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.shape.perturb.NormalPerturber;
+import org.snowjak.rays.transform.Translation;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class CsgBoundaryTest extends TestCase {
+
+	private static final Ray ALONG_X = new Ray(new Vector3D(-10d, 0d, 0d), Vector3D.PLUS_I);
+
+	public void testNestedUnionWithoutMaterial() {
+
+		//
+		// A Union with no Material of its own reports its interior
+		// crossings; as a CSG child, only its true boundary may count.
+		Shape union = new Union(sphereAt(-0.5d), sphereAt(0.5d));
+		assertNull(union.getMaterial());
+
+		assertCrossings(new Minus(union, sphereAt(1.5d)), ALONG_X, -1.5d, 0.5d);
+		assertCrossings(new Intersect(new Union(sphereAt(-0.5d), sphereAt(0.5d)), sphereAt(1.5d)), ALONG_X, 0.5d,
+				1.5d);
+	}
+
+	public void testOverlappingGroupAndPerturber() {
+
+		assertCrossings(new Minus(new Group(sphereAt(-0.5d), sphereAt(0.5d)), sphereAt(1.5d)), ALONG_X, -1.5d,
+				0.5d);
+		assertCrossings(
+				new Minus(new NormalPerturber(NormalPerturber.DEFAULT_PERTURBATION_FUNCTION,
+						new Union(sphereAt(-0.5d), sphereAt(0.5d))), sphereAt(1.5d)),
+				ALONG_X, -1.5d, 0.5d);
+	}
+
+	public void testPlaneAsHalfSpace() {
+
+		Shape hemisphere = new Intersect(new Sphere(), new Plane());
+
+		double x = Math.sqrt(0.75d);
+		assertCrossings(hemisphere, new Ray(new Vector3D(-10d, -0.5d, 0d), Vector3D.PLUS_I), -x, x);
+		assertCrossings(hemisphere, new Ray(new Vector3D(-10d, 0.5d, 0d), Vector3D.PLUS_I));
+
+		List<Intersection<Shape>> vertical = hemisphere
+				.getIntersections(new Ray(new Vector3D(0d, -10d, 0d), Vector3D.PLUS_J));
+		assertEquals(2, vertical.size());
+		assertEquals(-1d, vertical.get(0).getPoint().getY(), 1e-9);
+		assertEquals(0d, vertical.get(1).getPoint().getY(), 1e-9);
+	}
+
+	private static Shape sphereAt(double x) {
+
+		Shape sphere = new Sphere();
+		sphere.getTransformers().add(new Translation(x, 0d, 0d));
+		return sphere;
+	}
+
+	private static void assertCrossings(Shape shape, Ray ray, double... expectedX) {
+
+		List<Intersection<Shape>> intersections = shape.getIntersections(ray);
+		assertEquals("Crossings: " + intersections, expectedX.length, intersections.size());
+		for (int i = 0; i < expectedX.length; i++)
+			assertEquals(expectedX[i], intersections.get(i).getPoint().getX(), 1e-9);
+	}
+}
@@ -0,0 +1,101 @@
+package org.snowjak.rays.ui;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.light.model.AmbientLightingModel;
+import org.snowjak.rays.service.WorldCache;
+import org.snowjak.rays.transform.Translation;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class PreviewRendererTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0.2 g:0.9 b:0.4 }\n" + "	}\n" + "	camera: camera {\n"
+			+ "		transform: translate { x:0 y:0 z:-10 }\n" + "		frame-width: 4\n"
+			+ "		field-of-view: 60\n" + "	}\n" + "	ambient: color { r:1 g:1 b:1 }\n" + "}";
+
+	private ExecutorService pool;
+
+	private World world;
+
+	private Settings settings;
+
+	private FramebufferPixelDrawer framebuffer;
+
+	private PreviewRenderer preview;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		pool = Executors.newFixedThreadPool(2);
+		world = new WorldCache(1).getWorld(WORLD_TEXT);
+
+		settings = Settings.presetFast();
+		settings.setImageWidth(100);
+		settings.setImageHeight(60);
+
+		framebuffer = new FramebufferPixelDrawer(settings);
+		preview = new PreviewRenderer(new RenderContext(world, settings, new AmbientLightingModel(), pool),
+				framebuffer);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		preview.shutdown();
+		pool.shutdownNow();
+	}
+
+	public void testFullResolutionPassTracesEveryPixel() throws Exception {
+
+		preview.setMaxSamples(1);
+		preview.setCamera(world.getCamera());
+		awaitAllPasses();
+
+		RenderContext context = new RenderContext(world, settings, new AmbientLightingModel(), pool);
+		for (int y = 0; y < framebuffer.getHeight(); y++)
+			for (int x = 0; x < framebuffer.getWidth(); x++) {
+				RawColor expected = world.getCamera()
+						.shootRay(context, framebuffer.getCameraX(x, world.getCamera()),
+								framebuffer.getCameraY(y, world.getCamera()))
+						.orElse(new RawColor());
+				assertEquals("(" + x + "," + y + ")", expected.getGreen(), framebuffer.getPixel(x, y).getGreen(),
+						1e-6);
+			}
+	}
+
+	public void testMovingTheCameraAbandonsThePreviousPreview() throws Exception {
+
+		preview.setMaxSamples(4);
+		preview.setCamera(world.getCamera());
+
+		//
+		// Move the camera past the sphere -- the sphere is now behind it.
+		Camera moved = PreviewRenderer.moveCamera(world.getCamera(), new Translation(0d, 0d, 20d));
+		preview.setCamera(moved);
+		awaitAllPasses();
+
+		assertSame(moved, preview.getCamera());
+		for (int y = 0; y < framebuffer.getHeight(); y++)
+			for (int x = 0; x < framebuffer.getWidth(); x++)
+				assertEquals("(" + x + "," + y + ")", 0d, framebuffer.getPixel(x, y).getGreen(), 0d);
+	}
+
+	private void awaitAllPasses() throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + 60000;
+		while (preview.getCompletedPasses() < preview.getTotalPasses()) {
+			assertTrue("Timed out waiting for the preview", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package org.snowjak.rays.ui;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.camera.Camera;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.light.model.AmbientLightingModel;
+import org.snowjak.rays.service.WorldCache;
+import org.snowjak.rays.ui.impl.FramebufferPixelDrawer;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class RenderCheckpointTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0.2 g:0.9 b:0.4 }\n" + "	}\n" + "	camera: camera {\n"
+			+ "		transform: translate { x:0 y:0 z:-10 }\n" + "		frame-width: 4\n"
+			+ "		field-of-view: 60\n" + "	}\n" + "	ambient: color { r:1 g:1 b:1 }\n" + "}";
+
+	private World world;
+
+	private Settings settings;
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		world = new WorldCache(1).getWorld(WORLD_TEXT);
+
+		settings = Settings.presetFast();
+		settings.setImageWidth(300);
+		settings.setImageHeight(200);
+
+		file = File.createTempFile("render", ".checkpoint");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+	}
+
+	public void testResumedRenderMatchesUninterruptedRender() throws Exception {
+
+		long fingerprint = RenderCheckpoint.fingerprint(WORLD_TEXT, settings);
+
+		FramebufferPixelDrawer uninterrupted = new FramebufferPixelDrawer(settings);
+		File uninterruptedFile = File.createTempFile("render", ".checkpoint");
+		try {
+			RenderCheckpoint checkpoint = RenderCheckpoint.open(uninterruptedFile, uninterrupted,
+					MultithreadedScreenDecorator.REGION_SIDE_LENGTH, fingerprint, false);
+			render(uninterrupted, checkpoint, Executors.newFixedThreadPool(2));
+			checkpoint.shutdown();
+		} finally {
+			uninterruptedFile.delete();
+		}
+
+		//
+		// "Crash" part-way through the render, by killing the render-pool
+		// after a few thousand pixels.
+		ExecutorService crashingPool = Executors.newSingleThreadExecutor();
+		AtomicInteger pixelsTraced = new AtomicInteger();
+		RenderCheckpoint checkpoint = RenderCheckpoint.open(file, uninterrupted,
+				MultithreadedScreenDecorator.REGION_SIDE_LENGTH, fingerprint, false);
+		render(new FramebufferPixelDrawer(settings) {
+
+			@Override
+			public Optional<RawColor> getRayColor(RenderContext context, int screenX, int screenY, Camera camera) {
+
+				if (pixelsTraced.incrementAndGet() == 10000)
+					crashingPool.shutdownNow();
+				return super.getRayColor(context, screenX, screenY, camera);
+			}
+		}, checkpoint, crashingPool);
+		checkpoint.shutdown();
+
+		FramebufferPixelDrawer resumed = new FramebufferPixelDrawer(settings);
+		checkpoint = RenderCheckpoint.open(file, resumed, MultithreadedScreenDecorator.REGION_SIDE_LENGTH,
+				fingerprint, true);
+		try {
+			assertTrue(checkpoint.getCompletedRegionCount() > 0);
+			assertTrue(checkpoint.getCompletedRegionCount() < checkpoint.getRegions().size());
+
+			render(resumed, checkpoint, Executors.newFixedThreadPool(2));
+			assertEquals(checkpoint.getRegions().size(), checkpoint.getCompletedRegionCount());
+		} finally {
+			checkpoint.shutdown();
+		}
+
+		for (int y = 0; y < uninterrupted.getHeight(); y++)
+			for (int x = 0; x < uninterrupted.getWidth(); x++) {
+				assertEquals("red at (" + x + "," + y + ")", uninterrupted.getPixel(x, y).getRed(),
+						resumed.getPixel(x, y).getRed(), 0d);
+				assertEquals("green at (" + x + "," + y + ")", uninterrupted.getPixel(x, y).getGreen(),
+						resumed.getPixel(x, y).getGreen(), 0d);
+				assertEquals("blue at (" + x + "," + y + ")", uninterrupted.getPixel(x, y).getBlue(),
+						resumed.getPixel(x, y).getBlue(), 0d);
+			}
+	}
+
+	public void testCheckpointForDifferentSettingsIsNotResumed() throws Exception {
+
+		FramebufferPixelDrawer framebuffer = new FramebufferPixelDrawer(settings);
+		long fingerprint = RenderCheckpoint.fingerprint(WORLD_TEXT, settings);
+
+		RenderCheckpoint checkpoint = RenderCheckpoint.open(file, framebuffer,
+				MultithreadedScreenDecorator.REGION_SIDE_LENGTH, fingerprint, false);
+		checkpoint.regionCompleted(0);
+		checkpoint.shutdown();
+
+		checkpoint = RenderCheckpoint.open(file, framebuffer, MultithreadedScreenDecorator.REGION_SIDE_LENGTH,
+				fingerprint, true);
+		assertTrue(checkpoint.isRegionComplete(0));
+		checkpoint.shutdown();
+
+		settings.setMaxRayRecursion(settings.getMaxRayRecursion() + 1);
+		checkpoint = RenderCheckpoint.open(file, framebuffer, MultithreadedScreenDecorator.REGION_SIDE_LENGTH,
+				RenderCheckpoint.fingerprint(WORLD_TEXT, settings), true);
+		assertFalse(checkpoint.isRegionComplete(0));
+		assertEquals(0, checkpoint.getCompletedRegionCount());
+		checkpoint.shutdown();
+	}
+
+	private void render(PixelDrawer drawer, RenderCheckpoint checkpoint, ExecutorService pool)
+			throws InterruptedException {
+
+		RenderContext context = new RenderContext(world, settings, new AmbientLightingModel(), pool);
+		new MultithreadedScreenDecorator(drawer, checkpoint).draw(context, world.getCamera());
+
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,82 @@
+package org.snowjak.rays.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class TiledArgbFramebufferTest extends TestCase {
+
+	public void testOnlyDirtyTilesAreDrained() {
+
+		TiledArgbFramebuffer framebuffer = new TiledArgbFramebuffer(100, 50, 32);
+		framebuffer.setPixel(5, 5, 0xFF112233);
+		framebuffer.setPixel(99, 49, 0xFF445566);
+
+		List<int[]> tiles = new ArrayList<>();
+		assertEquals(2, framebuffer.drainDirtyTiles((x, y, w, h) -> tiles.add(new int[] { x, y, w, h })));
+
+		assertEquals(0, tiles.get(0)[0]);
+		assertEquals(0, tiles.get(0)[1]);
+		assertEquals(32, tiles.get(0)[2]);
+		assertEquals(32, tiles.get(0)[3]);
+
+		//
+		// The last tile is clipped to the edges of the framebuffer.
+		assertEquals(96, tiles.get(1)[0]);
+		assertEquals(32, tiles.get(1)[1]);
+		assertEquals(4, tiles.get(1)[2]);
+		assertEquals(18, tiles.get(1)[3]);
+
+		assertEquals(0, framebuffer.drainDirtyTiles((x, y, w, h) -> fail()));
+	}
+
+	public void testConcurrentWritesAreNeverLost() throws Exception {
+
+		TiledArgbFramebuffer framebuffer = new TiledArgbFramebuffer(200, 100, 16);
+		int[] display = new int[200 * 100];
+		AtomicBoolean writing = new AtomicBoolean(true);
+
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int firstRow = t;
+			writers.add(new Thread(() -> {
+				for (int pass = 1; pass <= 20; pass++)
+					for (int y = firstRow; y < 100; y += 4)
+						for (int x = 0; x < 200; x++)
+							framebuffer.setPixel(x, y, 0xFF000000 | (pass << 16) | (y << 8) | (x & 0xFF));
+			}));
+		}
+		for (Thread writer : writers)
+			writer.start();
+
+		Thread reader = new Thread(() -> {
+			while (writing.get())
+				drainInto(framebuffer, display);
+		});
+		reader.start();
+
+		for (Thread writer : writers)
+			writer.join();
+		writing.set(false);
+		reader.join();
+		drainInto(framebuffer, display);
+
+		for (int y = 0; y < 100; y++)
+			for (int x = 0; x < 200; x++)
+				assertEquals("(" + x + "," + y + ")", 0xFF000000 | (20 << 16) | (y << 8) | (x & 0xFF),
+						display[y * 200 + x]);
+	}
+
+	private static void drainInto(TiledArgbFramebuffer framebuffer, int[] display) {
+
+		int[] pixels = framebuffer.getPixels();
+		int stride = framebuffer.getWidth();
+		framebuffer.drainDirtyTiles((minX, minY, width, height) -> {
+			for (int y = minY; y < minY + height; y++)
+				System.arraycopy(pixels, y * stride + minX, display, y * stride + minX, width);
+		});
+	}
+}
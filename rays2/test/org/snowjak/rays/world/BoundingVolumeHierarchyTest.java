@@ -0,0 +1,173 @@
+package org.snowjak.rays.world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.Ray;
+import org.snowjak.rays.intersect.Intersection;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.shape.Cylinder;
+import org.snowjak.rays.shape.Plane;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.shape.csg.Minus;
+import org.snowjak.rays.transform.Rotation;
+import org.snowjak.rays.transform.Scale;
+import org.snowjak.rays.transform.Translation;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class BoundingVolumeHierarchyTest extends TestCase {
+
+	private static final int RAY_COUNT = 2000;
+
+	private Random rnd;
+
+	private List<Shape> shapes;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		rnd = new Random(24601L);
+
+		shapes = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Shape shape;
+			switch (i % 4) {
+			case 0:
+				shape = new Sphere();
+				break;
+			case 1:
+				shape = new Cube();
+				break;
+			case 2:
+				shape = new Cylinder();
+				break;
+			default:
+				shape = new Minus(new Cube(), new Sphere());
+			}
+			shape.getTransformers().add(new Scale(0.25d + rnd.nextDouble(), 0.25d + rnd.nextDouble(),
+					0.25d + rnd.nextDouble()));
+			shape.getTransformers().add(new Rotation(360d * rnd.nextDouble(), 360d * rnd.nextDouble(),
+					360d * rnd.nextDouble()));
+			shape.getTransformers().add(new Translation(20d * rnd.nextDouble() - 10d, 20d * rnd.nextDouble() - 10d,
+					20d * rnd.nextDouble() - 10d));
+			shapes.add(shape);
+		}
+
+		Plane floor = new Plane();
+		floor.getTransformers().add(new Translation(0d, -12d, 0d));
+		shapes.add(floor);
+	}
+
+	public void testBoundingBoxesEncloseShapes() {
+
+		for (Shape shape : shapes) {
+			if (shape.getBoundingBox().isUnbounded())
+				continue;
+
+			for (Vector3D point : shape.selectPointsWithin(50, true)) {
+				assertTrue(shape.getBoundingBox().getMinX() <= point.getX() + World.NEARLY_ZERO);
+				assertTrue(shape.getBoundingBox().getMaxX() >= point.getX() - World.NEARLY_ZERO);
+				assertTrue(shape.getBoundingBox().getMinY() <= point.getY() + World.NEARLY_ZERO);
+				assertTrue(shape.getBoundingBox().getMaxY() >= point.getY() - World.NEARLY_ZERO);
+				assertTrue(shape.getBoundingBox().getMinZ() <= point.getZ() + World.NEARLY_ZERO);
+				assertTrue(shape.getBoundingBox().getMaxZ() >= point.getZ() - World.NEARLY_ZERO);
+			}
+		}
+	}
+
+	public void testClosestIntersectionAgreesWithBruteForce() {
+
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(shapes);
+
+		for (int i = 0; i < RAY_COUNT; i++) {
+			Ray ray = randomRay();
+
+			Optional<Intersection<Shape>> expected = bruteForceClosest(ray);
+			Optional<Intersection<Shape>> actual = bvh.getClosestIntersection(ray, Collections.emptyList());
+
+			assertEquals(ray.toString(), expected.isPresent(), actual.isPresent());
+			if (expected.isPresent())
+				assertEquals(ray.toString(), expected.get().getDistanceFromRayOrigin(),
+						actual.get().getDistanceFromRayOrigin(), 1e-6);
+		}
+	}
+
+	public void testOccluderAgreesWithBruteForce() {
+
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(shapes);
+
+		for (int i = 0; i < RAY_COUNT; i++) {
+			Ray ray = randomRay();
+			double maxDistance = 20d * rnd.nextDouble();
+
+			boolean expected = shapes.stream()
+					.anyMatch(s -> BoundingVolumeHierarchy.isOccludedBy(s, ray, maxDistance));
+			Optional<Shape> occluder = bvh.findOccluder(ray, maxDistance, Collections.emptyList());
+
+			assertEquals(ray.toString(), expected, occluder.isPresent());
+			if (occluder.isPresent())
+				assertTrue(BoundingVolumeHierarchy.isOccludedBy(occluder.get(), ray, maxDistance));
+		}
+	}
+
+	public void testRefitFollowsMovedShapes() {
+
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(shapes);
+
+		for (Shape shape : shapes)
+			shape.getTransformers().add(new Translation(3d, 0d, -2d));
+		bvh.refit();
+
+		for (int i = 0; i < RAY_COUNT; i++) {
+			Ray ray = randomRay();
+			assertEquals(ray.toString(), bruteForceClosest(ray).isPresent(),
+					bvh.getClosestIntersection(ray, Collections.emptyList()).isPresent());
+		}
+	}
+
+	public void testPartialRefitFollowsMovedShapes() {
+
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(shapes);
+
+		List<Shape> moved = new ArrayList<>();
+		for (int i = 0; i < shapes.size(); i += 5) {
+			shapes.get(i).getTransformers().add(new Translation(4d, -1d, 3d));
+			moved.add(shapes.get(i));
+		}
+		assertTrue(bvh.refit(moved));
+
+		for (int i = 0; i < RAY_COUNT; i++) {
+			Ray ray = randomRay();
+			assertEquals(ray.toString(), bruteForceClosest(ray).isPresent(),
+					bvh.getClosestIntersection(ray, Collections.emptyList()).isPresent());
+		}
+	}
+
+	private Optional<Intersection<Shape>> bruteForceClosest(Ray ray) {
+
+		Intersection<Shape> closest = null;
+		for (Shape shape : shapes) {
+			Optional<Intersection<Shape>> intersection = shape.getIntersection(ray);
+			if (intersection.isPresent() && (closest == null
+					|| intersection.get().getDistanceFromRayOrigin() < closest.getDistanceFromRayOrigin()))
+				closest = intersection.get();
+		}
+		return Optional.ofNullable(closest);
+	}
+
+	private Ray randomRay() {
+
+		Vector3D origin = new Vector3D(30d * rnd.nextDouble() - 15d, 30d * rnd.nextDouble() - 15d,
+				30d * rnd.nextDouble() - 15d);
+		Vector3D target = new Vector3D(20d * rnd.nextDouble() - 10d, 20d * rnd.nextDouble() - 10d,
+				20d * rnd.nextDouble() - 10d);
+		return new Ray(origin, target.subtract(origin));
+	}
+}
@@ -0,0 +1,80 @@
+package org.snowjak.rays.world;
+
+import java.util.Random;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.transform.Scale;
+import org.snowjak.rays.transform.Translation;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class ShadowCacheTest extends TestCase {
+
+	private World world;
+
+	private ShadowCache cache;
+
+	private Shape light, blocker;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		world = new World();
+		cache = new ShadowCache(world);
+
+		light = new Sphere();
+		light.getTransformers().add(new Translation(0d, 10d, 0d));
+
+		blocker = new Cube();
+		blocker.getTransformers().add(new Scale(2d, 0.25d, 2d));
+		blocker.getTransformers().add(new Translation(0d, 5d, 0d));
+
+		world.addShape(light);
+		world.addShape(blocker);
+		for (int i = 0; i < 5; i++) {
+			Sphere bystander = new Sphere();
+			bystander.getTransformers().add(new Translation(-10d + 4d * i, 0d, 8d));
+			world.addShape(bystander);
+		}
+	}
+
+	public void testRemembersOccluder() {
+
+		Vector3D lightPoint = new Vector3D(0d, 9d, 0d);
+
+		assertFalse(world.isPointVisibleFromLight(cache, light, lightPoint, new Vector3D(0.1d, 0d, 0d), light));
+		assertSame(blocker, cache.getLastOccluder(light));
+
+		assertTrue(world.isPointVisibleFromLight(cache, light, lightPoint, new Vector3D(20d, 0d, 0d), light));
+		assertNull(cache.getLastOccluder(light));
+	}
+
+	public void testAgreesWithUncachedVisibility() {
+
+		Random rnd = new Random(4321L);
+		Vector3D lightPoint = new Vector3D(0d, 9d, 0d);
+
+		for (int i = 0; i < 2000; i++) {
+			Vector3D point = new Vector3D(12d * rnd.nextDouble() - 6d, -rnd.nextDouble(), 12d * rnd.nextDouble() - 6d);
+			assertEquals("Disagreement at " + point, world.isPointVisibleFromEye(lightPoint, point, light),
+					world.isPointVisibleFromLight(cache, light, lightPoint, point, light));
+		}
+	}
+
+	public void testInvalidatedWhenShapesChange() {
+
+		Vector3D lightPoint = new Vector3D(0d, 9d, 0d);
+		Vector3D point = new Vector3D(0.1d, 0d, 0d);
+
+		assertFalse(world.isPointVisibleFromLight(cache, light, lightPoint, point, light));
+
+		world.removeShape(blocker);
+
+		assertNull(cache.getLastOccluder(light));
+		assertTrue(world.isPointVisibleFromLight(cache, light, lightPoint, point, light));
+	}
+}
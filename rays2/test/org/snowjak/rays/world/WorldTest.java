@@ -0,0 +1,93 @@
+package org.snowjak.rays.world;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.snowjak.rays.color.SimpleColorScheme;
+import org.snowjak.rays.shape.Cube;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.shape.Sphere;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class WorldTest extends TestCase {
+
+	public void testEmissiveShapesFollowChanges() {
+
+		World world = new World();
+		Shape light = new Sphere(), plain = new Cube();
+		light.setEmissiveColorScheme(new SimpleColorScheme(1d, 1d, 1d));
+
+		world.addShape(light);
+		world.addShape(plain);
+		assertEquals(1, world.getEmissiveShapes().size());
+		assertEquals(1, world.getLightSelector().size());
+
+		plain.setEmissiveColorScheme(new SimpleColorScheme(1d, 1d, 1d));
+		world.shapeChanged(plain);
+		assertEquals(2, world.getEmissiveShapes().size());
+		assertEquals(2, world.getLightSelector().size());
+
+		world.removeShape(light);
+		assertEquals(1, world.getEmissiveShapes().size());
+		assertSame(plain, world.getEmissiveShapes().get(0));
+		assertEquals(1, world.getLightSelector().size());
+	}
+
+	public void testVersionAndListeners() {
+
+		World world = new World();
+		List<String> events = new LinkedList<>();
+		world.addChangeListener(new WorldChangeListener() {
+
+			@Override
+			public void shapeAdded(World w, Shape shape) {
+
+				events.add("added");
+			}
+
+			@Override
+			public void shapeRemoved(World w, Shape shape) {
+
+				events.add("removed");
+			}
+		});
+
+		long version = world.getVersion();
+		Shape shape = new Sphere();
+		world.addShape(shape);
+		assertTrue(world.getVersion() > version);
+
+		version = world.getVersion();
+		world.removeShape(shape);
+		assertTrue(world.getVersion() > version);
+
+		assertEquals(2, events.size());
+		assertEquals("added", events.get(0));
+		assertEquals("removed", events.get(1));
+	}
+
+	public void testFrozenWorldRejectsChanges() {
+
+		World world = new World();
+		world.addShape(new Sphere());
+		world.freeze();
+
+		try {
+			world.addShape(new Cube());
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		try {
+			world.getShapes().add(new Cube());
+			fail("Expected an UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		assertEquals(1, world.getShapes().size());
+	}
+}
@@ -0,0 +1,129 @@
+package org.snowjak.rays.world.compiled;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.util.Optional;
+
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.color.FunctionalColorScheme;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.light.model.FlatLightingModel;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.world.World;
+import org.snowjak.rays.world.importfile.BuilderInvoker;
+import org.snowjak.rays.world.importfile.WorldFileParser;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class CompiledSceneTest extends TestCase {
+
+	private static final String WORLD_TEXT = "world {\n" + "	shape: sphere {\n"
+			+ "		diffuse: color { r:0.9 g:0.5 b:0.1 }\n" + "		transform: scale { x:2 y:2 z:2 }\n"
+			+ "		transform: translate { x:-1 y:0 z:-2 }\n" + "	}\n" + "	shape: cube {\n"
+			+ "		diffuse: color { r:0.1 g:0.5 b:0.9 }\n" + "		transform: rotate { pitch:30 yaw:45 roll:0 }\n"
+			+ "		transform: translate { x:2 y:1 z:1 }\n" + "	}\n" + "	shape: cylinder {\n"
+			+ "		diffuse: color { r:0.2 g:0.8 b:0.2 }\n" + "		transform: translate { x:-3 y:1 z:3 }\n" + "	}\n"
+			+ "	shape: plane {\n" + "		diffuse: color { r:0.4 g:0.4 b:0.6 }\n"
+			+ "		transform: translate { y:-2 }\n" + "	}\n" + "	shape: sphere {\n"
+			+ "		emissive: color { r:40 g:40 b:40 }\n"
+			+ "		material: material { surface-transparency:0.992 refractive-index:1.8 }\n"
+			+ "		transform: translate { y:4 x:4 z:-4 }\n" + "	}\n" + "	camera: camera {\n"
+			+ "		transform: translate { x:0 y:2.5 z:-10 }\n" + "		transform: rotate { pitch:-15 yaw:0 roll:0 }\n"
+			+ "		frame-width: 4\n" + "		field-of-view: 60\n" + "	}\n"
+			+ "	ambient: color { r:0.05 g:0.05 b:0.05 }\n" + "	directional-light: directional-light {\n"
+			+ "		direction: vector { x:-5 y:-1 z:5 }\n" + "	}\n" + "}";
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+
+		file = File.createTempFile("compiled", CompiledScene.FILE_EXTENSION);
+		file.deleteOnExit();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+
+		file.delete();
+	}
+
+	public void testCompiledSceneRendersIdentically() throws IOException {
+
+		World original = (World) BuilderInvoker.getSingleton()
+				.invokeBuilders(new WorldFileParser(new StringReader(WORLD_TEXT)))
+				.get();
+		CompiledScene.write(original, file.toPath());
+
+		World loaded = CompiledScene.read(file.toPath());
+
+		assertEquals(original.getShapes().size(), loaded.getShapes().size());
+		assertEquals(original.getEmissiveShapes().size(), loaded.getEmissiveShapes().size());
+		assertEquals(original.getDirectionalLights().size(), loaded.getDirectionalLights().size());
+		assertEquals(original.getAmbientRadiance().getRed(), loaded.getAmbientRadiance().getRed(), 0.0);
+		assertEquals(original.getCamera().getEyeLocation(), loaded.getCamera().getEyeLocation());
+		assertEquals(original.getBoundingVolumeHierarchy().getBoundingBox().getMaxX(),
+				loaded.getBoundingVolumeHierarchy().getBoundingBox().getMaxX(), 0.0);
+
+		//
+		// Every shape, color, and transform should come through exactly --
+		// so every pixel should, too.
+		RenderContext originalContext = new RenderContext(original, Settings.presetFast(), new FlatLightingModel(),
+				null);
+		RenderContext loadedContext = new RenderContext(loaded, Settings.presetFast(), new FlatLightingModel(), null);
+
+		int hits = 0;
+		for (double x = -2d; x <= 2d; x += 0.125d)
+			for (double y = -2d; y <= 2d; y += 0.125d) {
+				Optional<RawColor> expected = original.getCamera().shootRay(originalContext, x, y),
+						actual = loaded.getCamera().shootRay(loadedContext, x, y);
+
+				assertEquals(expected.isPresent(), actual.isPresent());
+				if (expected.isPresent()) {
+					hits++;
+					assertEquals(expected.get().getRed(), actual.get().getRed(), 0.0);
+					assertEquals(expected.get().getGreen(), actual.get().getGreen(), 0.0);
+					assertEquals(expected.get().getBlue(), actual.get().getBlue(), 0.0);
+				}
+			}
+
+		assertTrue(hits > 0);
+	}
+
+	public void testUncompilableOrMismatchedScenesAreRefused() throws IOException {
+
+		World world = new World();
+		Sphere sphere = new Sphere();
+		sphere.setDiffuseColorScheme(new FunctionalColorScheme(v -> new RawColor(v.getX(), 0d, 0d)));
+		world.addShape(sphere);
+
+		try {
+			CompiledScene.write(world, file.toPath());
+			fail("Expected an IllegalArgumentException.");
+
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		world = new World();
+		world.addShape(new Sphere());
+		CompiledScene.write(world, file.toPath());
+		assertEquals(1, CompiledScene.read(file.toPath()).getShapes().size());
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(4);
+			raf.writeInt(CompiledScene.FORMAT_VERSION + 1);
+		}
+		try {
+			CompiledScene.read(file.toPath());
+			fail("Expected an IOException.");
+
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("version"));
+		}
+	}
+}
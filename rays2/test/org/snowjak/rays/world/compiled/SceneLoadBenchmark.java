@@ -0,0 +1,99 @@
+package org.snowjak.rays.world.compiled;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Random;
+
+import org.snowjak.rays.RenderContext;
+import org.snowjak.rays.Settings;
+import org.snowjak.rays.light.model.FlatLightingModel;
+import org.snowjak.rays.world.World;
+import org.snowjak.rays.world.importfile.BuilderInvoker;
+import org.snowjak.rays.world.importfile.WorldFileParser;
+
+/**
+ * Simple wall-clock benchmark of the time-to-first-pixel of a generated
+ * world, loaded from its text .world file versus from its
+ * {@link CompiledScene}.
+ * <p>
+ * Not a unit-test -- run it by hand:
+ *
+ * <pre>
+ *   java org.snowjak.rays.world.compiled.SceneLoadBenchmark [sphere-count] [repetitions]
+ * </pre>
+ * </p>
+ *
+ * @author snowjak88
+ *
+ */
+@SuppressWarnings("javadoc")
+public class SceneLoadBenchmark {
+
+	private static final Random RND = new Random(12345);
+
+	public static void main(String[] args) throws IOException {
+
+		int sphereCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		int repetitions = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+
+		File textFile = File.createTempFile("benchmark", ".world");
+		File sceneFile = File.createTempFile("benchmark", CompiledScene.FILE_EXTENSION);
+		textFile.deleteOnExit();
+		sceneFile.deleteOnExit();
+
+		writeWorld(textFile, sphereCount);
+		CompiledScene.write(loadText(textFile), sceneFile.toPath());
+
+		System.out.println(String.format("%d spheres: %,d bytes of text, %,d bytes compiled", sphereCount,
+				textFile.length(), sceneFile.length()));
+
+		for (int i = 0; i < repetitions; i++) {
+			long start = System.nanoTime();
+			firstPixel(loadText(textFile));
+			long textElapsed = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			firstPixel(CompiledScene.read(sceneFile.toPath()));
+			long compiledElapsed = System.nanoTime() - start;
+
+			System.out.println(String.format("run %d: text %8.1f ms, compiled %8.1f ms", i + 1,
+					(double) textElapsed / 1e6, (double) compiledElapsed / 1e6));
+		}
+	}
+
+	private static World loadText(File textFile) throws IOException {
+
+		return (World) BuilderInvoker.getSingleton().invokeBuilders(WorldFileParser.forFile(textFile.toPath())).get();
+	}
+
+	/**
+	 * Freeze the World (building any indexes it still lacks) and trace the
+	 * first pixel's ray.
+	 */
+	private static void firstPixel(World world) {
+
+		RenderContext context = new RenderContext(world, Settings.presetFast(), new FlatLightingModel(), null);
+		world.getCamera().shootRay(context, -2d, 2d);
+	}
+
+	private static void writeWorld(File file, int sphereCount) throws IOException {
+
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("world {\n");
+			for (int i = 0; i < sphereCount; i++)
+				writer.write(String.format(Locale.ROOT,
+						"\tshape: sphere {\n\t\tdiffuse: color { r:%.3f g:%.3f b:%.3f }\n"
+								+ "\t\ttransform: scale { x:0.1 y:0.1 z:0.1 }\n"
+								+ "\t\ttransform: translate { x:%.3f y:%.3f z:%.3f }\n\t}\n",
+						RND.nextDouble(), RND.nextDouble(), RND.nextDouble(), 100d * RND.nextDouble() - 50d,
+						100d * RND.nextDouble() - 50d, 100d * RND.nextDouble()));
+			writer.write("\tcamera: camera {\n\t\ttransform: translate { x:0 y:0 z:-60 }\n"
+					+ "\t\tframe-width: 4\n\t\tfield-of-view: 60\n\t}\n");
+			writer.write("}\n");
+		}
+	}
+}
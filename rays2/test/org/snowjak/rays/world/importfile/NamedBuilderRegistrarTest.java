@@ -0,0 +1,126 @@
+package org.snowjak.rays.world.importfile;
+
+import java.util.Optional;
+
+import org.snowjak.rays.builder.Builder;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.color.RawColorBuilder;
+import org.snowjak.rays.shape.Sphere;
+import org.snowjak.rays.shape.SphereBuilder;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class NamedBuilderRegistrarTest extends TestCase {
+
+	public void testIndexedBuilderAcceptsLiterals() {
+
+		NamedBuilderRegistrar registrar = NamedBuilderRegistrar.getSingleton();
+
+		Optional<Builder<?>> builder = registrar.getBuilderByName("color");
+		assertTrue(builder.isPresent());
+		assertTrue(builder.get() instanceof RawColorBuilder);
+		assertNotSame(builder.get(), registrar.getBuilderByName("color").get());
+
+		Optional<NamedBuilderMethod> red = registrar.getNamedBuilderMethod(RawColorBuilder.class, "r",
+				Optional.empty());
+		assertTrue(red.isPresent());
+		assertTrue(red.get().acceptsLiteral());
+
+		red.get().invokeWithLiteral(builder.get(), "0.25");
+		assertEquals(0.25, ((RawColor) builder.get().build()).getRed(), 0.0);
+
+		assertEquals(Optional.of(RawColor.class), registrar.getBuilderProductClass(RawColorBuilder.class));
+		assertFalse(registrar.getBuilderByName("no-such-builder").isPresent());
+		assertFalse(registrar.getNamedBuilderMethod(RawColorBuilder.class, "no-such-field", Optional.empty())
+				.isPresent());
+	}
+
+	public void testChildObjectMethodMatchesArgumentType() {
+
+		NamedBuilderRegistrar registrar = NamedBuilderRegistrar.getSingleton();
+
+		Optional<NamedBuilderMethod> diffuse = registrar.getNamedBuilderMethod(SphereBuilder.class, "diffuse",
+				Optional.of(RawColor.class));
+		assertTrue(diffuse.isPresent());
+		assertTrue(diffuse.get().getParameterType().isAssignableFrom(RawColor.class));
+
+		SphereBuilder sphere = SphereBuilder.builder();
+		diffuse.get().invoke(sphere, new RawColor(0, 1, 0));
+		assertTrue(sphere.build() instanceof Sphere);
+
+		assertFalse(registrar.getNamedBuilderMethod(SphereBuilder.class, "diffuse", Optional.of(String.class))
+				.isPresent());
+	}
+
+	public void testOverloadsAreRanked() {
+
+		NamedBuilderRegistrar registrar = NamedBuilderRegistrar.getSingleton();
+
+		Optional<NamedBuilderMethod> literal = registrar.getNamedBuilderMethod(OverloadedBuilder.class, "value",
+				Optional.empty());
+		assertTrue(literal.isPresent());
+		assertTrue(literal.get().acceptsLiteral());
+		assertEquals(double.class, literal.get().getParameterType());
+
+		Optional<NamedBuilderMethod> specific = registrar.getNamedBuilderMethod(OverloadedBuilder.class, "value",
+				Optional.of(RawColor.class));
+		assertTrue(specific.isPresent());
+		assertEquals(RawColor.class, specific.get().getParameterType());
+
+		Optional<NamedBuilderMethod> general = registrar.getNamedBuilderMethod(OverloadedBuilder.class, "value",
+				Optional.of(Sphere.class));
+		assertTrue(general.isPresent());
+		assertEquals(Object.class, general.get().getParameterType());
+
+		Optional<NamedBuilderMethod> childOnly = registrar.getNamedBuilderMethod(OverloadedBuilder.class, "child",
+				Optional.empty());
+		assertTrue(childOnly.isPresent());
+		assertFalse(childOnly.get().acceptsLiteral());
+	}
+
+	@HasName("test-overloads")
+	public static class OverloadedBuilder implements Builder<Object> {
+
+		public static OverloadedBuilder builder() {
+
+			return new OverloadedBuilder();
+		}
+
+		@HasName("value")
+		public OverloadedBuilder value(Object value) {
+
+			return this;
+		}
+
+		@HasName("value")
+		public OverloadedBuilder value(RawColor value) {
+
+			return this;
+		}
+
+		@HasName("value")
+		public OverloadedBuilder value(String value) {
+
+			return this;
+		}
+
+		@HasName("value")
+		public OverloadedBuilder value(double value) {
+
+			return this;
+		}
+
+		@HasName("child")
+		public OverloadedBuilder child(RawColor child) {
+
+			return this;
+		}
+
+		@Override
+		public Object build() {
+
+			return new Object();
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package org.snowjak.rays.world.importfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.snowjak.rays.color.ColorScheme;
+import org.snowjak.rays.color.GradientColorScheme;
+import org.snowjak.rays.color.RawColor;
+import org.snowjak.rays.shape.Shape;
+import org.snowjak.rays.world.World;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings("javadoc")
+public class WorldFileParserTest extends TestCase {
+
+	public void testDefinitionTreeFromTrickleReader() throws IOException {
+
+		//
+		// A Reader which never reports itself ready, and gives up only a
+		// single character at a time.
+		Reader trickle = new StringReader("world{shape:sphere{diffuse:color{r:1 g:0.5}}\r\n\tcamera: camera {}}") {
+
+			@Override
+			public int read(char[] cbuf, int off, int len) throws IOException {
+
+				return super.read(cbuf, off, Math.min(len, 1));
+			}
+
+			@Override
+			public boolean ready() {
+
+				return false;
+			}
+		};
+
+		Optional<WorldFileObjectDefinition> world = new WorldFileScanner(trickle).scan();
+		assertTrue(world.isPresent());
+		assertEquals("world", world.get().getObjectName());
+
+		WorldFileObjectDefinition sphere = world.get().getChildObjects("shape").get().iterator().next();
+		assertEquals("sphere", sphere.getObjectName());
+
+		WorldFileObjectDefinition color = sphere.getChildObjects("diffuse").get().iterator().next();
+		assertEquals("1", color.getLiteralValues("r").get().iterator().next());
+		assertEquals("0.5", color.getLiteralValues("g").get().iterator().next());
+
+		assertEquals("camera", world.get().getChildObjects("camera").get().iterator().next().getObjectName());
+	}
+
+	public void testErrorsReportLineAndColumn() throws IOException {
+
+		String text = "world {\n" + "  shape: sphere {\n" + "    radius 2\n" + "  }\n" + "}\n";
+		try {
+			BuilderInvoker.getSingleton().invokeBuilders(new WorldFileParser(new StringReader(text)));
+			fail("Expected a WorldFileParseException.");
+
+		} catch (WorldFileParseException e) {
+			assertEquals(3, e.getLine());
+			assertEquals(12, e.getColumn());
+		}
+
+		try {
+			new WorldFileScanner(new StringReader("world {\n  shape: sphere {\n")).scan();
+			fail("Expected a WorldFileParseException.");
+
+		} catch (WorldFileParseException e) {
+			assertEquals(3, e.getLine());
+			assertEquals(1, e.getColumn());
+		}
+	}
+
+	public void testGradientFromWorldFile() throws IOException {
+
+		String text = "gradient {\n" + "  parameter: ramp { from: vector { x:0 } to: vector { x:2 } }\n"
+				+ "  stop: color-stop { threshold: 1 color: color { r:1 } }\n"
+				+ "  stop: color-stop { threshold: 0 color: color { b:1 } }\n" + "}\n";
+
+		Optional<Object> built = BuilderInvoker.getSingleton()
+				.invokeBuilders(new WorldFileParser(new StringReader(text)));
+		assertTrue(built.isPresent());
+		assertTrue(built.get() instanceof GradientColorScheme);
+
+		ColorScheme gradient = (ColorScheme) built.get();
+		RawColor start = gradient.getColor(new Vector3D(0d, 0d, 0d)),
+				middle = gradient.getColor(new Vector3D(1d, 0d, 0d)),
+				end = gradient.getColor(new Vector3D(2d, 0d, 0d));
+
+		assertEquals(0d, start.getRed(), 1e-9);
+		assertEquals(1d, start.getBlue(), 1e-9);
+		assertEquals(0.5d, middle.getRed(), 1e-9);
+		assertEquals(0.5d, middle.getBlue(), 1e-9);
+		assertEquals(1d, end.getRed(), 1e-9);
+		assertEquals(0d, end.getBlue(), 1e-9);
+	}
+
+	public void testLargeMappedFileBuildsWorld() throws IOException {
+
+		final int sphereCount = 20000;
+
+		File file = File.createTempFile("large", ".world");
+		file.deleteOnExit();
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write("world {\n");
+			for (int i = 0; i < sphereCount; i++)
+				writer.write("\tshape: sphere {\n\t\tdiffuse: color { r:0.5 g:0.5 b:0.5 }\n\t\ttransform: translate { x:"
+						+ (i % 100) + " y:0 z:" + (i / 100) + " }\n\t}\n");
+			writer.write("\tcamera: camera { frame-width: 4 field-of-view: 60 }\n");
+			writer.write("}\n");
+		}
+
+		Optional<Object> world = BuilderInvoker.getSingleton().invokeBuilders(WorldFileParser.forFile(file.toPath()));
+		assertTrue(world.isPresent());
+		assertTrue(world.get() instanceof World);
+
+		Collection<Shape> shapes = ((World) world.get()).getShapes();
+		assertEquals(sphereCount, shapes.size());
+		assertNotNull(((World) world.get()).getCamera());
+	}
+}